@@ -0,0 +1,75 @@
+package com.example.editorgrafov.benchmarks;
+
+import com.example.editorgrafov.io.BinaryGraphReader;
+import com.example.editorgrafov.io.BinaryGraphWriter;
+import com.example.editorgrafov.io.PlainGraphReader;
+import com.example.editorgrafov.io.PlainGraphWriter;
+import com.example.editorgrafov.model.GraphModel;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of reading and writing whole graph - the work done by Editor.readFromFile() and Editor.writeToFile()
+ * for .txt and .egb files. <br>
+ * - files are written once per trial into temporary directory, reads measure parsing into fresh GraphModel
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class GraphIoBenchmark {
+
+    @Param({"10", "1000", "100000", "1000000", "10000000"})
+    public int edges;
+
+    private GraphModel graph;
+    private Path directory;
+    private Path plainFile;
+    private Path binaryFile;
+    private Path outputFile;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        graph = SyntheticGraphs.build(edges);
+        directory = Files.createTempDirectory("editor-grafov-bench");
+        plainFile = directory.resolve("graph.txt");
+        binaryFile = directory.resolve("graph.egb");
+        outputFile = directory.resolve("output");
+        PlainGraphWriter.write(graph, plainFile);
+        BinaryGraphWriter.write(graph, binaryFile);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(plainFile);
+        Files.deleteIfExists(binaryFile);
+        Files.deleteIfExists(outputFile);
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public GraphModel readPlain() throws IOException {
+        return PlainGraphReader.read(plainFile);
+    }
+
+    @Benchmark
+    public GraphModel readBinary() throws IOException {
+        return BinaryGraphReader.read(binaryFile);
+    }
+
+    @Benchmark
+    public void writePlain() throws IOException {
+        PlainGraphWriter.write(graph, outputFile);
+    }
+
+    @Benchmark
+    public void writeBinary() throws IOException {
+        BinaryGraphWriter.write(graph, outputFile);
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.editorgrafov.benchmarks;
+
+import com.example.editorgrafov.model.GraphModel;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of core graph operations behind the editor. <br>
+ * - existsEdge: lookup of edge between two random vertices (Editor.existsEdge(), duplicate check when adding edge) <br>
+ * - edgesContainingVertex: edges of random vertex (Editor.edgesContainingVertex(), deleting vertex) <br>
+ * - removeVertex: deletion of random vertex together with its edges, vertex and edges are added back afterwards,
+ * so the graph stays the same between invocations and the score covers both
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class GraphModelBenchmark {
+
+    @Param({"10", "1000", "100000", "1000000", "10000000"})
+    public int edges;
+
+    private GraphModel graph;
+    private int numOfVertices;
+    private SplittableRandom rnd;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        graph = SyntheticGraphs.build(edges);
+        numOfVertices = SyntheticGraphs.vertexCount(edges);
+        rnd = new SplittableRandom(SyntheticGraphs.SEED);
+    }
+
+    @Benchmark
+    public int existsEdge() {
+        return graph.findEdge(rnd.nextInt(numOfVertices), rnd.nextInt(numOfVertices));
+    }
+
+    @Benchmark
+    public int[] edgesContainingVertex() {
+        return graph.incidentEdges(rnd.nextInt(numOfVertices));
+    }
+
+    @Benchmark
+    public int removeVertex() {
+        int vertex = graph.indexOf("v" + rnd.nextInt(numOfVertices));
+        String label = graph.getLabel(vertex);
+        double x = graph.getX(vertex);
+        double y = graph.getY(vertex);
+        int[] incident = graph.incidentEdges(vertex);
+        int[] from = new int[incident.length];
+        int[] to = new int[incident.length];
+        for (int i = 0; i < incident.length; i++) {
+            from[i] = graph.getFrom(incident[i]);
+            to[i] = graph.getTo(incident[i]);
+        }
+        graph.removeVertex(vertex);
+        int restored = graph.addVertex(label, x, y);
+        for (int i = 0; i < incident.length; i++) {
+            graph.addEdge(from[i] == vertex ? restored : from[i], to[i] == vertex ? restored : to[i]);
+        }
+        return restored;
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.editorgrafov.benchmarks;
+
+import com.example.editorgrafov.model.GraphModel;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of random graph generation the way "Random Graph" button of Editor does it, scaled up. <br>
+ * - vertices get labels "1".."n" and random coordinates, then edge attempts between random pairs of vertices
+ * are looked up by label, loops and duplicates are skipped
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class RandomGraphBenchmark {
+
+    @Param({"10", "1000", "100000", "1000000", "10000000"})
+    public int edges;
+
+    private SplittableRandom rnd;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        rnd = new SplittableRandom(SyntheticGraphs.SEED);
+    }
+
+    @Benchmark
+    public GraphModel generate() {
+        int numOfVertices = SyntheticGraphs.vertexCount(edges);
+        GraphModel graph = new GraphModel(numOfVertices, edges);
+        for (int i = 0; i < numOfVertices; i++) {
+            graph.addVertex(String.valueOf(i + 1), 75 + rnd.nextDouble(949), 75 + rnd.nextDouble(501));
+        }
+        for (int i = 0; i < edges; i++) {
+            int firstRandomIndex = rnd.nextInt(numOfVertices);
+            int secondRandomIndex = rnd.nextInt(numOfVertices);
+            if (firstRandomIndex == secondRandomIndex) continue;
+            int firstVertex = graph.indexOf(String.valueOf(firstRandomIndex + 1));
+            int secondVertex = graph.indexOf(String.valueOf(secondRandomIndex + 1));
+            if (graph.containsEdge(firstVertex, secondVertex)) continue;
+            graph.addEdge(firstVertex, secondVertex);
+        }
+        return graph;
+    }
+}
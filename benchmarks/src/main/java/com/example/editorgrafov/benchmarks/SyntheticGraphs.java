@@ -0,0 +1,53 @@
+package com.example.editorgrafov.benchmarks;
+
+import com.example.editorgrafov.model.GraphModel;
+
+import java.util.SplittableRandom;
+
+/**
+ * Class for building deterministic synthetic graphs used by benchmarks. <br>
+ * - graph with m edges has max(8, m / 4) vertices (average degree 8), labels are "v0", "v1", ... <br>
+ * - vertices are scattered over 1280 x 720 canvas, edges are sampled uniformly without duplicates and loops
+ */
+public final class SyntheticGraphs {
+
+    /**
+     * Seed shared by all benchmarks, so every run measures the same graphs
+     */
+    public static final long SEED = 20220601L;
+
+    private SyntheticGraphs() {
+    }
+
+    /**
+     * Method for getting number of vertices of synthetic graph
+     * @param numOfEdges number of edges
+     * @return number of vertices
+     */
+    public static int vertexCount(int numOfEdges) {
+        return Math.max(8, numOfEdges / 4);
+    }
+
+    /**
+     * Method for building synthetic graph
+     * @param numOfEdges number of edges, at most vertexCount(numOfEdges) * (vertexCount(numOfEdges) - 1) / 2
+     * @return graph with vertexCount(numOfEdges) vertices and numOfEdges edges
+     */
+    public static GraphModel build(int numOfEdges) {
+        SplittableRandom rnd = new SplittableRandom(SEED);
+        int numOfVertices = vertexCount(numOfEdges);
+        GraphModel graph = new GraphModel(numOfVertices, numOfEdges);
+        for (int i = 0; i < numOfVertices; i++) {
+            graph.addVertex("v" + i, rnd.nextDouble(1280), rnd.nextDouble(720));
+        }
+        int added = 0;
+        while (added < numOfEdges) {
+            int from = rnd.nextInt(numOfVertices);
+            int to = rnd.nextInt(numOfVertices);
+            if (from == to || graph.containsEdge(from, to)) continue;
+            graph.addEdge(from, to);
+            added++;
+        }
+        return graph;
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.editorgrafov;
+
+import com.example.editorgrafov.algorithm.GraphAlgorithms.Algorithm;
+import com.example.editorgrafov.tuples.Triplet;
+import javafx.application.Application;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.Scene;
+import javafx.scene.control.Button;
+import javafx.scene.control.ComboBox;
+import javafx.scene.control.Label;
+import javafx.scene.control.TextField;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.VBox;
+import javafx.stage.Stage;
+
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Class representing window for choosing algorithm to be run on graph and its source and target vertex. <br>
+ * - fields of vertices not needed by chosen algorithm are hidden <br>
+ * - algorithm is run by main application class, its result is highlighted on canvas
+ */
+public class AlgorithmDialog extends Application {
+
+    private static final Stage algorithmStage = new Stage();
+
+    private final Predicate<String> vertexExists;
+    private final Consumer<Triplet<Algorithm, String, String>> onRun;
+
+    /**
+     * Method for opening algorithm window in separate window
+     * @param algorithmStage stage
+     * @throws Exception exception
+     */
+    @Override
+    public void start(Stage algorithmStage) throws Exception {
+        algorithmStage.setTitle("Algorithms");
+
+        /* VBox holding all the components in the window */
+        VBox vBoxComponents = new VBox();
+        vBoxComponents.setSpacing(10);
+        vBoxComponents.setPadding(new Insets(10, 10, 10, 10));
+
+        /* Algorithm */
+        Label algorithmLabel = new Label("Choose algorithm:");
+        ComboBox<Algorithm> algorithmSelector = new ComboBox<>();
+        algorithmSelector.getItems().addAll(Algorithm.values());
+
+        /* Vertices of the algorithm */
+        Label sourceLabel = new Label("Value of source vertex:");
+        TextField sourceField = new TextField();
+        Label targetLabel = new Label("Value of target vertex:");
+        TextField targetField = new TextField();
+        Label errorLabel = new Label();
+
+        HBox HBoxForButtons = new HBox();
+        HBoxForButtons.setSpacing(10);
+        HBoxForButtons.setPadding(new Insets(10, 10, 10, 10));
+
+        /* Run button */
+        Button runButton = new Button("Run");
+
+        /* Cancel button */
+        Button cancelButton = new Button("Cancel");
+
+        HBoxForButtons.getChildren().addAll(runButton, cancelButton);
+        HBoxForButtons.setAlignment(Pos.CENTER_RIGHT);
+
+        /*
+         * algorithm selector functionality, shows fields of vertices chosen algorithm needs
+         */
+        algorithmSelector.valueProperty().addListener((observableValue, oldValue, newValue) -> {
+            sourceLabel.setVisible(newValue.needsSource());
+            sourceField.setVisible(newValue.needsSource());
+            targetLabel.setVisible(newValue.needsTarget());
+            targetField.setVisible(newValue.needsTarget());
+            errorLabel.setText("");
+        });
+        algorithmSelector.setValue(Algorithm.BFS);
+
+        /*
+         * run button functionality, sends algorithm and values of vertices to main application class
+         */
+        runButton.setOnAction(actionEvent -> {
+            Algorithm algorithm = algorithmSelector.getValue();
+            String source = sourceField.getText();
+            String target = targetField.getText();
+            if (algorithm.needsSource() && !vertexExists.test(source)) {
+                errorLabel.setText("Source vertex with a value of \"" + source + "\" does not exist.");
+                return;
+            }
+            if (algorithm.needsTarget() && !vertexExists.test(target)) {
+                errorLabel.setText("Target vertex with a value of \"" + target + "\" does not exist.");
+                return;
+            }
+            algorithmStage.close();
+            onRun.accept(new Triplet<>(algorithm, source, target));
+        });
+
+        /*
+         * cancel button functionality, closes window for algorithms
+         */
+        cancelButton.setOnAction(actionEvent -> algorithmStage.close());
+
+        /*
+         * add components into VBox and set their positioning
+         */
+        vBoxComponents.getChildren().addAll(algorithmLabel, algorithmSelector,
+                sourceLabel, sourceField,
+                targetLabel, targetField,
+                errorLabel, HBoxForButtons);
+        vBoxComponents.setAlignment(Pos.CENTER);
+
+        /*
+         * set ids for components for css style applying
+         */
+        algorithmLabel.setId("modeSelected");
+        sourceLabel.setId("modeSelected");
+        targetLabel.setId("modeSelected");
+
+        Scene scene = new Scene(vBoxComponents, 400, 320);
+        scene.getStylesheets().add("styles.css");
+        vBoxComponents.setStyle("-fx-background-color: #DADADA");
+        algorithmStage.setResizable(false);
+        algorithmStage.setScene(scene);
+        algorithmStage.show();
+    }
+
+    /**
+     * Constructor for class AlgorithmDialog
+     * @param vertexExists test whether vertex with given value exists in graph
+     * @param onRun handler called with chosen algorithm, value of source vertex and value of target vertex
+     * @throws Exception exception
+     */
+    public AlgorithmDialog(Predicate<String> vertexExists, Consumer<Triplet<Algorithm, String, String>> onRun) throws Exception {
+        this.vertexExists = vertexExists;
+        this.onRun = onRun;
+        start(algorithmStage);
+    }
+}
@@ -1,121 +1,183 @@
-package com.example.editorgrafov;
-
-import javafx.scene.paint.Color;
-import javafx.scene.shape.Line;
-
-import java.util.Objects;
-
-
-/**
- * Class representing edge in a graph
- */
-public class Edge extends Line {
-
-    private final Vertex from;
-    private final Vertex to;
-    private final Line line;
-
-    /**
-     * Variable holding color of edge
-     */
-    protected static Color color = Color.BLACK;
-
-    /**
-     * Variable holding width of edge
-     */
-    protected static int width = 1;
-
-    /**
-     * Constructor of Edge object
-     * @param from vertex from which edge is created
-     * @param to vertex to which edge is created
-     */
-    public Edge(Vertex from, Vertex to) {
-        this.from = from;
-        this.to = to;
-        this.line = new Line();
-        line.setStroke(color);
-        line.setFill(null);
-        line.setStrokeWidth(width);
-        line.startXProperty().bind(from.layoutXProperty().add(from.translateXProperty()).add(from.widthProperty().divide(2)));
-        line.startYProperty().bind(from.layoutYProperty().add(from.translateYProperty()).add(from.heightProperty().divide(2)));
-        line.endXProperty().bind(to.layoutXProperty().add(to.translateXProperty()).add(to.widthProperty().divide(2)));
-        line.endYProperty().bind(to.layoutYProperty().add(to.translateYProperty()).add(to.heightProperty().divide(2)));
-    }
-
-    /**
-     * Method for setting color of edge
-     * @param color color of edge
-     */
-    public static void setColor(Color color) {
-        Edge.color = color;
-    }
-
-    /**
-     * Method for getting color of edge
-     * @return color of edge
-     */
-    public Color getColor() {
-        return color;
-    }
-
-    /**
-     * Method for setting width of edge
-     * @param width width of edge
-     */
-    public static void setWidth(int width) {
-        Edge.width = width;
-    }
-
-    /**
-     * Method for getting width of edge
-     * @return width of edge
-     */
-    public int getWidth() {
-        return width;
-    }
-
-    /**
-     * Method for getting "from" vertex
-     * @return vertex
-     */
-    public Vertex getFrom() {
-        return from;
-    }
-
-    /**
-     * Method for getting "to" vertex
-     * @return vertex
-     */
-    public Vertex getTo() {
-        return to;
-    }
-
-    /**
-     * Method for getting Line object, internally representing edge
-     * @return line object
-     */
-    public Line getEdge() { return line; }
-
-    /**
-     * Standard equals method for comparing edges
-     * @param otherEdge edge to compare to
-     * @return boolean value: true if edges are equal, false otherwise
-     */
-    @Override
-    public boolean equals(Object otherEdge) {
-        if (this == otherEdge) return true;
-        if (otherEdge == null || getClass() != otherEdge.getClass()) return false;
-        Edge edge = (Edge) otherEdge;
-        return Objects.equals(from, edge.from) && Objects.equals(to, edge.to);
-    }
-
-    /**
-     * Standard method for hashing edge object
-     * @return hash value
-     */
-    @Override
-    public int hashCode() {
-        return Objects.hash(from, to);
-    }
-}
+package com.example.editorgrafov;
+
+import com.example.editorgrafov.style.EdgeStyle;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.Line;
+
+import java.util.Objects;
+
+
+/**
+ * Class representing edge in a graph. <br>
+ * - every edge is drawn by its own EdgeStyle, equal styles are shared between edges,
+ * static variables hold style given to newly created edges (see currentStyle()) <br>
+ * - endpoints are not bound to vertices, they are set by updateEndpoints() whenever vertex moves
+ * (only edges incident to moved vertex are updated)
+ */
+public class Edge extends Line {
+
+    private final int id;
+    private final Vertex from;
+    private final Vertex to;
+    private final Line line;
+    private final EdgeStyle style;
+
+    /**
+     * Variable holding color of newly created edge
+     */
+    protected static Color color = EdgeStyle.DEFAULT.getColor();
+
+    /**
+     * Variable holding width of newly created edge
+     */
+    protected static int width = EdgeStyle.DEFAULT.getWidth();
+
+    /**
+     * Constructor of Edge object - view of edge with given id in GraphModel
+     * @param id id of edge in GraphModel
+     * @param from vertex from which edge is created
+     * @param to vertex to which edge is created
+     * @param style style edge is drawn by
+     */
+    public Edge(int id, Vertex from, Vertex to, EdgeStyle style) {
+        this.id = id;
+        this.from = from;
+        this.to = to;
+        this.style = style;
+        this.line = new Line();
+        line.setStroke(style.getColor());
+        line.setFill(null);
+        line.setStrokeWidth(style.getWidth());
+        updateEndpoints();
+    }
+
+    /**
+     * Constructor of Edge object drawn by style of newly created edges
+     * @param id id of edge in GraphModel
+     * @param from vertex from which edge is created
+     * @param to vertex to which edge is created
+     */
+    public Edge(int id, Vertex from, Vertex to) {
+        this(id, from, to, currentStyle());
+    }
+
+    /**
+     * Method for moving endpoints of edge to current centers of its vertices
+     */
+    public void updateEndpoints() {
+        line.setStartX(from.getDrawnCenterX());
+        line.setStartY(from.getDrawnCenterY());
+        line.setEndX(to.getDrawnCenterX());
+        line.setEndY(to.getDrawnCenterY());
+    }
+
+    /**
+     * Method for highlighting edge (e.g. as part of result of algorithm) by stroking it by color and wider
+     * @param color color of highlight, null to stroke edge by its style again
+     * @param extraWidth width added to width of style while highlighted
+     */
+    public void setHighlight(Color color, int extraWidth) {
+        line.setStroke(color == null ? style.getColor() : color);
+        line.setStrokeWidth(color == null ? style.getWidth() : style.getWidth() + extraWidth);
+    }
+
+    /**
+     * Method for getting style given to newly created edges, made of static variables of Edge
+     * @return style (not interned)
+     */
+    public static EdgeStyle currentStyle() {
+        return new EdgeStyle(color, width);
+    }
+
+    /**
+     * Method for getting style edge is drawn by
+     * @return style of edge
+     */
+    public EdgeStyle getEdgeStyle() {
+        return style;
+    }
+
+    /**
+     * Method for setting color of newly created edges
+     * @param color color of edge
+     */
+    public static void setColor(Color color) {
+        Edge.color = color;
+    }
+
+    /**
+     * Method for getting color of edge
+     * @return color of edge
+     */
+    public Color getColor() {
+        return style.getColor();
+    }
+
+    /**
+     * Method for setting width of newly created edges
+     * @param width width of edge
+     */
+    public static void setWidth(int width) {
+        Edge.width = width;
+    }
+
+    /**
+     * Method for getting width of edge
+     * @return width of edge
+     */
+    public int getWidth() {
+        return style.getWidth();
+    }
+
+    /**
+     * Method for getting id of edge in GraphModel
+     * @return id of edge
+     */
+    public int getModelId() {
+        return id;
+    }
+
+    /**
+     * Method for getting "from" vertex
+     * @return vertex
+     */
+    public Vertex getFrom() {
+        return from;
+    }
+
+    /**
+     * Method for getting "to" vertex
+     * @return vertex
+     */
+    public Vertex getTo() {
+        return to;
+    }
+
+    /**
+     * Method for getting Line object, internally representing edge
+     * @return line object
+     */
+    public Line getEdge() { return line; }
+
+    /**
+     * Standard equals method for comparing edges
+     * @param otherEdge edge to compare to
+     * @return boolean value: true if edges are equal, false otherwise
+     */
+    @Override
+    public boolean equals(Object otherEdge) {
+        if (this == otherEdge) return true;
+        if (otherEdge == null || getClass() != otherEdge.getClass()) return false;
+        Edge edge = (Edge) otherEdge;
+        return Objects.equals(from, edge.from) && Objects.equals(to, edge.to);
+    }
+
+    /**
+     * Standard method for hashing edge object
+     * @return hash value
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(from, to);
+    }
+}
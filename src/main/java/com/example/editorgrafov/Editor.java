@@ -1,18 +1,44 @@
 package com.example.editorgrafov;
 
+import com.example.editorgrafov.algorithm.AlgorithmResult;
+import com.example.editorgrafov.algorithm.ComponentTracker;
+import com.example.editorgrafov.algorithm.CsrGraph;
+import com.example.editorgrafov.algorithm.GraphAlgorithms;
+import com.example.editorgrafov.algorithm.GraphAlgorithms.Algorithm;
+import com.example.editorgrafov.algorithm.Highlight;
 import com.example.editorgrafov.enums.Action;
+import com.example.editorgrafov.enums.Detail;
 import com.example.editorgrafov.enums.Mode;
+import com.example.editorgrafov.generator.RandomGraphGenerator;
+import com.example.editorgrafov.history.EditCommand;
+import com.example.editorgrafov.history.ElementsCommand;
+import com.example.editorgrafov.history.GraphChangeListener;
+import com.example.editorgrafov.history.MoveCommand;
+import com.example.editorgrafov.history.UndoHistory;
+import com.example.editorgrafov.io.BinaryGraphFormat;
+import com.example.editorgrafov.io.EditJournal;
+import com.example.editorgrafov.io.GraphFormat;
+import com.example.editorgrafov.io.ProgressMonitor;
+import com.example.editorgrafov.io.TiledGraph;
+import com.example.editorgrafov.layout.ForceLayout;
+import com.example.editorgrafov.model.GraphModel;
+import com.example.editorgrafov.model.IntList;
+import com.example.editorgrafov.style.EdgeStyle;
+import com.example.editorgrafov.style.StyleTable;
+import com.example.editorgrafov.style.VertexStyle;
 import com.example.editorgrafov.tuples.Pair;
 import com.example.editorgrafov.tuples.Triplet;
 import javafx.application.Application;
 import javafx.application.Platform;
 import javafx.collections.ListChangeListener;
-import javafx.geometry.Bounds;
+import javafx.concurrent.WorkerStateEvent;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Cursor;
+import javafx.scene.Group;
 import javafx.scene.Node;
 import javafx.scene.Scene;
+import javafx.scene.canvas.Canvas;
 import javafx.scene.control.*;
 import javafx.scene.image.Image;
 import javafx.scene.input.KeyCode;
@@ -21,15 +47,20 @@ import javafx.scene.input.KeyCombination;
 import javafx.scene.layout.*;
 import javafx.scene.paint.Color;
 import javafx.scene.shape.Line;
+import javafx.scene.shape.Rectangle;
 import javafx.scene.text.Text;
+import javafx.scene.transform.Affine;
 import javafx.stage.FileChooser;
 import javafx.stage.Stage;
 import javafx.stage.StageStyle;
 import javafx.stage.WindowEvent;
 
 import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.*;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 
 /**
  * Main class of the project representing whole application
@@ -38,6 +69,24 @@ public class Editor extends Application {
 
     private Stage stage;
     private Pane canvas;
+    private Group edgeLayer;
+    private Group vertexLayer;
+    /* view of canvas - graph point [x, y] is shown at [x * viewScale + viewX, y * viewScale + viewY],
+     * layers are moved by single transform of their group, renderer draws through the same one */
+    private final Affine viewTransform = new Affine();
+    private double viewScale = 1;
+    private double viewX;
+    private double viewY;
+    private Detail viewDetail = Detail.FULL;
+    /* last position of cursor while view is panned, NaN otherwise */
+    private double panX = Double.NaN;
+    private double panY = Double.NaN;
+    private GraphCanvasRenderer renderer;
+    private boolean immediateMode;
+    private int hoveredVertex = -1;
+    private int draggedVertex = -1;
+    private double dragOffsetX;
+    private double dragOffsetY;
     private File file;
     private boolean changedStatus;
     private MenuBar menuBar;
@@ -45,10 +94,84 @@ public class Editor extends Application {
     private List<Triplet<String, Button, Mode>> listOfButtons;
     private List<Pair<RadioMenuItem, Mode>> listOfModes;
     private List<String> activeModes;
-    private Map<String, Vertex> vertices;
-    private List<Edge> edges;
+    private GraphModel graph;
+    private List<Vertex> vertexViews;
+    private List<Edge> edgeViews;
     private Label lastAction;
-    private List<Node> nodesAddedToCanvas;
+    private final IntList collisionMoves = new IntList();
+    /* views are hit-tested by their drawn circle and in order they were added to vertex layer */
+    private final IntList hitVertices = new IntList();
+    private long vertexViewOrder;
+    private double maxVertexViewRadius;
+    private final EditJournal journal = new EditJournal();
+    private final UndoHistory history = new UndoHistory();
+    private final MoveCommand.Recorder moveRecorder = new MoveCommand.Recorder();
+    private AlgorithmResult highlight;
+    /* connected components kept up to date by edits, null while live components are off */
+    private ComponentTracker components;
+    private CheckMenuItem menuItemLiveComponents;
+    /* pushed vertices are remembered for views and undo */
+    private final GraphModel.MoveListener collisionListener = (id, oldX, oldY) -> {
+        collisionMoves.add(id);
+        moveRecorder.record(id, oldX, oldY);
+    };
+    /* elements changed by undo or redo, their views are updated at once afterwards */
+    private final IntList historyAddedVertices = new IntList();
+    private final IntList historyAddedEdges = new IntList();
+    private final IntList historyRemovedVertices = new IntList();
+    private final IntList historyRemovedEdges = new IntList();
+    private final IntList historyMovedVertices = new IntList();
+    private final GraphChangeListener historyListener = new GraphChangeListener() {
+        @Override
+        public void vertexAdded(int id) {
+            historyAddedVertices.add(id);
+            journalAddedVertex(id);
+            if (components != null) components.vertexAdded(id);
+        }
+
+        @Override
+        public void vertexRemoved(int id, String label) {
+            historyRemovedVertices.add(id);
+            journal.removeVertex(label);
+            //edges of vertex are removed by command before, so it is isolated already
+            if (components != null) components.vertexRemoved(id, new int[0]);
+        }
+
+        @Override
+        public void edgeAdded(int id) {
+            historyAddedEdges.add(id);
+            journalAddedEdge(id);
+            if (components != null) components.edgeAdded(graph.getFrom(id), graph.getTo(id));
+        }
+
+        @Override
+        public void edgeRemoved(int id, String from, String to) {
+            historyRemovedEdges.add(id);
+            journal.removeEdge(from, to);
+            if (components != null) components.edgeRemoved(graph.indexOf(from), graph.indexOf(to));
+        }
+
+        @Override
+        public void vertexMoved(int id) {
+            historyMovedVertices.add(id);
+            journal.moveVertex(id);
+        }
+    };
+    private final StyleTable<VertexStyle> vertexStyles = new StyleTable<>();
+    private final StyleTable<EdgeStyle> edgeStyles = new StyleTable<>();
+    private VBox functionsBox;
+    private List<MenuItem> lockedMenuItems;
+    /* menu items that stay enabled while graph is browsed read-only */
+    private List<MenuItem> browsingMenuItems;
+    /* graph browsed out of core, null if graph model is edited */
+    private TiledGraph tiledGraph;
+    private HBox ioProgress;
+    private Label ioTitle;
+    private ProgressBar ioProgressBar;
+    private GraphIoTask<?> ioTask;
+    private boolean ioTaskIsSave;
+    private boolean ioTaskSucceeded;
+    private boolean waitingForIoTask;
 
     private static final int defaultWindowHeight = 720;
     private static final int defaultWindowWidth = 1280;
@@ -56,6 +179,24 @@ public class Editor extends Application {
 
     private static final int canvasHeight = defaultWindowHeight;
 
+    private static final double minViewScale = 1e-4;
+    private static final double maxViewScale = 20;
+    /* zoom factor of one step (menu item, or one notch of mouse wheel) */
+    private static final double zoomStep = 1.25;
+    private static final double scrollDeltaPerStep = 40;
+
+    /**
+     * Graphs with more elements (vertices + edges) than this are drawn by GraphCanvasRenderer instead of nodes,
+     * can be set by system property "editor.immediateModeThreshold"
+     */
+    private static final int immediateModeThreshold = Integer.getInteger("editor.immediateModeThreshold", 5000);
+
+    /**
+     * Files bigger than this (in bytes) are browsed read-only from tiled store instead of being opened,
+     * can be set by system property "editor.tiledFileSize"
+     */
+    private static final long tiledFileSize = Long.getLong("editor.tiledFileSize", 1L << 30);
+
     private boolean insertModeSwitch = false;
     private boolean deleteModeSwitch = false;
     private boolean addEdgesModeSwitch = false;
@@ -99,6 +240,12 @@ public class Editor extends Application {
      * @return boolean value, whether alert was handled correctly or if it was needed at all
      */
     public boolean saveBeforeClosing() {
+        /* running open is abandoned, running save has to finish first */
+        if (ioTask != null) {
+            boolean save = ioTaskIsSave;
+            if (!save) ioTask.cancel();
+            if (!awaitIoTask() && save) return false;
+        }
         if (changedStatus) {
             Alert alert = new Alert(Alert.AlertType.CONFIRMATION);
             alert.setTitle("Graph Editor");
@@ -121,7 +268,7 @@ public class Editor extends Application {
             Optional<ButtonType> resultAction = alert.showAndWait();
             if (resultAction.isPresent()) {
                 if (resultAction.get() == save) {
-                    return saveAction();
+                    return saveAction() && awaitIoTask();
                 }
                 return resultAction.get() == dontSave;
             }
@@ -139,7 +286,8 @@ public class Editor extends Application {
         fileChooser.setInitialDirectory(new File(System.getProperty("user.dir")));
         //possible to add more extensions
         fileChooser.getExtensionFilters().addAll(
-                new FileChooser.ExtensionFilter("Text Documents (*.txt)", "*.txt"));
+                new FileChooser.ExtensionFilter("Text Documents (*.txt)", "*.txt"),
+                new FileChooser.ExtensionFilter("Binary Graphs (*." + BinaryGraphFormat.EXTENSION + ")", "*." + BinaryGraphFormat.EXTENSION));
         return fileChooser;
     }
 
@@ -183,6 +331,8 @@ public class Editor extends Application {
             updateStatus(null, true);
             clearTextFields();
             clearNodes();
+            journal.invalidate();
+            history.clear();
             lastAction.setText("Last action: None");
             turnOnModesOnStartup();
         }
@@ -199,25 +349,79 @@ public class Editor extends Application {
             if (fileToOpen == null) {
                 return false;
             }
+            else if (fileToOpen.length() > tiledFileSize) {
+                browseInBackground(fileToOpen);
+                return true;
+            }
             else {
-                try {
-                    //read and display graph
+                //read in background into own style tables, display graph once it is read
+                StyleTable<VertexStyle> fileVertexStyles = defaultStyles(VertexStyle.DEFAULT);
+                StyleTable<EdgeStyle> fileEdgeStyles = defaultStyles(EdgeStyle.DEFAULT);
+                GraphIoTask<Pair<GraphModel, GraphFormat>> task = new GraphIoTask<>("Opening " + fileToOpen.getName(),
+                        monitor -> readGraph(fileToOpen, fileVertexStyles, fileEdgeStyles, monitor));
+                runIoTask(task, false, Action.OPEN, loaded -> {
                     updateStatus(fileToOpen, false);
                     clearTextFields();
                     clearNodes();
                     lastAction.setText("Last action: None");
-                    readFromFile(fileToOpen);
+                    graph = loaded.getFirst();
+                    //graph matches file and its journal, only edits made from now on are recorded
+                    journal.reset();
+                    history.clear();
+                    adoptStyles(loaded.getSecond(), fileVertexStyles, fileEdgeStyles);
+                    showGraph();
                     turnOnModesOnStartup();
-                }
-                catch (Exception e) {
-                    errorAction(Action.OPEN);
-                }
+                });
                 return true;
             }
         }
         else return false;
     }
 
+    /**
+     * Method for handling process after clicking "Browse" option in File tab in menu. <br>
+     * - if current session has not been saved yet, saveBeforeClosing() method gets called
+     * @return boolean whether Browse action was handled correctly (false = either some error occurred or file to Browse does not exist)
+     */
+    public boolean browseAction() {
+        if (saveBeforeClosing()) {
+            File fileToBrowse = chooseFileToOpen();
+            if (fileToBrowse == null) return false;
+            browseInBackground(fileToBrowse);
+            return true;
+        }
+        else return false;
+    }
+
+    /**
+     * Method for browsing graph file read-only out of core, only tiles of visible area are loaded (see TiledGraph). <br>
+     * - tiled store is built in background on first browse of the file (or after the file or its journal changed),
+     * later it is only opened - edits saved into journal of the file are shown as well <br>
+     * - graph can be panned and zoomed, functions and menu items that change graph stay disabled until other file is opened
+     * @param fileToBrowse graph file
+     */
+    private void browseInBackground(File fileToBrowse) {
+        GraphIoTask<TiledGraph> task = new GraphIoTask<>("Opening tiles of " + fileToBrowse.getName(),
+                monitor -> TiledGraph.open(fileToBrowse.toPath(), monitor));
+        runIoTask(task, false, Action.OPEN, tiled -> {
+            clearTextFields();
+            clearNodes();
+            updateStatus(fileToBrowse, false);
+            journal.invalidate();
+            history.clear();
+            tiledGraph = tiled;
+            //tiles are loaded on their own thread, canvas gets redrawn once per pulse however many of them arrive
+            tiledGraph.setOnLoaded(() -> Platform.runLater(renderer::requestRedraw));
+            renderer.setTiledGraph(tiledGraph, vertexStyles.intern(Vertex.currentStyle()), edgeStyles.intern(Edge.currentStyle()));
+            immediateMode = true;
+            renderer.setActive(true);
+            setEditingDisabled(false);
+            fitView();
+            lastAction.setText("Last action: Browsing " + tiledGraph.vertexCount() + " vertices and " + tiledGraph.edgeCount()
+                    + " edges in " + tiledGraph.tileCount() + " tiles (read only).");
+        });
+    }
+
     /**
      * Method for handling process after clicking "Save" option in File tab in menu. <br>
      * - if file has not been saved yet, saveAsAction() gets called instead <br>
@@ -229,14 +433,7 @@ public class Editor extends Application {
             return saveAsAction();
         }
         else {
-            try {
-                updateStatus(file, false);
-                writeToFile(file);
-                clearTextFields();
-            }
-            catch (Exception e) {
-                errorAction(Action.SAVE);
-            }
+            saveInBackground(file);
             return true;
         }
 
@@ -253,16 +450,423 @@ public class Editor extends Application {
         if (fileToSave == null)
             return false;
         else {
-            try {
-                updateStatus(fileToSave, false);
-                writeToFile(fileToSave);
-                clearTextFields();
+            saveInBackground(fileToSave);
+            return true;
+        }
+    }
+
+    /**
+     * Method for saving current session into file in background. <br>
+     * - edits made since file was opened or saved are appended to journal next to file (EditJournal), if it is possible <br>
+     * - otherwise (or once journal grows too big) graph is written whole and journal is deleted (compacted) <br>
+     * - graph is written into temporary file next to target first, so failed or cancelled save keeps previous content of file
+     * @param target file in which graph will be saved
+     */
+    private void saveInBackground(File target) {
+        boolean append;
+        try {
+            append = target.equals(file) && journal.canAppendTo(target.toPath());
+        }
+        catch (IOException e) {
+            append = false;
+        }
+        GraphIoTask<Void> task;
+        if (append) {
+            byte[] records = journal.drain(graph);
+            //journal could be left with torn record by failed append, next save has to write whole graph then
+            journal.invalidate();
+            task = new GraphIoTask<>("Saving " + target.getName(), monitor -> {
+                EditJournal.append(target.toPath(), records);
+                return null;
+            });
+        }
+        else {
+            GraphFormat format = saveFormat(target);
+            task = new GraphIoTask<>("Saving " + target.getName(), monitor -> {
+                File partial = new File(target.getPath() + ".part");
+                try {
+                    writeToFile(partial, format, monitor);
+                }
+                catch (IOException | RuntimeException e) {
+                    partial.delete();
+                    throw e;
+                }
+                Files.move(partial.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                //journal is deleted only after new file is in place, journal of old file is ignored anyway
+                EditJournal.delete(target.toPath());
+                return null;
+            });
+        }
+        runIoTask(task, true, Action.SAVE, result -> {
+            journal.reset();
+            updateStatus(target, false);
+            clearTextFields();
+        });
+    }
+
+    /**
+     * Method for generating random graph chosen in Random Graph window, current graph is replaced by it. <br>
+     * - graph is generated in background like reading of file, so it can be cancelled <br>
+     * - vertices are placed randomly into visible part of canvas
+     * @param generator generator of graph with model, parameters and seed chosen by user
+     */
+    public void generateAction(RandomGraphGenerator generator) {
+        generator.setBounds(toGraphX(75), toGraphY(75),
+                toGraphX(Math.max((double) 4/5 * canvas.getWidth(), 75)), toGraphY(Math.max((double) 4/5 * canvas.getHeight(), 75)));
+        GraphIoTask<GraphModel> task = new GraphIoTask<>("Generating " + generator.getModel() + " graph", generator::generate);
+        runIoTask(task, false, Action.GENERATE, generatedGraph -> {
+            clearNodes();
+            graph = generatedGraph;
+            journal.invalidate();
+            history.clear();
+            applyCurrentStyles();
+            showGraph();
+            StringBuilder sb = new StringBuilder();
+            sb.append("Last action: Generated a random graph ")
+                    .append(generator)
+                    .append(" with ")
+                    .append(graph.vertexCount())
+                    .append(" vertices and ")
+                    .append(graph.edgeCount())
+                    .append(" edge(s).");
+            lastAction.setText(sb.toString());
+        });
+    }
+
+    /**
+     * Method for handling process after clicking "Force-directed layout" option in Layout tab in menu. <br>
+     * - layout runs in background like reading or writing of file, editing is disabled meanwhile and it can be cancelled <br>
+     * - intermediate positions are shown at most once per pulse, cancelled layout keeps the last shown positions
+     */
+    public void layoutAction() {
+        if (graph.vertexCount() == 0) {
+            lastAction.setText("Last action: Could not lay out an empty graph.");
+            return;
+        }
+        ForceLayout layout = new ForceLayout(graph);
+        double radius = renderer.maxRadius();
+        //graph is laid out in visible part of canvas
+        double minX = toGraphX(0) + radius;
+        double minY = toGraphY(0) + radius;
+        layout.setBounds(minX, minY, Math.max(toGraphX(canvas.getWidth()) - radius, minX), Math.max(toGraphY(canvas.getHeight()) - radius, minY));
+        int[] ids = layout.vertexIds();
+        AtomicReference<double[][]> latest = new AtomicReference<>();
+        GraphIoTask<double[][]> task = new GraphIoTask<>("Laying out graph", monitor -> layout.run(monitor, (xs, ys) -> {
+            //coalesce updates - new runLater is posted only after the previous one got applied
+            if (latest.getAndSet(new double[][] {xs, ys}) == null) {
+                Platform.runLater(() -> {
+                    double[][] positions = latest.getAndSet(null);
+                    //monitor is the task itself, positions of cancelled layout are not applied anymore
+                    if (ioTask == monitor) applyLayout(ids, positions[0], positions[1]);
+                });
             }
-            catch (Exception e) {
-                errorAction(Action.SAVE);
+        }));
+        //cancelled or failed layout keeps the last shown positions, it can be undone as well
+        task.addEventHandler(WorkerStateEvent.WORKER_STATE_CANCELLED, workerStateEvent -> history.push(moveRecorder.build(graph, "layout")));
+        task.addEventHandler(WorkerStateEvent.WORKER_STATE_FAILED, workerStateEvent -> history.push(moveRecorder.build(graph, "layout")));
+        runIoTask(task, false, Action.LAYOUT, positions -> {
+            applyLayout(ids, positions[0], positions[1]);
+            history.push(moveRecorder.build(graph, "layout"));
+            lastAction.setText("Last action: Laid out graph with " + ids.length + " vertices.");
+        });
+    }
+
+    /**
+     * Method for moving vertices to positions computed by layout.
+     * @param ids ids of vertices in graph model
+     * @param xs x coordinates of centers, in order of ids
+     * @param ys y coordinates of centers, in order of ids
+     */
+    private void applyLayout(int[] ids, double[] xs, double[] ys) {
+        for (int i = 0; i < ids.length; i++) {
+            moveRecorder.record(ids[i], graph.getX(ids[i]), graph.getY(ids[i]));
+            graph.setPosition(ids[i], xs[i], ys[i]);
+            journal.moveVertex(ids[i]);
+            if (!immediateMode) moveVertexView(ids[i]);
+        }
+        if (immediateMode) renderer.requestRedraw();
+        handleCanvasChange();
+    }
+
+    /**
+     * Method for handling process after clicking "Undo" option in Edit tab in menu. <br>
+     * - the most recent edit (insertion, removal, drag, layout, clearing of canvas) is reverted as a whole
+     */
+    public void undoAction() {
+        if (draggedVertex != -1) return;
+        EditCommand command = history.undo(graph, historyListener);
+        if (command == null) {
+            lastAction.setText("Last action: There is nothing to undo.");
+            return;
+        }
+        showHistoryChanges();
+        lastAction.setText("Last action: Undid " + command.getDescription() + ".");
+        showComponentChanges(-1);
+    }
+
+    /**
+     * Method for handling process after clicking "Redo" option in Edit tab in menu. <br>
+     * - the most recently undone edit is made again
+     */
+    public void redoAction() {
+        if (draggedVertex != -1) return;
+        EditCommand command = history.redo(graph, historyListener);
+        if (command == null) {
+            lastAction.setText("Last action: There is nothing to redo.");
+            return;
+        }
+        showHistoryChanges();
+        lastAction.setText("Last action: Redid " + command.getDescription() + ".");
+        showComponentChanges(-1);
+    }
+
+    /**
+     * Method for running algorithm chosen in Algorithms window, its result is highlighted on canvas. <br>
+     * - algorithm runs in background on CSR snapshot of graph model like reading of file, so it can be cancelled
+     * @param choice algorithm, value of source vertex and value of target vertex
+     */
+    public void algorithmAction(Triplet<Algorithm, String, String> choice) {
+        Algorithm algorithm = choice.getFirst();
+        if (graph.vertexCount() == 0) {
+            lastAction.setText("Last action: Could not run an algorithm on an empty graph.");
+            return;
+        }
+        int sourceId = graph.indexOf(choice.getSecond());
+        int targetId = graph.indexOf(choice.getThird());
+        if ((algorithm.needsSource() && sourceId == -1) || (algorithm.needsTarget() && targetId == -1)) {
+            lastAction.setText("Last action: Could not run an algorithm, because its vertex does not exist.");
+            return;
+        }
+        GraphIoTask<AlgorithmResult> task = new GraphIoTask<>("Running " + algorithm, monitor -> {
+            CsrGraph csr = CsrGraph.of(graph, monitor);
+            return GraphAlgorithms.run(algorithm, csr, csr.indexOf(sourceId), csr.indexOf(targetId), monitor);
+        });
+        runIoTask(task, false, Action.ALGORITHM, result -> {
+            stopLiveComponents();
+            highlight = result;
+            showHighlight(result);
+            lastAction.setText("Last action: " + result.getSummary() + ".");
+        });
+    }
+
+    /**
+     * Method for handling process after clicking "Live connected components" option in Algorithms tab in menu. <br>
+     * - components are labelled in background by parallel union-find, every component gets its own color <br>
+     * - afterwards components are updated by every edit, only removal splitting component searches the graph
+     * @param on true to turn live components on, false to turn them off
+     */
+    public void liveComponentsAction(boolean on) {
+        if (!on) {
+            stopLiveComponents();
+            showHighlight(null);
+            lastAction.setText("Last action: Turned off live connected components.");
+            return;
+        }
+        GraphIoTask<ComponentTracker> task = new GraphIoTask<>("Labelling connected components", monitor -> ComponentTracker.compute(graph, monitor));
+        task.addEventHandler(WorkerStateEvent.WORKER_STATE_CANCELLED, workerStateEvent -> menuItemLiveComponents.setSelected(false));
+        task.addEventHandler(WorkerStateEvent.WORKER_STATE_FAILED, workerStateEvent -> menuItemLiveComponents.setSelected(false));
+        runIoTask(task, false, Action.ALGORITHM, tracker -> {
+            highlight = null;
+            components = tracker;
+            showHighlight(tracker);
+            StringBuilder sb = new StringBuilder();
+            sb.append("Last action: Found ")
+                    .append(tracker.getComponentCount())
+                    .append(" connected component(s)");
+            int[] largest = tracker.largestSizes(5);
+            if (largest.length > 0) {
+                sb.append(", sizes of the largest: ");
+                for (int i = 0; i < largest.length; i++) {
+                    if (i > 0) sb.append(", ");
+                    sb.append(largest[i]);
+                }
+            }
+            lastAction.setText(sb.append(".").toString());
+        });
+    }
+
+    /**
+     * Method for turning off live connected components, e.g. when graph gets replaced.
+     */
+    private void stopLiveComponents() {
+        components = null;
+        if (menuItemLiveComponents != null) menuItemLiveComponents.setSelected(false);
+    }
+
+    /**
+     * Method for showing connected components after edit changed them, text describing them is appended to last action.
+     * @param vertex id of vertex whose component is described, -1 to describe only number of components
+     */
+    private void showComponentChanges(int vertex) {
+        if (components == null) return;
+        showHighlight(components);
+        StringBuilder sb = new StringBuilder(lastAction.getText());
+        sb.append(" Connected components: ").append(components.getComponentCount());
+        if (vertex != -1) sb.append(", this one has ").append(components.componentSize(vertex)).append(" vertices");
+        lastAction.setText(sb.append(".").toString());
+    }
+
+    /**
+     * Method for highlighting result of algorithm or connected components on canvas - views get color of their group,
+     * or canvas gets redrawn in immediate mode.
+     * @param result highlighted groups, null to remove highlight
+     */
+    private void showHighlight(Highlight result) {
+        renderer.setHighlight(result);
+        if (immediateMode) return;
+        for (Vertex vertex : vertexViews) {
+            if (vertex == null) continue;
+            int group = result == null ? Highlight.NONE : result.vertexGroup(vertex.getModelId());
+            vertex.setHighlight(group == Highlight.NONE ? null : GraphCanvasRenderer.highlightColor(group));
+        }
+        for (Edge edge : edgeViews) {
+            if (edge == null) continue;
+            int group = result == null ? Highlight.NONE : result.edgeGroup(edge.getModelId());
+            edge.setHighlight(group == Highlight.NONE ? null : GraphCanvasRenderer.highlightColor(group), GraphCanvasRenderer.HIGHLIGHT_WIDTH);
+        }
+    }
+
+    /**
+     * Method for updating canvas after undo or redo, only views of changed elements are touched. <br>
+     * - removed views leave and created views join their layers by a single call per layer <br>
+     * - graph grown over immediateModeThreshold switches to immediate mode, no views are created then
+     */
+    private void showHistoryChanges() {
+        if (highlight != null) {
+            for (int i = 0; i < historyRemovedVertices.size(); i++) {
+                highlight.clearVertex(historyRemovedVertices.get(i));
+            }
+            for (int i = 0; i < historyRemovedEdges.size(); i++) {
+                highlight.clearEdge(historyRemovedEdges.get(i));
+            }
+        }
+        if (!immediateMode && graph.vertexCount() + graph.edgeCount() > immediateModeThreshold) {
+            vertexLayer.getChildren().clear();
+            vertexViews.clear();
+            edgeLayer.getChildren().clear();
+            edgeViews.clear();
+            showGraph();
+        }
+        else if (immediateMode) {
+            renderer.requestRedraw();
+        }
+        else {
+            if (historyRemovedEdges.size() > 0) hideEdges(historyRemovedEdges.toArray());
+            Set<Node> vertexNodesToRemove = new HashSet<>();
+            for (int i = 0; i < historyRemovedVertices.size(); i++) {
+                int id = historyRemovedVertices.get(i);
+                Vertex vertex = vertexViews.get(id);
+                vertexViews.set(id, null);
+                vertexNodesToRemove.add(vertex);
+            }
+            vertexLayer.getChildren().removeAll(vertexNodesToRemove);
+            List<Node> vertexNodes = new ArrayList<>(historyAddedVertices.size());
+            for (int i = 0; i < historyAddedVertices.size(); i++) {
+                Vertex vertex = createVertexView(historyAddedVertices.get(i));
+                vertexNodes.add(vertex);
+            }
+            List<Node> edgeNodes = new ArrayList<>(historyAddedEdges.size());
+            for (int i = 0; i < historyAddedEdges.size(); i++) {
+                Edge edge = createEdgeView(historyAddedEdges.get(i));
+                edgeNodes.add(edge.getEdge());
+            }
+            edgeLayer.getChildren().addAll(edgeNodes);
+            vertexLayer.getChildren().addAll(vertexNodes);
+            for (int i = 0; i < historyMovedVertices.size(); i++) {
+                moveVertexView(historyMovedVertices.get(i));
             }
-            return true;
         }
+        historyAddedVertices.clear();
+        historyAddedEdges.clear();
+        historyRemovedVertices.clear();
+        historyRemovedEdges.clear();
+        historyMovedVertices.clear();
+        handleCanvasChange();
+    }
+
+    /**
+     * Method for running reading or writing of graph file in background. <br>
+     * - canvas, functions and file actions are disabled while task runs, graph model therefore does not change under it <br>
+     * - progress bar with cancel button is shown below canvas <br>
+     * - onSucceeded gets called on FX thread with result of task, failure is reported by errorAction()
+     * @param task task to be run
+     * @param isSave true if task writes current session
+     * @param action action from File tab task belongs to
+     * @param onSucceeded handler of result
+     * @param <T> type of result
+     */
+    private <T> void runIoTask(GraphIoTask<T> task, boolean isSave, Action action, Consumer<T> onSucceeded) {
+        ioTask = task;
+        ioTaskIsSave = isSave;
+        setIoLocked(true);
+        ioTitle.textProperty().bind(task.titleProperty());
+        ioProgressBar.progressProperty().bind(task.progressProperty());
+        task.setOnSucceeded(workerStateEvent -> {
+            setIoLocked(false);
+            onSucceeded.accept(task.getValue());
+            finishIoTask(task, true);
+        });
+        task.setOnFailed(workerStateEvent -> {
+            setIoLocked(false);
+            errorAction(action);
+            finishIoTask(task, false);
+        });
+        task.setOnCancelled(workerStateEvent -> {
+            setIoLocked(false);
+            lastAction.setText("Last action: Cancelled " + action.name().toLowerCase() + " action.");
+            finishIoTask(task, false);
+        });
+        task.start();
+    }
+
+    /**
+     * Method for disabling (or enabling) everything that could change graph model while file is read or written.
+     * @param locked true to disable, false to enable
+     */
+    private void setIoLocked(boolean locked) {
+        canvas.setDisable(locked);
+        setEditingDisabled(locked);
+        ioProgress.setVisible(locked);
+        ioProgress.setManaged(locked);
+        if (!locked) {
+            ioTitle.textProperty().unbind();
+            ioProgressBar.progressProperty().unbind();
+        }
+    }
+
+    /**
+     * Method for disabling (or enabling) functions and menu items that change graph model,
+     * while graph is browsed read-only only items in browsingMenuItems can be enabled.
+     * @param disabled true to disable all of them
+     */
+    private void setEditingDisabled(boolean disabled) {
+        functionsBox.setDisable(disabled || tiledGraph != null);
+        for (MenuItem menuItem : lockedMenuItems) {
+            menuItem.setDisable(disabled || tiledGraph != null && !browsingMenuItems.contains(menuItem));
+        }
+    }
+
+    private void finishIoTask(GraphIoTask<?> task, boolean succeeded) {
+        ioTask = null;
+        ioTaskSucceeded = succeeded;
+        if (waitingForIoTask) {
+            waitingForIoTask = false;
+            Platform.exitNestedEventLoop(task, null);
+        }
+    }
+
+    /**
+     * Method for waiting until running reading or writing of graph file finishes. <br>
+     * - FX thread keeps processing events in nested event loop meanwhile, so window stays responsive and task can be cancelled
+     * @return true if task succeeded (or there was none), false if it failed or got cancelled
+     */
+    private boolean awaitIoTask() {
+        if (ioTask == null) return true;
+        //somebody is already waiting (e.g. window close requested twice), only one nested loop per task
+        if (waitingForIoTask) return false;
+        waitingForIoTask = true;
+        Platform.enterNestedEventLoop(ioTask);
+        return ioTaskSucceeded;
     }
 
     /**
@@ -314,16 +918,138 @@ public class Editor extends Application {
      * Method that resets canvas and deletes nodes internally.
      */
     public void clearNodes() {
-        for (String value : vertices.keySet()) {
-            Vertex vertexToRemove = vertices.get(value);
-            canvas.getChildren().remove(vertexToRemove);
+        if (tiledGraph != null) {
+            try {
+                tiledGraph.close();
+            }
+            catch (IOException e) {
+                //store is only read, nothing gets lost
+            }
+            tiledGraph = null;
+            renderer.setTiledGraph(null, 0, 0);
+            setEditingDisabled(false);
+        }
+        immediateMode = false;
+        renderer.setActive(false);
+        highlight = null;
+        stopLiveComponents();
+        renderer.setHighlight(null);
+        hoveredVertex = -1;
+        draggedVertex = -1;
+        vertexLayer.getChildren().clear();
+        vertexViews.clear();
+        maxVertexViewRadius = 0;
+        edgeLayer.getChildren().clear();
+        edgeViews.clear();
+        graph.clear();
+    }
+
+    /**
+     * Method for storing view of graph element under its id in graph model.
+     * @param views list of views indexed by id
+     * @param id id of element in graph model
+     * @param view view of element (null, if element was removed)
+     * @param <T> type of view
+     */
+    private static <T> void putView(List<T> views, int id, T view) {
+        while (views.size() <= id) {
+            views.add(null);
+        }
+        views.set(id, view);
+    }
+
+    /**
+     * Method for creating view of vertex stored in graph model, it is dragged by handlers of canvas.
+     * @param id id of vertex in graph model
+     * @return view of vertex
+     */
+    private Vertex createVertexView(int id) {
+        Vertex vertex = new Vertex(id, new Text(graph.getLabel(id)), graph.getX(id), graph.getY(id), vertexStyles.get(graph.getVertexStyle(id)));
+        if (viewDetail != Detail.FULL) vertex.setLabelVisible(false);
+        //views join end of vertex layer in order they are created
+        vertex.setDrawOrder(vertexViewOrder++);
+        maxVertexViewRadius = Math.max(maxVertexViewRadius, vertex.getDrawnRadius());
+        putView(vertexViews, id, vertex);
+        return vertex;
+    }
+
+    /**
+     * Method for creating view of edge stored in graph model, views of both vertices have to exist.
+     * @param id id of edge in graph model
+     * @return view of edge
+     */
+    private Edge createEdgeView(int id) {
+        Edge edge = new Edge(id, vertexViews.get(graph.getFrom(id)), vertexViews.get(graph.getTo(id)), edgeStyles.get(graph.getEdgeStyle(id)));
+        putView(edgeViews, id, edge);
+        return edge;
+    }
+
+    /**
+     * Method for showing vertex newly added into graph model - view is created, or canvas gets redrawn in immediate mode.
+     * @param id id of vertex in graph model
+     */
+    private void showVertex(int id) {
+        if (immediateMode) {
+            renderer.requestRedraw();
+            handleCanvasChange();
+            return;
         }
-        vertices.clear();
-        for (Edge edge : edges) {
-            canvas.getChildren().remove(edge.getEdge());
+        Vertex vertex = createVertexView(id);
+        vertexLayer.getChildren().add(vertex);
+    }
+
+    /**
+     * Method for showing edge newly added into graph model - view is created, or canvas gets redrawn in immediate mode.
+     * @param id id of edge in graph model
+     */
+    private void showEdge(int id) {
+        if (immediateMode) {
+            renderer.requestRedraw();
+            handleCanvasChange();
+            return;
+        }
+        Edge edge = createEdgeView(id);
+        edgeLayer.getChildren().add(edge.getEdge());
+    }
+
+    /**
+     * Method for hiding vertex that is being removed from graph model.
+     * @param id id of vertex in graph model
+     */
+    private void hideVertex(int id) {
+        if (highlight != null) highlight.clearVertex(id);
+        if (immediateMode) {
+            renderer.requestRedraw();
+            handleCanvasChange();
+            return;
+        }
+        Vertex vertex = vertexViews.get(id);
+        vertexViews.set(id, null);
+        vertexLayer.getChildren().remove(vertex);
+    }
+
+    /**
+     * Method for hiding edges that are being removed from graph model, views are removed from canvas at once.
+     * @param ids ids of edges in graph model
+     */
+    private void hideEdges(int... ids) {
+        if (highlight != null) {
+            for (int id : ids) {
+                highlight.clearEdge(id);
+            }
+        }
+        if (immediateMode) {
+            renderer.requestRedraw();
+            handleCanvasChange();
+            return;
+        }
+        Set<Line> linesToRemove = new HashSet<>();
+        for (int id : ids) {
+            Edge edge = edgeViews.get(id);
+            edgeViews.set(id, null);
+            linesToRemove.add(edge.getEdge());
         }
-        edges.clear();
-        nodesAddedToCanvas.clear();
+        edgeLayer.getChildren().removeAll(linesToRemove);
     }
 
     /**
@@ -336,88 +1062,211 @@ public class Editor extends Application {
     }
 
     /**
-     * Method for making vertex draggable in canvas, bounds
-     * for vertex not to go outside of canvas included and
-     * tracking last action made in canvas.
-     * @param vertex vertex which is set to be draggable
+     * Method for finding vertex under point of canvas - views are hit by their drawn circle (bigger for long values)
+     * and the one added to vertex layer last is on top, in immediate mode renderer is asked instead.
+     * @param x x coordinate of point in graph
+     * @param y y coordinate of point in graph
+     * @return id of vertex, -1 if there is none
      */
-    public void makeVertexDraggable(Vertex vertex) {
-        AtomicReference<Double> dragX = new AtomicReference<>((double) 0);
-        AtomicReference<Double> dragY = new AtomicReference<>((double) 0);
-        vertex.setOnMouseEntered(mouseEvent -> {
-            if (!mouseEvent.isPrimaryButtonDown()) {
-                vertex.getScene().setCursor(Cursor.HAND);
-                lastAction.setText("Last action: Mouse cursor is currently over a vertex with a value of \"" + vertex.getString() + "\".");
+    private int vertexAt(double x, double y) {
+        if (immediateMode) return renderer.vertexAt(x, y);
+        double margin = Math.max(renderer.maxRadius(), maxVertexViewRadius);
+        hitVertices.clear();
+        graph.verticesIn(x - margin, y - margin, x + margin, y + margin, hitVertices);
+        int found = -1;
+        long foundOrder = -1;
+        for (int i = 0; i < hitVertices.size(); i++) {
+            int id = hitVertices.get(i);
+            Vertex vertex = id < vertexViews.size() ? vertexViews.get(id) : null;
+            if (vertex == null || vertex.getDrawOrder() < foundOrder) continue;
+            double radius = vertex.getDrawnRadius();
+            double diffX = graph.getX(id) - x;
+            double diffY = graph.getY(id) - y;
+            if (diffX * diffX + diffY * diffY <= radius * radius) {
+                found = id;
+                foundOrder = vertex.getDrawOrder();
             }
-        });
+        }
+        return found;
+    }
 
-        vertex.setOnMouseExited(mouseEvent -> {
-            if (!mouseEvent.isPrimaryButtonDown()) {
-                vertex.getScene().setCursor(Cursor.DEFAULT);
-                lastAction.setText("Last action: Mouse cursor exited a vertex with a value of \"" + vertex.getString() + "\".");
+    /**
+     * Method for making vertices draggable in canvas - single set of handlers is installed on canvas for both views and
+     * immediate mode. <br>
+     * - vertex under cursor is found by hit-testing spatial index of graph model, no handler is installed per vertex <br>
+     * - drag state is held in primitive fields, dragged vertex is moved in graph model and its view (if any) follows <br>
+     * - dragging empty part of canvas pans view, mouse wheel zooms it around cursor - only view transform changes <br>
+     * - canvas is unbounded, tracking last action made in canvas is included
+     */
+    private void makeCanvasInteractive() {
+        canvas.setOnMouseMoved(mouseEvent -> {
+            int vertex = vertexAt(toGraphX(mouseEvent.getX()), toGraphY(mouseEvent.getY()));
+            if (vertex == hoveredVertex) return;
+            if (vertex != -1) {
+                canvas.getScene().setCursor(Cursor.HAND);
+                lastAction.setText("Last action: Mouse cursor is currently over a vertex with a value of \"" + graph.getLabel(vertex) + "\".");
+            }
+            else if (graph.isVertex(hoveredVertex)) {
+                canvas.getScene().setCursor(Cursor.DEFAULT);
+                lastAction.setText("Last action: Mouse cursor exited a vertex with a value of \"" + graph.getLabel(hoveredVertex) + "\".");
             }
+            hoveredVertex = vertex;
         });
 
-        vertex.setOnMousePressed(mouseEvent -> {
-            if (mouseEvent.isPrimaryButtonDown()) {
-                vertex.getScene().setCursor(Cursor.DEFAULT);
+        canvas.setOnMousePressed(mouseEvent -> {
+            double x = toGraphX(mouseEvent.getX());
+            double y = toGraphY(mouseEvent.getY());
+            draggedVertex = vertexAt(x, y);
+            if (draggedVertex == -1) {
+                panX = mouseEvent.getX();
+                panY = mouseEvent.getY();
+                canvas.getScene().setCursor(Cursor.CLOSED_HAND);
+                return;
             }
-            dragX.set(mouseEvent.getSceneX() - vertex.getTranslateX());
-            dragY.set(mouseEvent.getSceneY() - vertex.getTranslateY());
-            vertex.getScene().setCursor(Cursor.MOVE);
-            lastAction.setText("Last action: Currently dragging a vertex with a value of \"" + vertex.getString() + "\".");
+            dragOffsetX = x - graph.getX(draggedVertex);
+            dragOffsetY = y - graph.getY(draggedVertex);
+            canvas.getScene().setCursor(Cursor.MOVE);
+            lastAction.setText("Last action: Currently dragging a vertex with a value of \"" + graph.getLabel(draggedVertex) + "\".");
         });
 
-        vertex.setOnMouseReleased(mouseEvent -> {
-            vertex.getScene().setCursor(Cursor.HAND);
-            lastAction.setText("Last action: Dropped a vertex with a value of \"" + vertex.getString() + "\" at: [" + (int) vertex.getX() + "," + (int) vertex.getY() + "].");
+        canvas.setOnMouseDragged(mouseEvent -> {
+            if (!Double.isNaN(panX)) {
+                setView(viewScale, viewX + mouseEvent.getX() - panX, viewY + mouseEvent.getY() - panY);
+                panX = mouseEvent.getX();
+                panY = mouseEvent.getY();
+                return;
+            }
+            if (draggedVertex == -1) return;
+            double x = toGraphX(mouseEvent.getX()) - dragOffsetX;
+            double y = toGraphY(mouseEvent.getY()) - dragOffsetY;
+            moveRecorder.record(draggedVertex, graph.getX(draggedVertex), graph.getY(draggedVertex));
+            graph.setPosition(draggedVertex, x, y);
+            journal.moveVertex(draggedVertex);
+            resolveVertexCollisions(draggedVertex);
+            if (immediateMode) renderer.requestRedraw();
+            else moveVertexView(draggedVertex);
         });
 
-        vertex.setOnMouseDragged(mouseEvent -> {
-            vertex.setTranslateX(mouseEvent.getSceneX() - dragX.get());
-            vertex.setTranslateY(mouseEvent.getSceneY() - dragY.get());
-            Bounds vertexBounds = vertex.getBoundsInParent();
-            double vertexWidth = vertexBounds.getWidth();
-            double vertexHeight = vertexBounds.getHeight();
-
-            double currentX = vertexBounds.getCenterX();
-            double currentY = vertexBounds.getCenterY();
-
-            if (vertex.getTranslateX() < 0) {
-                currentX = 0;
-                vertex.setTranslateX(currentX);
-            } else if (vertex.getTranslateX() + vertexWidth > canvas.getWidth()) {
-                currentX = canvas.getWidth() - vertexWidth;
-                vertex.setTranslateX(currentX);
+        canvas.setOnMouseReleased(mouseEvent -> {
+            if (!Double.isNaN(panX)) {
+                panX = Double.NaN;
+                panY = Double.NaN;
+                canvas.getScene().setCursor(Cursor.DEFAULT);
+                return;
             }
+            if (draggedVertex == -1) return;
+            canvas.getScene().setCursor(Cursor.HAND);
+            lastAction.setText("Last action: Dropped a vertex with a value of \"" + graph.getLabel(draggedVertex) + "\" at: [" + (int) graph.getX(draggedVertex) + "," + (int) graph.getY(draggedVertex) + "].");
+            //whole drag is undone at once
+            history.push(moveRecorder.build(graph, "move of vertex \"" + graph.getLabel(draggedVertex) + "\""));
+            draggedVertex = -1;
+        });
+
+        canvas.setOnScroll(scrollEvent -> {
+            if (scrollEvent.getDeltaY() == 0) return;
+            zoomView(Math.pow(zoomStep, scrollEvent.getDeltaY() / scrollDeltaPerStep), scrollEvent.getX(), scrollEvent.getY());
+        });
+    }
 
-            if (vertex.getTranslateY() < 0) {
-                currentY = 0;
-                vertex.setTranslateY(currentY);
-            } else if (vertex.getTranslateY() + vertexHeight > canvas.getHeight()) {
-                currentY = canvas.getHeight() - vertexHeight;
-                vertex.setTranslateY(currentY);
+    /**
+     * Method for setting view of canvas, only view transform of layers and renderer changes. <br>
+     * - labels of vertex views are hidden or shown again only when level of detail changes
+     * @param scale scale (zoom) of view, it is kept between minViewScale and maxViewScale
+     * @param x x coordinate point [0, 0] of graph is shown at
+     * @param y y coordinate point [0, 0] of graph is shown at
+     */
+    private void setView(double scale, double x, double y) {
+        viewScale = Math.max(minViewScale, Math.min(maxViewScale, scale));
+        viewX = x;
+        viewY = y;
+        viewTransform.setToTransform(viewScale, 0, viewX, 0, viewScale, viewY);
+        renderer.setView(viewScale, viewX, viewY);
+        Detail detail = GraphCanvasRenderer.detailOf(renderer.maxRadius() * viewScale);
+        if (detail == viewDetail) return;
+        boolean labelsVisible = detail == Detail.FULL;
+        if (labelsVisible != (viewDetail == Detail.FULL)) {
+            for (Vertex vertex : vertexViews) {
+                if (vertex != null) vertex.setLabelVisible(labelsVisible);
             }
+        }
+        viewDetail = detail;
+    }
 
-            vertex.setX(currentX);
-            vertex.setY(currentY);
+    /**
+     * Method for zooming view, point of canvas under pivot stays in place.
+     * @param factor factor scale of view is multiplied by
+     * @param pivotX x coordinate of pivot in canvas
+     * @param pivotY y coordinate of pivot in canvas
+     */
+    private void zoomView(double factor, double pivotX, double pivotY) {
+        double scale = Math.max(minViewScale, Math.min(maxViewScale, viewScale * factor));
+        double graphX = toGraphX(pivotX);
+        double graphY = toGraphY(pivotY);
+        setView(scale, pivotX - graphX * scale, pivotY - graphY * scale);
+        lastAction.setText("Last action: Zoomed to " + Math.round(viewScale * 100) + "%.");
+    }
 
-            // checkVertexCollision(vertex);
-        });
+    /**
+     * Method for fitting whole graph into canvas, graph is centered and zoomed as much as it fits.
+     */
+    private void fitView() {
+        if (tiledGraph == null ? graph.vertexCount() == 0 : tiledGraph.vertexCount() == 0) {
+            setView(1, 0, 0);
+            lastAction.setText("Last action: Reset view of an empty graph.");
+            return;
+        }
+        double minX = Double.POSITIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+        if (tiledGraph != null) {
+            //bounds of browsed graph are stored in its header
+            minX = tiledGraph.getMinX();
+            minY = tiledGraph.getMinY();
+            maxX = tiledGraph.getMaxX();
+            maxY = tiledGraph.getMaxY();
+        }
+        for (int id = 0; id < graph.vertexSlots(); id++) {
+            if (!graph.isVertex(id)) continue;
+            minX = Math.min(minX, graph.getX(id));
+            minY = Math.min(minY, graph.getY(id));
+            maxX = Math.max(maxX, graph.getX(id));
+            maxY = Math.max(maxY, graph.getY(id));
+        }
+        double radius = renderer.maxRadius();
+        double scale = Math.min(canvas.getWidth() / (maxX - minX + 2 * radius), canvas.getHeight() / (maxY - minY + 2 * radius));
+        scale = Math.max(minViewScale, Math.min(maxViewScale, scale));
+        setView(scale, canvas.getWidth() / 2 - (minX + maxX) / 2 * scale, canvas.getHeight() / 2 - (minY + maxY) / 2 * scale);
+        lastAction.setText("Last action: Fitted graph into view (zoom " + Math.round(viewScale * 100) + "%).");
+    }
+
+    /**
+     * Method for converting x coordinate of canvas into coordinate of graph
+     * @param x x coordinate in canvas
+     * @return x coordinate in graph
+     */
+    private double toGraphX(double x) {
+        return (x - viewX) / viewScale;
+    }
+
+    /**
+     * Method for converting y coordinate of canvas into coordinate of graph
+     * @param y y coordinate in canvas
+     * @return y coordinate in graph
+     */
+    private double toGraphY(double y) {
+        return (y - viewY) / viewScale;
     }
 
     /**
      * Method for checking if there exists an edge containing vertex in graph.
-     * @param edges list of edges in the graph
-     * @param vertex vertex that is made to be looked for in list of edges
+     * @param vertex vertex that is made to be looked for in graph model
      * @return list of edges containing said vertex (empty list if there is none)
      */
-    public List<Edge> edgesContainingVertex(List<Edge> edges, Vertex vertex) {
+    public List<Edge> edgesContainingVertex(Vertex vertex) {
         List<Edge> returnEdges = new ArrayList<>();
-        for (Edge edge : edges) {
-            if (edge.getFrom().equals(vertex) || edge.getTo().equals(vertex)) {
-                returnEdges.add(edge);
-            }
+        for (int edgeId : graph.incidentEdges(vertex.getModelId())) {
+            returnEdges.add(edgeViews.get(edgeId));
         }
         return returnEdges;
     }
@@ -425,228 +1274,198 @@ public class Editor extends Application {
 
     /**
      * Method for checking if there exists edge [vertexFrom, vertexTo] in graph.
-     * @param edges list of edges in the graph
      * @param vertexFrom start vertex of an edge
      * @param vertexTo end vertex of an edge
      * @return edge, if there exists one (null, if there is not)
      */
-    public Edge existsEdge(List<Edge> edges, Vertex vertexFrom, Vertex vertexTo) {
-        for (Edge edge : edges) {
-            if ((edge.getFrom().equals(vertexFrom) && edge.getTo().equals(vertexTo))
-                    || (edge.getFrom().equals(vertexTo) && edge.getTo().equals(vertexFrom))) {
-                return edge;
-            }
-        }
-        return null;
+    public Edge existsEdge(Vertex vertexFrom, Vertex vertexTo) {
+        int edgeId = graph.findEdge(vertexFrom.getModelId(), vertexTo.getModelId());
+        return edgeId == -1 ? null : edgeViews.get(edgeId);
     }
 
     /**
-     * Method for reading graph from .txt file and putting it onto canvas. <br>
-     * - the way graph is represented in .txt file is written in manual
-     * @param file file represennting graph in .txt format
+     * Method for reading graph from .txt or binary file and putting it onto canvas. <br>
+     * - the way graph is represented in .txt file is written in manual <br>
+     * - format of the file is detected from its content (styled or plain .txt, binary), views are created afterwards
+     * @param file file represennting graph in .txt or binary format
      * @throws IOException exception
      */
     public void readFromFile(File file) throws IOException {
-        BufferedReader reader = new BufferedReader(new FileReader(file));
-        String[] nums = reader.readLine().split(" ");
-
-        int numOfVertices = Integer.parseInt(nums[0]);
-        int numOfEdges = Integer.parseInt(nums[1]);
-        for (int i = 0; i < numOfVertices; i++) {
-            String[] vertexRepr = reader.readLine().split(" ");
-            String value = vertexRepr[0];
-            Text textValue = new Text(value);
-            double x = Double.parseDouble(vertexRepr[1]);
-            double y = Double.parseDouble(vertexRepr[2]);
-            Vertex newVertex = new Vertex(textValue, x, y);
-            makeVertexDraggable(newVertex);
-            vertices.put(value, newVertex);
-            canvas.getChildren().add(newVertex);
-        }
-
-        for (int i = 0; i < numOfEdges; i++) {
-            String[] edgeRepr = reader.readLine().split(" ");
-            String valueVertexFrom = edgeRepr[0];
-            String valueVertexTo = edgeRepr[1];
-            Vertex vertexFrom = vertices.get(valueVertexFrom);
-            Vertex vertexTo = vertices.get(valueVertexTo);
-            Edge newEdge = new Edge(vertexFrom, vertexTo);
-            edges.add(newEdge);
-            canvas.getChildren().add(newEdge.getEdge());
-            canvas.getChildren().remove(vertexFrom);
-            canvas.getChildren().remove(vertexTo);
-            canvas.getChildren().addAll(vertexFrom, vertexTo);
-        }
-
-        reader.close();
-    }
-
-    /**
-     * Method for writing graph into .txt file. <br>
+        StyleTable<VertexStyle> fileVertexStyles = defaultStyles(VertexStyle.DEFAULT);
+        StyleTable<EdgeStyle> fileEdgeStyles = defaultStyles(EdgeStyle.DEFAULT);
+        Pair<GraphModel, GraphFormat> loaded = readGraph(file, fileVertexStyles, fileEdgeStyles, ProgressMonitor.NONE);
+        graph = loaded.getFirst();
+        journal.invalidate();
+        history.clear();
+        adoptStyles(loaded.getSecond(), fileVertexStyles, fileEdgeStyles);
+        showGraph();
+    }
+
+    /**
+     * Method for reading graph model from .txt or binary file, touches no JavaFX node, so it can run in background. <br>
+     * - format is detected from first bytes of the file (GraphFormat.detect()) <br>
+     * - styles of the file are interned into given tables, not into tables of the session, which are used by FX thread <br>
+     * - edits saved into journal of the file (EditJournal) are replayed onto read graph, added elements get style 0
+     * @param file file represennting graph in .txt or binary format
+     * @param fileVertexStyles table vertex styles of the file are interned into, default style under id 0
+     * @param fileEdgeStyles table edge styles of the file are interned into, default style under id 0
+     * @param monitor monitor progress is reported to
+     * @return graph stored in the file (its elements refer to given tables) and format of the file
+     * @throws IOException exception
+     */
+    private static Pair<GraphModel, GraphFormat> readGraph(File file, StyleTable<VertexStyle> fileVertexStyles,
+                                                           StyleTable<EdgeStyle> fileEdgeStyles, ProgressMonitor monitor) throws IOException {
+        GraphFormat format = GraphFormat.detect(file.toPath());
+        GraphModel graph = format.read(file.toPath(), fileVertexStyles, fileEdgeStyles, monitor);
+        EditJournal.replay(graph, file.toPath(), monitor);
+        return new Pair<>(graph, format);
+    }
+
+    /**
+     * Method for creating style table with given style under id 0
+     * @param defaultStyle style under id 0
+     * @param <S> type of style
+     * @return style table
+     */
+    private static <S> StyleTable<S> defaultStyles(S defaultStyle) {
+        StyleTable<S> table = new StyleTable<>();
+        table.intern(defaultStyle);
+        return table;
+    }
+
+    /**
+     * Method for moving elements of graph model just read from file onto style tables of the session. <br>
+     * - elements of styled .txt files keep their styles, every style of the file is interned once <br>
+     * - formats that do not store styles get style of newly created elements (see applyCurrentStyles())
+     * @param format format graph was read from
+     * @param fileVertexStyles table styles of vertices refer to
+     * @param fileEdgeStyles table styles of edges refer to
+     */
+    private void adoptStyles(GraphFormat format, StyleTable<VertexStyle> fileVertexStyles, StyleTable<EdgeStyle> fileEdgeStyles) {
+        if (format != GraphFormat.STYLED) {
+            applyCurrentStyles();
+            return;
+        }
+        int[] vertexStyleIds = new int[fileVertexStyles.size()];
+        for (int i = 0; i < vertexStyleIds.length; i++) {
+            vertexStyleIds[i] = vertexStyles.intern(fileVertexStyles.get(i));
+        }
+        int[] edgeStyleIds = new int[fileEdgeStyles.size()];
+        for (int i = 0; i < edgeStyleIds.length; i++) {
+            edgeStyleIds[i] = edgeStyles.intern(fileEdgeStyles.get(i));
+        }
+        for (int id = 0; id < graph.vertexSlots(); id++) {
+            if (graph.isVertex(id)) graph.setVertexStyle(id, vertexStyleIds[graph.getVertexStyle(id)]);
+        }
+        for (int id = 0; id < graph.edgeSlots(); id++) {
+            if (graph.isEdge(id)) graph.setEdgeStyle(id, edgeStyleIds[graph.getEdgeStyle(id)]);
+        }
+    }
+
+    /**
+     * Method for recording vertex added into graph model into journal. <br>
+     * - journal stores no styles, vertices read back from it get default style,
+     * so vertex of other style can be saved only by writing whole graph
+     * @param id id of vertex in graph model
+     */
+    private void journalAddedVertex(int id) {
+        journal.addVertex(graph.getLabel(id), graph.getX(id), graph.getY(id));
+        if (!vertexStyles.get(graph.getVertexStyle(id)).equals(VertexStyle.DEFAULT)) journal.invalidate();
+    }
+
+    /**
+     * Method for recording edge added into graph model into journal, edge of other than default style invalidates journal
+     * (see journalAddedVertex())
+     * @param id id of edge in graph model
+     */
+    private void journalAddedEdge(int id) {
+        journal.addEdge(graph.getLabel(graph.getFrom(id)), graph.getLabel(graph.getTo(id)));
+        if (!edgeStyles.get(graph.getEdgeStyle(id)).equals(EdgeStyle.DEFAULT)) journal.invalidate();
+    }
+
+    /**
+     * Method for giving every element of graph model the style of newly created elements (set in Customization tab),
+     * used for graphs coming from formats that do not store styles.
+     */
+    private void applyCurrentStyles() {
+        int vertexStyle = vertexStyles.intern(Vertex.currentStyle());
+        int edgeStyle = edgeStyles.intern(Edge.currentStyle());
+        for (int id = 0; id < graph.vertexSlots(); id++) {
+            if (graph.isVertex(id)) graph.setVertexStyle(id, vertexStyle);
+        }
+        for (int id = 0; id < graph.edgeSlots(); id++) {
+            if (graph.isEdge(id)) graph.setEdgeStyle(id, edgeStyle);
+        }
+    }
+
+    /**
+     * Method for putting whole graph model onto canvas. <br>
+     * - graphs bigger than immediateModeThreshold are drawn by GraphCanvasRenderer, no views are created <br>
+     * - otherwise views of all vertices and edges are created, every layer gets filled by a single addAll,
+     * so the children lists change only twice
+     */
+    private void showGraph() {
+        renderer.setGraph(graph);
+        immediateMode = graph.vertexCount() + graph.edgeCount() > immediateModeThreshold;
+        renderer.setActive(immediateMode);
+        if (immediateMode) {
+            handleCanvasChange();
+            return;
+        }
+        List<Node> vertexNodes = new ArrayList<>(graph.vertexCount());
+        for (int id = 0; id < graph.vertexSlots(); id++) {
+            if (!graph.isVertex(id)) continue;
+            Vertex vertex = createVertexView(id);
+            vertexNodes.add(vertex);
+        }
+        List<Node> edgeNodes = new ArrayList<>(graph.edgeCount());
+        for (int id = 0; id < graph.edgeSlots(); id++) {
+            if (!graph.isEdge(id)) continue;
+            Edge edge = createEdgeView(id);
+            edgeNodes.add(edge.getEdge());
+        }
+        edgeLayer.getChildren().addAll(edgeNodes);
+        vertexLayer.getChildren().addAll(vertexNodes);
+    }
+
+    /**
+     * Method for writing graph with styles into .txt file, or into binary file (without styles) if its name ends with .egb. <br>
      * - the way graph is represented in .txt file is written in manual
      * @param file file in which graph will be saved
      * @throws IOException exception
      */
     public void writeToFile(File file) throws IOException {
-        BufferedWriter writer = new BufferedWriter(new FileWriter(file));
-        StringBuilder sb = new StringBuilder();
-        int numOfVertices = vertices.size();
-        int numOfEdges = edges.size();
-        sb.append(numOfVertices)
-                .append(" ")
-                .append(numOfEdges)
-                .append("\n");
-        writer.write(sb.toString());
-
-        for (String value : vertices.keySet()) {
-            //clear stringBuilder object
-            sb.setLength(0);
-            Vertex vertex = vertices.get(value);
-            double x = vertex.getX();
-            double y = vertex.getY();
-            sb.append(value)
-                    .append(" ")
-                    .append(x)
-                    .append(" ")
-                    .append(y)
-                    .append("\n");
-            writer.write(sb.toString());
-        }
-
-        for (Edge edge : edges) {
-            //clear stringBuilder object
-            sb.setLength(0);
-            String valueVertexFrom = edge.getFrom().getString();
-            String valueVertexTo = edge.getTo().getString();
-            sb.append(valueVertexFrom)
-                    .append(" ")
-                    .append(valueVertexTo)
-                    .append("\n");
-            writer.write(sb.toString());
-        }
-
-        writer.close();
-    }
-
-    /**
-     * Method for reading graph from .txt file and putting it onto canvas. <br>
-     * - the way graph is represented in .txt file is written in manual <br>
-     * - graph has all the modifications user set during the session graph was made
-     * @param file file represennting graph in .txt format
+        writeToFile(file, saveFormat(file), ProgressMonitor.NONE);
+    }
+
+    /**
+     * Method for writing graph into .txt or binary file, touches no JavaFX node, so it can run in background.
+     * @param file file in which graph will be saved
+     * @param format format to write
+     * @param monitor monitor progress is reported to
      * @throws IOException exception
      */
-    public void readFromFileReal(File file) throws Exception {
-        BufferedReader reader = new BufferedReader(new FileReader(file));
-        int numOfNodes = Integer.parseInt(reader.readLine());
-        for (int i = 0; i < numOfNodes; i++) {
-            String[] nodeInfo = reader.readLine().split(" ");
-            if (nodeInfo[0].equals("V")) {
-                String vertexValue = nodeInfo[1];
-                Text vertexTextValue = new Text(vertexValue);
-                double x = Double.parseDouble(nodeInfo[2]);
-                double y = Double.parseDouble(nodeInfo[3]);
-                Color vertexColor = Color.web(nodeInfo[4]);
-                int textSize = Integer.parseInt(nodeInfo[5]);
-                int vertexRadius = Integer.parseInt(nodeInfo[6]);
-                String fontName = nodeInfo[7];
-                Vertex.setColor(vertexColor);
-                Vertex.setRadius(vertexRadius);
-                Vertex.setTextSize(textSize);
-                Vertex.setFontName(fontName);
-                Vertex newVertex = new Vertex(vertexTextValue, x, y);
-                makeVertexDraggable(newVertex);
-                vertices.put(vertexValue, newVertex);
-                canvas.getChildren().add(newVertex);
-            }
-            if (nodeInfo[0].equals("E")) {
-                String valueVertexFromString = nodeInfo[1];
-                String valueVertexToString = nodeInfo[2];
-                Color edgeColor = Color.web(nodeInfo[3]);
-                int edgeWidth = Integer.parseInt(nodeInfo[4]);
-                Vertex vertexFrom = vertices.get(valueVertexFromString);
-                Vertex vertexTo = vertices.get(valueVertexToString);
-                Edge.setColor(edgeColor);
-                Edge.setWidth(edgeWidth);
-                Edge newEdge = new Edge(vertexFrom, vertexTo);
-                edges.add(newEdge);
-                canvas.getChildren().add(newEdge.getEdge());
-                canvas.getChildren().remove(vertexFrom);
-                canvas.getChildren().remove(vertexTo);
-                canvas.getChildren().addAll(vertexFrom, vertexTo);
-            }
-        }
-        reader.close();
+    private void writeToFile(File file, GraphFormat format, ProgressMonitor monitor) throws IOException {
+        format.write(graph, vertexStyles, edgeStyles, file.toPath(), monitor);
     }
 
-
     /**
-     * Method for writing graph into .txt file. <br>
-     * - the way graph is represented in .txt file is written in manual <br>
-     * - graph has all the modifications user set during the session graph was made
+     * Method for getting format session is saved in - binary for .egb files, .txt with styles otherwise
      * @param file file in which graph will be saved
-     * @throws IOException exception
+     * @return format of the file
      */
-    public void writeToFileReal(File file) throws Exception {
-        BufferedWriter writer = new BufferedWriter(new FileWriter(file));
-        writer.write(canvas.getChildren().size() - 2 + "\n");
-        StringBuilder sb = new StringBuilder();
-        for (Node node : nodesAddedToCanvas) {
-            //clear stringBuilder object
-            sb.setLength(0);
-            if (node instanceof Vertex) {
-                Vertex vertex = (Vertex) node;
-                String vertexValue = vertex.getString();
-                Color vertexColor = vertex.getColorFill();
-                int textSize = vertex.getTextSize();
-                int vertexRadius = vertex.getRadius();
-                String fontName = vertex.getFontName();
-                double x = vertex.getX();
-                double y = vertex.getY();
-                sb.append("V ")
-                        .append(vertexValue)
-                        .append(" ")
-                        .append(x)
-                        .append(" ")
-                        .append(y)
-                        .append(" ")
-                        .append(vertexColor.toString())
-                        .append(" ")
-                        .append(vertexRadius)
-                        .append(" ")
-                        .append(textSize)
-                        .append(" ")
-                        .append(fontName)
-                        .append("\n");
-            }
-            else if (node instanceof Line) {
-                Edge edge = findEdgeToLine((Line) node);
-                String vertexFrom = edge.getFrom().getString();
-                String vertexTo = edge.getTo().getString();
-                Color edgeColor = edge.getColor();
-                int edgeWidth = edge.getWidth();
-                sb.append("E ")
-                        .append(vertexFrom)
-                        .append(" ")
-                        .append(vertexTo)
-                        .append(" ")
-                        .append(edgeColor.toString())
-                        .append(" ")
-                        .append(edgeWidth)
-                        .append("\n");
-            }
-            writer.write(sb.toString());
-        }
-        writer.close();
+    private static GraphFormat saveFormat(File file) {
+        return BinaryGraphFormat.matches(file.getName()) ? GraphFormat.BINARY : GraphFormat.STYLED;
     }
 
     /**
-     * Method for using to test, whether there exists an edge to the corresponding line (doesnt work properly!)
+     * Method for using to test, whether there exists an edge to the corresponding line
      * @param line line
      * @return edge corresponding to the line
      */
     public Edge findEdgeToLine(Line line) {
-        for (Edge edge : edges) {
-            if (edge.getEdge().equals(line)) return edge;
+        for (Edge edge : edgeViews) {
+            if (edge != null && edge.getEdge().equals(line)) return edge;
         }
         return null;
     }
@@ -763,42 +1582,41 @@ public class Editor extends Application {
         modeSelected.setText(sb.toString());
     }
 
-    //Methods for detecting collisions and preparations for their resolution (could be used in the future update(s))
-
-    /*
-    public void checkVertexCollision(Vertex vertex) {
-        for (Node node : canvas.getChildren()) {
-            if (node instanceof Vertex && !node.equals(vertex)) {
-                Vertex anotherVertex = (Vertex) node;
-                if (vertex.getBoundsInParent().intersects(anotherVertex.getBoundsInParent()) && circleCollisions(vertex, anotherVertex)) {
-                    System.out.println("Collision");
-                    //System.out.println("First vertex: [" + vertex.getX() + ", " + vertex.getY() + "]");
-                    //System.out.println("Second vertex: [" + anotherVertex.getX() + ", " + anotherVertex.getY() + "]");
-                    resolveVertexCollision(vertex, anotherVertex);
-                }
-            }
+    /**
+     * Method for pushing apart vertices overlapping dragged vertex, views of moved vertices follow their new positions.
+     * @param id id of dragged vertex in graph model
+     */
+    private void resolveVertexCollisions(int id) {
+        //vertices of different styles differ in radius, biggest one keeps all of them apart, canvas is unbounded
+        double radius = renderer.maxRadius();
+        collisionMoves.clear();
+        graph.resolveCollisions(id, radius, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY,
+                Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, collisionListener);
+        for (int i = 0; i < collisionMoves.size(); i++) {
+            journal.moveVertex(collisionMoves.get(i));
+        }
+        if (immediateMode) return;
+        for (int i = 0; i < collisionMoves.size(); i++) {
+            moveVertexView(collisionMoves.get(i));
         }
     }
 
-    public boolean circleCollisions(Vertex vertex, Vertex anotherVertex) {
-        Circle vertexCircle = vertex.getCircle();
-        Circle anotherVertexCircle = anotherVertex.getCircle();
-
-        double vertexCenterX = vertex.getLayoutX() + vertexCircle.getCenterX();
-        double vertexCenterY = vertex.getLayoutY() + vertexCircle.getCenterY();
-        double anotherVertexCenterX = anotherVertex.getLayoutX() + anotherVertexCircle.getCenterX();
-        double anotherVertexCenterY = anotherVertex.getLayoutY() + anotherVertexCircle.getCenterY();
-
-        double diffX = vertexCenterX - anotherVertexCenterX;
-        double diffY = vertexCenterY - anotherVertexCenterY;
-
-        double getDistanceFromCenters = Math.sqrt(diffX * diffX + diffY * diffY);
-        double minDistance = vertexCircle.getRadius() + anotherVertex.getRadius();
-
-        return minDistance > getDistanceFromCenters;
-    }
-
+    /**
+     * Method for moving view of vertex to its position in graph model, only edges incident to vertex are updated.
+     * @param id id of vertex in graph model
      */
+    private void moveVertexView(int id) {
+        Vertex vertex = vertexViews.get(id);
+        double x = graph.getX(id);
+        double y = graph.getY(id);
+        vertex.setTranslateX(x - vertex.getDrawnRadius());
+        vertex.setTranslateY(y - vertex.getDrawnRadius());
+        vertex.setX(x);
+        vertex.setY(y);
+        for (int i = 0; i < graph.degree(id); i++) {
+            edgeViews.get(graph.incidentEdge(id, i)).updateEndpoints();
+        }
+    }
 
     /**
      * Method for receiving variables representing customization of vertex and adjusting said values (not implemented yet).
@@ -936,6 +1754,7 @@ public class Editor extends Application {
         MenuItem menuItemNew = new MenuItem("New");
         MenuItem menuItemSave = new MenuItem("Save");
         MenuItem menuItemOpen = new MenuItem("Open");
+        MenuItem menuItemBrowse = new MenuItem("Browse (read only)");
         MenuItem menuItemExport = new MenuItem("Save as");
         MenuItem menuItemExit = new MenuItem("Exit");
 
@@ -951,8 +1770,36 @@ public class Editor extends Application {
             lastAction.setLayoutY(scene.getHeight() - 60);
         });
 
-        canvas.getChildren().addListener((ListChangeListener<Node>) change -> handleCanvasChange());
-        mFile.getItems().addAll(menuItemNew, menuItemSave, menuItemOpen, menuItemExport, new SeparatorMenuItem(), menuItemExit);
+        /* edges and vertices are kept in separate layers, so vertices are always drawn on top of edges */
+        graph = new GraphModel();
+        vertexViews = new ArrayList<>();
+        edgeViews = new ArrayList<>();
+        edgeLayer = new Group();
+        vertexLayer = new Group();
+
+        /* canvas for big graphs - drawn by renderer instead of layers, see showGraph() */
+        /* style ids 0 - styles elements get unless set otherwise */
+        vertexStyles.intern(Vertex.currentStyle());
+        edgeStyles.intern(Edge.currentStyle());
+        renderer = new GraphCanvasRenderer(graph, vertexStyles, edgeStyles);
+        renderer.getSurface().widthProperty().bind(canvas.widthProperty());
+        renderer.getSurface().heightProperty().bind(canvas.heightProperty());
+        renderer.getSurface().setManaged(false);
+        renderer.setActive(false);
+        makeCanvasInteractive();
+        /* layers are moved by view transform of their group, content outside of canvas is clipped */
+        Group world = new Group(edgeLayer, vertexLayer);
+        world.getTransforms().add(viewTransform);
+        Rectangle canvasClip = new Rectangle();
+        canvasClip.widthProperty().bind(canvas.widthProperty());
+        canvasClip.heightProperty().bind(canvas.heightProperty());
+        canvas.setClip(canvasClip);
+        canvas.getChildren().addAll(world, renderer.getSurface());
+        edgeLayer.getChildren().addListener((ListChangeListener<Node>) change -> handleCanvasChange());
+        vertexLayer.getChildren().addListener((ListChangeListener<Node>) change -> handleCanvasChange());
+        mFile.getItems().addAll(menuItemNew, menuItemSave, menuItemOpen, menuItemBrowse, menuItemExport, new SeparatorMenuItem(), menuItemExit);
+        lockedMenuItems = new ArrayList<>(List.of(menuItemNew, menuItemSave, menuItemOpen, menuItemBrowse, menuItemExport));
+        browsingMenuItems = List.of(menuItemNew, menuItemOpen, menuItemBrowse);
 
         Menu mModes = new Menu("Mode");
         listOfButtons = new ArrayList<>();
@@ -1076,7 +1923,72 @@ public class Editor extends Application {
             }
         });
         mHelp.getItems().add(openManual);
-        menuBar.getMenus().addAll(mFile, mModes, mCustomization, mHelp);
+        /* Menu Layout
+         * -- computes positions of vertices
+         */
+        Menu mLayout = new Menu("Layout");
+        MenuItem menuItemForceLayout = new MenuItem("Force-directed layout");
+        menuItemForceLayout.setAccelerator(new KeyCodeCombination(KeyCode.L, KeyCombination.CONTROL_DOWN));
+        menuItemForceLayout.setOnAction(actionEvent -> layoutAction());
+        mLayout.getItems().add(menuItemForceLayout);
+        lockedMenuItems.add(menuItemForceLayout);
+        /* Menu View
+         * -- zooms and pans canvas, graph itself does not change
+         */
+        Menu mView = new Menu("View");
+        MenuItem menuItemZoomIn = new MenuItem("Zoom in");
+        MenuItem menuItemZoomOut = new MenuItem("Zoom out");
+        MenuItem menuItemFit = new MenuItem("Fit graph");
+        MenuItem menuItemResetView = new MenuItem("Reset view");
+        menuItemZoomIn.setAccelerator(new KeyCodeCombination(KeyCode.PLUS, KeyCombination.CONTROL_DOWN));
+        menuItemZoomOut.setAccelerator(new KeyCodeCombination(KeyCode.MINUS, KeyCombination.CONTROL_DOWN));
+        menuItemFit.setAccelerator(new KeyCodeCombination(KeyCode.F, KeyCombination.CONTROL_DOWN));
+        menuItemResetView.setAccelerator(new KeyCodeCombination(KeyCode.DIGIT0, KeyCombination.CONTROL_DOWN));
+        menuItemZoomIn.setOnAction(actionEvent -> zoomView(zoomStep, canvas.getWidth() / 2, canvas.getHeight() / 2));
+        menuItemZoomOut.setOnAction(actionEvent -> zoomView(1 / zoomStep, canvas.getWidth() / 2, canvas.getHeight() / 2));
+        menuItemFit.setOnAction(actionEvent -> fitView());
+        menuItemResetView.setOnAction(actionEvent -> {
+            setView(1, 0, 0);
+            lastAction.setText("Last action: Reset view (zoom 100%).");
+        });
+        mView.getItems().addAll(menuItemZoomIn, menuItemZoomOut, menuItemFit, menuItemResetView);
+        /* Menu Edit
+         * -- reverts or repeats edits of graph
+         */
+        Menu mEdit = new Menu("Edit");
+        MenuItem menuItemUndo = new MenuItem("Undo");
+        MenuItem menuItemRedo = new MenuItem("Redo");
+        menuItemUndo.setAccelerator(new KeyCodeCombination(KeyCode.Z, KeyCombination.CONTROL_DOWN));
+        menuItemRedo.setAccelerator(new KeyCodeCombination(KeyCode.Y, KeyCombination.CONTROL_DOWN));
+        menuItemUndo.setOnAction(actionEvent -> undoAction());
+        menuItemRedo.setOnAction(actionEvent -> redoAction());
+        mEdit.getItems().addAll(menuItemUndo, menuItemRedo);
+        lockedMenuItems.addAll(List.of(menuItemUndo, menuItemRedo));
+        /* Menu Algorithms
+         * -- runs algorithms on graph and highlights their results
+         */
+        Menu mAlgorithms = new Menu("Algorithms");
+        MenuItem menuItemRunAlgorithm = new MenuItem("Run algorithm");
+        MenuItem menuItemClearHighlight = new MenuItem("Clear highlight");
+        menuItemRunAlgorithm.setAccelerator(new KeyCodeCombination(KeyCode.G, KeyCombination.CONTROL_DOWN));
+        menuItemRunAlgorithm.setOnAction(actionEvent -> {
+            try {
+                AlgorithmDialog algorithmDialog = new AlgorithmDialog(value -> graph.containsVertex(value), this::algorithmAction);
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        });
+        menuItemLiveComponents = new CheckMenuItem("Live connected components");
+        menuItemLiveComponents.setOnAction(actionEvent -> liveComponentsAction(menuItemLiveComponents.isSelected()));
+        menuItemClearHighlight.setOnAction(actionEvent -> {
+            highlight = null;
+            stopLiveComponents();
+            showHighlight(null);
+            lastAction.setText("Last action: Cleared highlight of algorithm result.");
+        });
+        mAlgorithms.getItems().addAll(menuItemRunAlgorithm, menuItemLiveComponents, menuItemClearHighlight);
+        lockedMenuItems.addAll(List.of(menuItemRunAlgorithm, menuItemLiveComponents, menuItemClearHighlight));
+        menuBar.getMenus().addAll(mFile, mEdit, mView, mModes, mCustomization, mLayout, mAlgorithms, mHelp);
 
 
         /*
@@ -1103,6 +2015,7 @@ public class Editor extends Application {
          * - CTRL + N - New window
          * - CTRL + M - Open manual
          * - CTRL + O - Open file (load)
+         * - CTRL + Shift + O - Browse file (read only)
          * - CTRL + S - Save
          * - CTRL + Shift + S - Save as
          * - ALT+F4 - Exit application
@@ -1110,6 +2023,7 @@ public class Editor extends Application {
         menuItemNew.setAccelerator(new KeyCodeCombination(KeyCode.N, KeyCombination.CONTROL_DOWN));
         menuItemSave.setAccelerator(new KeyCodeCombination(KeyCode.S, KeyCombination.CONTROL_DOWN));
         menuItemOpen.setAccelerator(new KeyCodeCombination(KeyCode.O, KeyCombination.CONTROL_DOWN));
+        menuItemBrowse.setAccelerator(new KeyCodeCombination(KeyCode.O, KeyCombination.SHIFT_DOWN, KeyCombination.CONTROL_DOWN));
         menuItemExport.setAccelerator(new KeyCodeCombination(KeyCode.S, KeyCombination.SHIFT_DOWN, KeyCombination.CONTROL_DOWN));
         menuItemExit.setAccelerator(new KeyCodeCombination(KeyCode.F4, KeyCombination.ALT_DOWN));
 
@@ -1119,6 +2033,7 @@ public class Editor extends Application {
         menuItemNew.setOnAction(actionEvent -> newAction());
         menuItemSave.setOnAction(actionEvent -> saveAction());
         menuItemOpen.setOnAction(actionEvent -> openAction());
+        menuItemBrowse.setOnAction(actionEvent -> browseAction());
         menuItemExport.setOnAction(actionEvent -> saveAsAction());
         menuItemExit.setOnAction(actionEvent -> exitAction());
 
@@ -1139,10 +2054,7 @@ public class Editor extends Application {
             updateModeSelected(modeSelected);
         });
 
-        vertices = new HashMap<>();
-        edges = new ArrayList<>();
         Random rnd = new Random(); //for generating random coordinates of node
-        nodesAddedToCanvas = new ArrayList<>();
 
         /*
          * addVertex button functionality
@@ -1154,22 +2066,26 @@ public class Editor extends Application {
                 return;
             }
 
-            if (vertices.containsKey(value.getText())) {
+            if (graph.containsVertex(value.getText())) {
                 lastAction.setText("Last action: Could not add a vertex with a value of \"" + value.getText() + "\", because there already exists one.");
                 return;
             }
 
-            double startX = 75 + rnd.nextDouble() * ((double) 4/5 * canvas.getWidth() - 75);
-            double startY = 75 + rnd.nextDouble() * ((double) 4/5 * canvas.getHeight() - 75);
-
-            Vertex newVertex = new Vertex(value, startX, startY);
-            vertices.put(value.getText(), newVertex);
-
-            canvas.getChildren().add(newVertex);
-            nodesAddedToCanvas.add(newVertex);
-            lastAction.setText("Last action: Inserted a node with a value of \"" + newVertex.getString() + "\"");
+            //vertex is placed into visible part of canvas
+            double startX = toGraphX(75 + rnd.nextDouble() * ((double) 4/5 * canvas.getWidth() - 75));
+            double startY = toGraphY(75 + rnd.nextDouble() * ((double) 4/5 * canvas.getHeight() - 75));
+
+            int id = graph.addVertex(value.getText(), startX, startY);
+            graph.setVertexStyle(id, vertexStyles.intern(Vertex.currentStyle()));
+            journalAddedVertex(id);
+            history.push(ElementsCommand.inserted(graph, new int[] {id}, new int[0], "insertion of vertex \"" + value.getText() + "\""));
+            showVertex(id);
+            lastAction.setText("Last action: Inserted a node with a value of \"" + value.getText() + "\"");
+            if (components != null) {
+                components.vertexAdded(id);
+                showComponentChanges(id);
+            }
 
-            makeVertexDraggable(newVertex);
             textFieldAddVertex.clear();
         });
 
@@ -1182,11 +2098,11 @@ public class Editor extends Application {
             if (valueOfNode.isEmpty()) {
                 labelText.append("Last action: Could not remove a vertex without specified value.");
             }
-            else if (vertices.containsKey(valueOfNode)) {
-                Vertex vertexToRemove = vertices.get(valueOfNode);
-                List<Edge> edgesToRemove = edgesContainingVertex(edges, vertexToRemove);
-                int numOfEdgesToRemove = edgesToRemove.size();
-                if (!edgesToRemove.isEmpty()) {
+            else if (graph.containsVertex(valueOfNode)) {
+                int vertexToRemove = graph.indexOf(valueOfNode);
+                int[] edgesToRemove = graph.incidentEdges(vertexToRemove);
+                int numOfEdgesToRemove = edgesToRemove.length;
+                if (numOfEdgesToRemove > 0) {
 
                     labelText.append("Last action: Removed a node with a value of \"")
                             .append(valueOfNode)
@@ -1194,37 +2110,41 @@ public class Editor extends Application {
 
                     int counter = 0;
 
-                    for (Edge edge : edgesToRemove) {
+                    for (int edge : edgesToRemove) {
                         counter++;
-                        canvas.getChildren().remove(edge.getEdge());
                         labelText.append("[");
-                        labelText.append(edge.getFrom().getString());
+                        labelText.append(graph.getLabel(graph.getFrom(edge)));
                         labelText.append(";");
-                        labelText.append(edge.getTo().getString());
+                        labelText.append(graph.getLabel(graph.getTo(edge)));
                         if (counter == numOfEdgesToRemove) labelText.append("].");
                         else labelText.append("], ");
-                        edges.remove(edge);
                     }
-
-                    vertices.remove(valueOfNode);
-                    nodesAddedToCanvas.remove(vertexToRemove);
-                    canvas.getChildren().remove(vertexToRemove);
-                    lastAction.setText(labelText.toString());
-                    textFieldDeleteVertex.clear();
-
-                    return;
+                    hideEdges(edgesToRemove);
+                }
+                else {
+                    labelText.append("Last action: Removed a node with a value of \"")
+                            .append(valueOfNode)
+                            .append("\".");
+                }
+                //vertex and edges removed with it are undone at once
+                history.push(ElementsCommand.removed(graph, new int[] {vertexToRemove}, edgesToRemove, "removal of vertex \"" + valueOfNode + "\""));
+                int[] neighbours = new int[numOfEdgesToRemove];
+                for (int i = 0; i < numOfEdgesToRemove; i++) {
+                    neighbours[i] = graph.opposite(edgesToRemove[i], vertexToRemove);
+                }
+                hideVertex(vertexToRemove);
+                journal.removeVertex(graph.getLabel(vertexToRemove));
+                graph.removeVertex(vertexToRemove);
+                lastAction.setText(labelText.toString());
+                if (components != null) {
+                    components.vertexRemoved(vertexToRemove, neighbours);
+                    showComponentChanges(-1);
                 }
-                labelText.append("Last action: Removed a node with a value of \"")
-                        .append(valueOfNode)
-                        .append("\".");
-                vertices.remove(valueOfNode);
-                canvas.getChildren().remove(vertexToRemove);
-
             }
             else {
                 labelText.append("Last action: Could not remove a vertex because it does not exist.");
+                lastAction.setText(labelText.toString());
             }
-            lastAction.setText(labelText.toString());
             textFieldDeleteVertex.clear();
         });
 
@@ -1234,6 +2154,8 @@ public class Editor extends Application {
         addEdge.setOnAction(actionEvent -> {
             String vertexFromString = textFieldAddEdgeFrom.getText();
             String vertexToString = textFieldAddEdgeTo.getText();
+            int vertexFromId = graph.indexOf(vertexFromString);
+            int vertexToId = graph.indexOf(vertexToString);
             StringBuilder labelText = new StringBuilder();
             if (vertexFromString.isEmpty() || vertexToString.isEmpty()) {
                 labelText.append("Last action: Failed to add an edge, because you did not specify one (or both) of the vertices to add an edge.");
@@ -1245,26 +2167,22 @@ public class Editor extends Application {
                 lastAction.setText(labelText.toString());
                 return;
             }
-            else if (!vertices.containsKey(vertexFromString)) {
+            else if (vertexFromId == -1) {
                 labelText.append("Last action: Failed to add an edge, because a vertex with value of \"")
                         .append(vertexFromString)
                         .append("\" does not exist.");
                 lastAction.setText(labelText.toString());
                 return;
             }
-            else if (!vertices.containsKey(vertexToString)) {
+            else if (vertexToId == -1) {
                 labelText.append("Last action: Failed to add an edge, because a vertex with value of \"")
                         .append(vertexToString)
                         .append("\" does not exist.");
                 lastAction.setText(labelText.toString());
                 return;
             }
-            Vertex vertexFrom = vertices.get(vertexFromString);
-            Vertex vertexTo = vertices.get(vertexToString);
-
-            Edge newEdge = new Edge(vertexFrom, vertexTo);
-            Edge reverseNewEdge = new Edge(vertexTo, vertexFrom);
-            if (edges.contains(newEdge) || edges.contains(reverseNewEdge)) {
+            /* duplicate check on packed ids only, scene graph objects are created just for accepted edge */
+            if (graph.containsEdge(vertexFromId, vertexToId)) {
                 labelText.append("Last action: Failed to add an edge, because edge from vertex with a value of \"")
                         .append(vertexFromString)
                         .append("\" to a vertex with a value \"")
@@ -1273,20 +2191,21 @@ public class Editor extends Application {
                 lastAction.setText(labelText.toString());
                 return;
             }
-            edges.add(newEdge);
-            nodesAddedToCanvas.add(newEdge);
-            canvas.getChildren().add(newEdge.getEdge());
-
-            /* redraw vertices so they are on top of the edge */
-            canvas.getChildren().remove(vertexFrom);
-            canvas.getChildren().remove(vertexTo);
-            canvas.getChildren().addAll(vertexFrom, vertexTo);
+            int id = graph.addEdge(vertexFromId, vertexToId);
+            graph.setEdgeStyle(id, edgeStyles.intern(Edge.currentStyle()));
+            journalAddedEdge(id);
+            history.push(ElementsCommand.inserted(graph, new int[0], new int[] {id}, "insertion of edge [" + vertexFromString + ";" + vertexToString + "]"));
+            showEdge(id);
             labelText.append("Last action: Added an edge from vertex with a value of \"")
                     .append(vertexFromString)
                     .append("\" to a vertex with a value of \"")
                     .append(vertexToString)
                     .append("\".");
             lastAction.setText(labelText.toString());
+            if (components != null) {
+                components.edgeAdded(vertexFromId, vertexToId);
+                showComponentChanges(vertexFromId);
+            }
             textFieldAddEdgeFrom.clear();
             textFieldAddEdgeTo.clear();
         });
@@ -1308,29 +2227,28 @@ public class Editor extends Application {
                 lastAction.setText(labelText.toString());
                 return;
             }
-            else if (!vertices.containsKey(vertexFromString)) {
+            else if (!graph.containsVertex(vertexFromString)) {
                 labelText.append("Last action: Failed to remove an edge, because vertex with a value of \"")
                         .append(vertexFromString)
                         .append("\" does not exist.");
                 lastAction.setText(labelText.toString());
                 return;
             }
-            else if (!vertices.containsKey(vertexToString)) {
+            else if (!graph.containsVertex(vertexToString)) {
                 labelText.append("Last action: Failed to remove an edge, because vertex with a value of \"")
                         .append(vertexToString)
                         .append("\" does not exist.");
                 lastAction.setText(labelText.toString());
                 return;
             }
-            Vertex vertexFrom = vertices.get(vertexFromString);
-            Vertex vertexTo = vertices.get(vertexToString);
-            Edge edgeToRemove = existsEdge(edges, vertexFrom, vertexTo);
-            if (edgeToRemove == null) {
+            int edgeToRemove = graph.findEdge(graph.indexOf(vertexFromString), graph.indexOf(vertexToString));
+            if (edgeToRemove == -1) {
                 labelText.append("Last action: Failed to remove an edge, because edge from vertex with a value of \"")
                         .append(vertexFromString)
                         .append("\" to a vertex with a value of \"")
                         .append(vertexToString)
                         .append("\" does not exists.");
+                lastAction.setText(labelText.toString());
             }
             else {
                 labelText.append("Last action: Removed an edge from vertex with a value of \"")
@@ -1338,11 +2256,18 @@ public class Editor extends Application {
                         .append("\" to a vertex with a value of \"")
                         .append(vertexFromString)
                         .append("\".");
-                canvas.getChildren().remove(edgeToRemove.getEdge());
-                edges.remove(edgeToRemove);
-                nodesAddedToCanvas.remove(edgeToRemove);
+                history.push(ElementsCommand.removed(graph, new int[0], new int[] {edgeToRemove}, "removal of edge [" + vertexFromString + ";" + vertexToString + "]"));
+                hideEdges(edgeToRemove);
+                journal.removeEdge(graph.getLabel(graph.getFrom(edgeToRemove)), graph.getLabel(graph.getTo(edgeToRemove)));
+                int from = graph.getFrom(edgeToRemove);
+                int to = graph.getTo(edgeToRemove);
+                graph.removeEdge(edgeToRemove);
+                lastAction.setText(labelText.toString());
+                if (components != null) {
+                    components.edgeRemoved(from, to);
+                    showComponentChanges(from);
+                }
             }
-            lastAction.setText(labelText.toString());
             textFieldRemoveEdgeFrom.clear();
             textFieldRemoveEdgeTo.clear();
         });
@@ -1417,68 +2342,47 @@ public class Editor extends Application {
          * randomGraph button functionality
          */
         randomGraph.setOnAction(actionEvent -> {
-            clearNodes();
-
-            //random number of vertices - at least 3, max 10
-            int numOfVertices = (int) (Math.random() * 8) + 3;
-            for (int i = 0; i < numOfVertices; i++) {
-                Text vertexValue = new Text(String.valueOf(i + 1));
-                double posX = 75 + rnd.nextDouble() * ((double) 4/5 * canvas.getWidth() - 75);
-                double posY = 75 + rnd.nextDouble() * ((double) 4/5 * canvas.getHeight() - 75);
-                Vertex newVertex = new Vertex(vertexValue, posX, posY);
-                makeVertexDraggable(newVertex);
-                vertices.put(vertexValue.getText(), newVertex);
-                nodesAddedToCanvas.add(newVertex);
-                canvas.getChildren().add(newVertex);
-            }
-
-
-            //max number of edges
-            int maxNumberOfEdges = numOfVertices * (numOfVertices - 1) / 2;
-
-            //nice random number of edges to be generated
-            int numOfEdges = (int) (Math.random() * (maxNumberOfEdges - numOfVertices));
-
-            for (int i = 0; i < numOfEdges; i++) {
-                int firstRandomIndex = (int) (Math.random() * numOfVertices);
-                int secondRandomIndex = (int) (Math.random() * numOfVertices);
-                if (firstRandomIndex == secondRandomIndex) continue;
-                Vertex firstVertex = vertices.get(String.valueOf(firstRandomIndex + 1));
-                Vertex secondVertex = vertices.get(String.valueOf(secondRandomIndex + 1));
-                if (existsEdge(edges, firstVertex, secondVertex) != null) continue;
-                Edge newEdge = new Edge(firstVertex, secondVertex);
-                edges.add(newEdge);
-                nodesAddedToCanvas.add(newEdge);
-                canvas.getChildren().add(newEdge.getEdge());
-                canvas.getChildren().remove(firstVertex);
-                canvas.getChildren().remove(secondVertex);
-                canvas.getChildren().addAll(firstVertex, secondVertex);
+            try {
+                RandomGraphDialog randomGraphDialog = new RandomGraphDialog(this::generateAction);
+            } catch (Exception e) {
+                e.printStackTrace();
             }
-
-            StringBuilder sb = new StringBuilder();
-            sb.append("Last action: Generated a random graph with ")
-                    .append(numOfVertices)
-                    .append(" vertices and ")
-                    .append(numOfEdges)
-                    .append(" edge(s).");
-
-            lastAction.setText(sb.toString());
         });
 
         /*
          * clearCanvas button functionality
          */
         clearCanvas.setOnAction(actionEvent -> {
+            if (graph.vertexCount() > 0) history.push(ElementsCommand.cleared(graph, "clearing of canvas"));
             clearNodes();
+            journal.clear();
             lastAction.setText("Last action: Removed graph (cleared canvas).");
         });
 
+        /*
+         * progress of opening or saving file - shown below canvas only while file is being read or written
+         */
+        ioTitle = new Label();
+        ioProgressBar = new ProgressBar();
+        ioProgressBar.setPrefWidth(300);
+        Button cancelIo = new Button("Cancel");
+        cancelIo.setOnAction(actionEvent -> {
+            if (ioTask != null) ioTask.cancel();
+        });
+        ioProgress = new HBox(10, ioTitle, ioProgressBar, cancelIo);
+        ioProgress.setAlignment(Pos.CENTER_LEFT);
+        ioProgress.setPadding(new Insets(5, 10, 5, 10));
+        ioProgress.setVisible(false);
+        ioProgress.setManaged(false);
+        functionsBox = vBox;
+
         /*
          * positioning of nodes on screen
          */
         pane.setTop(menuBar);
         pane.setLeft(canvas);
         pane.setRight(vBox);
+        pane.setBottom(ioProgress);
 
         /*
          * setting ids to enforce css styles on components
@@ -1488,6 +2392,7 @@ public class Editor extends Application {
         lastAction.setId("modeSelected");
         functions.setId("modeSelected");
         misc.setId("modeSelected");
+        ioTitle.setId("modeSelected");
 
         /*
          * stage format
@@ -1497,8 +2402,9 @@ public class Editor extends Application {
         stage.setTitle("Graph Editor");
         stage.initStyle(StageStyle.DECORATED);
         stage.setScene(scene);
-        stage.setResizable(false);
-        stage.getIcons().add(new Image("https://raw.githubusercontent.com/Loso9/editor-grafov/master/icons/icon2.png"));
+        stage.setResizable(true);
+        //icon is loaded in background, so window does not wait for network
+        stage.getIcons().add(new Image("https://raw.githubusercontent.com/Loso9/editor-grafov/master/icons/icon2.png", true));
         stage.show();
         stage.setOnCloseRequest(this::closeWindowRequest);
     }
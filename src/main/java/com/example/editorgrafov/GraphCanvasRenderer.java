@@ -0,0 +1,541 @@
+package com.example.editorgrafov;
+
+import com.example.editorgrafov.algorithm.Highlight;
+import com.example.editorgrafov.enums.Detail;
+import com.example.editorgrafov.io.TiledGraph;
+import com.example.editorgrafov.model.GraphModel;
+import com.example.editorgrafov.model.IntList;
+import com.example.editorgrafov.style.EdgeStyle;
+import com.example.editorgrafov.style.StyleTable;
+import com.example.editorgrafov.style.VertexStyle;
+import javafx.animation.AnimationTimer;
+import javafx.geometry.VPos;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+import javafx.scene.text.TextAlignment;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Class representing immediate-mode renderer of graph - whole graph is drawn onto single Canvas. <br>
+ * - used instead of Vertex/Edge nodes for big graphs, no scene graph node is created per element <br>
+ * - edges are stroked in batched paths, path is flushed when style of edges changes <br>
+ * - every element is drawn by its style from style tables, paint and font are switched only when style changes <br>
+ * - only elements intersecting visible area of canvas are drawn, they are found by spatial index of graph model <br>
+ * - highlighted elements (result of algorithm, connected components) are drawn by color of their group instead of their style <br>
+ * - graph is drawn through view transform (scale and translation), level of detail is chosen by radius of vertex on screen:
+ * full detail, simplified shapes without values, or density image where edges are accumulated into pixels <br>
+ * - graph browsed out of core (TiledGraph) is drawn from its loaded tiles by the same levels of detail, its overview
+ * is drawn instead when graph is zoomed out, too many tiles are visible, or while visible tiles are being loaded <br>
+ * - redraw is requested by requestRedraw() and done at most once per pulse
+ */
+public class GraphCanvasRenderer {
+
+    /**
+     * Number of edge segments stroked by single path
+     */
+    private static final int EDGES_PER_PATH = 4096;
+
+    /**
+     * Width added to highlighted edges
+     */
+    public static final int HIGHLIGHT_WIDTH = 2;
+
+    /* hues of consecutive groups differ by golden angle, so even neighbouring groups are told apart */
+    private static final double GOLDEN_ANGLE_DEGREES = 137.50776;
+
+    /* radius of vertex on screen (in pixels) from which values are drawn, and from which vertices are shapes */
+    private static final double LABEL_MIN_RADIUS = 6;
+    private static final double SHAPE_MIN_RADIUS = 1;
+    /* edge longer on screen is accumulated into density image only at this many points */
+    private static final int MAX_DENSITY_STEPS = 256;
+    /* most tiles of tiled graph drawn at once, more visible tiles are drawn by overview */
+    private static final int MAX_DRAWN_TILES = 64;
+
+    private final Canvas surface;
+    private GraphModel graph;
+    private final StyleTable<VertexStyle> vertexStyles;
+    private final StyleTable<EdgeStyle> edgeStyles;
+    private boolean dirty;
+    private final AnimationTimer timer;
+    private final IntList visibleVertices = new IntList();
+    private final IntList visibleEdges = new IntList();
+    private final IntList hits = new IntList();
+    private Highlight highlight;
+    /* view transform, point [x, y] of graph is drawn at [x * scale + translateX, y * scale + translateY] */
+    private double scale = 1;
+    private double translateX;
+    private double translateY;
+    /* density image and its buffers, reallocated only when canvas changes size */
+    private WritableImage densityImage;
+    private int[] densityCounts = new int[0];
+    private int[] densityPixels = new int[0];
+    /* visible edges counted by style id, edges are drawn in color of the most common one */
+    private int[] densityStyleCounts = new int[0];
+    /* graph browsed out of core, drawn instead of graph model if set, and image of its overview */
+    private TiledGraph tiledGraph;
+    private int tiledVertexStyle;
+    private int tiledEdgeStyle;
+    private WritableImage overviewImage;
+    private final List<TiledGraph.Tile> visibleTiles = new ArrayList<>();
+
+    /**
+     * Constructor of GraphCanvasRenderer object
+     * @param graph graph model to be drawn
+     * @param vertexStyles table style ids of vertices refer to
+     * @param edgeStyles table style ids of edges refer to
+     */
+    public GraphCanvasRenderer(GraphModel graph, StyleTable<VertexStyle> vertexStyles, StyleTable<EdgeStyle> edgeStyles) {
+        this.graph = graph;
+        this.vertexStyles = vertexStyles;
+        this.edgeStyles = edgeStyles;
+        this.surface = new Canvas();
+        surface.widthProperty().addListener((observableValue, oldValue, newValue) -> requestRedraw());
+        surface.heightProperty().addListener((observableValue, oldValue, newValue) -> requestRedraw());
+        this.timer = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                if (dirty) {
+                    dirty = false;
+                    draw();
+                }
+            }
+        };
+    }
+
+    /**
+     * Method for getting Canvas node the graph is drawn onto
+     * @return canvas node
+     */
+    public Canvas getSurface() {
+        return surface;
+    }
+
+    /**
+     * Method for setting graph model to be drawn
+     * @param graph graph model
+     */
+    public void setGraph(GraphModel graph) {
+        this.graph = graph;
+        requestRedraw();
+    }
+
+    /**
+     * Method for setting graph browsed out of core, it is drawn instead of graph model
+     * @param tiledGraph tiled graph, null to draw graph model again
+     * @param vertexStyle style id all its vertices are drawn by (tiles do not store styles)
+     * @param edgeStyle style id all its edges are drawn by
+     */
+    public void setTiledGraph(TiledGraph tiledGraph, int vertexStyle, int edgeStyle) {
+        this.tiledGraph = tiledGraph;
+        tiledVertexStyle = vertexStyle;
+        tiledEdgeStyle = edgeStyle;
+        overviewImage = tiledGraph == null ? null : overviewImage(tiledGraph);
+        visibleTiles.clear();
+        requestRedraw();
+    }
+
+    /**
+     * Method for setting highlighting of elements (result of algorithm, connected components)
+     * @param highlight highlighted groups, null to highlight nothing
+     */
+    public void setHighlight(Highlight highlight) {
+        this.highlight = highlight;
+        requestRedraw();
+    }
+
+    /**
+     * Method for setting view transform graph is drawn through
+     * @param scale scale of graph (zoom), 1 draws graph in its coordinates
+     * @param translateX x coordinate point [0, 0] of graph is drawn at
+     * @param translateY y coordinate point [0, 0] of graph is drawn at
+     */
+    public void setView(double scale, double translateX, double translateY) {
+        this.scale = scale;
+        this.translateX = translateX;
+        this.translateY = translateY;
+        requestRedraw();
+    }
+
+    /**
+     * Method for choosing level of detail by size of vertex on screen
+     * @param projectedRadius radius of vertex on screen, in pixels
+     * @return level of detail
+     */
+    public static Detail detailOf(double projectedRadius) {
+        if (projectedRadius >= LABEL_MIN_RADIUS) return Detail.FULL;
+        else if (projectedRadius >= SHAPE_MIN_RADIUS) return Detail.SHAPES;
+        else return Detail.DENSITY;
+    }
+
+    /**
+     * Method for getting color highlighted elements of group are drawn by, group 0 is red
+     * @param group group of element
+     * @return color
+     */
+    public static Color highlightColor(int group) {
+        return Color.hsb((group * GOLDEN_ANGLE_DEGREES) % 360, 0.9, 0.9);
+    }
+
+    /**
+     * Method for turning renderer on or off, turned off renderer clears its canvas and stops redrawing
+     * @param active true to turn renderer on, false to turn it off
+     */
+    public void setActive(boolean active) {
+        surface.setVisible(active);
+        if (active) {
+            timer.start();
+            requestRedraw();
+        }
+        else {
+            timer.stop();
+            surface.getGraphicsContext2D().clearRect(0, 0, surface.getWidth(), surface.getHeight());
+        }
+    }
+
+    /**
+     * Method for marking graph as changed, it gets redrawn during next pulse
+     */
+    public void requestRedraw() {
+        dirty = true;
+    }
+
+    /**
+     * Method for drawing visible part of graph onto canvas in level of detail given by current scale
+     */
+    public void draw() {
+        GraphicsContext gc = surface.getGraphicsContext2D();
+        double width = surface.getWidth();
+        double height = surface.getHeight();
+        gc.setTransform(1, 0, 0, 1, 0, 0);
+        gc.clearRect(0, 0, width, height);
+
+        /* vertex is visible if its circle intersects visible area, edge if its bounding box does */
+        double radius = tiledGraph != null ? vertexStyles.get(tiledVertexStyle).getRadius() : maxRadius();
+        double minX = -translateX / scale;
+        double minY = -translateY / scale;
+        double maxX = (width - translateX) / scale;
+        double maxY = (height - translateY) / scale;
+        Detail detail = detailOf(radius * scale);
+        if (tiledGraph != null) {
+            drawTiled(gc, detail, minX - radius, minY - radius, maxX + radius, maxY + radius);
+            return;
+        }
+        visibleVertices.clear();
+        graph.verticesIn(minX - radius, minY - radius, maxX + radius, maxY + radius, visibleVertices);
+        visibleVertices.sort();
+        visibleEdges.clear();
+        graph.edgesIn(minX, minY, maxX, maxY, visibleEdges);
+
+        if (detail == Detail.DENSITY) {
+            drawDensity(gc, (int) Math.ceil(width), (int) Math.ceil(height));
+            return;
+        }
+        gc.setTransform(scale, 0, 0, scale, translateX, translateY);
+        drawEdges(gc, detail == Detail.FULL);
+        if (detail == Detail.FULL) drawVertices(gc);
+        else drawVertexShapes(gc);
+        gc.setTransform(1, 0, 0, 1, 0, 0);
+    }
+
+    /* edges - batched into paths of at most EDGES_PER_PATH segments of the same style and group,
+     * without full detail all edges are hairlines, so only group changes paint */
+    private void drawEdges(GraphicsContext gc, boolean fullDetail) {
+        gc.beginPath();
+        int segments = 0;
+        int currentStyle = -1;
+        int currentGroup = Highlight.NONE;
+        if (!fullDetail) gc.setLineWidth(1 / scale);
+        for (int i = 0; i < visibleEdges.size(); i++) {
+            int id = visibleEdges.get(i);
+            int style = fullDetail ? graph.getEdgeStyle(id) : 0;
+            int group = highlight == null ? Highlight.NONE : highlight.edgeGroup(id);
+            if (style != currentStyle || group != currentGroup || segments == EDGES_PER_PATH) {
+                gc.stroke();
+                gc.beginPath();
+                segments = 0;
+                if (style != currentStyle || group != currentGroup) {
+                    currentStyle = style;
+                    currentGroup = group;
+                    EdgeStyle edgeStyle = edgeStyles.get(style);
+                    if (group == Highlight.NONE) {
+                        gc.setStroke(edgeStyle.getColor());
+                        if (fullDetail) gc.setLineWidth(edgeStyle.getWidth());
+                    }
+                    else {
+                        gc.setStroke(highlightColor(group));
+                        if (fullDetail) gc.setLineWidth(edgeStyle.getWidth() + HIGHLIGHT_WIDTH);
+                    }
+                }
+            }
+            int from = graph.getFrom(id);
+            int to = graph.getTo(id);
+            gc.moveTo(graph.getX(from), graph.getY(from));
+            gc.lineTo(graph.getX(to), graph.getY(to));
+            segments++;
+        }
+        gc.stroke();
+    }
+
+    /* vertices - in order of ids, so vertex added later is drawn on top, then their values */
+    private void drawVertices(GraphicsContext gc) {
+        gc.setStroke(Color.BLACK);
+        gc.setLineWidth(1);
+        int currentStyle = -1;
+        int currentGroup = Highlight.NONE;
+        for (int i = 0; i < visibleVertices.size(); i++) {
+            int id = visibleVertices.get(i);
+            int style = graph.getVertexStyle(id);
+            int group = highlight == null ? Highlight.NONE : highlight.vertexGroup(id);
+            if (style != currentStyle || group != currentGroup) {
+                currentStyle = style;
+                currentGroup = group;
+                gc.setFill(group == Highlight.NONE ? vertexStyles.get(style).getFill() : highlightColor(group));
+            }
+            double r = vertexStyles.get(style).getRadius();
+            double x = graph.getX(id) - r;
+            double y = graph.getY(id) - r;
+            gc.fillOval(x, y, 2 * r, 2 * r);
+            gc.strokeOval(x, y, 2 * r, 2 * r);
+        }
+
+        gc.setFill(Vertex.textColor);
+        gc.setTextAlign(TextAlignment.CENTER);
+        gc.setTextBaseline(VPos.CENTER);
+        currentStyle = -1;
+        for (int i = 0; i < visibleVertices.size(); i++) {
+            int id = visibleVertices.get(i);
+            int style = graph.getVertexStyle(id);
+            if (style != currentStyle) {
+                currentStyle = style;
+                gc.setFont(vertexStyles.get(style).getFont());
+            }
+            gc.fillText(graph.getLabel(id), graph.getX(id), graph.getY(id));
+        }
+    }
+
+    /* vertices as squares of their diameter (at least one pixel), no outline and no value */
+    private void drawVertexShapes(GraphicsContext gc) {
+        double pixel = 1 / scale;
+        int currentStyle = -1;
+        int currentGroup = Highlight.NONE;
+        for (int i = 0; i < visibleVertices.size(); i++) {
+            int id = visibleVertices.get(i);
+            int style = graph.getVertexStyle(id);
+            int group = highlight == null ? Highlight.NONE : highlight.vertexGroup(id);
+            if (style != currentStyle || group != currentGroup) {
+                currentStyle = style;
+                currentGroup = group;
+                gc.setFill(group == Highlight.NONE ? vertexStyles.get(style).getFill() : highlightColor(group));
+            }
+            double side = Math.max(2 * vertexStyles.get(style).getRadius(), pixel);
+            gc.fillRect(graph.getX(id) - side / 2, graph.getY(id) - side / 2, side, side);
+        }
+    }
+
+    /*
+     * density - every edge adds 1 to pixels it passes (sampled at most MAX_DENSITY_STEPS times), count of pixel
+     * gives its opacity on logarithmic scale, edges take color of style most of visible edges have,
+     * vertices are single pixels of their color on top, whole image is put onto canvas at once
+     */
+    private void drawDensity(GraphicsContext gc, int width, int height) {
+        if (width <= 0 || height <= 0) return;
+        if (densityImage == null || (int) densityImage.getWidth() != width || (int) densityImage.getHeight() != height) {
+            densityImage = new WritableImage(width, height);
+            densityCounts = new int[width * height];
+            densityPixels = new int[width * height];
+        }
+        Arrays.fill(densityCounts, 0);
+        if (densityStyleCounts.length < edgeStyles.size()) densityStyleCounts = new int[edgeStyles.size()];
+        Arrays.fill(densityStyleCounts, 0);
+        int dominantStyle = -1;
+        int maxCount = 0;
+        for (int i = 0; i < visibleEdges.size(); i++) {
+            int id = visibleEdges.get(i);
+            int style = graph.getEdgeStyle(id);
+            densityStyleCounts[style]++;
+            if (dominantStyle == -1 || densityStyleCounts[style] > densityStyleCounts[dominantStyle]) dominantStyle = style;
+            int from = graph.getFrom(id);
+            int to = graph.getTo(id);
+            double x0 = graph.getX(from) * scale + translateX;
+            double y0 = graph.getY(from) * scale + translateY;
+            double x1 = graph.getX(to) * scale + translateX;
+            double y1 = graph.getY(to) * scale + translateY;
+            int steps = (int) Math.min(MAX_DENSITY_STEPS, Math.max(Math.abs(x1 - x0), Math.abs(y1 - y0)));
+            for (int step = 0; step <= steps; step++) {
+                double t = steps == 0 ? 0 : (double) step / steps;
+                int px = (int) (x0 + (x1 - x0) * t);
+                int py = (int) (y0 + (y1 - y0) * t);
+                if (px < 0 || py < 0 || px >= width || py >= height) continue;
+                int count = ++densityCounts[py * width + px];
+                if (count > maxCount) maxCount = count;
+            }
+        }
+        //opacity grows with logarithm of count, so single edges stay visible next to dense clusters
+        double norm = 1 / Math.log1p(Math.max(maxCount, 1));
+        int edgeRgb = argb(dominantStyle == -1 ? Color.BLACK : edgeStyles.get(dominantStyle).getColor()) & 0xFFFFFF;
+        for (int i = 0; i < densityCounts.length; i++) {
+            int count = densityCounts[i];
+            if (count == 0) {
+                densityPixels[i] = 0;
+                continue;
+            }
+            int alpha = 64 + (int) (191 * Math.log1p(count) * norm);
+            densityPixels[i] = alpha << 24 | edgeRgb;
+        }
+        for (int i = 0; i < visibleVertices.size(); i++) {
+            int id = visibleVertices.get(i);
+            int px = (int) (graph.getX(id) * scale + translateX);
+            int py = (int) (graph.getY(id) * scale + translateY);
+            if (px < 0 || py < 0 || px >= width || py >= height) continue;
+            int group = highlight == null ? Highlight.NONE : highlight.vertexGroup(id);
+            densityPixels[py * width + px] = argb(group == Highlight.NONE
+                    ? vertexStyles.get(graph.getVertexStyle(id)).getFill() : highlightColor(group));
+        }
+        densityImage.getPixelWriter().setPixels(0, 0, width, height, PixelFormat.getIntArgbInstance(), densityPixels, 0, width);
+        gc.drawImage(densityImage, 0, 0);
+    }
+
+    /*
+     * tiled graph - loaded tiles of visible area by styles given with tiled graph,
+     * overview under them while some of them are still being loaded
+     */
+    private void drawTiled(GraphicsContext gc, Detail detail, double minX, double minY, double maxX, double maxY) {
+        visibleTiles.clear();
+        boolean overviewOnly = detail == Detail.DENSITY
+                || tiledGraph.tileCountIn(minX, minY, maxX, maxY) > Math.min(MAX_DRAWN_TILES, tiledGraph.cacheCapacity());
+        int missing = 0;
+        if (overviewOnly) tiledGraph.cancelRequests();
+        else missing = tiledGraph.tilesIn(minX, minY, maxX, maxY, visibleTiles);
+        gc.setTransform(scale, 0, 0, scale, translateX, translateY);
+        if (overviewOnly || missing > 0) {
+            gc.drawImage(overviewImage, tiledGraph.getMinX(), tiledGraph.getMinY(),
+                    tiledGraph.getMaxX() - tiledGraph.getMinX(), tiledGraph.getMaxY() - tiledGraph.getMinY());
+        }
+        if (overviewOnly) {
+            gc.setTransform(1, 0, 0, 1, 0, 0);
+            return;
+        }
+        boolean fullDetail = detail == Detail.FULL;
+        EdgeStyle edgeStyle = edgeStyles.get(tiledEdgeStyle);
+        VertexStyle vertexStyle = vertexStyles.get(tiledVertexStyle);
+        gc.setStroke(edgeStyle.getColor());
+        gc.setLineWidth(fullDetail ? edgeStyle.getWidth() : 1 / scale);
+        gc.beginPath();
+        int segments = 0;
+        for (TiledGraph.Tile tile : visibleTiles) {
+            for (int edge = 0; edge < tile.edgeCount(); edge++) {
+                if (segments == EDGES_PER_PATH) {
+                    gc.stroke();
+                    gc.beginPath();
+                    segments = 0;
+                }
+                gc.moveTo(tile.getFromX(edge), tile.getFromY(edge));
+                gc.lineTo(tile.getToX(edge), tile.getToY(edge));
+                segments++;
+            }
+        }
+        gc.stroke();
+
+        double r = vertexStyle.getRadius();
+        gc.setFill(vertexStyle.getFill());
+        if (fullDetail) {
+            gc.setStroke(Color.BLACK);
+            gc.setLineWidth(1);
+        }
+        double side = Math.max(2 * r, 1 / scale);
+        for (TiledGraph.Tile tile : visibleTiles) {
+            for (int vertex = 0; vertex < tile.vertexCount(); vertex++) {
+                if (fullDetail) {
+                    gc.fillOval(tile.getX(vertex) - r, tile.getY(vertex) - r, 2 * r, 2 * r);
+                    gc.strokeOval(tile.getX(vertex) - r, tile.getY(vertex) - r, 2 * r, 2 * r);
+                }
+                else gc.fillRect(tile.getX(vertex) - side / 2, tile.getY(vertex) - side / 2, side, side);
+            }
+        }
+        if (fullDetail) {
+            gc.setFill(Vertex.textColor);
+            gc.setTextAlign(TextAlignment.CENTER);
+            gc.setTextBaseline(VPos.CENTER);
+            gc.setFont(vertexStyle.getFont());
+            for (TiledGraph.Tile tile : visibleTiles) {
+                for (int vertex = 0; vertex < tile.vertexCount(); vertex++) {
+                    gc.fillText(tile.getLabel(vertex), tile.getX(vertex), tile.getY(vertex));
+                }
+            }
+        }
+        gc.setTransform(1, 0, 0, 1, 0, 0);
+    }
+
+    /* overview of tiled graph - one pixel per cell, opacity grows with logarithm of its count as in density image */
+    private WritableImage overviewImage(TiledGraph tiled) {
+        int columns = tiled.getOverviewColumns();
+        int rows = tiled.getOverviewRows();
+        int maxCount = 0;
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                maxCount = Math.max(maxCount, tiled.overviewCount(column, row));
+            }
+        }
+        double norm = 1 / Math.log1p(Math.max(maxCount, 1));
+        int edgeRgb = argb(edgeStyles.get(tiledEdgeStyle).getColor()) & 0xFFFFFF;
+        int[] pixels = new int[columns * rows];
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                int count = tiled.overviewCount(column, row);
+                if (count == 0) continue;
+                int alpha = 64 + (int) (191 * Math.log1p(count) * norm);
+                pixels[row * columns + column] = alpha << 24 | edgeRgb;
+            }
+        }
+        WritableImage image = new WritableImage(columns, rows);
+        image.getPixelWriter().setPixels(0, 0, columns, rows, PixelFormat.getIntArgbInstance(), pixels, 0, columns);
+        return image;
+    }
+
+    private static int argb(Color color) {
+        return (int) Math.round(color.getOpacity() * 255) << 24
+                | (int) Math.round(color.getRed() * 255) << 16
+                | (int) Math.round(color.getGreen() * 255) << 8
+                | (int) Math.round(color.getBlue() * 255);
+    }
+
+    /**
+     * Method for finding vertex under point as drawn by renderer, vertices drawn later (on top) are preferred -
+     * renderer draws vertices in order of ids by their style radius
+     * @param x x coordinate of point in graph (view transform is not applied)
+     * @param y y coordinate of point in graph (view transform is not applied)
+     * @return id of vertex, -1 if there is none
+     */
+    public int vertexAt(double x, double y) {
+        double maxRadius = maxRadius();
+        hits.clear();
+        graph.verticesIn(x - maxRadius, y - maxRadius, x + maxRadius, y + maxRadius, hits);
+        int found = -1;
+        for (int i = 0; i < hits.size(); i++) {
+            int id = hits.get(i);
+            double radius = vertexStyles.get(graph.getVertexStyle(id)).getRadius();
+            double diffX = graph.getX(id) - x;
+            double diffY = graph.getY(id) - y;
+            if (id > found && diffX * diffX + diffY * diffY <= radius * radius) found = id;
+        }
+        return found;
+    }
+
+    /**
+     * Method for getting biggest radius of vertex styles, used as margin of spatial queries
+     * @return biggest radius, 0 if there are no styles
+     */
+    public double maxRadius() {
+        double radius = 0;
+        for (int style = 0; style < vertexStyles.size(); style++) {
+            radius = Math.max(radius, vertexStyles.get(style).getRadius());
+        }
+        return radius;
+    }
+}
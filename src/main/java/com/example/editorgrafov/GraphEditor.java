@@ -1,7 +1,11 @@
 package com.example.editorgrafov;
 
+import com.example.editorgrafov.cli.GraphCli;
+
 /**
- * Wrapper class made for creating .jar file
+ * Wrapper class made for creating .jar file. <br>
+ * - first argument naming command of GraphCli (convert, validate, stats, index) or asking for its help
+ * (help, --help) runs it headless, JavaFX is never started
  */
 public class GraphEditor {
 
@@ -10,6 +14,7 @@ public class GraphEditor {
      * @param args args
      */
     public static void main(String[] args) {
-        Editor.main(args);
+        if (args.length > 0 && GraphCli.isCommand(args[0])) GraphCli.main(args);
+        else Editor.main(args);
     }
 }
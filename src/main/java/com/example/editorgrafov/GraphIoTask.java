@@ -0,0 +1,62 @@
+package com.example.editorgrafov;
+
+import com.example.editorgrafov.io.ProgressMonitor;
+import javafx.concurrent.Task;
+
+import java.io.IOException;
+
+/**
+ * Class representing reading or writing of graph file running in background thread. <br>
+ * - progress reported by readers and writers is forwarded to progressProperty() of the task <br>
+ * - cancel() of the task is seen by readers and writers through ProgressMonitor.isCancelled() <br>
+ * - other long-running jobs over graph model reporting to ProgressMonitor (e.g. layout) are run the same way
+ * @param <T> type of result, Void for writing
+ */
+public class GraphIoTask<T> extends Task<T> implements ProgressMonitor {
+
+    /**
+     * Interface representing the actual reading or writing
+     * @param <T> type of result
+     */
+    @FunctionalInterface
+    public interface Job<T> {
+        /**
+         * Method doing the I/O
+         * @param monitor monitor progress has to be reported to
+         * @return result of I/O
+         * @throws IOException exception
+         */
+        T run(ProgressMonitor monitor) throws IOException;
+    }
+
+    private final Job<T> job;
+
+    /**
+     * Constructor of GraphIoTask object
+     * @param title text shown next to progress bar
+     * @param job reading or writing to be run
+     */
+    public GraphIoTask(String title, Job<T> job) {
+        this.job = job;
+        updateTitle(title);
+    }
+
+    @Override
+    protected T call() throws IOException {
+        return job.run(this);
+    }
+
+    @Override
+    public void progress(long done, long total) {
+        updateProgress(done, total);
+    }
+
+    /**
+     * Method for starting task in new daemon thread
+     */
+    public void start() {
+        Thread thread = new Thread(this, "graph-io");
+        thread.setDaemon(true);
+        thread.start();
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.editorgrafov;
+
+import com.example.editorgrafov.generator.RandomGraphGenerator;
+import com.example.editorgrafov.generator.RandomGraphGenerator.Model;
+import javafx.application.Application;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.Scene;
+import javafx.scene.control.Button;
+import javafx.scene.control.ComboBox;
+import javafx.scene.control.Label;
+import javafx.scene.control.TextField;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.VBox;
+import javafx.stage.Stage;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+
+/**
+ * Class representing window for choosing model, parameters and seed of random graph. <br>
+ * - seed is prefilled with random value, same seed and parameters generate the same graph again
+ */
+public class RandomGraphDialog extends Application {
+
+    private static final Stage randomGraphStage = new Stage();
+
+    private final Consumer<RandomGraphGenerator> onGenerate;
+
+    /**
+     * Method for opening random graph window in separate window
+     * @param randomGraphStage stage
+     * @throws Exception exception
+     */
+    @Override
+    public void start(Stage randomGraphStage) throws Exception {
+        randomGraphStage.setTitle("Random Graph");
+
+        /* VBox holding all the components in the window */
+        VBox vBoxComponents = new VBox();
+        vBoxComponents.setSpacing(10);
+        vBoxComponents.setPadding(new Insets(10, 10, 10, 10));
+
+        /* Model of the graph */
+        Label modelLabel = new Label("Choose model of a random graph:");
+        ComboBox<Model> modelSelector = new ComboBox<>();
+        modelSelector.getItems().addAll(Model.values());
+        modelSelector.setValue(Model.GNM);
+
+        /* Parameters of the model */
+        Label verticesLabel = new Label("Number of vertices (n):");
+        TextField verticesField = new TextField("10");
+        Label parameterLabel = new Label();
+        TextField parameterField = new TextField();
+        Label rewiringLabel = new Label("Rewiring probability (beta):");
+        TextField rewiringField = new TextField("0.1");
+        Label seedLabel = new Label("Seed:");
+        TextField seedField = new TextField(String.valueOf(ThreadLocalRandom.current().nextLong()));
+        Label errorLabel = new Label();
+
+        HBox HBoxForButtons = new HBox();
+        HBoxForButtons.setSpacing(10);
+        HBoxForButtons.setPadding(new Insets(10, 10, 10, 10));
+
+        /* Generate button */
+        Button generateButton = new Button("Generate");
+
+        /* Cancel button */
+        Button cancelButton = new Button("Cancel");
+
+        HBoxForButtons.getChildren().addAll(generateButton, cancelButton);
+        HBoxForButtons.setAlignment(Pos.CENTER_RIGHT);
+
+        /*
+         * model selector functionality, shows parameters of chosen model
+         */
+        modelSelector.valueProperty().addListener((observableValue, oldValue, newValue) -> {
+            switch (newValue) {
+                case GNP:
+                    parameterLabel.setText("Probability of an edge (p):");
+                    parameterField.setText("0.3");
+                    break;
+                case GNM:
+                    parameterLabel.setText("Number of edges (m):");
+                    parameterField.setText("15");
+                    break;
+                case BARABASI_ALBERT:
+                    parameterLabel.setText("Number of edges of every new vertex (m):");
+                    parameterField.setText("2");
+                    break;
+                default:
+                    parameterLabel.setText("Degree of vertices in ring (k, even):");
+                    parameterField.setText("4");
+            }
+            rewiringLabel.setVisible(newValue == Model.WATTS_STROGATZ);
+            rewiringField.setVisible(newValue == Model.WATTS_STROGATZ);
+            errorLabel.setText("");
+        });
+        //fill in parameters of default model
+        modelSelector.setValue(Model.GNP);
+        modelSelector.setValue(Model.GNM);
+
+        /*
+         * generate button functionality, sends generator to main application class
+         */
+        generateButton.setOnAction(actionEvent -> {
+            RandomGraphGenerator generator;
+            try {
+                int n = Integer.parseInt(verticesField.getText().trim());
+                long seed = Long.parseLong(seedField.getText().trim());
+                String parameter = parameterField.getText().trim();
+                switch (modelSelector.getValue()) {
+                    case GNP:
+                        generator = RandomGraphGenerator.gnp(n, Double.parseDouble(parameter), seed);
+                        break;
+                    case GNM:
+                        generator = RandomGraphGenerator.gnm(n, Long.parseLong(parameter), seed);
+                        break;
+                    case BARABASI_ALBERT:
+                        generator = RandomGraphGenerator.barabasiAlbert(n, Integer.parseInt(parameter), seed);
+                        break;
+                    default:
+                        generator = RandomGraphGenerator.wattsStrogatz(n, Integer.parseInt(parameter),
+                                Double.parseDouble(rewiringField.getText().trim()), seed);
+                }
+            }
+            catch (NumberFormatException e) {
+                errorLabel.setText("Parameters have to be numbers.");
+                return;
+            }
+            catch (IllegalArgumentException e) {
+                errorLabel.setText(e.getMessage() + ".");
+                return;
+            }
+            randomGraphStage.close();
+            onGenerate.accept(generator);
+        });
+
+        /*
+         * cancel button functionality, closes window for random graph
+         */
+        cancelButton.setOnAction(actionEvent -> randomGraphStage.close());
+
+        /*
+         * add components into VBox and set their positioning
+         */
+        vBoxComponents.getChildren().addAll(modelLabel, modelSelector,
+                verticesLabel, verticesField,
+                parameterLabel, parameterField,
+                rewiringLabel, rewiringField,
+                seedLabel, seedField,
+                errorLabel, HBoxForButtons);
+        vBoxComponents.setAlignment(Pos.CENTER);
+
+        /*
+         * set ids for components for css style applying
+         */
+        modelLabel.setId("modeSelected");
+        verticesLabel.setId("modeSelected");
+        parameterLabel.setId("modeSelected");
+        rewiringLabel.setId("modeSelected");
+        seedLabel.setId("modeSelected");
+
+        Scene scene = new Scene(vBoxComponents, 500, 450);
+        scene.getStylesheets().add("styles.css");
+        vBoxComponents.setStyle("-fx-background-color: #DADADA");
+        randomGraphStage.setResizable(false);
+        randomGraphStage.setScene(scene);
+        randomGraphStage.show();
+    }
+
+    /**
+     * Constructor for class RandomGraphDialog
+     * @param onGenerate handler called with generator chosen by user
+     * @throws Exception exception
+     */
+    public RandomGraphDialog(Consumer<RandomGraphGenerator> onGenerate) throws Exception {
+        this.onGenerate = onGenerate;
+        start(randomGraphStage);
+    }
+}
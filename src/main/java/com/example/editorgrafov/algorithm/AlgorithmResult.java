@@ -0,0 +1,73 @@
+package com.example.editorgrafov.algorithm;
+
+import java.util.Arrays;
+
+/**
+ * Class representing result of graph algorithm as highlighting of vertices and edges. <br>
+ * - groups are held in int arrays indexed by ids of graph model, NONE marks element that is not highlighted <br>
+ * - result does not follow later edits, removed elements have to be cleared by clearVertex() and clearEdge()
+ */
+public class AlgorithmResult implements Highlight {
+
+    private final int[] vertexGroups;
+    private final int[] edgeGroups;
+    private String summary = "";
+
+    /**
+     * Constructor of AlgorithmResult object with no element highlighted
+     * @param vertexSlots number of vertex slots of graph model
+     * @param edgeSlots number of edge slots of graph model
+     */
+    AlgorithmResult(int vertexSlots, int edgeSlots) {
+        this.vertexGroups = new int[vertexSlots];
+        this.edgeGroups = new int[edgeSlots];
+        Arrays.fill(vertexGroups, NONE);
+        Arrays.fill(edgeGroups, NONE);
+    }
+
+    @Override
+    public int vertexGroup(int id) {
+        return id < vertexGroups.length ? vertexGroups[id] : NONE;
+    }
+
+    @Override
+    public int edgeGroup(int id) {
+        return id < edgeGroups.length ? edgeGroups[id] : NONE;
+    }
+
+    /**
+     * Method for removing highlight of vertex removed from graph model, so vertex reusing its id is not highlighted
+     * @param id id of vertex in graph model
+     */
+    public void clearVertex(int id) {
+        if (id < vertexGroups.length) vertexGroups[id] = NONE;
+    }
+
+    /**
+     * Method for removing highlight of edge removed from graph model, so edge reusing its id is not highlighted
+     * @param id id of edge in graph model
+     */
+    public void clearEdge(int id) {
+        if (id < edgeGroups.length) edgeGroups[id] = NONE;
+    }
+
+    /**
+     * Method for getting text describing result, shown as last action
+     * @return summary
+     */
+    public String getSummary() {
+        return summary;
+    }
+
+    void setSummary(String summary) {
+        this.summary = summary;
+    }
+
+    void setVertexGroup(int id, int group) {
+        vertexGroups[id] = group;
+    }
+
+    void setEdgeGroup(int id, int group) {
+        edgeGroups[id] = group;
+    }
+}
@@ -0,0 +1,280 @@
+package com.example.editorgrafov.algorithm;
+
+import com.example.editorgrafov.io.ProgressMonitor;
+import com.example.editorgrafov.model.GraphModel;
+import com.example.editorgrafov.model.IntList;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Class representing connected components of graph model, kept up to date while graph is edited. <br>
+ * - components are labelled by union-find, edges are processed in chunks in parallel on ForkJoinPool <br>
+ * - added vertex or edge is O(1) amortized (one union) <br>
+ * - removed edge (or vertex) is checked by bidirectional search between its endpoints, which stops as soon as
+ * one side is exhausted - if component got split, only vertices of the smaller part move to new set <br>
+ * - vertices refer to union-find nodes through nodeOf, moved and removed vertices leave their old nodes behind,
+ * the whole labelling is rebuilt once there are more abandoned nodes than vertices <br>
+ * - every component is highlighted by its own group (root of its set)
+ */
+public class ComponentTracker implements Highlight {
+
+    /* edges processed by one fork-join task */
+    private static final int CHUNK = 1 << 14;
+    private static final int MIN_NODES_TO_REBUILD = 1 << 10;
+
+    private final GraphModel graph;
+    private ConcurrentUnionFind sets;
+    /* vertex id -> node, -1 for free slots */
+    private int[] nodeOf;
+    /* node -> number of vertices in set, valid for roots */
+    private int[] sizes;
+    private int components;
+
+    /* bidirectional search - seen[v] is epoch for side a, epoch + 1 for side b */
+    private int[] seen = new int[0];
+    private int epoch;
+    private final IntList sideA = new IntList();
+    private final IntList sideB = new IntList();
+
+    private ComponentTracker(GraphModel graph) {
+        this.graph = graph;
+    }
+
+    /**
+     * Method for labelling components of graph model, model must not be edited meanwhile
+     * @param graph graph model
+     * @param monitor monitor progress is reported to
+     * @return components of graph model, they have to be told about every later edit
+     */
+    public static ComponentTracker compute(GraphModel graph, ProgressMonitor monitor) {
+        ComponentTracker tracker = new ComponentTracker(graph);
+        tracker.label(monitor);
+        return tracker;
+    }
+
+    private void label(ProgressMonitor monitor) {
+        int slots = graph.vertexSlots();
+        sets = new ConcurrentUnionFind(slots);
+        ForkJoinPool.commonPool().invoke(new UnionTask(graph, sets, 0, graph.edgeSlots(), monitor, new AtomicLong()));
+        nodeOf = new int[Math.max(slots, 16)];
+        sizes = new int[Math.max(slots, 16)];
+        Arrays.fill(nodeOf, -1);
+        components = 0;
+        for (int id = 0; id < slots; id++) {
+            if (!graph.isVertex(id)) continue;
+            nodeOf[id] = id;
+            int root = sets.find(id);
+            if (sizes[root]++ == 0) components++;
+        }
+    }
+
+    /**
+     * Class representing union of endpoints of edges in range of ids, range is split in halves until it is small enough
+     */
+    private static final class UnionTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final GraphModel graph;
+        private final ConcurrentUnionFind sets;
+        private final int from;
+        private final int to;
+        private final ProgressMonitor monitor;
+        private final AtomicLong done;
+
+        UnionTask(GraphModel graph, ConcurrentUnionFind sets, int from, int to, ProgressMonitor monitor, AtomicLong done) {
+            this.graph = graph;
+            this.sets = sets;
+            this.from = from;
+            this.to = to;
+            this.monitor = monitor;
+            this.done = done;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > CHUNK) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new UnionTask(graph, sets, from, middle, monitor, done),
+                        new UnionTask(graph, sets, middle, to, monitor, done));
+                return;
+            }
+            for (int id = from; id < to; id++) {
+                if (graph.isEdge(id)) sets.union(graph.getFrom(id), graph.getTo(id));
+            }
+            monitor.checkpoint(done.addAndGet(to - from), graph.edgeSlots());
+        }
+    }
+
+    /**
+     * Method for adding vertex added into graph model as new component
+     * @param id id of vertex
+     */
+    public void vertexAdded(int id) {
+        int node = newNode();
+        if (id >= nodeOf.length) {
+            int oldLength = nodeOf.length;
+            nodeOf = Arrays.copyOf(nodeOf, Math.max(id + 1, oldLength * 2));
+            Arrays.fill(nodeOf, oldLength, nodeOf.length, -1);
+        }
+        nodeOf[id] = node;
+        sizes[node] = 1;
+        components++;
+    }
+
+    /**
+     * Method for merging components of endpoints of edge added into graph model
+     * @param from id of start vertex
+     * @param to id of end vertex
+     */
+    public void edgeAdded(int from, int to) {
+        int rootFrom = sets.find(nodeOf[from]);
+        int rootTo = sets.find(nodeOf[to]);
+        if (!sets.union(rootFrom, rootTo)) return;
+        sizes[sets.find(rootFrom)] = sizes[rootFrom] + sizes[rootTo];
+        components--;
+    }
+
+    /**
+     * Method for splitting component of endpoints of edge removed from graph model, if they got disconnected
+     * @param from id of start vertex
+     * @param to id of end vertex
+     */
+    public void edgeRemoved(int from, int to) {
+        separate(from, to);
+        rebuildIfAbandoned();
+    }
+
+    /**
+     * Method for removing vertex removed from graph model, its component gets split if the vertex connected it
+     * @param id id of vertex
+     * @param neighbours ids of vertices vertex was connected to by edges removed with it
+     */
+    public void vertexRemoved(int id, int[] neighbours) {
+        int root = sets.find(nodeOf[id]);
+        if (--sizes[root] == 0) components--;
+        nodeOf[id] = -1;
+        //every neighbour still in old set is checked against anchor that is still in it as well
+        int anchor = -1;
+        for (int neighbour : neighbours) {
+            if (sets.find(nodeOf[neighbour]) != root) continue;
+            if (anchor != -1 && sets.find(nodeOf[anchor]) == root) separate(anchor, neighbour);
+            if (anchor == -1 || sets.find(nodeOf[anchor]) != root) anchor = neighbour;
+        }
+        rebuildIfAbandoned();
+    }
+
+    @Override
+    public int vertexGroup(int id) {
+        return id < nodeOf.length && nodeOf[id] != -1 ? sets.find(nodeOf[id]) : NONE;
+    }
+
+    @Override
+    public int edgeGroup(int id) {
+        return vertexGroup(graph.getFrom(id));
+    }
+
+    /**
+     * Method for getting number of components
+     * @return number of components
+     */
+    public int getComponentCount() {
+        return components;
+    }
+
+    /**
+     * Method for getting number of vertices of component containing vertex
+     * @param id id of vertex
+     * @return size of component
+     */
+    public int componentSize(int id) {
+        return sizes[sets.find(nodeOf[id])];
+    }
+
+    /**
+     * Method for getting sizes of the largest components, work is proportional to number of vertices
+     * @param count maximal number of sizes
+     * @return sizes in descending order
+     */
+    public int[] largestSizes(int count) {
+        //root can be node left behind by moved vertex, so roots are found through vertices
+        IntList roots = new IntList();
+        boolean[] counted = new boolean[sets.size()];
+        for (int id = 0; id < nodeOf.length; id++) {
+            if (nodeOf[id] == -1) continue;
+            int root = sets.find(nodeOf[id]);
+            if (counted[root]) continue;
+            counted[root] = true;
+            roots.add(sizes[root]);
+        }
+        int[] all = roots.toArray();
+        Arrays.sort(all);
+        int[] largest = new int[Math.min(count, all.length)];
+        for (int i = 0; i < largest.length; i++) {
+            largest[i] = all[all.length - 1 - i];
+        }
+        return largest;
+    }
+
+    /* disconnected endpoints - vertices of the smaller part get new nodes */
+    private void separate(int a, int b) {
+        if (sets.find(nodeOf[a]) != sets.find(nodeOf[b])) return;
+        if (seen.length < graph.vertexSlots()) {
+            seen = Arrays.copyOf(seen, Math.max(graph.vertexSlots(), seen.length * 2));
+        }
+        if (epoch >= Integer.MAX_VALUE - 2) {
+            Arrays.fill(seen, 0);
+            epoch = 0;
+        }
+        epoch += 2;
+        sideA.clear();
+        sideB.clear();
+        sideA.add(a);
+        sideB.add(b);
+        seen[a] = epoch;
+        seen[b] = epoch + 1;
+        int headA = 0;
+        int headB = 0;
+        //the side that has seen fewer vertices expands, so search stops soon after the smaller part is exhausted
+        while (headA < sideA.size() && headB < sideB.size()) {
+            boolean expandA = sideA.size() <= sideB.size();
+            IntList side = expandA ? sideA : sideB;
+            int mark = expandA ? epoch : epoch + 1;
+            int u = side.get(expandA ? headA++ : headB++);
+            for (int i = 0; i < graph.degree(u); i++) {
+                int v = graph.opposite(graph.incidentEdge(u, i), u);
+                if (seen[v] == mark) continue;
+                if (seen[v] == (expandA ? epoch + 1 : epoch)) return;
+                seen[v] = mark;
+                side.add(v);
+            }
+        }
+        IntList part = headA == sideA.size() ? sideA : sideB;
+        int root = sets.find(nodeOf[a]);
+        int first = newNode();
+        for (int i = 0; i < part.size(); i++) {
+            int node = i == 0 ? first : newNode();
+            if (i > 0) sets.union(first, node);
+            nodeOf[part.get(i)] = node;
+        }
+        sizes[root] -= part.size();
+        sizes[sets.find(first)] = part.size();
+        components++;
+    }
+
+    private void rebuildIfAbandoned() {
+        if (sets.size() - graph.vertexCount() > Math.max(MIN_NODES_TO_REBUILD, graph.vertexCount())) {
+            label(ProgressMonitor.NONE);
+        }
+    }
+
+    private int newNode() {
+        int node = sets.add();
+        if (node >= sizes.length) sizes = Arrays.copyOf(sizes, sizes.length * 2);
+        sizes[node] = 0;
+        return node;
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.editorgrafov.algorithm;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Class representing lock-free union-find (disjoint sets) over int nodes. <br>
+ * - find() compresses paths by halving, parents are swapped by compare-and-set, so concurrent finds only shorten paths <br>
+ * - union() links root with higher index under root with lower one, so links can not form a cycle
+ * even if unions run concurrently <br>
+ * - nodes can be added only while no other thread uses the structure
+ */
+final class ConcurrentUnionFind {
+
+    private AtomicIntegerArray parents;
+    private int size;
+
+    /**
+     * Constructor of ConcurrentUnionFind object with every node in its own set
+     * @param size number of nodes
+     */
+    ConcurrentUnionFind(int size) {
+        this.size = size;
+        parents = new AtomicIntegerArray(Math.max(size, 16));
+        for (int node = 0; node < parents.length(); node++) {
+            parents.set(node, node);
+        }
+    }
+
+    /**
+     * Method for adding node in its own set, not thread-safe
+     * @return index of added node
+     */
+    int add() {
+        if (size == parents.length()) {
+            AtomicIntegerArray grown = new AtomicIntegerArray(size * 2);
+            for (int node = 0; node < grown.length(); node++) {
+                grown.set(node, node < size ? parents.get(node) : node);
+            }
+            parents = grown;
+        }
+        return size++;
+    }
+
+    /**
+     * Method for finding root of set of node
+     * @param node node
+     * @return root
+     */
+    int find(int node) {
+        int parent = parents.get(node);
+        while (parent != node) {
+            int grandparent = parents.get(parent);
+            //halving - node skips its parent, failed swap means other thread has shortened path already
+            if (grandparent != parent) parents.compareAndSet(node, parent, grandparent);
+            node = grandparent;
+            parent = parents.get(node);
+        }
+        return node;
+    }
+
+    /**
+     * Method for merging sets of two nodes
+     * @param a first node
+     * @param b second node
+     * @return true if sets were merged, false if nodes were in the same set already
+     */
+    boolean union(int a, int b) {
+        while (true) {
+            int rootA = find(a);
+            int rootB = find(b);
+            if (rootA == rootB) return false;
+            if (rootA < rootB) {
+                int swap = rootA;
+                rootA = rootB;
+                rootB = swap;
+            }
+            //rootA may have got linked by other thread meanwhile, then roots are found again
+            if (parents.compareAndSet(rootA, rootA, rootB)) return true;
+        }
+    }
+
+    /**
+     * Method for getting number of nodes
+     * @return number of nodes
+     */
+    int size() {
+        return size;
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.editorgrafov.algorithm;
+
+import com.example.editorgrafov.io.ProgressMonitor;
+import com.example.editorgrafov.model.GraphModel;
+
+import java.util.Arrays;
+
+/**
+ * Class representing immutable snapshot of graph model in compressed sparse row (CSR) form. <br>
+ * - vertices are renumbered densely to indices 0..n-1, neighbours of vertex i are targets[offsets[i]..offsets[i + 1]) <br>
+ * - every undirected edge is stored in both directions, edgeIds gives id of edge in graph model for every entry <br>
+ * - whole graph lives in a few int and double arrays, so traversals touch memory sequentially and create no objects <br>
+ * - snapshot does not change with graph model, it can be used off the FX thread while graph model is not edited
+ */
+public final class CsrGraph {
+
+    /* index -> id of vertex in graph model */
+    final int[] vertexIds;
+    /* id of vertex in graph model -> index, -1 for free slots */
+    final int[] indices;
+    final int[] offsets;
+    final int[] targets;
+    final int[] edgeIds;
+    final double[] xs;
+    final double[] ys;
+    final int edgeSlots;
+
+    private CsrGraph(int[] vertexIds, int[] indices, int[] offsets, int[] targets, int[] edgeIds, double[] xs, double[] ys, int edgeSlots) {
+        this.vertexIds = vertexIds;
+        this.indices = indices;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.edgeIds = edgeIds;
+        this.xs = xs;
+        this.ys = ys;
+        this.edgeSlots = edgeSlots;
+    }
+
+    /**
+     * Method for creating snapshot of graph model, work is proportional to number of vertex and edge slots
+     * @param graph graph model
+     * @param monitor monitor progress is reported to
+     * @return snapshot
+     */
+    public static CsrGraph of(GraphModel graph, ProgressMonitor monitor) {
+        int n = graph.vertexCount();
+        int slots = graph.vertexSlots();
+        int[] vertexIds = new int[n];
+        int[] indices = new int[slots];
+        Arrays.fill(indices, -1);
+        double[] xs = new double[n];
+        double[] ys = new double[n];
+        int[] offsets = new int[n + 1];
+        int index = 0;
+        for (int id = 0; id < slots; id++) {
+            if (!graph.isVertex(id)) continue;
+            vertexIds[index] = id;
+            indices[id] = index;
+            xs[index] = graph.getX(id);
+            ys[index] = graph.getY(id);
+            offsets[index + 1] = offsets[index] + graph.degree(id);
+            index++;
+        }
+        long total = (long) slots + graph.edgeSlots();
+        int[] targets = new int[offsets[n]];
+        int[] edgeIds = new int[offsets[n]];
+        int[] next = Arrays.copyOf(offsets, n);
+        for (int id = 0; id < graph.edgeSlots(); id++) {
+            if (id % ProgressMonitor.PROGRESS_STEP == 0) monitor.checkpoint(slots + id, total);
+            if (!graph.isEdge(id)) continue;
+            int u = indices[graph.getFrom(id)];
+            int v = indices[graph.getTo(id)];
+            targets[next[u]] = v;
+            edgeIds[next[u]++] = id;
+            targets[next[v]] = u;
+            edgeIds[next[v]++] = id;
+        }
+        return new CsrGraph(vertexIds, indices, offsets, targets, edgeIds, xs, ys, graph.edgeSlots());
+    }
+
+    /**
+     * Method for getting number of vertices
+     * @return number of vertices
+     */
+    public int vertexCount() {
+        return vertexIds.length;
+    }
+
+    /**
+     * Method for getting number of edges
+     * @return number of edges
+     */
+    public int edgeCount() {
+        return targets.length / 2;
+    }
+
+    /**
+     * Method for getting index of vertex
+     * @param id id of vertex in graph model
+     * @return index of vertex, -1 if there is no such vertex
+     */
+    public int indexOf(int id) {
+        return id >= 0 && id < indices.length ? indices[id] : -1;
+    }
+
+    /**
+     * Method for getting id of vertex in graph model
+     * @param index index of vertex
+     * @return id of vertex in graph model
+     */
+    public int vertexId(int index) {
+        return vertexIds[index];
+    }
+
+    /**
+     * Method for getting Euclidean distance of two vertices, the default weight of edge between them
+     * @param u index of first vertex
+     * @param v index of second vertex
+     * @return distance of centers of vertices
+     */
+    public double distance(int u, int v) {
+        double diffX = xs[u] - xs[v];
+        double diffY = ys[u] - ys[v];
+        return Math.sqrt(diffX * diffX + diffY * diffY);
+    }
+}
@@ -0,0 +1,220 @@
+package com.example.editorgrafov.algorithm;
+
+import com.example.editorgrafov.io.ProgressMonitor;
+
+import java.util.Arrays;
+
+/**
+ * Class representing algorithms running on CSR snapshot of graph. <br>
+ * - state of algorithms is held in int and double arrays indexed by vertex index, no object is created per vertex <br>
+ * - weight of edge is Euclidean distance of its vertices, A* uses distance to target as heuristic
+ * (it never overestimates, so found path is shortest) <br>
+ * - every algorithm reports progress every PROGRESS_STEP vertices and can be cancelled through ProgressMonitor
+ */
+public final class GraphAlgorithms {
+
+    /**
+     * Enum for algorithms of the engine
+     */
+    public enum Algorithm {
+        /**
+         * breadth-first search from source, vertices reached and edges of search tree are highlighted
+         */
+        BFS("Breadth-first search", true, false),
+        /**
+         * depth-first search from source, vertices reached and edges of search tree are highlighted
+         */
+        DFS("Depth-first search", true, false),
+        /**
+         * shortest path from source to target by Dijkstra's algorithm
+         */
+        DIJKSTRA("Shortest path (Dijkstra)", true, true),
+        /**
+         * shortest path from source to target by A* algorithm
+         */
+        A_STAR("Shortest path (A*)", true, true);
+
+        private final String name;
+        private final boolean needsSource;
+        private final boolean needsTarget;
+
+        Algorithm(String name, boolean needsSource, boolean needsTarget) {
+            this.name = name;
+            this.needsSource = needsSource;
+            this.needsTarget = needsTarget;
+        }
+
+        /**
+         * Method for checking whether algorithm starts from source vertex
+         * @return true if source vertex has to be given
+         */
+        public boolean needsSource() {
+            return needsSource;
+        }
+
+        /**
+         * Method for checking whether algorithm searches for target vertex
+         * @return true if target vertex has to be given
+         */
+        public boolean needsTarget() {
+            return needsTarget;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    private GraphAlgorithms() {
+    }
+
+    /**
+     * Method for running algorithm
+     * @param algorithm algorithm
+     * @param graph snapshot of graph
+     * @param source index of source vertex (ignored if algorithm does not need it)
+     * @param target index of target vertex (ignored if algorithm does not need it)
+     * @param monitor monitor progress is reported to
+     * @return result of algorithm
+     */
+    public static AlgorithmResult run(Algorithm algorithm, CsrGraph graph, int source, int target, ProgressMonitor monitor) {
+        if (algorithm == Algorithm.BFS) return breadthFirstSearch(graph, source, monitor);
+        else if (algorithm == Algorithm.DFS) return depthFirstSearch(graph, source, monitor);
+        else return shortestPath(graph, source, target, algorithm == Algorithm.A_STAR, monitor);
+    }
+
+    /**
+     * Method for breadth-first search from source vertex
+     * @param graph snapshot of graph
+     * @param source index of source vertex
+     * @param monitor monitor progress is reported to
+     * @return reached vertices and edges of search tree
+     */
+    public static AlgorithmResult breadthFirstSearch(CsrGraph graph, int source, ProgressMonitor monitor) {
+        int n = graph.vertexCount();
+        AlgorithmResult result = new AlgorithmResult(graph.indices.length, graph.edgeSlots);
+        int[] depth = new int[n];
+        Arrays.fill(depth, -1);
+        //queue of vertices, every vertex enters it once
+        int[] queue = new int[n];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = source;
+        depth[source] = 0;
+        result.setVertexGroup(graph.vertexIds[source], 0);
+        while (head < tail) {
+            if (head % ProgressMonitor.PROGRESS_STEP == 0) monitor.checkpoint(head, n);
+            int u = queue[head++];
+            for (int i = graph.offsets[u]; i < graph.offsets[u + 1]; i++) {
+                int v = graph.targets[i];
+                if (depth[v] != -1) continue;
+                depth[v] = depth[u] + 1;
+                queue[tail++] = v;
+                result.setVertexGroup(graph.vertexIds[v], 0);
+                result.setEdgeGroup(graph.edgeIds[i], 0);
+            }
+        }
+        result.setSummary("Breadth-first search reached " + tail + " vertices, the farthest in distance of " + depth[queue[tail - 1]] + " edge(s)");
+        return result;
+    }
+
+    /**
+     * Method for depth-first search from source vertex, explicit stack is used, so deep graphs do not overflow thread stack
+     * @param graph snapshot of graph
+     * @param source index of source vertex
+     * @param monitor monitor progress is reported to
+     * @return reached vertices and edges of search tree
+     */
+    public static AlgorithmResult depthFirstSearch(CsrGraph graph, int source, ProgressMonitor monitor) {
+        int n = graph.vertexCount();
+        AlgorithmResult result = new AlgorithmResult(graph.indices.length, graph.edgeSlots);
+        boolean[] visited = new boolean[n];
+        //stack of vertices and position of next neighbour to be tried for each of them
+        int[] stack = new int[n];
+        int[] cursor = new int[n];
+        int top = 0;
+        stack[top] = source;
+        cursor[top++] = graph.offsets[source];
+        visited[source] = true;
+        result.setVertexGroup(graph.vertexIds[source], 0);
+        int reached = 1;
+        int maxDepth = 0;
+        while (top > 0) {
+            int u = stack[top - 1];
+            if (cursor[top - 1] == graph.offsets[u + 1]) {
+                top--;
+                continue;
+            }
+            int i = cursor[top - 1]++;
+            int v = graph.targets[i];
+            if (visited[v]) continue;
+            visited[v] = true;
+            result.setVertexGroup(graph.vertexIds[v], 0);
+            result.setEdgeGroup(graph.edgeIds[i], 0);
+            stack[top] = v;
+            cursor[top++] = graph.offsets[v];
+            maxDepth = Math.max(maxDepth, top - 1);
+            if (++reached % ProgressMonitor.PROGRESS_STEP == 0) monitor.checkpoint(reached, n);
+        }
+        result.setSummary("Depth-first search reached " + reached + " vertices, the deepest in depth of " + maxDepth + " edge(s)");
+        return result;
+    }
+
+    /**
+     * Method for finding shortest path between two vertices by Dijkstra's or A* algorithm
+     * @param graph snapshot of graph
+     * @param source index of source vertex
+     * @param target index of target vertex
+     * @param aStar true to direct search towards target (A*), false for plain Dijkstra's algorithm
+     * @param monitor monitor progress is reported to
+     * @return vertices and edges of path, nothing is highlighted if there is no path
+     */
+    public static AlgorithmResult shortestPath(CsrGraph graph, int source, int target, boolean aStar, ProgressMonitor monitor) {
+        int n = graph.vertexCount();
+        AlgorithmResult result = new AlgorithmResult(graph.indices.length, graph.edgeSlots);
+        double[] distance = new double[n];
+        Arrays.fill(distance, Double.POSITIVE_INFINITY);
+        //position in CSR of edge the vertex was reached by
+        int[] via = new int[n];
+        int[] previous = new int[n];
+        boolean[] settled = new boolean[n];
+        IndexedMinHeap heap = new IndexedMinHeap(n);
+        distance[source] = 0;
+        previous[source] = -1;
+        heap.insertOrDecrease(source, aStar ? graph.distance(source, target) : 0);
+        int settledCount = 0;
+        while (!heap.isEmpty()) {
+            int u = heap.poll();
+            settled[u] = true;
+            if (++settledCount % ProgressMonitor.PROGRESS_STEP == 0) monitor.checkpoint(settledCount, n);
+            if (u == target) break;
+            for (int i = graph.offsets[u]; i < graph.offsets[u + 1]; i++) {
+                int v = graph.targets[i];
+                if (settled[v]) continue;
+                double candidate = distance[u] + graph.distance(u, v);
+                if (candidate >= distance[v]) continue;
+                distance[v] = candidate;
+                via[v] = i;
+                previous[v] = u;
+                heap.insertOrDecrease(v, aStar ? candidate + graph.distance(v, target) : candidate);
+            }
+        }
+        String name = aStar ? "A*" : "Dijkstra's algorithm";
+        if (!settled[target]) {
+            result.setSummary(name + " found no path (" + settledCount + " vertices settled)");
+            return result;
+        }
+        int edges = 0;
+        for (int v = target; v != -1; v = previous[v]) {
+            result.setVertexGroup(graph.vertexIds[v], 0);
+            if (previous[v] != -1) {
+                result.setEdgeGroup(graph.edgeIds[via[v]], 0);
+                edges++;
+            }
+        }
+        result.setSummary(name + " found path of length " + Math.round(distance[target]) + " with " + edges
+                + " edge(s) (" + settledCount + " vertices settled)");
+        return result;
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.editorgrafov.algorithm;
+
+/**
+ * Interface representing highlighting of vertices and edges on canvas. <br>
+ * - every highlighted element belongs to a group (e.g. component), groups are told apart by color
+ */
+public interface Highlight {
+
+    /**
+     * Group of element that is not highlighted
+     */
+    int NONE = -1;
+
+    /**
+     * Method for getting group of vertex
+     * @param id id of vertex in graph model
+     * @return group, NONE if vertex is not highlighted
+     */
+    int vertexGroup(int id);
+
+    /**
+     * Method for getting group of edge
+     * @param id id of edge in graph model
+     * @return group, NONE if edge is not highlighted
+     */
+    int edgeGroup(int id);
+}
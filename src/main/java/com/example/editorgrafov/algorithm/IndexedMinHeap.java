@@ -0,0 +1,99 @@
+package com.example.editorgrafov.algorithm;
+
+import java.util.Arrays;
+
+/**
+ * Class representing binary min-heap of vertex indices keyed by doubles, with decrease-key. <br>
+ * - position of every index in heap is kept, so every index is in heap at most once <br>
+ * - everything is held in primitive arrays sized by number of vertices
+ */
+final class IndexedMinHeap {
+
+    private final int[] heap;
+    /* index -> position in heap, -1 if not in heap */
+    private final int[] positions;
+    private final double[] keys;
+    private int size;
+
+    /**
+     * Constructor of empty IndexedMinHeap object
+     * @param capacity number of indices, indices are in range [0, capacity)
+     */
+    IndexedMinHeap(int capacity) {
+        heap = new int[capacity];
+        positions = new int[capacity];
+        Arrays.fill(positions, -1);
+        keys = new double[capacity];
+    }
+
+    /**
+     * Method for inserting index, or lowering its key if it is in heap already
+     * @param index index
+     * @param key key, ignored if index is in heap with lower key
+     */
+    void insertOrDecrease(int index, double key) {
+        int position = positions[index];
+        if (position == -1) {
+            position = size++;
+            heap[position] = index;
+            positions[index] = position;
+        }
+        else if (key >= keys[index]) return;
+        keys[index] = key;
+        siftUp(position);
+    }
+
+    /**
+     * Method for removing index with the lowest key
+     * @return index
+     */
+    int poll() {
+        int top = heap[0];
+        positions[top] = -1;
+        size--;
+        if (size > 0) {
+            heap[0] = heap[size];
+            positions[heap[0]] = 0;
+            siftDown(0);
+        }
+        return top;
+    }
+
+    /**
+     * Method for checking whether heap is empty
+     * @return true if heap is empty
+     */
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    private void siftUp(int position) {
+        int index = heap[position];
+        double key = keys[index];
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            if (keys[heap[parent]] <= key) break;
+            heap[position] = heap[parent];
+            positions[heap[position]] = position;
+            position = parent;
+        }
+        heap[position] = index;
+        positions[index] = position;
+    }
+
+    private void siftDown(int position) {
+        int index = heap[position];
+        double key = keys[index];
+        while (true) {
+            int child = 2 * position + 1;
+            if (child >= size) break;
+            if (child + 1 < size && keys[heap[child + 1]] < keys[heap[child]]) child++;
+            if (keys[heap[child]] >= key) break;
+            heap[position] = heap[child];
+            positions[heap[position]] = position;
+            position = child;
+        }
+        heap[position] = index;
+        positions[index] = position;
+    }
+}
@@ -0,0 +1,335 @@
+package com.example.editorgrafov.cli;
+
+import com.example.editorgrafov.algorithm.ComponentTracker;
+import com.example.editorgrafov.io.BinaryGraphFormat;
+import com.example.editorgrafov.io.EditJournal;
+import com.example.editorgrafov.io.GraphFormat;
+import com.example.editorgrafov.io.ProgressMonitor;
+import com.example.editorgrafov.io.TiledGraph;
+import com.example.editorgrafov.io.TiledGraphBuilder;
+import com.example.editorgrafov.io.TiledGraphFormat;
+import com.example.editorgrafov.model.GraphModel;
+import com.example.editorgrafov.style.EdgeStyle;
+import com.example.editorgrafov.style.StyleTable;
+import com.example.editorgrafov.style.VertexStyle;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Class representing headless command line interface of the editor - converts, validates and describes graph files
+ * without starting JavaFX. <br>
+ * - only graph model, readers and writers are used, JavaFX toolkit is never initialised, so it runs without display <br>
+ * - journal of every read file (see EditJournal) is replayed, so the graph is the same as the one the editor would open <br>
+ * - index builds tiled stores of graph files ahead of browsing them (see TiledGraphBuilder), plain files are streamed,
+ * so graphs too big to be read get indexed too <br>
+ * - directories are searched recursively for .txt and .egb files, files are processed in parallel,
+ * results are printed in order of files <br>
+ * - exit code is 0 if every file was processed, 1 if some file failed, 2 for wrong usage
+ */
+public final class GraphCli {
+
+    private static final int EXIT_OK = 0;
+    private static final int EXIT_FAILED = 1;
+    private static final int EXIT_USAGE = 2;
+
+    private static final String USAGE = String.join("\n",
+            "Usage: <command> [--format plain|styled|binary] <arguments>",
+            "  convert <input> <output>   converts graph file, or every graph file of input directory into output directory",
+            "                             (format of output is given by --format, or by extension of output file)",
+            "  validate <file|dir>...     checks that graph files can be read",
+            "  stats <file|dir>...        prints number of vertices, edges and components, degrees and bounds of graphs",
+            "  index <file|dir>...        builds tiled stores (.tiles) graph files are browsed from by the editor",
+            "Format of input is detected from its content.");
+
+    /**
+     * Class representing outcome of one file - line printed for it and whether it failed
+     */
+    private static final class Result {
+
+        private final String line;
+        private final boolean failed;
+
+        Result(String line, boolean failed) {
+            this.line = line;
+            this.failed = failed;
+        }
+    }
+
+    private final PrintStream out;
+    private final PrintStream err;
+    private GraphFormat outputFormat;
+
+    private GraphCli(PrintStream out, PrintStream err) {
+        this.out = out;
+        this.err = err;
+    }
+
+    /**
+     * Method for starting command line interface, exits with its exit code
+     * @param args command and its arguments
+     */
+    public static void main(String[] args) {
+        System.exit(run(args));
+    }
+
+    /**
+     * Method for checking whether argument is a command of command line interface
+     * @param arg first argument given to application
+     * @return true if application should run headless, false if editor window should be opened
+     */
+    public static boolean isCommand(String arg) {
+        return arg.equals("convert") || arg.equals("validate") || arg.equals("stats") || arg.equals("index")
+                || arg.equals("--help") || arg.equals("help");
+    }
+
+    /**
+     * Method for running command, output goes to standard output and errors to standard error
+     * @param args command and its arguments
+     * @return exit code
+     */
+    public static int run(String[] args) {
+        return new GraphCli(System.out, System.err).execute(args);
+    }
+
+    private int execute(String[] args) {
+        List<String> arguments = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--format")) {
+                if (++i == args.length) return usage("Missing format after --format");
+                try {
+                    outputFormat = GraphFormat.of(args[i]);
+                }
+                catch (IllegalArgumentException e) {
+                    return usage("Unknown format \"" + args[i] + "\"");
+                }
+            }
+            else arguments.add(args[i]);
+        }
+        if (arguments.isEmpty() || arguments.get(0).equals("help") || arguments.get(0).equals("--help")) {
+            out.println(USAGE);
+            return arguments.isEmpty() ? EXIT_USAGE : EXIT_OK;
+        }
+        String command = arguments.get(0);
+        List<String> paths = arguments.subList(1, arguments.size());
+        if (command.equals("convert")) {
+            if (paths.size() != 2) return usage("convert needs input and output");
+            return convert(Path.of(paths.get(0)), Path.of(paths.get(1)));
+        }
+        else if (command.equals("validate") || command.equals("stats") || command.equals("index")) {
+            if (paths.isEmpty()) return usage(command + " needs at least one file or directory");
+            return describe(paths, command);
+        }
+        return usage("Unknown command \"" + command + "\"");
+    }
+
+    private int usage(String message) {
+        err.println(message);
+        err.println(USAGE);
+        return EXIT_USAGE;
+    }
+
+    /**
+     * Method for converting file, or every graph file of directory, into given format
+     * @param input input file or directory
+     * @param output output file, or directory if input is directory
+     * @return exit code
+     */
+    private int convert(Path input, Path output) {
+        if (!Files.isDirectory(input)) {
+            GraphFormat format = outputFormat != null ? outputFormat : GraphFormat.forFileName(output.getFileName().toString());
+            return print(List.of(convertFile(input, output, format)));
+        }
+        if (outputFormat == null) return usage("convert of directory needs --format");
+        List<Path> files;
+        try {
+            Files.createDirectories(output);
+            files = graphFiles(input);
+        }
+        catch (IOException e) {
+            err.println(e.getMessage());
+            return EXIT_FAILED;
+        }
+        String extension = outputFormat == GraphFormat.BINARY ? "." + BinaryGraphFormat.EXTENSION : ".txt";
+        //directory structure of input is kept in output
+        List<Result> results = files.parallelStream()
+                .map(file -> {
+                    Path relative = input.relativize(file);
+                    Path target = output.resolve(relative).resolveSibling(baseName(relative.getFileName().toString()) + extension);
+                    return convertFile(file, target, outputFormat);
+                })
+                .collect(Collectors.toList());
+        return print(results);
+    }
+
+    private Result convertFile(Path input, Path output, GraphFormat format) {
+        StyleTable<VertexStyle> vertexStyles = defaultStyles(VertexStyle.DEFAULT);
+        StyleTable<EdgeStyle> edgeStyles = defaultStyles(EdgeStyle.DEFAULT);
+        try {
+            GraphModel graph = read(input, vertexStyles, edgeStyles);
+            if (output.getParent() != null) Files.createDirectories(output.getParent());
+            format.write(graph, vertexStyles, edgeStyles, output, ProgressMonitor.NONE);
+            return new Result(input + ": converted to " + output + " (" + format.name().toLowerCase(Locale.ROOT) + ", "
+                    + graph.vertexCount() + " vertices, " + graph.edgeCount() + " edges)", false);
+        }
+        catch (IOException | RuntimeException e) {
+            return new Result(input + ": FAILED " + e.getMessage(), true);
+        }
+    }
+
+    /**
+     * Method for validating, printing statistics of, or indexing files and graph files of directories
+     * @param paths files and directories
+     * @param command validate, stats or index
+     * @return exit code
+     */
+    private int describe(List<String> paths, String command) {
+        List<Path> files = new ArrayList<>();
+        try {
+            for (String path : paths) {
+                Path file = Path.of(path);
+                if (Files.isDirectory(file)) files.addAll(graphFiles(file));
+                else files.add(file);
+            }
+        }
+        catch (IOException e) {
+            err.println(e.getMessage());
+            return EXIT_FAILED;
+        }
+        List<Result> results = files.parallelStream()
+                .map(file -> command.equals("index") ? indexFile(file) : describeFile(file, command.equals("stats")))
+                .collect(Collectors.toList());
+        return print(results);
+    }
+
+    private Result describeFile(Path file, boolean stats) {
+        try {
+            GraphModel graph = read(file, defaultStyles(VertexStyle.DEFAULT), defaultStyles(EdgeStyle.DEFAULT));
+            if (!stats) return new Result(file + ": OK (" + graph.vertexCount() + " vertices, " + graph.edgeCount() + " edges)", false);
+            return new Result(file + ": " + statistics(graph), false);
+        }
+        catch (IOException | RuntimeException e) {
+            return new Result(file + ": FAILED " + e.getMessage(), true);
+        }
+    }
+
+    private Result indexFile(Path file) {
+        Path store = TiledGraphFormat.pathOf(file);
+        try {
+            boolean current = TiledGraph.isCurrent(store, file);
+            if (!current) TiledGraphBuilder.build(file, store, ProgressMonitor.NONE);
+            try (TiledGraph tiled = TiledGraph.open(file, ProgressMonitor.NONE)) {
+                return new Result(file + ": " + (current ? "up to date " : "indexed into ") + store + " (" + tiled.vertexCount()
+                        + " vertices, " + tiled.edgeCount() + " edges, " + tiled.tileCount() + " tiles)", false);
+            }
+        }
+        catch (IOException | RuntimeException e) {
+            return new Result(file + ": FAILED " + e.getMessage(), true);
+        }
+    }
+
+    private static String statistics(GraphModel graph) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(graph.vertexCount())
+                .append(" vertices, ")
+                .append(graph.edgeCount())
+                .append(" edges");
+        if (graph.vertexCount() == 0) return sb.toString();
+        int minDegree = Integer.MAX_VALUE;
+        int maxDegree = 0;
+        int isolated = 0;
+        double minX = Double.POSITIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+        for (int id = 0; id < graph.vertexSlots(); id++) {
+            if (!graph.isVertex(id)) continue;
+            int degree = graph.degree(id);
+            minDegree = Math.min(minDegree, degree);
+            maxDegree = Math.max(maxDegree, degree);
+            if (degree == 0) isolated++;
+            minX = Math.min(minX, graph.getX(id));
+            minY = Math.min(minY, graph.getY(id));
+            maxX = Math.max(maxX, graph.getX(id));
+            maxY = Math.max(maxY, graph.getY(id));
+        }
+        ComponentTracker components = ComponentTracker.compute(graph, ProgressMonitor.NONE);
+        sb.append(", ")
+                .append(components.getComponentCount())
+                .append(" component(s) (largest ")
+                .append(components.largestSizes(1)[0])
+                .append("), degree min ")
+                .append(minDegree)
+                .append(" avg ")
+                .append(String.format(Locale.ROOT, "%.2f", 2.0 * graph.edgeCount() / graph.vertexCount()))
+                .append(" max ")
+                .append(maxDegree)
+                .append(", ")
+                .append(isolated)
+                .append(" isolated, bounds [")
+                .append(minX)
+                .append(";")
+                .append(minY)
+                .append("]-[")
+                .append(maxX)
+                .append(";")
+                .append(maxY)
+                .append("]");
+        return sb.toString();
+    }
+
+    /**
+     * Method for reading graph of file in detected format, with its journal replayed
+     * @param file file
+     * @param vertexStyles table vertex styles of the file are interned into
+     * @param edgeStyles table edge styles of the file are interned into
+     * @return graph
+     * @throws IOException iff file can not be read or is in no known format
+     */
+    private static GraphModel read(Path file, StyleTable<VertexStyle> vertexStyles, StyleTable<EdgeStyle> edgeStyles) throws IOException {
+        GraphModel graph = GraphFormat.detect(file).read(file, vertexStyles, edgeStyles, ProgressMonitor.NONE);
+        EditJournal.replay(graph, file, ProgressMonitor.NONE);
+        return graph;
+    }
+
+    /* table with given style under id 0, the style elements of formats without styles refer to */
+    private static <S> StyleTable<S> defaultStyles(S style) {
+        StyleTable<S> table = new StyleTable<>();
+        table.intern(style);
+        return table;
+    }
+
+    private static List<Path> graphFiles(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            return files.filter(Files::isRegularFile)
+                    .filter(file -> {
+                        String name = file.getFileName().toString();
+                        return name.toLowerCase(Locale.ROOT).endsWith(".txt") || BinaryGraphFormat.matches(name);
+                    })
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private static String baseName(String fileName) {
+        int dot = fileName.lastIndexOf('.');
+        return dot > 0 ? fileName.substring(0, dot) : fileName;
+    }
+
+    private int print(List<Result> results) {
+        int failed = 0;
+        for (Result result : results) {
+            out.println(result.line);
+            if (result.failed) failed++;
+        }
+        if (failed > 0) err.println(failed + " of " + results.size() + " file(s) failed");
+        return failed > 0 ? EXIT_FAILED : EXIT_OK;
+    }
+}
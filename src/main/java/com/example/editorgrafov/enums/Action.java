@@ -23,5 +23,17 @@ public enum Action {
     /**
      * save as action -- save session to file chosen by user
      */
-    SAVEAS;
+    SAVEAS,
+    /**
+     * layout action -- compute positions of vertices by force-directed layout
+     */
+    LAYOUT,
+    /**
+     * generate action -- replace graph by random graph
+     */
+    GENERATE,
+    /**
+     * algorithm action -- run graph algorithm and highlight its result
+     */
+    ALGORITHM;
 }
@@ -0,0 +1,19 @@
+package com.example.editorgrafov.enums;
+
+/**
+ * Enum for levels of detail graph is drawn in, chosen by size of vertex on screen
+ */
+public enum Detail {
+    /**
+     * full detail - circles with outline, values of vertices and edges by their width
+     */
+    FULL,
+    /**
+     * simplified shapes - values are hidden, vertices are small squares and edges hairlines
+     */
+    SHAPES,
+    /**
+     * density - edges are aggregated into density of pixels, vertices are single pixels
+     */
+    DENSITY;
+}
@@ -0,0 +1,334 @@
+package com.example.editorgrafov.generator;
+
+import com.example.editorgrafov.io.ProgressMonitor;
+import com.example.editorgrafov.model.GraphModel;
+
+import java.util.SplittableRandom;
+
+/**
+ * Class representing generator of random graphs of standard models. <br>
+ * - generated graph depends only on parameters and seed, so it can be generated again <br>
+ * - edges are added directly into graph model, its edge index rejects duplicates in O(1) <br>
+ * - sparse G(n, p) skips over rejected pairs (Batagelj-Brandes), work is proportional to n + m, not n^2 <br>
+ * - every model generates exactly the reported number of edges (G(n, p) reports number it generated) <br>
+ * - vertices are labelled 1..n and placed randomly into bounds (Watts-Strogatz onto circle)
+ */
+public final class RandomGraphGenerator {
+
+    /**
+     * Enum for models of random graphs
+     */
+    public enum Model {
+        /**
+         * every pair of vertices is connected with probability p
+         */
+        GNP("G(n, p)"),
+        /**
+         * m edges chosen uniformly from all pairs of vertices
+         */
+        GNM("G(n, m)"),
+        /**
+         * preferential attachment - every new vertex is connected to m vertices chosen proportionally to degree
+         */
+        BARABASI_ALBERT("Barabási-Albert"),
+        /**
+         * ring lattice of degree k, every edge is rewired with probability beta
+         */
+        WATTS_STROGATZ("Watts-Strogatz");
+
+        private final String name;
+
+        Model(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    /**
+     * Maximal number of edges of generated graph - ids of edges are ints
+     */
+    public static final long MAX_EDGES = Integer.MAX_VALUE / 2;
+
+    private final Model model;
+    private final int vertices;
+    private final double probability;
+    private final long edges;
+    private final double rewiring;
+    private final long seed;
+    private double minX;
+    private double minY;
+    private double maxX = 1000;
+    private double maxY = 1000;
+
+    private RandomGraphGenerator(Model model, int vertices, double probability, long edges, double rewiring, long seed) {
+        if (vertices < 0) throw new IllegalArgumentException("Number of vertices can not be negative");
+        this.model = model;
+        this.vertices = vertices;
+        this.probability = probability;
+        this.edges = edges;
+        this.rewiring = rewiring;
+        this.seed = seed;
+    }
+
+    /**
+     * Method for creating generator of G(n, p) graphs (Erdős-Rényi)
+     * @param n number of vertices
+     * @param p probability of edge between two vertices, in range [0, 1]
+     * @param seed seed of random generator
+     * @return generator
+     * @throws IllegalArgumentException iff parameters are out of range or expected number of edges exceeds MAX_EDGES
+     */
+    public static RandomGraphGenerator gnp(int n, double p, long seed) {
+        if (!(p >= 0 && p <= 1)) throw new IllegalArgumentException("Probability has to be in range [0, 1]");
+        if (p * pairs(n) > MAX_EDGES) throw new IllegalArgumentException("Expected number of edges exceeds " + MAX_EDGES);
+        return new RandomGraphGenerator(Model.GNP, n, p, 0, 0, seed);
+    }
+
+    /**
+     * Method for creating generator of G(n, m) graphs
+     * @param n number of vertices
+     * @param m number of edges, at most n * (n - 1) / 2
+     * @param seed seed of random generator
+     * @return generator
+     * @throws IllegalArgumentException iff parameters are out of range
+     */
+    public static RandomGraphGenerator gnm(int n, long m, long seed) {
+        if (m < 0 || m > pairs(n)) throw new IllegalArgumentException("Number of edges has to be in range [0, " + pairs(n) + "]");
+        if (m > MAX_EDGES) throw new IllegalArgumentException("Number of edges exceeds " + MAX_EDGES);
+        return new RandomGraphGenerator(Model.GNM, n, 0, m, 0, seed);
+    }
+
+    /**
+     * Method for creating generator of Barabási-Albert graphs - graph starts as clique of m + 1 vertices
+     * @param n number of vertices, bigger than m
+     * @param m number of edges of every new vertex, at least 1
+     * @param seed seed of random generator
+     * @return generator
+     * @throws IllegalArgumentException iff parameters are out of range
+     */
+    public static RandomGraphGenerator barabasiAlbert(int n, int m, long seed) {
+        if (m < 1 || m >= n) throw new IllegalArgumentException("Number of edges per vertex has to be in range [1, n - 1]");
+        if ((long) m * n > MAX_EDGES) throw new IllegalArgumentException("Number of edges exceeds " + MAX_EDGES);
+        return new RandomGraphGenerator(Model.BARABASI_ALBERT, n, 0, m, 0, seed);
+    }
+
+    /**
+     * Method for creating generator of Watts-Strogatz graphs
+     * @param n number of vertices
+     * @param k degree of vertices in ring lattice, even and smaller than n
+     * @param beta probability of rewiring of edge, in range [0, 1]
+     * @param seed seed of random generator
+     * @return generator
+     * @throws IllegalArgumentException iff parameters are out of range
+     */
+    public static RandomGraphGenerator wattsStrogatz(int n, int k, double beta, long seed) {
+        if (k < 0 || k % 2 != 0 || (k >= n && k > 0)) throw new IllegalArgumentException("Degree has to be even and smaller than n");
+        if (!(beta >= 0 && beta <= 1)) throw new IllegalArgumentException("Probability has to be in range [0, 1]");
+        if ((long) n * k / 2 > MAX_EDGES) throw new IllegalArgumentException("Number of edges exceeds " + MAX_EDGES);
+        return new RandomGraphGenerator(Model.WATTS_STROGATZ, n, 0, k, beta, seed);
+    }
+
+    /**
+     * Method for setting rectangle vertices are placed into
+     * @param minX minimal x coordinate
+     * @param minY minimal y coordinate
+     * @param maxX maximal x coordinate
+     * @param maxY maximal y coordinate
+     */
+    public void setBounds(double minX, double minY, double maxX, double maxY) {
+        this.minX = minX;
+        this.minY = minY;
+        this.maxX = maxX;
+        this.maxY = maxY;
+    }
+
+    /**
+     * Method for getting model of generated graphs
+     * @return model
+     */
+    public Model getModel() {
+        return model;
+    }
+
+    /**
+     * Method for getting seed of random generator
+     * @return seed
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Method for generating graph, same generator (parameters and seed) always generates the same graph
+     * @param monitor monitor progress is reported to, generating can be cancelled through it
+     * @return generated graph
+     */
+    public GraphModel generate(ProgressMonitor monitor) {
+        SplittableRandom rnd = new SplittableRandom(seed);
+        GraphModel graph = new GraphModel(vertices, (int) Math.min(expectedEdges(), MAX_EDGES));
+        boolean onCircle = model == Model.WATTS_STROGATZ;
+        double centerX = (minX + maxX) / 2;
+        double centerY = (minY + maxY) / 2;
+        double radius = Math.min(maxX - minX, maxY - minY) / 2;
+        //rewiring of Watts-Strogatz graph goes over all edges once more
+        long total = vertices + expectedEdges() * (model == Model.WATTS_STROGATZ && rewiring > 0 ? 2 : 1);
+        for (int i = 0; i < vertices; i++) {
+            if (i % ProgressMonitor.PROGRESS_STEP == 0) monitor.checkpoint(i, total);
+            if (onCircle) {
+                double angle = 2 * Math.PI * i / vertices;
+                graph.addVertex(String.valueOf(i + 1), centerX + radius * Math.cos(angle), centerY + radius * Math.sin(angle));
+            }
+            else graph.addVertex(String.valueOf(i + 1), minX + rnd.nextDouble() * (maxX - minX), minY + rnd.nextDouble() * (maxY - minY));
+        }
+        switch (model) {
+            case GNP:
+                generateGnp(graph, rnd, monitor, total);
+                break;
+            case GNM:
+                generateGnm(graph, rnd, monitor, total);
+                break;
+            case BARABASI_ALBERT:
+                generateBarabasiAlbert(graph, rnd, monitor, total);
+                break;
+            default:
+                generateWattsStrogatz(graph, rnd, monitor, total);
+        }
+        return graph;
+    }
+
+    /**
+     * Method for getting short description of generated graphs
+     * @return model with its parameters and seed
+     */
+    @Override
+    public String toString() {
+        switch (model) {
+            case GNP:
+                return model + " n=" + vertices + " p=" + probability + " seed=" + seed;
+            case GNM:
+                return model + " n=" + vertices + " m=" + edges + " seed=" + seed;
+            case BARABASI_ALBERT:
+                return model + " n=" + vertices + " m=" + edges + " seed=" + seed;
+            default:
+                return model + " n=" + vertices + " k=" + edges + " beta=" + rewiring + " seed=" + seed;
+        }
+    }
+
+    private long expectedEdges() {
+        switch (model) {
+            case GNP:
+                return (long) Math.ceil(probability * pairs(vertices));
+            case GNM:
+                return edges;
+            case BARABASI_ALBERT:
+                return edges * (edges + 1) / 2 + (vertices - edges - 1) * edges;
+            default:
+                return vertices * edges / 2;
+        }
+    }
+
+    private static long pairs(long n) {
+        return n * (n - 1) / 2;
+    }
+
+    /* Batagelj-Brandes - length of run of rejected pairs is geometrically distributed, so it is sampled directly */
+    private void generateGnp(GraphModel graph, SplittableRandom rnd, ProgressMonitor monitor, long total) {
+        if (probability <= 0 || vertices < 2) return;
+        double logRejection = Math.log(1 - probability);
+        int v = 1;
+        long w = -1;
+        while (v < vertices) {
+            w += 1 + (probability >= 1 ? 0 : (long) Math.floor(Math.log(1 - rnd.nextDouble()) / logRejection));
+            while (w >= v && v < vertices) {
+                w -= v;
+                v++;
+                if (v % ProgressMonitor.PROGRESS_STEP == 0) monitor.checkpoint(vertices + (long) (probability * pairs(v)), total);
+            }
+            if (v < vertices) graph.addEdge(v, (int) w);
+        }
+    }
+
+    private void generateGnm(GraphModel graph, SplittableRandom rnd, ProgressMonitor monitor, long total) {
+        if (edges <= pairs(vertices) / 2) {
+            //sparse - random pairs, duplicates are rejected by edge index
+            long added = 0;
+            while (added < edges) {
+                int u = rnd.nextInt(vertices);
+                int v = rnd.nextInt(vertices);
+                if (u == v || graph.containsEdge(u, v)) continue;
+                graph.addEdge(u, v);
+                if (++added % ProgressMonitor.PROGRESS_STEP == 0) monitor.checkpoint(vertices + added, total);
+            }
+            return;
+        }
+        //dense - selection sampling over all pairs in order, every pair is chosen with probability needed / left
+        long needed = edges;
+        long left = pairs(vertices);
+        for (int u = 0; u < vertices && needed > 0; u++) {
+            if (u % ProgressMonitor.PROGRESS_STEP == 0) monitor.checkpoint(vertices + edges - needed, total);
+            for (int v = u + 1; v < vertices && needed > 0; v++) {
+                if (rnd.nextDouble() * left < needed) {
+                    graph.addEdge(u, v);
+                    needed--;
+                }
+                left--;
+            }
+        }
+    }
+
+    /* endpoints of all edges are kept in one array, uniform choice from it is choice proportional to degree */
+    private void generateBarabasiAlbert(GraphModel graph, SplittableRandom rnd, ProgressMonitor monitor, long total) {
+        int m = (int) edges;
+        int[] endpoints = new int[(int) (2 * expectedEdges())];
+        int size = 0;
+        for (int u = 0; u <= m; u++) {
+            for (int v = u + 1; v <= m; v++) {
+                graph.addEdge(u, v);
+                endpoints[size++] = u;
+                endpoints[size++] = v;
+            }
+        }
+        for (int v = m + 1; v < vertices; v++) {
+            if (v % ProgressMonitor.PROGRESS_STEP == 0) monitor.checkpoint(vertices + size / 2, total);
+            //targets are taken only from endpoints of older vertices, edges of v are added once all are chosen
+            int chosenUntil = size;
+            int chosen = 0;
+            while (chosen < m) {
+                int target = endpoints[rnd.nextInt(chosenUntil)];
+                if (graph.containsEdge(v, target)) continue;
+                graph.addEdge(v, target);
+                endpoints[size++] = v;
+                endpoints[size++] = target;
+                chosen++;
+            }
+        }
+    }
+
+    private void generateWattsStrogatz(GraphModel graph, SplittableRandom rnd, ProgressMonitor monitor, long total) {
+        int half = (int) edges / 2;
+        for (int u = 0; u < vertices; u++) {
+            if (u % ProgressMonitor.PROGRESS_STEP == 0) monitor.checkpoint(vertices + (long) u * half, total);
+            for (int j = 1; j <= half; j++) {
+                graph.addEdge(u, (u + j) % vertices);
+            }
+        }
+        if (rewiring <= 0) return;
+        //every lattice edge [u, u + j] keeps u and gets new random end, unless u is connected to all other vertices
+        for (int j = 1; j <= half; j++) {
+            for (int u = 0; u < vertices; u++) {
+                if (u % ProgressMonitor.PROGRESS_STEP == 0) monitor.checkpoint(vertices + (long) (half + j - 1) * vertices + u, total);
+                if (rnd.nextDouble() >= rewiring || graph.degree(u) >= vertices - 1) continue;
+                int w;
+                do {
+                    w = rnd.nextInt(vertices);
+                } while (w == u || graph.containsEdge(u, w));
+                graph.removeEdge(graph.findEdge(u, (u + j) % vertices));
+                graph.addEdge(u, w);
+            }
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.editorgrafov.history;
+
+import com.example.editorgrafov.model.GraphModel;
+
+/**
+ * Interface representing edit of graph model that can be undone and redone. <br>
+ * - elements are referred to by values of vertices, ids can change once removed element is added back <br>
+ * - command is applied to graph model in the state right after (undo) or right before (redo) the edit
+ */
+public interface EditCommand {
+
+    /**
+     * Method for reverting edit
+     * @param graph graph model
+     * @param listener listener of changed elements
+     */
+    void undo(GraphModel graph, GraphChangeListener listener);
+
+    /**
+     * Method for making edit again
+     * @param graph graph model
+     * @param listener listener of changed elements
+     */
+    void redo(GraphModel graph, GraphChangeListener listener);
+
+    /**
+     * Method for getting number of elements command holds, history is bounded by it
+     * @return number of elements
+     */
+    int size();
+
+    /**
+     * Method for getting description of edit shown in last action
+     * @return description, e.g. "insertion of vertex "a""
+     */
+    String getDescription();
+}
@@ -0,0 +1,144 @@
+package com.example.editorgrafov.history;
+
+import com.example.editorgrafov.model.GraphModel;
+
+/**
+ * Class representing insertion or removal of vertices and edges as one command. <br>
+ * - removed vertex and edges removed with it (or the whole cleared graph) are undone at once <br>
+ * - elements are held in parallel arrays, labels are shared with graph model, nothing else is copied <br>
+ * - vertices are added before edges, edges are removed before vertices
+ */
+public class ElementsCommand implements EditCommand {
+
+    private final boolean insertion;
+    private final String description;
+
+    /* vertices */
+    private final String[] labels;
+    private final double[] xs;
+    private final double[] ys;
+    private final int[] vertexStyles;
+
+    /* edges, endpoints are values of vertices */
+    private final String[] edgeFrom;
+    private final String[] edgeTo;
+    private final int[] edgeStyles;
+
+    private ElementsCommand(GraphModel graph, boolean insertion, int[] vertices, int[] edges, String description) {
+        this.insertion = insertion;
+        this.description = description;
+        labels = new String[vertices.length];
+        xs = new double[vertices.length];
+        ys = new double[vertices.length];
+        vertexStyles = new int[vertices.length];
+        for (int i = 0; i < vertices.length; i++) {
+            labels[i] = graph.getLabel(vertices[i]);
+            xs[i] = graph.getX(vertices[i]);
+            ys[i] = graph.getY(vertices[i]);
+            vertexStyles[i] = graph.getVertexStyle(vertices[i]);
+        }
+        edgeFrom = new String[edges.length];
+        edgeTo = new String[edges.length];
+        edgeStyles = new int[edges.length];
+        for (int i = 0; i < edges.length; i++) {
+            edgeFrom[i] = graph.getLabel(graph.getFrom(edges[i]));
+            edgeTo[i] = graph.getLabel(graph.getTo(edges[i]));
+            edgeStyles[i] = graph.getEdgeStyle(edges[i]);
+        }
+    }
+
+    /**
+     * Method for creating command of elements that were just added into graph model
+     * @param graph graph model holding the elements
+     * @param vertices ids of added vertices
+     * @param edges ids of added edges
+     * @param description description of edit
+     * @return command
+     */
+    public static ElementsCommand inserted(GraphModel graph, int[] vertices, int[] edges, String description) {
+        return new ElementsCommand(graph, true, vertices, edges, description);
+    }
+
+    /**
+     * Method for creating command of elements that are about to be removed from graph model,
+     * has to be called before removal. <br>
+     * - edges containing removed vertices have to be among edges
+     * @param graph graph model holding the elements
+     * @param vertices ids of vertices to be removed
+     * @param edges ids of edges to be removed
+     * @param description description of edit
+     * @return command
+     */
+    public static ElementsCommand removed(GraphModel graph, int[] vertices, int[] edges, String description) {
+        return new ElementsCommand(graph, false, vertices, edges, description);
+    }
+
+    /**
+     * Method for creating command of removal of all elements of graph model (clearing of canvas),
+     * has to be called before removal
+     * @param graph graph model
+     * @param description description of edit
+     * @return command
+     */
+    public static ElementsCommand cleared(GraphModel graph, String description) {
+        int[] vertices = new int[graph.vertexCount()];
+        int count = 0;
+        for (int id = 0; id < graph.vertexSlots(); id++) {
+            if (graph.isVertex(id)) vertices[count++] = id;
+        }
+        int[] edges = new int[graph.edgeCount()];
+        count = 0;
+        for (int id = 0; id < graph.edgeSlots(); id++) {
+            if (graph.isEdge(id)) edges[count++] = id;
+        }
+        return new ElementsCommand(graph, false, vertices, edges, description);
+    }
+
+    @Override
+    public void undo(GraphModel graph, GraphChangeListener listener) {
+        if (insertion) remove(graph, listener);
+        else add(graph, listener);
+    }
+
+    @Override
+    public void redo(GraphModel graph, GraphChangeListener listener) {
+        if (insertion) add(graph, listener);
+        else remove(graph, listener);
+    }
+
+    @Override
+    public int size() {
+        return labels.length + edgeFrom.length;
+    }
+
+    @Override
+    public String getDescription() {
+        return description;
+    }
+
+    private void add(GraphModel graph, GraphChangeListener listener) {
+        for (int i = 0; i < labels.length; i++) {
+            int id = graph.addVertex(labels[i], xs[i], ys[i]);
+            graph.setVertexStyle(id, vertexStyles[i]);
+            listener.vertexAdded(id);
+        }
+        for (int i = 0; i < edgeFrom.length; i++) {
+            int id = graph.addEdge(graph.indexOf(edgeFrom[i]), graph.indexOf(edgeTo[i]));
+            graph.setEdgeStyle(id, edgeStyles[i]);
+            listener.edgeAdded(id);
+        }
+    }
+
+    private void remove(GraphModel graph, GraphChangeListener listener) {
+        for (int i = 0; i < edgeFrom.length; i++) {
+            int id = graph.findEdge(graph.indexOf(edgeFrom[i]), graph.indexOf(edgeTo[i]));
+            graph.removeEdge(id);
+            listener.edgeRemoved(id, edgeFrom[i], edgeTo[i]);
+        }
+        for (String label : labels) {
+            int id = graph.indexOf(label);
+            graph.removeVertex(id);
+            listener.vertexRemoved(id, label);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.editorgrafov.history;
+
+/**
+ * Interface for receiving changes of graph model made by undone or redone commands,
+ * so views (and anything else mirroring graph model) can follow only the changed elements
+ */
+public interface GraphChangeListener {
+
+    /**
+     * Method called right after vertex got added into graph model
+     * @param id id of vertex
+     */
+    void vertexAdded(int id);
+
+    /**
+     * Method called right after vertex got removed from graph model, edges containing it are removed before
+     * @param id id vertex had
+     * @param label value vertex had
+     */
+    void vertexRemoved(int id, String label);
+
+    /**
+     * Method called right after edge got added into graph model
+     * @param id id of edge
+     */
+    void edgeAdded(int id);
+
+    /**
+     * Method called right after edge got removed from graph model
+     * @param id id edge had
+     * @param from value of start vertex
+     * @param to value of end vertex
+     */
+    void edgeRemoved(int id, String from, String to);
+
+    /**
+     * Method called right after vertex got moved
+     * @param id id of vertex
+     */
+    void vertexMoved(int id);
+}
@@ -0,0 +1,120 @@
+package com.example.editorgrafov.history;
+
+import com.example.editorgrafov.model.GraphModel;
+import com.example.editorgrafov.model.IntList;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Class representing move of vertices as one command. <br>
+ * - whole drag (with vertices pushed away by dragged vertex) or whole layout is one command,
+ * only positions before and after it are kept <br>
+ * - command is built by Recorder, which is told positions of vertices before they move
+ */
+public class MoveCommand implements EditCommand {
+
+    /**
+     * Class collecting positions of vertices before their first move, while drag or layout runs
+     */
+    public static class Recorder {
+
+        private final BitSet recorded = new BitSet();
+        private final IntList ids = new IntList();
+        private double[] oldXs = new double[16];
+        private double[] oldYs = new double[16];
+
+        /**
+         * Method for recording position of vertex before it moves, only the first call for vertex counts
+         * @param id id of vertex
+         * @param x x coordinate before move
+         * @param y y coordinate before move
+         */
+        public void record(int id, double x, double y) {
+            if (recorded.get(id)) return;
+            recorded.set(id);
+            int i = ids.size();
+            if (i == oldXs.length) {
+                oldXs = Arrays.copyOf(oldXs, i * 2);
+                oldYs = Arrays.copyOf(oldYs, i * 2);
+            }
+            ids.add(id);
+            oldXs[i] = x;
+            oldYs[i] = y;
+        }
+
+        /**
+         * Method for creating command from recorded vertices and their current positions, recorder is emptied
+         * @param graph graph model recorded vertices moved in
+         * @param description description of edit
+         * @return command, or null if no vertex changed its position
+         */
+        public MoveCommand build(GraphModel graph, String description) {
+            IntList changed = new IntList(ids.size());
+            for (int i = 0; i < ids.size(); i++) {
+                int id = ids.get(i);
+                if (graph.getX(id) != oldXs[i] || graph.getY(id) != oldYs[i]) changed.add(i);
+            }
+            MoveCommand command = null;
+            if (changed.size() > 0) {
+                command = new MoveCommand(changed.size(), description);
+                for (int j = 0; j < changed.size(); j++) {
+                    int i = changed.get(j);
+                    int id = ids.get(i);
+                    command.labels[j] = graph.getLabel(id);
+                    command.fromX[j] = oldXs[i];
+                    command.fromY[j] = oldYs[i];
+                    command.toX[j] = graph.getX(id);
+                    command.toY[j] = graph.getY(id);
+                }
+            }
+            recorded.clear();
+            ids.clear();
+            return command;
+        }
+    }
+
+    private final String description;
+    private final String[] labels;
+    private final double[] fromX;
+    private final double[] fromY;
+    private final double[] toX;
+    private final double[] toY;
+
+    private MoveCommand(int size, String description) {
+        this.description = description;
+        labels = new String[size];
+        fromX = new double[size];
+        fromY = new double[size];
+        toX = new double[size];
+        toY = new double[size];
+    }
+
+    @Override
+    public void undo(GraphModel graph, GraphChangeListener listener) {
+        move(graph, listener, fromX, fromY);
+    }
+
+    @Override
+    public void redo(GraphModel graph, GraphChangeListener listener) {
+        move(graph, listener, toX, toY);
+    }
+
+    @Override
+    public int size() {
+        return labels.length;
+    }
+
+    @Override
+    public String getDescription() {
+        return description;
+    }
+
+    private void move(GraphModel graph, GraphChangeListener listener, double[] xs, double[] ys) {
+        for (int i = 0; i < labels.length; i++) {
+            int id = graph.indexOf(labels[i]);
+            graph.setPosition(id, xs[i], ys[i]);
+            listener.vertexMoved(id);
+        }
+    }
+}
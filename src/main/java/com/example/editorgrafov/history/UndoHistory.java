@@ -0,0 +1,86 @@
+package com.example.editorgrafov.history;
+
+import com.example.editorgrafov.model.GraphModel;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Class representing undo and redo stacks of edit commands. <br>
+ * - new command clears redo stack <br>
+ * - memory is bounded by number of commands and by number of elements they hold, oldest commands are dropped first <br>
+ * - command bigger than the whole bound is not kept at all, history gets cleared instead
+ */
+public class UndoHistory {
+
+    /**
+     * Maximal number of commands kept in both stacks
+     */
+    public static final int MAX_COMMANDS = 1000;
+
+    /**
+     * Maximal number of elements held by commands in both stacks
+     */
+    public static final long MAX_ELEMENTS = 1 << 21;
+
+    /* first = most recent */
+    private final Deque<EditCommand> undoStack = new ArrayDeque<>();
+    private final Deque<EditCommand> redoStack = new ArrayDeque<>();
+    private long elements;
+
+    /**
+     * Method for storing command of edit that was just made
+     * @param command command, nothing happens if null
+     */
+    public void push(EditCommand command) {
+        if (command == null) return;
+        redoStack.forEach(c -> elements -= c.size());
+        redoStack.clear();
+        if (command.size() > MAX_ELEMENTS) {
+            clear();
+            return;
+        }
+        undoStack.addFirst(command);
+        elements += command.size();
+        while (undoStack.size() > MAX_COMMANDS || elements > MAX_ELEMENTS) {
+            elements -= undoStack.removeLast().size();
+        }
+    }
+
+    /**
+     * Method for undoing the most recent command
+     * @param graph graph model
+     * @param listener listener of changed elements
+     * @return undone command, or null if there is nothing to undo
+     */
+    public EditCommand undo(GraphModel graph, GraphChangeListener listener) {
+        EditCommand command = undoStack.pollFirst();
+        if (command == null) return null;
+        command.undo(graph, listener);
+        redoStack.addFirst(command);
+        return command;
+    }
+
+    /**
+     * Method for redoing the most recently undone command
+     * @param graph graph model
+     * @param listener listener of changed elements
+     * @return redone command, or null if there is nothing to redo
+     */
+    public EditCommand redo(GraphModel graph, GraphChangeListener listener) {
+        EditCommand command = redoStack.pollFirst();
+        if (command == null) return null;
+        command.redo(graph, listener);
+        undoStack.addFirst(command);
+        return command;
+    }
+
+    /**
+     * Method for dropping all commands, called when graph gets replaced (new, open, generated graph)
+     */
+    public void clear() {
+        undoStack.clear();
+        redoStack.clear();
+        elements = 0;
+    }
+}
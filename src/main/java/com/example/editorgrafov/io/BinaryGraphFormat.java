@@ -0,0 +1,34 @@
+package com.example.editorgrafov.io;
+
+/**
+ * Class holding constants of binary graph format (.egb), read by BinaryGraphReader and written by BinaryGraphWriter. <br>
+ * - header: MAGIC, VERSION byte, flags byte, varint number of vertices, varint number of edges <br>
+ * - label dictionary: per vertex varint length and UTF-8 bytes of its value, vertices are numbered 0..n-1 in this order <br>
+ * - coordinates: all x coordinates, then all y coordinates, as float if FLAG_FLOAT_COORDINATES is set, else as double <br>
+ * - edges: per vertex u varint number of edges [u, v] with v >= u, then their v in ascending order, each as varint
+ * of (v - previous v) << 1 | reversed, where previous v starts at u and reversed is set iff edge was stored as [v, u] <br>
+ * - multi-byte values are big-endian, varints are unsigned LEB128
+ */
+public final class BinaryGraphFormat {
+
+    /**
+     * File extension of binary format, without dot
+     */
+    public static final String EXTENSION = "egb";
+
+    static final byte[] MAGIC = {'E', 'G', 'R', 'B'};
+    static final int VERSION = 1;
+    static final int FLAG_FLOAT_COORDINATES = 1;
+
+    private BinaryGraphFormat() {
+    }
+
+    /**
+     * Method for checking whether file name has extension of binary format
+     * @param fileName name of file
+     * @return true if file is supposed to be in binary format, false otherwise
+     */
+    public static boolean matches(String fileName) {
+        return fileName.toLowerCase().endsWith("." + EXTENSION);
+    }
+}
@@ -0,0 +1,190 @@
+package com.example.editorgrafov.io;
+
+import com.example.editorgrafov.model.GraphModel;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Class for reading graph in binary format into GraphModel, see BinaryGraphFormat. <br>
+ * - file is read sequentially through single direct buffer, labels are the only objects created per vertex <br>
+ * - vertices get ids 0..n-1 in order of label dictionary, so edges need no label lookup <br>
+ * - counts of header and lengths of labels are checked against size of the file before anything is allocated by them,
+ * so corrupted file fails with IOException instead of running out of memory <br>
+ * - progress is reported in bytes of the file
+ */
+public class BinaryGraphReader {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final FileChannel channel;
+    private final Path path;
+    private final ProgressMonitor monitor;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private byte[] labelBytes = new byte[64];
+
+    private BinaryGraphReader(FileChannel channel, Path path, ProgressMonitor monitor) {
+        this.channel = channel;
+        this.path = path;
+        this.monitor = monitor;
+        buffer.limit(0);
+    }
+
+    /**
+     * Method for reading graph from binary file
+     * @param path path of the file
+     * @return graph stored in the file
+     * @throws IOException iff file can not be read or is not in supported binary format
+     */
+    public static GraphModel read(Path path) throws IOException {
+        return read(path, ProgressMonitor.NONE);
+    }
+
+    /**
+     * Method for reading graph from binary file with progress reporting
+     * @param path path of the file
+     * @param monitor monitor progress is reported to
+     * @return graph stored in the file
+     * @throws IOException iff file can not be read or is not in supported binary format
+     * @throws java.util.concurrent.CancellationException iff monitor cancelled reading
+     */
+    public static GraphModel read(Path path, ProgressMonitor monitor) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new BinaryGraphReader(channel, path, monitor).readGraph();
+        }
+    }
+
+    private GraphModel readGraph() throws IOException {
+        for (byte b : BinaryGraphFormat.MAGIC) {
+            if (getByte() != b) throw new IOException(path + " is not a binary graph file");
+        }
+        int version = getByte();
+        if (version != BinaryGraphFormat.VERSION) {
+            throw new IOException("Unsupported version " + version + " of binary graph file " + path);
+        }
+        boolean floatCoordinates = (getByte() & BinaryGraphFormat.FLAG_FLOAT_COORDINATES) != 0;
+        int numOfVertices = getCount();
+        int numOfEdges = getCount();
+        //every vertex takes at least length of its label, both coordinates and number of its edges, every edge one byte
+        long minVertexSize = 2 + 2L * (floatCoordinates ? Float.BYTES : Double.BYTES);
+        if (numOfVertices * minVertexSize + numOfEdges > remaining()) {
+            throw new IOException(numOfVertices + " vertices and " + numOfEdges + " edges do not fit into " + path);
+        }
+
+        String[] labels = new String[numOfVertices];
+        for (int i = 0; i < numOfVertices; i++) {
+            labels[i] = getLabel();
+            if (i % ProgressMonitor.PROGRESS_STEP == 0) report();
+        }
+        double[] xs = new double[numOfVertices];
+        double[] ys = new double[numOfVertices];
+        for (int i = 0; i < numOfVertices; i++) {
+            xs[i] = getCoordinate(floatCoordinates);
+        }
+        for (int i = 0; i < numOfVertices; i++) {
+            ys[i] = getCoordinate(floatCoordinates);
+        }
+
+        GraphModel graph = new GraphModel(numOfVertices, numOfEdges);
+        for (int i = 0; i < numOfVertices; i++) {
+            try {
+                //fresh graph model assigns ids sequentially, so i is the id of this vertex
+                graph.addVertex(labels[i], xs[i], ys[i]);
+            }
+            catch (IllegalArgumentException e) {
+                throw new IOException("Duplicate vertex \"" + labels[i] + "\" in " + path);
+            }
+        }
+
+        int edgesRead = 0;
+        for (int u = 0; u < numOfVertices; u++) {
+            int count = getCount();
+            long v = u;
+            for (int i = 0; i < count; i++) {
+                long entry = getVarint();
+                v += entry >>> 1;
+                if (v >= numOfVertices) throw new IOException("Edge references unknown vertex in " + path);
+                if (graph.containsEdge(u, (int) v)) throw new IOException("Duplicate edge in " + path);
+                if ((entry & 1) == 0) graph.addEdge(u, (int) v);
+                else graph.addEdge((int) v, u);
+            }
+            edgesRead += count;
+            if (u % ProgressMonitor.PROGRESS_STEP == 0) report();
+        }
+        if (edgesRead != numOfEdges) {
+            throw new IOException("Expected " + numOfEdges + " edges, found " + edgesRead + " in " + path);
+        }
+        report();
+        return graph;
+    }
+
+    private void report() throws IOException {
+        monitor.checkpoint(channel.position() - buffer.remaining(), channel.size());
+    }
+
+    /* bytes of file not read yet */
+    private long remaining() throws IOException {
+        return channel.size() - channel.position() + buffer.remaining();
+    }
+
+    private String getLabel() throws IOException {
+        int length = getCount();
+        if (length > remaining()) throw new IOException("Value of vertex does not fit into " + path);
+        if (length > labelBytes.length) labelBytes = new byte[Math.max(length, labelBytes.length * 2)];
+        int offset = 0;
+        while (offset < length) {
+            ensure(1);
+            int chunk = Math.min(buffer.remaining(), length - offset);
+            buffer.get(labelBytes, offset, chunk);
+            offset += chunk;
+        }
+        return new String(labelBytes, 0, length, StandardCharsets.UTF_8);
+    }
+
+    private double getCoordinate(boolean asFloat) throws IOException {
+        if (asFloat) {
+            ensure(Float.BYTES);
+            return buffer.getFloat();
+        }
+        ensure(Double.BYTES);
+        return buffer.getDouble();
+    }
+
+    private int getCount() throws IOException {
+        long value = getVarint();
+        if (value > Integer.MAX_VALUE) throw new IOException("Count " + value + " out of range in " + path);
+        return (int) value;
+    }
+
+    private long getVarint() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = getByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+        throw new IOException("Malformed varint in " + path);
+    }
+
+    private int getByte() throws IOException {
+        ensure(1);
+        return buffer.get() & 0xFF;
+    }
+
+    /* compacts unread bytes to start of buffer and refills it until at least given number of bytes is available */
+    private void ensure(int bytes) throws IOException {
+        if (buffer.remaining() >= bytes) return;
+        buffer.compact();
+        while (buffer.position() < bytes) {
+            if (channel.read(buffer) == -1) {
+                throw new EOFException("Unexpected end of binary graph file " + path);
+            }
+        }
+        buffer.flip();
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.editorgrafov.io;
+
+import com.example.editorgrafov.model.GraphModel;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Class for writing GraphModel in binary format, see BinaryGraphFormat. <br>
+ * - coordinates are written as float iff every one of them survives the conversion unchanged <br>
+ * - edges are grouped by their smaller endpoint and delta-encoded, so every edge takes 1-2 bytes in dense graphs <br>
+ * - progress is reported in written vertices (labels, then edge lists)
+ */
+public class BinaryGraphWriter {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final ProgressMonitor monitor;
+
+    private BinaryGraphWriter(FileChannel channel, ProgressMonitor monitor) {
+        this.channel = channel;
+        this.monitor = monitor;
+    }
+
+    /**
+     * Method for writing graph into binary file, existing file gets overwritten
+     * @param graph graph to be written
+     * @param path path of the file
+     * @throws IOException exception
+     */
+    public static void write(GraphModel graph, Path path) throws IOException {
+        write(graph, path, ProgressMonitor.NONE);
+    }
+
+    /**
+     * Method for writing graph into binary file with progress reporting, existing file gets overwritten
+     * @param graph graph to be written
+     * @param path path of the file
+     * @param monitor monitor progress is reported to
+     * @throws IOException exception
+     * @throws java.util.concurrent.CancellationException iff monitor cancelled writing, file is left incomplete
+     */
+    public static void write(GraphModel graph, Path path, ProgressMonitor monitor) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            BinaryGraphWriter writer = new BinaryGraphWriter(channel, monitor);
+            writer.writeGraph(graph);
+            writer.flush();
+        }
+    }
+
+    private void writeGraph(GraphModel graph) throws IOException {
+        /* ids of model can have holes, vertices are renumbered densely */
+        int numOfVertices = graph.vertexCount();
+        int[] denseId = new int[graph.vertexSlots()];
+        int[] modelId = new int[numOfVertices];
+        boolean floatCoordinates = true;
+        int next = 0;
+        for (int id = 0; id < graph.vertexSlots(); id++) {
+            if (!graph.isVertex(id)) continue;
+            denseId[id] = next;
+            modelId[next++] = id;
+            floatCoordinates &= (float) graph.getX(id) == graph.getX(id) && (float) graph.getY(id) == graph.getY(id);
+        }
+
+        put(BinaryGraphFormat.MAGIC);
+        putByte(BinaryGraphFormat.VERSION);
+        putByte(floatCoordinates ? BinaryGraphFormat.FLAG_FLOAT_COORDINATES : 0);
+        putVarint(numOfVertices);
+        putVarint(graph.edgeCount());
+
+        for (int i = 0; i < numOfVertices; i++) {
+            byte[] label = graph.getLabel(modelId[i]).getBytes(StandardCharsets.UTF_8);
+            putVarint(label.length);
+            put(label);
+            if (i % ProgressMonitor.PROGRESS_STEP == 0) monitor.checkpoint(i, 2L * numOfVertices);
+        }
+
+        for (int i = 0; i < numOfVertices; i++) {
+            putCoordinate(graph.getX(modelId[i]), floatCoordinates);
+        }
+        for (int i = 0; i < numOfVertices; i++) {
+            putCoordinate(graph.getY(modelId[i]), floatCoordinates);
+        }
+
+        /* per vertex: (other endpoint << 1 | reversed), sorted, so deltas of endpoints keep the flag in lowest bit */
+        long[] neighbours = new long[16];
+        for (int u = 0; u < numOfVertices; u++) {
+            int id = modelId[u];
+            int count = 0;
+            for (int i = 0; i < graph.degree(id); i++) {
+                int edge = graph.incidentEdge(id, i);
+                int v = denseId[graph.opposite(edge, id)];
+                if (v < u) continue;
+                if (count == neighbours.length) neighbours = Arrays.copyOf(neighbours, count * 2);
+                neighbours[count++] = ((long) v << 1) | (graph.getFrom(edge) == id ? 0 : 1);
+            }
+            Arrays.sort(neighbours, 0, count);
+            putVarint(count);
+            long previous = u;
+            for (int i = 0; i < count; i++) {
+                long v = neighbours[i] >>> 1;
+                putVarint(((v - previous) << 1) | (neighbours[i] & 1));
+                previous = v;
+            }
+            if (u % ProgressMonitor.PROGRESS_STEP == 0) monitor.checkpoint(numOfVertices + u, 2L * numOfVertices);
+        }
+    }
+
+    private void putCoordinate(double value, boolean asFloat) throws IOException {
+        if (asFloat) {
+            ensure(Float.BYTES);
+            buffer.putFloat((float) value);
+        }
+        else {
+            ensure(Double.BYTES);
+            buffer.putDouble(value);
+        }
+    }
+
+    private void putVarint(long value) throws IOException {
+        ensure(10);
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    private void putByte(int value) throws IOException {
+        ensure(1);
+        buffer.put((byte) value);
+    }
+
+    private void put(byte[] bytes) throws IOException {
+        int offset = 0;
+        while (offset < bytes.length) {
+            if (!buffer.hasRemaining()) flush();
+            int length = Math.min(buffer.remaining(), bytes.length - offset);
+            buffer.put(bytes, offset, length);
+            offset += length;
+        }
+    }
+
+    private void ensure(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) flush();
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.editorgrafov.io;
+
+import java.util.Arrays;
+
+/**
+ * Class representing index from raw label bytes to vertex ids, used by readers while loading. <br>
+ * - labels are stored in one byte arena, lookup of token hashes and compares bytes in place <br>
+ * - resolving edge endpoints therefore creates no String per edge line
+ */
+public class ByteLabelIndex {
+
+    /* entry layout in entries array: offset into arena, length, id */
+    private static final int ENTRY_STRIDE = 3;
+
+    private byte[] arena;
+    private int arenaSize;
+    private int[] entries;
+    private int size;
+    /* slot layout in table array: hash, entry index (-1 = empty slot) */
+    private int[] table;
+    private int mask;
+
+    /**
+     * Constructor of empty ByteLabelIndex object
+     * @param expectedSize expected number of labels
+     */
+    public ByteLabelIndex(int expectedSize) {
+        int capacity = Math.max(expectedSize, 16);
+        arena = new byte[capacity * 4];
+        entries = new int[capacity * ENTRY_STRIDE];
+        allocateTable(Integer.highestOneBit(capacity * 2 - 1) << 1);
+    }
+
+    /**
+     * Method for hashing bytes, consistent with MappedTokenizer.hashToken()
+     * @param bytes array holding bytes
+     * @param offset start of bytes
+     * @param length number of bytes
+     * @return hash
+     */
+    public static int hash(byte[] bytes, int offset, int length) {
+        int hash = 1;
+        for (int i = offset; i < offset + length; i++) {
+            hash = 31 * hash + bytes[i];
+        }
+        return hash;
+    }
+
+    /**
+     * Method for storing current token of tokenizer as label of vertex
+     * @param tokenizer tokenizer positioned at label token
+     * @param id id of vertex
+     * @return false if label was already present (nothing is stored), true otherwise
+     */
+    public boolean putToken(MappedTokenizer tokenizer, int id) {
+        int hash = tokenizer.hashToken();
+        if (findToken(tokenizer, hash) != -1) return false;
+        int length = tokenizer.tokenLength();
+        ensureArena(length);
+        tokenizer.copyToken(arena, arenaSize);
+        add(hash, arenaSize, length, id);
+        arenaSize += length;
+        return true;
+    }
+
+    /**
+     * Method for storing label bytes of vertex
+     * @param bytes array holding label bytes
+     * @param id id of vertex
+     * @return false if label was already present (nothing is stored), true otherwise
+     */
+    public boolean put(byte[] bytes, int id) {
+        int hash = hash(bytes, 0, bytes.length);
+        if (find(bytes, hash) != -1) return false;
+        ensureArena(bytes.length);
+        System.arraycopy(bytes, 0, arena, arenaSize, bytes.length);
+        add(hash, arenaSize, bytes.length, id);
+        arenaSize += bytes.length;
+        return true;
+    }
+
+    /**
+     * Method for getting id of vertex, whose label equals current token of tokenizer
+     * @param tokenizer tokenizer positioned at label token
+     * @return id of vertex, -1 if there is none
+     */
+    public int getToken(MappedTokenizer tokenizer) {
+        return findToken(tokenizer, tokenizer.hashToken());
+    }
+
+    /**
+     * Method for getting id of vertex with given label bytes
+     * @param bytes label bytes
+     * @return id of vertex, -1 if there is none
+     */
+    public int get(byte[] bytes) {
+        return find(bytes, hash(bytes, 0, bytes.length));
+    }
+
+    private int findToken(MappedTokenizer tokenizer, int hash) {
+        int slot = spread(hash) & mask;
+        while (table[2 * slot + 1] != -1) {
+            if (table[2 * slot] == hash) {
+                int entry = table[2 * slot + 1] * ENTRY_STRIDE;
+                if (tokenizer.tokenEquals(arena, entries[entry], entries[entry + 1])) return entries[entry + 2];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private int find(byte[] bytes, int hash) {
+        int slot = spread(hash) & mask;
+        while (table[2 * slot + 1] != -1) {
+            if (table[2 * slot] == hash) {
+                int entry = table[2 * slot + 1] * ENTRY_STRIDE;
+                int offset = entries[entry];
+                if (Arrays.equals(arena, offset, offset + entries[entry + 1], bytes, 0, bytes.length)) return entries[entry + 2];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private void add(int hash, int offset, int length, int id) {
+        if ((size + 1) * ENTRY_STRIDE > entries.length) {
+            entries = Arrays.copyOf(entries, entries.length * 2);
+        }
+        int entry = size * ENTRY_STRIDE;
+        entries[entry] = offset;
+        entries[entry + 1] = length;
+        entries[entry + 2] = id;
+        insert(hash, size);
+        size++;
+        if (size * 4 > table.length) {
+            int[] oldTable = table;
+            allocateTable(table.length);
+            for (int slot = 0; slot < oldTable.length / 2; slot++) {
+                if (oldTable[2 * slot + 1] != -1) insert(oldTable[2 * slot], oldTable[2 * slot + 1]);
+            }
+        }
+    }
+
+    private void insert(int hash, int entryIndex) {
+        int slot = spread(hash) & mask;
+        while (table[2 * slot + 1] != -1) {
+            slot = (slot + 1) & mask;
+        }
+        table[2 * slot] = hash;
+        table[2 * slot + 1] = entryIndex;
+    }
+
+    private static int spread(int hash) {
+        int h = hash * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /* capacity = number of slots, table holds two ints per slot */
+    private void allocateTable(int capacity) {
+        table = new int[capacity * 2];
+        Arrays.fill(table, -1);
+        mask = capacity - 1;
+    }
+
+    private void ensureArena(int length) {
+        if (arenaSize + length > arena.length) {
+            arena = Arrays.copyOf(arena, Math.max(arena.length * 2, arenaSize + length));
+        }
+    }
+}
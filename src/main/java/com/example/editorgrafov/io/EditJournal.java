@@ -0,0 +1,405 @@
+package com.example.editorgrafov.io;
+
+import com.example.editorgrafov.model.GraphModel;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.zip.CRC32;
+
+/**
+ * Class representing append-only journal of edits made since graph file (snapshot) was fully written. <br>
+ * - journal is stored next to snapshot as "name.journal", snapshot + journal = saved graph <br>
+ * - header: MAGIC, VERSION byte, size and last modification time of snapshot journal belongs to (long each),
+ * journal of another snapshot is ignored <br>
+ * - record: int length of payload, payload (op byte and its operands), int CRC32 of payload - torn or corrupted
+ * record (e.g. after crash during save) and everything after it is ignored, next append cuts it off first,
+ * so new records never end up behind it <br>
+ * - vertices are referred to by their values, which stay the same after snapshot is read again (ids do not) <br>
+ * - edits are buffered in memory until save, moves are coalesced - one record per moved vertex with its final position
+ */
+public class EditJournal {
+
+    /**
+     * File extension of journal, appended to name of snapshot
+     */
+    public static final String EXTENSION = "journal";
+
+    static final byte[] MAGIC = {'E', 'G', 'R', 'J'};
+    static final int VERSION = 1;
+    private static final int HEADER_SIZE = MAGIC.length + 1 + 2 * Long.BYTES;
+
+    private static final byte ADD_VERTEX = 1;
+    private static final byte REMOVE_VERTEX = 2;
+    private static final byte ADD_EDGE = 3;
+    private static final byte REMOVE_EDGE = 4;
+    private static final byte MOVE_VERTEX = 5;
+    private static final byte CLEAR = 6;
+
+    /* journal is compacted once it would be bigger than snapshot / COMPACTION_RATIO (and than MIN_COMPACTION_SIZE) */
+    private static final int COMPACTION_RATIO = 2;
+    private static final long MIN_COMPACTION_SIZE = 1 << 16;
+    /* estimated size of coalesced move record */
+    private static final int MOVE_RECORD_SIZE = 40;
+
+    /**
+     * Class representing outcome of walking records of journal - end of last valid record and number of valid records
+     */
+    private static final class Scan {
+
+        private int end = HEADER_SIZE;
+        private int records;
+    }
+
+    private final ByteArrayOutputStream pending = new ByteArrayOutputStream();
+    private final ByteArrayOutputStream payload = new ByteArrayOutputStream();
+    private final DataOutputStream payloadOut = new DataOutputStream(payload);
+    private final CRC32 crc = new CRC32();
+    private final BitSet moved = new BitSet();
+    private boolean complete = true;
+
+    /**
+     * Method for getting path of journal belonging to snapshot
+     * @param snapshot path of graph file
+     * @return path of journal
+     */
+    public static Path pathOf(Path snapshot) {
+        return snapshot.resolveSibling(snapshot.getFileName() + "." + EXTENSION);
+    }
+
+    /**
+     * Method for recording added vertex
+     * @param label value of vertex
+     * @param x x coordinate of vertex
+     * @param y y coordinate of vertex
+     */
+    public void addVertex(String label, double x, double y) {
+        try {
+            payloadOut.writeByte(ADD_VERTEX);
+            writeLabel(label);
+            payloadOut.writeDouble(x);
+            payloadOut.writeDouble(y);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        endRecord();
+    }
+
+    /**
+     * Method for recording removed vertex, edges containing it are removed with it
+     * @param label value of vertex
+     */
+    public void removeVertex(String label) {
+        try {
+            payloadOut.writeByte(REMOVE_VERTEX);
+            writeLabel(label);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        endRecord();
+    }
+
+    /**
+     * Method for recording added edge
+     * @param from value of start vertex
+     * @param to value of end vertex
+     */
+    public void addEdge(String from, String to) {
+        edgeRecord(ADD_EDGE, from, to);
+    }
+
+    /**
+     * Method for recording removed edge
+     * @param from value of start vertex
+     * @param to value of end vertex
+     */
+    public void removeEdge(String from, String to) {
+        edgeRecord(REMOVE_EDGE, from, to);
+    }
+
+    /**
+     * Method for recording moved vertex, its position is read from graph model on save
+     * @param id id of vertex in graph model
+     */
+    public void moveVertex(int id) {
+        moved.set(id);
+    }
+
+    /**
+     * Method for recording removal of all vertices and edges
+     */
+    public void clear() {
+        moved.clear();
+        try {
+            payloadOut.writeByte(CLEAR);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        endRecord();
+    }
+
+    /**
+     * Method for marking change that can not be journaled (e.g. whole graph got replaced), next save has to write snapshot
+     */
+    public void invalidate() {
+        complete = false;
+    }
+
+    /**
+     * Method for forgetting recorded edits, called once graph model matches snapshot + journal on disk
+     */
+    public void reset() {
+        pending.reset();
+        moved.clear();
+        complete = true;
+    }
+
+    /**
+     * Method for checking whether recorded edits can be appended to journal of snapshot instead of writing snapshot. <br>
+     * - snapshot has to exist, its journal has to belong to it and every edit since last save has to be recorded <br>
+     * - false is returned also when journal grew too big compared to snapshot, it gets compacted by full save then
+     * @param snapshot path of graph file
+     * @return true if save can be done by append(), false if snapshot has to be written
+     * @throws IOException exception
+     */
+    public boolean canAppendTo(Path snapshot) throws IOException {
+        if (!complete || !Files.isRegularFile(snapshot)) return false;
+        Path journal = pathOf(snapshot);
+        long journalSize = 0;
+        if (Files.exists(journal)) {
+            if (!belongsTo(journal, snapshot)) return false;
+            journalSize = Files.size(journal);
+        }
+        long newSize = journalSize + pending.size() + (long) moved.cardinality() * MOVE_RECORD_SIZE;
+        return newSize <= Math.max(MIN_COMPACTION_SIZE, Files.size(snapshot) / COMPACTION_RATIO);
+    }
+
+    /**
+     * Method for taking recorded edits as records ready to be appended, moves get current positions from graph model. <br>
+     * - has to be called by thread owning graph model, recorded edits are forgotten
+     * @param graph graph model edits were made on
+     * @return records
+     */
+    public byte[] drain(GraphModel graph) {
+        for (int id = moved.nextSetBit(0); id >= 0; id = moved.nextSetBit(id + 1)) {
+            if (!graph.isVertex(id)) continue;
+            try {
+                payloadOut.writeByte(MOVE_VERTEX);
+                writeLabel(graph.getLabel(id));
+                payloadOut.writeDouble(graph.getX(id));
+                payloadOut.writeDouble(graph.getY(id));
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            endRecord();
+        }
+        byte[] records = pending.toByteArray();
+        reset();
+        return records;
+    }
+
+    /**
+     * Method for appending records to journal of snapshot, journal is created if it does not exist. <br>
+     * - torn or corrupted tail of journal (e.g. after crash during previous append) is cut off first, records are
+     * appended right after the last valid record, so replay reaches them <br>
+     * - records are forced to disk before method returns
+     * @param snapshot path of graph file
+     * @param records records taken by drain()
+     * @throws IOException exception
+     */
+    public static void append(Path snapshot, byte[] records) throws IOException {
+        Path journal = pathOf(snapshot);
+        try (FileChannel channel = FileChannel.open(journal, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.CREATE)) {
+            if (channel.size() < HEADER_SIZE) {
+                channel.truncate(0);
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+                header.put(MAGIC).put((byte) VERSION)
+                        .putLong(Files.size(snapshot)).putLong(Files.getLastModifiedTime(snapshot).toMillis());
+                header.flip();
+                while (header.hasRemaining()) channel.write(header);
+            }
+            else {
+                byte[] bytes = new byte[(int) channel.size()];
+                ByteBuffer existing = ByteBuffer.wrap(bytes);
+                while (existing.hasRemaining()) {
+                    if (channel.read(existing, existing.position()) == -1) break;
+                }
+                int end = scan(bytes, null, ProgressMonitor.NONE).end;
+                if (end < bytes.length) channel.truncate(end);
+            }
+            channel.position(channel.size());
+            ByteBuffer buffer = ByteBuffer.wrap(records);
+            while (buffer.hasRemaining()) channel.write(buffer);
+            channel.force(false);
+        }
+    }
+
+    /**
+     * Method for checking whether snapshot has journal belonging to it, i.e. whether replay() would apply anything
+     * @param snapshot path of graph file
+     * @return true if journal exists and was written for current version of snapshot
+     * @throws IOException exception
+     */
+    public static boolean existsFor(Path snapshot) throws IOException {
+        Path journal = pathOf(snapshot);
+        return Files.exists(journal) && belongsTo(journal, snapshot);
+    }
+
+    /**
+     * Method for deleting journal of snapshot, called when snapshot gets written whole
+     * @param snapshot path of graph file
+     * @throws IOException exception
+     */
+    public static void delete(Path snapshot) throws IOException {
+        Files.deleteIfExists(pathOf(snapshot));
+    }
+
+    /**
+     * Method for applying journal of snapshot to graph read from that snapshot. <br>
+     * - journal of another snapshot is ignored, torn or corrupted record ends replay <br>
+     * - records that do not apply (e.g. vertex already exists) are skipped <br>
+     * - journal itself is not changed, its torn tail is cut off by next append() <br>
+     * - progress is reported in bytes of journal
+     * @param graph graph read from snapshot
+     * @param snapshot path of graph file
+     * @param monitor monitor replay can be cancelled through
+     * @return number of replayed records, 0 if there is no journal belonging to snapshot
+     * @throws IOException exception
+     */
+    public static int replay(GraphModel graph, Path snapshot, ProgressMonitor monitor) throws IOException {
+        if (!existsFor(snapshot)) return 0;
+        byte[] bytes = Files.readAllBytes(pathOf(snapshot));
+        return scan(bytes, graph, monitor).records;
+    }
+
+    /**
+     * Method for walking valid records of journal, record is valid if it is whole and its checksum matches
+     * @param bytes journal with header
+     * @param graph graph model records are applied to, null to only find them
+     * @param monitor monitor progress is reported to
+     * @return end of last valid record and number of valid records
+     * @throws IOException iff valid record can not be applied
+     */
+    private static Scan scan(byte[] bytes, GraphModel graph, ProgressMonitor monitor) throws IOException {
+        Scan scan = new Scan();
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        CRC32 checksum = new CRC32();
+        int position = HEADER_SIZE;
+        //length, payload and checksum have to fit into journal
+        while (bytes.length - position >= 2 * Integer.BYTES) {
+            int length = buffer.getInt(position);
+            if (length <= 0 || length > bytes.length - position - 2 * Integer.BYTES) break;
+            checksum.reset();
+            checksum.update(bytes, position + Integer.BYTES, length);
+            if (buffer.getInt(position + Integer.BYTES + length) != (int) checksum.getValue()) break;
+            if (graph != null) apply(graph, new DataInputStream(new ByteArrayInputStream(bytes, position + Integer.BYTES, length)));
+            position += length + 2 * Integer.BYTES;
+            scan.end = position;
+            if (++scan.records % ProgressMonitor.PROGRESS_STEP == 0) monitor.checkpoint(position, bytes.length);
+        }
+        return scan;
+    }
+
+    private static void apply(GraphModel graph, DataInputStream record) throws IOException {
+        byte op = record.readByte();
+        if (op == ADD_VERTEX) {
+            String label = readLabel(record);
+            double x = record.readDouble();
+            double y = record.readDouble();
+            if (!graph.containsVertex(label)) graph.addVertex(label, x, y);
+        }
+        else if (op == REMOVE_VERTEX) {
+            int id = graph.indexOf(readLabel(record));
+            if (id != -1) graph.removeVertex(id);
+        }
+        else if (op == ADD_EDGE || op == REMOVE_EDGE) {
+            int from = graph.indexOf(readLabel(record));
+            int to = graph.indexOf(readLabel(record));
+            if (from == -1 || to == -1) return;
+            int edge = graph.findEdge(from, to);
+            if (op == ADD_EDGE && edge == -1) graph.addEdge(from, to);
+            else if (op == REMOVE_EDGE && edge != -1) graph.removeEdge(edge);
+        }
+        else if (op == MOVE_VERTEX) {
+            int id = graph.indexOf(readLabel(record));
+            double x = record.readDouble();
+            double y = record.readDouble();
+            if (id != -1) graph.setPosition(id, x, y);
+        }
+        else if (op == CLEAR) {
+            graph.clear();
+        }
+    }
+
+    private static boolean belongsTo(Path journal, Path snapshot) throws IOException {
+        byte[] header = new byte[HEADER_SIZE];
+        try (FileChannel channel = FileChannel.open(journal, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.wrap(header);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) == -1) return false;
+            }
+            buffer.flip();
+            byte[] magic = new byte[MAGIC.length];
+            buffer.get(magic);
+            return Arrays.equals(magic, MAGIC) && buffer.get() == VERSION
+                    && buffer.getLong() == Files.size(snapshot)
+                    && buffer.getLong() == Files.getLastModifiedTime(snapshot).toMillis();
+        }
+    }
+
+    private void edgeRecord(byte op, String from, String to) {
+        try {
+            payloadOut.writeByte(op);
+            writeLabel(from);
+            writeLabel(to);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        endRecord();
+    }
+
+    private void writeLabel(String label) throws IOException {
+        byte[] bytes = label.getBytes(StandardCharsets.UTF_8);
+        payloadOut.writeInt(bytes.length);
+        payloadOut.write(bytes);
+    }
+
+    private static String readLabel(DataInputStream record) throws IOException {
+        byte[] bytes = new byte[record.readInt()];
+        record.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /* frames payload written so far as one record of pending edits */
+    private void endRecord() {
+        byte[] bytes = payload.toByteArray();
+        payload.reset();
+        crc.reset();
+        crc.update(bytes);
+        DataOutputStream out = new DataOutputStream(pending);
+        try {
+            out.writeInt(bytes.length);
+            out.write(bytes);
+            out.writeInt((int) crc.getValue());
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
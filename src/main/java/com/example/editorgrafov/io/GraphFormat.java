@@ -0,0 +1,115 @@
+package com.example.editorgrafov.io;
+
+import com.example.editorgrafov.model.GraphModel;
+import com.example.editorgrafov.style.EdgeStyle;
+import com.example.editorgrafov.style.StyleTable;
+import com.example.editorgrafov.style.VertexStyle;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Enum for file formats graph can be read from and written to. <br>
+ * - PLAIN and STYLED share .txt extension, they are told apart by first line of file
+ * (two numbers in plain format, one number in styled format) <br>
+ * - BINARY is recognised by its magic bytes <br>
+ * - formats without styles read every element with style 0, so tables should hold default styles under id 0
+ */
+public enum GraphFormat {
+    /**
+     * plain .txt format - vertices with coordinates and edges, read by PlainGraphReader
+     */
+    PLAIN,
+    /**
+     * .txt format with styles of vertices and edges, read by StyledGraphReader
+     */
+    STYLED,
+    /**
+     * binary .egb format, read by BinaryGraphReader
+     */
+    BINARY;
+
+    /* bytes of file looked at when format is detected */
+    private static final int PROBE_SIZE = 64;
+
+    /**
+     * Method for getting format by its name, case is ignored
+     * @param name name of format (plain, styled, binary)
+     * @return format
+     * @throws IllegalArgumentException iff there is no format of given name
+     */
+    public static GraphFormat of(String name) {
+        return valueOf(name.toUpperCase());
+    }
+
+    /**
+     * Method for guessing format of file that is going to be written from its name
+     * @param fileName name of file
+     * @return BINARY for .egb files, PLAIN otherwise
+     */
+    public static GraphFormat forFileName(String fileName) {
+        return BinaryGraphFormat.matches(fileName) ? BINARY : PLAIN;
+    }
+
+    /**
+     * Method for detecting format of existing file from its first bytes, only PROBE_SIZE bytes are read
+     * @param path path of the file
+     * @return detected format
+     * @throws IOException iff file can not be read
+     */
+    public static GraphFormat detect(Path path) throws IOException {
+        byte[] probe;
+        try (InputStream in = Files.newInputStream(path)) {
+            probe = in.readNBytes(PROBE_SIZE);
+        }
+        if (probe.length >= BinaryGraphFormat.MAGIC.length
+                && Arrays.equals(probe, 0, BinaryGraphFormat.MAGIC.length, BinaryGraphFormat.MAGIC, 0, BinaryGraphFormat.MAGIC.length)) {
+            return BINARY;
+        }
+        //number of tokens on first line
+        int tokens = 0;
+        boolean inToken = false;
+        for (byte b : probe) {
+            if (b == '\n' || b == '\r') break;
+            boolean space = b == ' ' || b == '\t';
+            if (!space && !inToken) tokens++;
+            inToken = !space;
+        }
+        return tokens == 1 ? STYLED : PLAIN;
+    }
+
+    /**
+     * Method for reading graph from file in this format
+     * @param path path of the file
+     * @param vertexStyles table vertex styles of the file are interned into (used only by STYLED)
+     * @param edgeStyles table edge styles of the file are interned into (used only by STYLED)
+     * @param monitor monitor progress is reported to
+     * @return graph stored in the file
+     * @throws IOException iff file can not be read or is not in this format
+     */
+    public GraphModel read(Path path, StyleTable<VertexStyle> vertexStyles, StyleTable<EdgeStyle> edgeStyles,
+                           ProgressMonitor monitor) throws IOException {
+        if (this == BINARY) return BinaryGraphReader.read(path, monitor);
+        else if (this == STYLED) return StyledGraphReader.read(path, vertexStyles, edgeStyles, monitor);
+        else return PlainGraphReader.read(path, monitor);
+    }
+
+    /**
+     * Method for writing graph into file in this format, existing file gets overwritten
+     * @param graph graph to be written
+     * @param vertexStyles table styles of vertices refer to (used only by STYLED)
+     * @param edgeStyles table styles of edges refer to (used only by STYLED)
+     * @param path path of the file
+     * @param monitor monitor progress is reported to
+     * @throws IOException exception
+     */
+    public void write(GraphModel graph, StyleTable<VertexStyle> vertexStyles, StyleTable<EdgeStyle> edgeStyles,
+                      Path path, ProgressMonitor monitor) throws IOException {
+        if (this == BINARY) BinaryGraphWriter.write(graph, path, monitor);
+        else if (this == STYLED) StyledGraphWriter.write(graph, vertexStyles, edgeStyles, path, monitor);
+        else PlainGraphWriter.write(graph, path, monitor);
+    }
+}
@@ -0,0 +1,280 @@
+package com.example.editorgrafov.io;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Class representing whitespace separated tokenizer over memory-mapped file. <br>
+ * - file is mapped in windows, so files bigger than 2 GB can be read <br>
+ * - ints and doubles are decoded straight from mapped bytes, no String is created for them <br>
+ * - labels can be hashed and compared in place, see hashToken() and tokenEquals()
+ */
+public class MappedTokenizer implements Closeable {
+
+    /**
+     * Maximal length of single token in bytes
+     */
+    public static final int MAX_TOKEN_LENGTH = 1 << 16;
+
+    private static final long WINDOW_SIZE = 1L << 28;
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private final FileChannel channel;
+    private final long fileSize;
+    private long windowStart;
+    private MappedByteBuffer buffer;
+    private int limit;
+    private int position;
+    private int tokenStart;
+    private int tokenEnd;
+
+    /**
+     * Constructor of MappedTokenizer object, maps first window of the file
+     * @param path path of file to be read
+     * @throws IOException exception
+     */
+    public MappedTokenizer(Path path) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.READ);
+        fileSize = channel.size();
+        map(0);
+    }
+
+    /**
+     * Method for getting size of the read file
+     * @return size in bytes
+     */
+    public long fileSize() {
+        return fileSize;
+    }
+
+    /**
+     * Method for getting number of bytes already consumed
+     * @return absolute position in file
+     */
+    public long consumed() {
+        return windowStart + position;
+    }
+
+    /**
+     * Method for checking whether there is another token in the file
+     * @return true if there is another token, false otherwise
+     * @throws IOException exception
+     */
+    public boolean hasNext() throws IOException {
+        skipWhitespace();
+        return position < limit;
+    }
+
+    /**
+     * Method for moving to next token, its bytes are afterwards available through tokenLength(), hashToken(), ...
+     * @throws IOException iff there is no more tokens or token is longer than MAX_TOKEN_LENGTH
+     */
+    public void next() throws IOException {
+        skipWhitespace();
+        if (position >= limit) throw new EOFException("Unexpected end of file");
+        tokenStart = position;
+        while (position < limit && !isWhitespace(buffer.get(position))) {
+            position++;
+        }
+        if (position - tokenStart >= MAX_TOKEN_LENGTH) {
+            throw new IOException("Token at byte " + (windowStart + tokenStart) + " is too long");
+        }
+        tokenEnd = position;
+    }
+
+    /**
+     * Method for reading next token as int
+     * @return decoded int
+     * @throws IOException iff token is not an int
+     */
+    public int nextInt() throws IOException {
+        next();
+        int i = tokenStart;
+        boolean negative = false;
+        if (buffer.get(i) == '-' || buffer.get(i) == '+') {
+            negative = buffer.get(i) == '-';
+            i++;
+        }
+        if (i == tokenEnd) throw malformed("integer");
+        long value = 0;
+        for (; i < tokenEnd; i++) {
+            int digit = buffer.get(i) - '0';
+            if (digit < 0 || digit > 9) throw malformed("integer");
+            value = value * 10 + digit;
+            if (value > (long) Integer.MAX_VALUE + 1) throw malformed("integer");
+        }
+        value = negative ? -value : value;
+        if (value > Integer.MAX_VALUE) throw malformed("integer");
+        return (int) value;
+    }
+
+    /**
+     * Method for reading next token as double. <br>
+     * - plain decimals with at most 15 significant digits are decoded exactly from bytes <br>
+     * - anything else (longer mantissa, big exponent, NaN, Infinity) falls back to Double.parseDouble()
+     * @return decoded double
+     * @throws IOException iff token is not a double
+     */
+    public double nextDouble() throws IOException {
+        next();
+        int i = tokenStart;
+        boolean negative = false;
+        if (buffer.get(i) == '-' || buffer.get(i) == '+') {
+            negative = buffer.get(i) == '-';
+            i++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int exponent = 0;
+        boolean seenDigit = false;
+        boolean seenPoint = false;
+        for (; i < tokenEnd; i++) {
+            byte b = buffer.get(i);
+            if (b >= '0' && b <= '9') {
+                seenDigit = true;
+                if (mantissa == 0 && b == '0') {
+                    if (seenPoint) exponent--;
+                    continue;
+                }
+                if (++digits > 15) return slowDouble();
+                mantissa = mantissa * 10 + (b - '0');
+                if (seenPoint) exponent--;
+            }
+            else if (b == '.' && !seenPoint) {
+                seenPoint = true;
+            }
+            else {
+                return slowDouble();
+            }
+        }
+        if (!seenDigit) return slowDouble();
+        double value;
+        if (mantissa == 0) value = 0;
+        else if (exponent >= 0 && exponent < POWERS_OF_TEN.length) value = mantissa * POWERS_OF_TEN[exponent];
+        else if (exponent < 0 && -exponent < POWERS_OF_TEN.length) value = mantissa / POWERS_OF_TEN[-exponent];
+        else return slowDouble();
+        return negative ? -value : value;
+    }
+
+    /**
+     * Method for reading next token as String (UTF-8)
+     * @return decoded String
+     * @throws IOException exception
+     */
+    public String nextString() throws IOException {
+        next();
+        return tokenString();
+    }
+
+    /**
+     * Method for getting current token as String (UTF-8)
+     * @return decoded String
+     */
+    public String tokenString() {
+        byte[] bytes = new byte[tokenEnd - tokenStart];
+        buffer.get(tokenStart, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Method for getting length of current token in bytes
+     * @return length in bytes
+     */
+    public int tokenLength() {
+        return tokenEnd - tokenStart;
+    }
+
+    /**
+     * Method for hashing bytes of current token, consistent with ByteLabelIndex.hash()
+     * @return hash of the token
+     */
+    public int hashToken() {
+        int hash = 1;
+        for (int i = tokenStart; i < tokenEnd; i++) {
+            hash = 31 * hash + buffer.get(i);
+        }
+        return hash;
+    }
+
+    /**
+     * Method for comparing current token to bytes
+     * @param bytes array holding compared bytes
+     * @param offset start of compared bytes
+     * @param length number of compared bytes
+     * @return true if token consists of the same bytes, false otherwise
+     */
+    public boolean tokenEquals(byte[] bytes, int offset, int length) {
+        if (length != tokenEnd - tokenStart) return false;
+        for (int i = 0; i < length; i++) {
+            if (bytes[offset + i] != buffer.get(tokenStart + i)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Method for copying bytes of current token
+     * @param target array into which bytes are copied
+     * @param offset position in target array
+     */
+    public void copyToken(byte[] target, int offset) {
+        buffer.get(tokenStart, target, offset, tokenEnd - tokenStart);
+    }
+
+    /**
+     * Method for closing underlying file channel
+     * @throws IOException exception
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private double slowDouble() throws IOException {
+        byte[] bytes = new byte[tokenEnd - tokenStart];
+        buffer.get(tokenStart, bytes);
+        try {
+            return Double.parseDouble(new String(bytes, StandardCharsets.US_ASCII));
+        }
+        catch (NumberFormatException e) {
+            throw malformed("number");
+        }
+    }
+
+    private IOException malformed(String expected) {
+        return new IOException("Expected " + expected + " at byte " + (windowStart + tokenStart)
+                + ", found \"" + tokenString() + "\"");
+    }
+
+    /* skips whitespace and remaps window when there is less than MAX_TOKEN_LENGTH bytes left in it */
+    private void skipWhitespace() throws IOException {
+        while (true) {
+            if (limit - position < MAX_TOKEN_LENGTH && windowStart + limit < fileSize) {
+                map(windowStart + position);
+            }
+            if (position >= limit) return;
+            if (!isWhitespace(buffer.get(position))) return;
+            position++;
+        }
+    }
+
+    private void map(long start) throws IOException {
+        long size = Math.min(WINDOW_SIZE, fileSize - start);
+        buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, size);
+        windowStart = start;
+        limit = (int) size;
+        position = 0;
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\n' || b == '\r' || b == '\t';
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.editorgrafov.io;
+
+import com.example.editorgrafov.model.GraphModel;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Class for reading graph in plain .txt format into GraphModel. <br>
+ * - format: first line "numOfVertices numOfEdges", then "value x y" per vertex, then "valueFrom valueTo" per edge <br>
+ * - file is memory-mapped and decoded straight from bytes, see MappedTokenizer <br>
+ * - duplicate edges are skipped <br>
+ * - progress is reported in bytes of the file
+ */
+public class PlainGraphReader {
+
+    private PlainGraphReader() {
+    }
+
+    /**
+     * Method for reading graph from plain .txt file
+     * @param path path of the file
+     * @return graph stored in the file
+     * @throws IOException iff file can not be read or is not in plain format
+     */
+    public static GraphModel read(Path path) throws IOException {
+        return read(path, ProgressMonitor.NONE);
+    }
+
+    /**
+     * Method for reading graph from plain .txt file with progress reporting
+     * @param path path of the file
+     * @param monitor monitor progress is reported to
+     * @return graph stored in the file
+     * @throws IOException iff file can not be read or is not in plain format
+     * @throws java.util.concurrent.CancellationException iff monitor cancelled reading
+     */
+    public static GraphModel read(Path path, ProgressMonitor monitor) throws IOException {
+        try (MappedTokenizer in = new MappedTokenizer(path)) {
+            int numOfVertices = in.nextInt();
+            int numOfEdges = in.nextInt();
+            if (numOfVertices < 0 || numOfEdges < 0) {
+                throw new IOException("Negative number of vertices or edges in " + path);
+            }
+            GraphModel graph = new GraphModel(numOfVertices, numOfEdges);
+            ByteLabelIndex labelIndex = new ByteLabelIndex(numOfVertices);
+
+            for (int i = 0; i < numOfVertices; i++) {
+                in.next();
+                //fresh graph model assigns ids sequentially, so i is the id of this vertex
+                if (!labelIndex.putToken(in, i)) {
+                    throw new IOException("Duplicate vertex \"" + in.tokenString() + "\" in " + path);
+                }
+                String value = in.tokenString();
+                double x = in.nextDouble();
+                double y = in.nextDouble();
+                graph.addVertex(value, x, y);
+                if (i % ProgressMonitor.PROGRESS_STEP == 0) monitor.checkpoint(in.consumed(), in.fileSize());
+            }
+
+            for (int i = 0; i < numOfEdges; i++) {
+                int vertexFrom = nextVertex(in, labelIndex, path);
+                int vertexTo = nextVertex(in, labelIndex, path);
+                if (graph.containsEdge(vertexFrom, vertexTo)) continue;
+                graph.addEdge(vertexFrom, vertexTo);
+                if (i % ProgressMonitor.PROGRESS_STEP == 0) monitor.checkpoint(in.consumed(), in.fileSize());
+            }
+            monitor.progress(in.fileSize(), in.fileSize());
+            return graph;
+        }
+    }
+
+    private static int nextVertex(MappedTokenizer in, ByteLabelIndex labelIndex, Path path) throws IOException {
+        in.next();
+        int id = labelIndex.getToken(in);
+        if (id == -1) {
+            throw new IOException("Edge references unknown vertex \"" + in.tokenString() + "\" in " + path);
+        }
+        return id;
+    }
+}
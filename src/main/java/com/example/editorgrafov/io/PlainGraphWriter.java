@@ -0,0 +1,79 @@
+package com.example.editorgrafov.io;
+
+import com.example.editorgrafov.model.GraphModel;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Class for writing GraphModel in plain .txt format, read back by PlainGraphReader. <br>
+ * - format: first line "numOfVertices numOfEdges", then "value x y" per vertex, then "valueFrom valueTo" per edge <br>
+ * - progress is reported in written vertices and edges
+ */
+public class PlainGraphWriter {
+
+    private PlainGraphWriter() {
+    }
+
+    /**
+     * Method for writing graph into plain .txt file, existing file gets overwritten
+     * @param graph graph to be written
+     * @param path path of the file
+     * @throws IOException exception
+     */
+    public static void write(GraphModel graph, Path path) throws IOException {
+        write(graph, path, ProgressMonitor.NONE);
+    }
+
+    /**
+     * Method for writing graph into plain .txt file with progress reporting, existing file gets overwritten
+     * @param graph graph to be written
+     * @param path path of the file
+     * @param monitor monitor progress is reported to
+     * @throws IOException exception
+     * @throws java.util.concurrent.CancellationException iff monitor cancelled writing, file is left incomplete
+     */
+    public static void write(GraphModel graph, Path path, ProgressMonitor monitor) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            StringBuilder sb = new StringBuilder();
+            int numOfVertices = graph.vertexCount();
+            int numOfEdges = graph.edgeCount();
+            long total = numOfVertices + numOfEdges;
+            long written = 0;
+            sb.append(numOfVertices)
+                    .append(" ")
+                    .append(numOfEdges)
+                    .append("\n");
+            writer.write(sb.toString());
+
+            for (int id = 0; id < graph.vertexSlots(); id++) {
+                if (!graph.isVertex(id)) continue;
+                //clear stringBuilder object
+                sb.setLength(0);
+                sb.append(graph.getLabel(id))
+                        .append(" ")
+                        .append(graph.getX(id))
+                        .append(" ")
+                        .append(graph.getY(id))
+                        .append("\n");
+                writer.write(sb.toString());
+                if (++written % ProgressMonitor.PROGRESS_STEP == 0) monitor.checkpoint(written, total);
+            }
+
+            for (int id = 0; id < graph.edgeSlots(); id++) {
+                if (!graph.isEdge(id)) continue;
+                //clear stringBuilder object
+                sb.setLength(0);
+                sb.append(graph.getLabel(graph.getFrom(id)))
+                        .append(" ")
+                        .append(graph.getLabel(graph.getTo(id)))
+                        .append("\n");
+                writer.write(sb.toString());
+                if (++written % ProgressMonitor.PROGRESS_STEP == 0) monitor.checkpoint(written, total);
+            }
+        }
+    }
+}
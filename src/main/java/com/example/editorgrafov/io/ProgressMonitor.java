@@ -0,0 +1,54 @@
+package com.example.editorgrafov.io;
+
+import java.util.concurrent.CancellationException;
+
+/**
+ * Interface for reporting progress of reading or writing graph file and for cancelling it. <br>
+ * - readers and writers report progress every PROGRESS_STEP elements and check for cancellation at the same time <br>
+ * - cancelled operation ends by throwing CancellationException, see checkpoint()
+ */
+public interface ProgressMonitor {
+
+    /**
+     * Number of vertices or edges processed between two reports
+     */
+    int PROGRESS_STEP = 1 << 13;
+
+    /**
+     * Monitor ignoring progress and never cancelling
+     */
+    ProgressMonitor NONE = new ProgressMonitor() {
+        @Override
+        public void progress(long done, long total) {
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return false;
+        }
+    };
+
+    /**
+     * Method called with current progress of operation
+     * @param done amount of work already done
+     * @param total total amount of work
+     */
+    void progress(long done, long total);
+
+    /**
+     * Method for checking whether operation should stop
+     * @return true if operation was cancelled, false otherwise
+     */
+    boolean isCancelled();
+
+    /**
+     * Method for checking for cancellation and reporting progress at once, called every PROGRESS_STEP elements
+     * @param done amount of work already done
+     * @param total total amount of work
+     * @throws CancellationException iff operation was cancelled
+     */
+    default void checkpoint(long done, long total) {
+        if (isCancelled()) throw new CancellationException("Operation was cancelled");
+        progress(done, total);
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.editorgrafov.io;
+
+import com.example.editorgrafov.model.GraphModel;
+import com.example.editorgrafov.style.EdgeStyle;
+import com.example.editorgrafov.style.StyleTable;
+import com.example.editorgrafov.style.VertexStyle;
+import javafx.scene.paint.Color;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Class for reading graph with styles in .txt format into GraphModel, written by StyledGraphWriter. <br>
+ * - format: first line number of following lines, then lines "VS id fill radius textSize fontName" (vertex style),
+ * "ES id color width" (edge style), "V value x y styleId" (vertex) and "E valueFrom valueTo styleId" (edge) <br>
+ * - styles are numbered in file, every style gets interned into style table of the caller <br>
+ * - files of older versions have no VS/ES lines, every element carries its own style instead:
+ * "V value x y fill radius textSize fontName" and "E valueFrom valueTo color width",
+ * lines of both layouts are told apart by their number of parts (values contain no spaces) <br>
+ * - no JavaFX node or font is created, so reading does not need running JavaFX toolkit <br>
+ * - duplicate edges are skipped <br>
+ * - progress is reported in lines of the file
+ */
+public class StyledGraphReader {
+
+    /* parts of vertex and edge lines of older versions, which carry style of element in place of style number */
+    private static final int LEGACY_VERTEX_PARTS = 8;
+    private static final int LEGACY_EDGE_PARTS = 5;
+
+    private StyledGraphReader() {
+    }
+
+    /**
+     * Method for reading graph with styles from .txt file with progress reporting
+     * @param path path of the file
+     * @param vertexStyles table vertex styles of the file are interned into
+     * @param edgeStyles table edge styles of the file are interned into
+     * @param monitor monitor progress is reported to
+     * @return graph stored in the file, its elements refer to styles in given tables
+     * @throws IOException iff file can not be read or is not in styled format
+     * @throws java.util.concurrent.CancellationException iff monitor cancelled reading
+     */
+    public static GraphModel read(Path path, StyleTable<VertexStyle> vertexStyles, StyleTable<EdgeStyle> edgeStyles,
+                                  ProgressMonitor monitor) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            int numOfLines = parseInt(reader.readLine(), path);
+            if (numOfLines < 0) throw new IOException("Negative number of lines in " + path);
+            GraphModel graph = new GraphModel();
+            Map<Integer, Integer> fileVertexStyles = new HashMap<>();
+            Map<Integer, Integer> fileEdgeStyles = new HashMap<>();
+            for (int i = 0; i < numOfLines; i++) {
+                String line = reader.readLine();
+                if (line == null) throw new IOException("Missing line " + (i + 2) + " in " + path);
+                //font name is the rest of line and can contain spaces
+                String[] lineInfo = line.startsWith("V ") ? line.split(" ", LEGACY_VERTEX_PARTS) : line.split(" ", 6);
+                try {
+                    if (lineInfo[0].equals("VS")) {
+                        VertexStyle style = new VertexStyle(Color.web(lineInfo[2]), lineInfo[5],
+                                Integer.parseInt(lineInfo[4]), Integer.parseInt(lineInfo[3]));
+                        fileVertexStyles.put(Integer.parseInt(lineInfo[1]), vertexStyles.intern(style));
+                    }
+                    else if (lineInfo[0].equals("ES")) {
+                        EdgeStyle style = new EdgeStyle(Color.web(lineInfo[2]), Integer.parseInt(lineInfo[3]));
+                        fileEdgeStyles.put(Integer.parseInt(lineInfo[1]), edgeStyles.intern(style));
+                    }
+                    else if (lineInfo[0].equals("V")) {
+                        if (graph.containsVertex(lineInfo[1])) {
+                            throw new IOException("Duplicate vertex \"" + lineInfo[1] + "\" in " + path);
+                        }
+                        int id = graph.addVertex(lineInfo[1], Double.parseDouble(lineInfo[2]), Double.parseDouble(lineInfo[3]));
+                        if (lineInfo.length == LEGACY_VERTEX_PARTS) {
+                            VertexStyle style = new VertexStyle(Color.web(lineInfo[4]), lineInfo[7],
+                                    Integer.parseInt(lineInfo[6]), Integer.parseInt(lineInfo[5]));
+                            graph.setVertexStyle(id, vertexStyles.intern(style));
+                        }
+                        else if (lineInfo.length == 5) {
+                            graph.setVertexStyle(id, style(fileVertexStyles, lineInfo[4], path));
+                        }
+                        else throw new IOException("Malformed line \"" + line + "\" in " + path);
+                    }
+                    else if (lineInfo[0].equals("E")) {
+                        int vertexFromId = vertex(graph, lineInfo[1], path);
+                        int vertexToId = vertex(graph, lineInfo[2], path);
+                        if (graph.findEdge(vertexFromId, vertexToId) != -1) continue;
+                        int id = graph.addEdge(vertexFromId, vertexToId);
+                        if (lineInfo.length == LEGACY_EDGE_PARTS) {
+                            EdgeStyle style = new EdgeStyle(Color.web(lineInfo[3]), Integer.parseInt(lineInfo[4]));
+                            graph.setEdgeStyle(id, edgeStyles.intern(style));
+                        }
+                        else if (lineInfo.length == 4) {
+                            graph.setEdgeStyle(id, style(fileEdgeStyles, lineInfo[3], path));
+                        }
+                        else throw new IOException("Malformed line \"" + line + "\" in " + path);
+                    }
+                    else {
+                        throw new IOException("Unknown line \"" + line + "\" in " + path);
+                    }
+                }
+                catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+                    //NumberFormatException of numbers and colors, missing parts of line
+                    throw new IOException("Malformed line \"" + line + "\" in " + path, e);
+                }
+                if (i % ProgressMonitor.PROGRESS_STEP == 0) monitor.checkpoint(i, numOfLines);
+            }
+            monitor.progress(numOfLines, numOfLines);
+            return graph;
+        }
+    }
+
+    private static int parseInt(String line, Path path) throws IOException {
+        if (line == null) throw new IOException(path + " is empty");
+        try {
+            return Integer.parseInt(line.trim());
+        }
+        catch (NumberFormatException e) {
+            throw new IOException(path + " is not a styled graph file", e);
+        }
+    }
+
+    private static int vertex(GraphModel graph, String value, Path path) throws IOException {
+        int id = graph.indexOf(value);
+        if (id == -1) throw new IOException("Edge references unknown vertex \"" + value + "\" in " + path);
+        return id;
+    }
+
+    private static int style(Map<Integer, Integer> fileStyles, String fileId, Path path) throws IOException {
+        Integer id = fileStyles.get(Integer.parseInt(fileId));
+        if (id == null) throw new IOException("Element references unknown style " + fileId + " in " + path);
+        return id;
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.editorgrafov.io;
+
+import com.example.editorgrafov.model.GraphModel;
+import com.example.editorgrafov.model.IntList;
+import com.example.editorgrafov.style.EdgeStyle;
+import com.example.editorgrafov.style.StyleTable;
+import com.example.editorgrafov.style.VertexStyle;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Class for writing GraphModel with styles in .txt format, read back by StyledGraphReader. <br>
+ * - format is described in StyledGraphReader <br>
+ * - styles used by graph are written once (numbered from 0), before elements that refer to them by number <br>
+ * - progress is reported in written vertices and edges
+ */
+public class StyledGraphWriter {
+
+    private StyledGraphWriter() {
+    }
+
+    /**
+     * Method for writing graph with styles into .txt file with progress reporting, existing file gets overwritten
+     * @param graph graph to be written
+     * @param vertexStyles table styles of vertices refer to
+     * @param edgeStyles table styles of edges refer to
+     * @param path path of the file
+     * @param monitor monitor progress is reported to
+     * @throws IOException exception
+     * @throws java.util.concurrent.CancellationException iff monitor cancelled writing, file is left incomplete
+     */
+    public static void write(GraphModel graph, StyleTable<VertexStyle> vertexStyles, StyleTable<EdgeStyle> edgeStyles,
+                             Path path, ProgressMonitor monitor) throws IOException {
+        /* numbers of used styles in file, -1 = style is not used */
+        int[] fileVertexStyles = new int[vertexStyles.size()];
+        int[] fileEdgeStyles = new int[edgeStyles.size()];
+        Arrays.fill(fileVertexStyles, -1);
+        Arrays.fill(fileEdgeStyles, -1);
+        IntList usedVertexStyles = new IntList();
+        IntList usedEdgeStyles = new IntList();
+        for (int id = 0; id < graph.vertexSlots(); id++) {
+            if (!graph.isVertex(id) || fileVertexStyles[graph.getVertexStyle(id)] != -1) continue;
+            fileVertexStyles[graph.getVertexStyle(id)] = usedVertexStyles.size();
+            usedVertexStyles.add(graph.getVertexStyle(id));
+        }
+        for (int id = 0; id < graph.edgeSlots(); id++) {
+            if (!graph.isEdge(id) || fileEdgeStyles[graph.getEdgeStyle(id)] != -1) continue;
+            fileEdgeStyles[graph.getEdgeStyle(id)] = usedEdgeStyles.size();
+            usedEdgeStyles.add(graph.getEdgeStyle(id));
+        }
+
+        try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            long total = graph.vertexCount() + graph.edgeCount();
+            long written = 0;
+            writer.write(usedVertexStyles.size() + usedEdgeStyles.size() + total + "\n");
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < usedVertexStyles.size(); i++) {
+                VertexStyle style = vertexStyles.get(usedVertexStyles.get(i));
+                sb.setLength(0);
+                sb.append("VS ")
+                        .append(i)
+                        .append(" ")
+                        .append(style.getFill().toString())
+                        .append(" ")
+                        .append(style.getRadius())
+                        .append(" ")
+                        .append(style.getTextSize())
+                        .append(" ")
+                        .append(style.getFontName())
+                        .append("\n");
+                writer.write(sb.toString());
+            }
+            for (int i = 0; i < usedEdgeStyles.size(); i++) {
+                EdgeStyle style = edgeStyles.get(usedEdgeStyles.get(i));
+                sb.setLength(0);
+                sb.append("ES ")
+                        .append(i)
+                        .append(" ")
+                        .append(style.getColor().toString())
+                        .append(" ")
+                        .append(style.getWidth())
+                        .append("\n");
+                writer.write(sb.toString());
+            }
+            for (int id = 0; id < graph.vertexSlots(); id++) {
+                if (!graph.isVertex(id)) continue;
+                sb.setLength(0);
+                sb.append("V ")
+                        .append(graph.getLabel(id))
+                        .append(" ")
+                        .append(graph.getX(id))
+                        .append(" ")
+                        .append(graph.getY(id))
+                        .append(" ")
+                        .append(fileVertexStyles[graph.getVertexStyle(id)])
+                        .append("\n");
+                writer.write(sb.toString());
+                if (++written % ProgressMonitor.PROGRESS_STEP == 0) monitor.checkpoint(written, total);
+            }
+            for (int id = 0; id < graph.edgeSlots(); id++) {
+                if (!graph.isEdge(id)) continue;
+                sb.setLength(0);
+                sb.append("E ")
+                        .append(graph.getLabel(graph.getFrom(id)))
+                        .append(" ")
+                        .append(graph.getLabel(graph.getTo(id)))
+                        .append(" ")
+                        .append(fileEdgeStyles[graph.getEdgeStyle(id)])
+                        .append("\n");
+                writer.write(sb.toString());
+                if (++written % ProgressMonitor.PROGRESS_STEP == 0) monitor.checkpoint(written, total);
+            }
+        }
+    }
+}
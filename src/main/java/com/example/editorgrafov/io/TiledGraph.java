@@ -0,0 +1,515 @@
+package com.example.editorgrafov.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Class representing graph browsed out of core from tiled store (see TiledGraphFormat), only tiles of visible area
+ * are held in memory. <br>
+ * - header, tile directory and overview are read on open, tiles are read on demand by single background thread <br>
+ * - read tiles are kept in LRU cache limited by bytes, least recently drawn tiles are evicted first,
+ * limit can be set by system property "editor.tileCacheBytes" (quarter of maximum heap by default) <br>
+ * - tiles requested earlier, but no longer visible when their turn comes, are not read at all <br>
+ * - cache is used only from JavaFX application thread, loaded tiles are handed over through queue and listener
+ * gets notified (on loading thread) after every loaded tile <br>
+ * - edge whose both vertices lie outside visible tiles is not drawn from tiles, overview still shows it
+ */
+public final class TiledGraph implements Closeable {
+
+    /* bytes tile takes in memory besides its block - string of value of every vertex */
+    private static final int VALUE_OVERHEAD = 48;
+    private static final long cacheBytes = Long.getLong("editor.tileCacheBytes", Runtime.getRuntime().maxMemory() / 4);
+
+    /**
+     * Class representing one loaded tile - positions and values of its vertices, end points of its edges
+     */
+    public static final class Tile {
+
+        private final int index;
+        private final float[] vertices;
+        private final String[] labels;
+        private final float[] edges;
+
+        private Tile(int index, float[] vertices, String[] labels, float[] edges) {
+            this.index = index;
+            this.vertices = vertices;
+            this.labels = labels;
+            this.edges = edges;
+        }
+
+        /**
+         * Method for getting index of tile in grid (row * columns + column)
+         * @return index
+         */
+        public int getIndex() {
+            return index;
+        }
+
+        /**
+         * Method for getting number of vertices of tile
+         * @return number of vertices
+         */
+        public int vertexCount() {
+            return labels.length;
+        }
+
+        /**
+         * Method for getting x coordinate of vertex of tile
+         * @param vertex index of vertex in tile
+         * @return x coordinate
+         */
+        public double getX(int vertex) {
+            return vertices[2 * vertex];
+        }
+
+        /**
+         * Method for getting y coordinate of vertex of tile
+         * @param vertex index of vertex in tile
+         * @return y coordinate
+         */
+        public double getY(int vertex) {
+            return vertices[2 * vertex + 1];
+        }
+
+        /**
+         * Method for getting value of vertex of tile
+         * @param vertex index of vertex in tile
+         * @return value
+         */
+        public String getLabel(int vertex) {
+            return labels[vertex];
+        }
+
+        /**
+         * Method for getting number of edges of tile (edges of its vertices)
+         * @return number of edges
+         */
+        public int edgeCount() {
+            return edges.length / 4;
+        }
+
+        /**
+         * Method for getting x coordinate of start vertex of edge of tile
+         * @param edge index of edge in tile
+         * @return x coordinate
+         */
+        public double getFromX(int edge) {
+            return edges[4 * edge];
+        }
+
+        /**
+         * Method for getting y coordinate of start vertex of edge of tile
+         * @param edge index of edge in tile
+         * @return y coordinate
+         */
+        public double getFromY(int edge) {
+            return edges[4 * edge + 1];
+        }
+
+        /**
+         * Method for getting x coordinate of end vertex of edge of tile
+         * @param edge index of edge in tile
+         * @return x coordinate
+         */
+        public double getToX(int edge) {
+            return edges[4 * edge + 2];
+        }
+
+        /**
+         * Method for getting y coordinate of end vertex of edge of tile
+         * @param edge index of edge in tile
+         * @return y coordinate
+         */
+        public double getToY(int edge) {
+            return edges[4 * edge + 3];
+        }
+
+        /* estimated bytes of heap held by tile */
+        private long bytes() {
+            return 4L * vertices.length + 4L * edges.length + (long) VALUE_OVERHEAD * labels.length;
+        }
+    }
+
+    private final FileChannel channel;
+    private final int vertexCount;
+    private final int edgeCount;
+    private final double minX;
+    private final double minY;
+    private final double maxX;
+    private final double maxY;
+    private final int columns;
+    private final int rows;
+    private final int overviewColumns;
+    private final int overviewRows;
+    private final long[] tileOffsets;
+    private final int[] tileLengths;
+    private final int[] tileVertices;
+    private final int[] tileEdges;
+    private final int[] overview;
+
+    /* tile index -> tile, in order of access */
+    private final LinkedHashMap<Integer, Tile> cache = new LinkedHashMap<>(16, 0.75f, true);
+    private long cachedBytes;
+    private final ConcurrentLinkedQueue<Tile> loaded = new ConcurrentLinkedQueue<>();
+    private final Set<Integer> queued = ConcurrentHashMap.newKeySet();
+    private final Set<Integer> failed = ConcurrentHashMap.newKeySet();
+    /* tiles that were missing when visible area was last drawn */
+    private volatile Set<Integer> wanted = Set.of();
+    private volatile Runnable onLoaded = () -> { };
+    private volatile IOException failure;
+    private final ExecutorService loader = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "Tile loader");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private TiledGraph(Path path) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            ByteBuffer header = read(0, TiledGraphFormat.HEADER_SIZE);
+            byte[] magic = new byte[TiledGraphFormat.MAGIC.length];
+            header.get(magic);
+            if (!Arrays.equals(magic, TiledGraphFormat.MAGIC) || header.getInt() != TiledGraphFormat.VERSION) {
+                throw new IOException("Not a tiled graph store: " + path);
+            }
+            header.position(header.position() + TiledGraphFormat.SOURCE_KEY_SIZE);
+            vertexCount = header.getInt();
+            edgeCount = header.getInt();
+            minX = header.getDouble();
+            minY = header.getDouble();
+            maxX = header.getDouble();
+            maxY = header.getDouble();
+            columns = header.getInt();
+            rows = header.getInt();
+            overviewColumns = header.getInt();
+            overviewRows = header.getInt();
+            int tiles = columns * rows;
+            tileOffsets = new long[tiles];
+            tileLengths = new int[tiles];
+            tileVertices = new int[tiles];
+            tileEdges = new int[tiles];
+            ByteBuffer directory = read(TiledGraphFormat.HEADER_SIZE, tiles * TiledGraphFormat.DIRECTORY_ENTRY_SIZE);
+            for (int tile = 0; tile < tiles; tile++) {
+                tileOffsets[tile] = directory.getLong();
+                tileLengths[tile] = directory.getInt();
+                tileVertices[tile] = directory.getInt();
+                tileEdges[tile] = directory.getInt();
+            }
+            overview = new int[overviewColumns * overviewRows];
+            read(TiledGraphFormat.HEADER_SIZE + (long) tiles * TiledGraphFormat.DIRECTORY_ENTRY_SIZE, 4 * overview.length)
+                    .asIntBuffer().get(overview);
+        }
+        catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Method for opening tiled store of graph file, store is built first if it does not exist or belongs to older
+     * version of the file or of its journal (see TiledGraphBuilder)
+     * @param source path of graph file
+     * @param monitor monitor progress of building is reported to
+     * @return opened graph, no tile is loaded yet
+     * @throws IOException iff store can not be built or read
+     * @throws java.util.concurrent.CancellationException iff monitor cancelled building
+     */
+    public static TiledGraph open(Path source, ProgressMonitor monitor) throws IOException {
+        Path path = TiledGraphFormat.pathOf(source);
+        if (!isCurrent(path, source)) TiledGraphBuilder.build(source, path, monitor);
+        return new TiledGraph(path);
+    }
+
+    /**
+     * Method for checking whether tiled store was built from current version of graph file
+     * @param path path of the store
+     * @param source path of graph file
+     * @return true if store exists and its header matches sizes and last modification times of the file and its journal
+     * @throws IOException iff graph file can not be read
+     */
+    public static boolean isCurrent(Path path, Path source) throws IOException {
+        if (!Files.isRegularFile(path)) return false;
+        try (FileChannel store = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(TiledGraphFormat.MAGIC.length + 4 + TiledGraphFormat.SOURCE_KEY_SIZE);
+            while (header.hasRemaining()) {
+                if (store.read(header) == -1) return false;
+            }
+            header.flip();
+            byte[] magic = new byte[TiledGraphFormat.MAGIC.length];
+            header.get(magic);
+            if (!Arrays.equals(magic, TiledGraphFormat.MAGIC) || header.getInt() != TiledGraphFormat.VERSION) return false;
+            for (long key : TiledGraphFormat.sourceKey(source)) {
+                if (header.getLong() != key) return false;
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Method for setting listener notified after every loaded tile, it is called on loading thread
+     * @param onLoaded listener
+     */
+    public void setOnLoaded(Runnable onLoaded) {
+        this.onLoaded = onLoaded;
+    }
+
+    /**
+     * Method for getting number of vertices of graph
+     * @return number of vertices
+     */
+    public int vertexCount() {
+        return vertexCount;
+    }
+
+    /**
+     * Method for getting number of edges of graph (as stored in source file)
+     * @return number of edges
+     */
+    public int edgeCount() {
+        return edgeCount;
+    }
+
+    /**
+     * Method for getting number of tiles of grid
+     * @return number of tiles
+     */
+    public int tileCount() {
+        return columns * rows;
+    }
+
+    /**
+     * Method for getting left border of bounds of vertices
+     * @return smallest x coordinate of vertex
+     */
+    public double getMinX() {
+        return minX;
+    }
+
+    /**
+     * Method for getting top border of bounds of vertices
+     * @return smallest y coordinate of vertex
+     */
+    public double getMinY() {
+        return minY;
+    }
+
+    /**
+     * Method for getting right border of bounds of vertices
+     * @return biggest x coordinate of vertex
+     */
+    public double getMaxX() {
+        return maxX;
+    }
+
+    /**
+     * Method for getting bottom border of bounds of vertices
+     * @return biggest y coordinate of vertex
+     */
+    public double getMaxY() {
+        return maxY;
+    }
+
+    /**
+     * Method for getting number of columns of overview, overview covers bounds of vertices
+     * @return number of columns
+     */
+    public int getOverviewColumns() {
+        return overviewColumns;
+    }
+
+    /**
+     * Method for getting number of rows of overview
+     * @return number of rows
+     */
+    public int getOverviewRows() {
+        return overviewRows;
+    }
+
+    /**
+     * Method for getting number of vertices and edges passing through cell of overview
+     * @param column column of cell
+     * @param row row of cell
+     * @return number of elements
+     */
+    public int overviewCount(int column, int row) {
+        return overview[row * overviewColumns + column];
+    }
+
+    /**
+     * Method for getting last error of loading thread
+     * @return error, null if every tile was read
+     */
+    public IOException getFailure() {
+        return failure;
+    }
+
+    /**
+     * Method for getting number of tiles covering area, empty tiles included
+     * @param minX left border of area
+     * @param minY top border of area
+     * @param maxX right border of area
+     * @param maxY bottom border of area
+     * @return number of tiles, 0 if area lies outside of graph
+     */
+    public int tileCountIn(double minX, double minY, double maxX, double maxY) {
+        if (maxX < this.minX || maxY < this.minY || minX > this.maxX || minY > this.maxY) return 0;
+        return (column(maxX) - column(minX) + 1) * (row(maxY) - row(minY) + 1);
+    }
+
+    /**
+     * Method for getting how many tiles of average size fit into cache
+     * @return number of tiles, at least 1
+     */
+    public int cacheCapacity() {
+        long blocks = 0;
+        int nonEmpty = 0;
+        for (int tile = 0; tile < tileLengths.length; tile++) {
+            if (tileLengths[tile] == 0) continue;
+            blocks += tileLengths[tile] + (long) VALUE_OVERHEAD * tileVertices[tile];
+            nonEmpty++;
+        }
+        if (nonEmpty == 0) return Integer.MAX_VALUE;
+        return (int) Math.max(1, Math.min(Integer.MAX_VALUE, cacheBytes / Math.max(1, blocks / nonEmpty)));
+    }
+
+    /**
+     * Method for getting loaded tiles covering area, tiles that are not loaded yet get requested from loading thread
+     * (requests of tiles outside this area made before are dropped), used only from JavaFX application thread
+     * @param minX left border of area
+     * @param minY top border of area
+     * @param maxX right border of area
+     * @param maxY bottom border of area
+     * @param tiles list loaded tiles are added to
+     * @return number of tiles of area that are not loaded yet
+     */
+    public int tilesIn(double minX, double minY, double maxX, double maxY, List<Tile> tiles) {
+        drainLoaded();
+        Set<Integer> missing = new HashSet<>();
+        if (tileCountIn(minX, minY, maxX, maxY) > 0) {
+            for (int row = row(minY); row <= row(maxY); row++) {
+                for (int column = column(minX); column <= column(maxX); column++) {
+                    int index = row * columns + column;
+                    if (tileLengths[index] == 0) continue;
+                    Tile tile = cache.get(index);
+                    if (tile != null) tiles.add(tile);
+                    else if (!failed.contains(index)) missing.add(index);
+                }
+            }
+        }
+        wanted = missing;
+        for (int index : missing) {
+            request(index);
+        }
+        return missing.size();
+    }
+
+    /**
+     * Method for dropping every request of tile that was not served yet, e.g. when only overview is drawn
+     */
+    public void cancelRequests() {
+        wanted = Set.of();
+    }
+
+    /**
+     * Method for stopping loading thread and closing the store, cached tiles are dropped
+     */
+    @Override
+    public void close() throws IOException {
+        loader.shutdownNow();
+        cache.clear();
+        loaded.clear();
+        cachedBytes = 0;
+        channel.close();
+    }
+
+    private int column(double x) {
+        double tileWidth = Math.max(maxX - minX, Double.MIN_NORMAL) / columns;
+        return Math.max(0, Math.min(columns - 1, (int) ((x - minX) / tileWidth)));
+    }
+
+    private int row(double y) {
+        double tileHeight = Math.max(maxY - minY, Double.MIN_NORMAL) / rows;
+        return Math.max(0, Math.min(rows - 1, (int) ((y - minY) / tileHeight)));
+    }
+
+    private void request(int index) {
+        if (!queued.add(index)) return;
+        loader.execute(() -> {
+            try {
+                if (!wanted.contains(index)) return;
+                loaded.add(readTile(index));
+                onLoaded.run();
+            }
+            catch (IOException e) {
+                //tile is not requested again, so broken store does not keep loading thread busy
+                if (!channel.isOpen()) return;
+                failed.add(index);
+                failure = e;
+                onLoaded.run();
+            }
+            finally {
+                queued.remove(index);
+            }
+        });
+    }
+
+    /* loaded tiles are put into cache, least recently used tiles are evicted while cache is over its limit */
+    private void drainLoaded() {
+        Tile tile;
+        while ((tile = loaded.poll()) != null) {
+            Tile old = cache.put(tile.getIndex(), tile);
+            if (old != null) cachedBytes -= old.bytes();
+            cachedBytes += tile.bytes();
+        }
+        Iterator<Map.Entry<Integer, Tile>> eldest = cache.entrySet().iterator();
+        while (cachedBytes > cacheBytes && cache.size() > 1) {
+            cachedBytes -= eldest.next().getValue().bytes();
+            eldest.remove();
+        }
+    }
+
+    private Tile readTile(int index) throws IOException {
+        ByteBuffer block = read(tileOffsets[index], tileLengths[index]);
+        int vertices = tileVertices[index];
+        float[] positions = new float[2 * vertices];
+        String[] labels = new String[vertices];
+        for (int vertex = 0; vertex < vertices; vertex++) {
+            positions[2 * vertex] = block.getFloat();
+            positions[2 * vertex + 1] = block.getFloat();
+            int length = Short.toUnsignedInt(block.getShort());
+            labels[vertex] = new String(block.array(), block.position(), length, StandardCharsets.UTF_8);
+            block.position(block.position() + length);
+        }
+        float[] edges = new float[4 * tileEdges[index]];
+        block.asFloatBuffer().get(edges);
+        return new Tile(index, positions, labels, edges);
+    }
+
+    private ByteBuffer read(long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) == -1) {
+                throw new IOException("Tiled graph store is truncated");
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+}
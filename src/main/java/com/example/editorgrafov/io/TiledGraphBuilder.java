@@ -0,0 +1,409 @@
+package com.example.editorgrafov.io;
+
+import com.example.editorgrafov.model.GraphModel;
+import com.example.editorgrafov.style.EdgeStyle;
+import com.example.editorgrafov.style.StyleTable;
+import com.example.editorgrafov.style.VertexStyle;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Class for building tiled graph store (see TiledGraphFormat) from graph file. <br>
+ * - plain .txt file is streamed twice and never held as graph model: first pass collects positions of vertices
+ * and counts elements of every tile, second pass writes every element straight to its place in the store <br>
+ * - only positions (as floats), tiles of vertices and index of values are kept in memory, so graphs far bigger
+ * than graph model can hold get tiled <br>
+ * - styled and binary files, and files with journal (see EditJournal), are read into graph model first and journal
+ * is replayed onto it, so they have to fit into memory <br>
+ * - store is written into temporary file, which replaces the old store once it is complete <br>
+ * - duplicate edges of plain file are stored (and drawn) as many times as they occur <br>
+ * - progress is reported in bytes of source file read by both passes (elements of graph for other formats)
+ */
+public final class TiledGraphBuilder {
+
+    /* number of elements grid aims for in one tile, and most tiles grid can have */
+    private static final int ELEMENTS_PER_TILE = 1 << 16;
+    private static final int MAX_TILES = 1 << 12;
+    /* most cells of overview in one direction, so it fits into one image */
+    private static final int MAX_OVERVIEW_SIDE = 1 << 12;
+    /* edge longer in cells is accumulated into overview only at this many points */
+    private static final int MAX_OVERVIEW_STEPS = 256;
+    private static final int TILE_BUFFER_SIZE = 1 << 13;
+
+    private final float[] xs;
+    private final float[] ys;
+    private final int[] labelLengths;
+    private int vertexCount;
+    private int edgeCount;
+    private double minX = Double.POSITIVE_INFINITY;
+    private double minY = Double.POSITIVE_INFINITY;
+    private double maxX = Double.NEGATIVE_INFINITY;
+    private double maxY = Double.NEGATIVE_INFINITY;
+
+    private int columns;
+    private int rows;
+    private double tileWidth;
+    private double tileHeight;
+    private int overviewColumns;
+    private int overviewRows;
+    private double cellWidth;
+    private double cellHeight;
+    private int[] vertexTiles;
+    private int[] tileVertices;
+    private int[] tileEdges;
+    private long[] tileVertexBytes;
+    private int[] overview;
+
+    private FileChannel channel;
+    private long[] tileOffsets;
+    private int[] tileLengths;
+    /* position next byte of tile is written at */
+    private long[] tileCursors;
+    private ByteBuffer[] tileBuffers;
+
+    private TiledGraphBuilder(int vertexSlots) {
+        xs = new float[vertexSlots];
+        ys = new float[vertexSlots];
+        labelLengths = new int[vertexSlots];
+        Arrays.fill(labelLengths, -1);
+    }
+
+    /**
+     * Method for building tiled store of graph file, existing store gets overwritten
+     * @param source path of graph file (plain, styled or binary)
+     * @param target path of the store
+     * @param monitor monitor progress is reported to
+     * @throws IOException iff source can not be read or store can not be written
+     * @throws java.util.concurrent.CancellationException iff monitor cancelled building, no store is left behind
+     */
+    public static void build(Path source, Path target, ProgressMonitor monitor) throws IOException {
+        //taken before source is read, so store built from file changed meanwhile is not considered current
+        long[] sourceKey = TiledGraphFormat.sourceKey(source);
+        Path temporary = target.resolveSibling(target.getFileName() + ".part");
+        boolean complete = false;
+        try {
+            if (GraphFormat.detect(source) == GraphFormat.PLAIN && !EditJournal.existsFor(source)) {
+                buildPlain(source, temporary, monitor, sourceKey);
+            }
+            else buildModel(source, temporary, monitor, sourceKey);
+            Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING);
+            complete = true;
+        }
+        finally {
+            if (!complete) Files.deleteIfExists(temporary);
+        }
+    }
+
+    private static void buildPlain(Path source, Path target, ProgressMonitor monitor, long[] sourceKey) throws IOException {
+        long sourceSize = sourceKey[0];
+        TiledGraphBuilder builder;
+        ByteLabelIndex labelIndex;
+        long total = 2 * sourceSize;
+        //first pass - positions of vertices, grid, number of elements of every tile
+        try (MappedTokenizer in = new MappedTokenizer(source)) {
+            int numOfVertices = in.nextInt();
+            int numOfEdges = in.nextInt();
+            if (numOfVertices < 0 || numOfEdges < 0) {
+                throw new IOException("Negative number of vertices or edges in " + source);
+            }
+            builder = new TiledGraphBuilder(numOfVertices);
+            labelIndex = new ByteLabelIndex(numOfVertices);
+            for (int i = 0; i < numOfVertices; i++) {
+                in.next();
+                if (!labelIndex.putToken(in, i)) {
+                    throw new IOException("Duplicate vertex \"" + in.tokenString() + "\" in " + source);
+                }
+                int labelLength = in.tokenLength();
+                builder.addVertex(i, in.nextDouble(), in.nextDouble(), labelLength);
+                if (i % ProgressMonitor.PROGRESS_STEP == 0) monitor.checkpoint(in.consumed(), total);
+            }
+            builder.layout(numOfEdges);
+            for (int i = 0; i < numOfEdges; i++) {
+                builder.countEdge(nextVertex(in, labelIndex, source), nextVertex(in, labelIndex, source));
+                if (i % ProgressMonitor.PROGRESS_STEP == 0) monitor.checkpoint(in.consumed(), total);
+            }
+        }
+        //second pass - elements are written into their tiles
+        try (FileChannel channel = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE);
+             MappedTokenizer in = new MappedTokenizer(source)) {
+            builder.allocate(channel);
+            int numOfVertices = in.nextInt();
+            int numOfEdges = in.nextInt();
+            byte[] label = new byte[MappedTokenizer.MAX_TOKEN_LENGTH];
+            for (int i = 0; i < numOfVertices; i++) {
+                in.next();
+                in.copyToken(label, 0);
+                builder.writeVertex(i, label, in.tokenLength());
+                //position is already known from first pass
+                in.next();
+                in.next();
+                if (i % ProgressMonitor.PROGRESS_STEP == 0) monitor.checkpoint(sourceSize + in.consumed(), total);
+            }
+            for (int i = 0; i < numOfEdges; i++) {
+                builder.writeEdge(nextVertex(in, labelIndex, source), nextVertex(in, labelIndex, source));
+                if (i % ProgressMonitor.PROGRESS_STEP == 0) monitor.checkpoint(sourceSize + in.consumed(), total);
+            }
+            builder.finish(sourceKey);
+        }
+        monitor.progress(total, total);
+    }
+
+    private static void buildModel(Path source, Path target, ProgressMonitor monitor, long[] sourceKey) throws IOException {
+        StyleTable<VertexStyle> vertexStyles = new StyleTable<>();
+        StyleTable<EdgeStyle> edgeStyles = new StyleTable<>();
+        vertexStyles.intern(VertexStyle.DEFAULT);
+        edgeStyles.intern(EdgeStyle.DEFAULT);
+        GraphModel graph = GraphFormat.detect(source).read(source, vertexStyles, edgeStyles, monitor);
+        EditJournal.replay(graph, source, monitor);
+        long total = 2L * (graph.vertexCount() + graph.edgeCount());
+        long done = 0;
+        TiledGraphBuilder builder = new TiledGraphBuilder(graph.vertexSlots());
+        for (int id = 0; id < graph.vertexSlots(); id++) {
+            if (!graph.isVertex(id)) continue;
+            builder.addVertex(id, graph.getX(id), graph.getY(id), graph.getLabel(id).getBytes(StandardCharsets.UTF_8).length);
+            if (++done % ProgressMonitor.PROGRESS_STEP == 0) monitor.checkpoint(done, total);
+        }
+        builder.layout(graph.edgeCount());
+        for (int id = 0; id < graph.edgeSlots(); id++) {
+            if (!graph.isEdge(id)) continue;
+            builder.countEdge(graph.getFrom(id), graph.getTo(id));
+            if (++done % ProgressMonitor.PROGRESS_STEP == 0) monitor.checkpoint(done, total);
+        }
+        try (FileChannel channel = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE)) {
+            builder.allocate(channel);
+            for (int id = 0; id < graph.vertexSlots(); id++) {
+                if (!graph.isVertex(id)) continue;
+                byte[] label = graph.getLabel(id).getBytes(StandardCharsets.UTF_8);
+                builder.writeVertex(id, label, label.length);
+                if (++done % ProgressMonitor.PROGRESS_STEP == 0) monitor.checkpoint(done, total);
+            }
+            for (int id = 0; id < graph.edgeSlots(); id++) {
+                if (!graph.isEdge(id)) continue;
+                builder.writeEdge(graph.getFrom(id), graph.getTo(id));
+                if (++done % ProgressMonitor.PROGRESS_STEP == 0) monitor.checkpoint(done, total);
+            }
+            builder.finish(sourceKey);
+        }
+        monitor.progress(total, total);
+    }
+
+    private static int nextVertex(MappedTokenizer in, ByteLabelIndex labelIndex, Path path) throws IOException {
+        in.next();
+        int id = labelIndex.getToken(in);
+        if (id == -1) {
+            throw new IOException("Edge references unknown vertex \"" + in.tokenString() + "\" in " + path);
+        }
+        return id;
+    }
+
+    private void addVertex(int id, double x, double y, int labelLength) throws IOException {
+        if (labelLength > TiledGraphFormat.MAX_LABEL_LENGTH) {
+            throw new IOException("Value of vertex is longer than " + TiledGraphFormat.MAX_LABEL_LENGTH + " bytes");
+        }
+        xs[id] = (float) x;
+        ys[id] = (float) y;
+        labelLengths[id] = labelLength;
+        vertexCount++;
+        minX = Math.min(minX, xs[id]);
+        minY = Math.min(minY, ys[id]);
+        maxX = Math.max(maxX, xs[id]);
+        maxY = Math.max(maxY, ys[id]);
+    }
+
+    /**
+     * Method for choosing grid once all vertices are known - tiles get roughly ELEMENTS_PER_TILE elements
+     * if graph is spread evenly, and are as close to squares as bounds allow
+     * @param expectedEdges number of edges that are going to be counted
+     */
+    private void layout(int expectedEdges) {
+        if (vertexCount == 0) {
+            minX = minY = maxX = maxY = 0;
+        }
+        double width = Math.max(maxX - minX, Double.MIN_NORMAL);
+        double height = Math.max(maxY - minY, Double.MIN_NORMAL);
+        long elements = (long) vertexCount + expectedEdges;
+        int tiles = (int) Math.max(1, Math.min(MAX_TILES, (elements + ELEMENTS_PER_TILE - 1) / ELEMENTS_PER_TILE));
+        columns = (int) Math.max(1, Math.min(tiles, Math.round(Math.sqrt(tiles * width / height))));
+        rows = Math.max(1, (tiles + columns - 1) / columns);
+        tileWidth = width / columns;
+        tileHeight = height / rows;
+        overviewColumns = Math.min(MAX_OVERVIEW_SIDE, columns * TiledGraphFormat.OVERVIEW_CELLS_PER_TILE);
+        overviewRows = Math.min(MAX_OVERVIEW_SIDE, rows * TiledGraphFormat.OVERVIEW_CELLS_PER_TILE);
+        cellWidth = width / overviewColumns;
+        cellHeight = height / overviewRows;
+
+        vertexTiles = new int[xs.length];
+        tileVertices = new int[columns * rows];
+        tileEdges = new int[columns * rows];
+        tileVertexBytes = new long[columns * rows];
+        overview = new int[overviewColumns * overviewRows];
+        for (int id = 0; id < xs.length; id++) {
+            //slot of graph model without vertex
+            if (labelLengths[id] == -1) {
+                vertexTiles[id] = -1;
+                continue;
+            }
+            int column = Math.min(columns - 1, (int) ((xs[id] - minX) / tileWidth));
+            int row = Math.min(rows - 1, (int) ((ys[id] - minY) / tileHeight));
+            int tile = row * columns + column;
+            vertexTiles[id] = tile;
+            tileVertices[tile]++;
+            tileVertexBytes[tile] += TiledGraphFormat.VERTEX_FIXED_SIZE + labelLengths[id];
+            overview[cell(ys[id], minY, cellHeight, overviewRows) * overviewColumns + cell(xs[id], minX, cellWidth, overviewColumns)]++;
+        }
+    }
+
+    private static int cell(double coordinate, double min, double size, int count) {
+        return Math.max(0, Math.min(count - 1, (int) ((coordinate - min) / size)));
+    }
+
+    private void countEdge(int from, int to) {
+        int tileFrom = vertexTiles[from];
+        int tileTo = vertexTiles[to];
+        tileEdges[tileFrom]++;
+        if (tileTo != tileFrom) tileEdges[tileTo]++;
+        edgeCount++;
+        //edge adds 1 to cells it passes, sampled at most MAX_OVERVIEW_STEPS times
+        double x0 = (xs[from] - minX) / cellWidth;
+        double y0 = (ys[from] - minY) / cellHeight;
+        double x1 = (xs[to] - minX) / cellWidth;
+        double y1 = (ys[to] - minY) / cellHeight;
+        int steps = (int) Math.min(MAX_OVERVIEW_STEPS, Math.max(Math.abs(x1 - x0), Math.abs(y1 - y0)));
+        for (int step = 1; step < steps; step++) {
+            double t = (double) step / steps;
+            int column = Math.max(0, Math.min(overviewColumns - 1, (int) (x0 + (x1 - x0) * t)));
+            int row = Math.max(0, Math.min(overviewRows - 1, (int) (y0 + (y1 - y0) * t)));
+            overview[row * overviewColumns + column]++;
+        }
+    }
+
+    /**
+     * Method for placing blocks of tiles one after another behind header, directory and overview
+     * @param channel channel of the store
+     * @throws IOException iff some tile would be bigger than its length can describe
+     */
+    private void allocate(FileChannel channel) throws IOException {
+        this.channel = channel;
+        int tiles = columns * rows;
+        tileOffsets = new long[tiles];
+        tileLengths = new int[tiles];
+        tileCursors = new long[tiles];
+        tileBuffers = new ByteBuffer[tiles];
+        long offset = TiledGraphFormat.HEADER_SIZE + (long) tiles * TiledGraphFormat.DIRECTORY_ENTRY_SIZE + 4L * overview.length;
+        for (int tile = 0; tile < tiles; tile++) {
+            long length = tileVertexBytes[tile] + (long) tileEdges[tile] * TiledGraphFormat.EDGE_SIZE;
+            if (length > Integer.MAX_VALUE) {
+                throw new IOException("Too many elements at one place, tile " + tile + " would have " + length + " bytes");
+            }
+            tileOffsets[tile] = offset;
+            tileLengths[tile] = (int) length;
+            tileCursors[tile] = offset;
+            offset += length;
+        }
+    }
+
+    private void writeVertex(int id, byte[] label, int labelLength) throws IOException {
+        int tile = vertexTiles[id];
+        ByteBuffer buffer = reserve(tile, TiledGraphFormat.VERTEX_FIXED_SIZE);
+        buffer.putFloat(xs[id]);
+        buffer.putFloat(ys[id]);
+        buffer.putShort((short) labelLength);
+        //value may be longer than buffer, it is copied in parts then
+        int written = 0;
+        while (written < labelLength) {
+            buffer = reserve(tile, 1);
+            int length = Math.min(labelLength - written, buffer.remaining());
+            buffer.put(label, written, length);
+            written += length;
+        }
+    }
+
+    private void writeEdge(int from, int to) throws IOException {
+        int tileFrom = vertexTiles[from];
+        int tileTo = vertexTiles[to];
+        putEdge(tileFrom, from, to);
+        if (tileTo != tileFrom) putEdge(tileTo, from, to);
+    }
+
+    private void putEdge(int tile, int from, int to) throws IOException {
+        ByteBuffer buffer = reserve(tile, TiledGraphFormat.EDGE_SIZE);
+        buffer.putFloat(xs[from]);
+        buffer.putFloat(ys[from]);
+        buffer.putFloat(xs[to]);
+        buffer.putFloat(ys[to]);
+    }
+
+    /* buffer of tile with at least size free bytes, buffers are allocated on first write into their tile */
+    private ByteBuffer reserve(int tile, int size) throws IOException {
+        ByteBuffer buffer = tileBuffers[tile];
+        if (buffer == null) {
+            buffer = ByteBuffer.allocate(TILE_BUFFER_SIZE);
+            tileBuffers[tile] = buffer;
+        }
+        if (buffer.remaining() < size) flush(tile);
+        return buffer;
+    }
+
+    private void flush(int tile) throws IOException {
+        ByteBuffer buffer = tileBuffers[tile];
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            tileCursors[tile] += channel.write(buffer, tileCursors[tile]);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Method for flushing every tile and writing header, directory and overview at start of the store
+     * @param sourceKey sizes and last modification times of source file and its journal (see TiledGraphFormat.sourceKey)
+     * @throws IOException exception
+     */
+    private void finish(long[] sourceKey) throws IOException {
+        for (int tile = 0; tile < tileBuffers.length; tile++) {
+            if (tileBuffers[tile] != null) flush(tile);
+            if (tileCursors[tile] != tileOffsets[tile] + tileLengths[tile]) {
+                throw new IOException("Source changed while tiles were built");
+            }
+        }
+        ByteBuffer head = ByteBuffer.allocate((int) tileOffsets[0]);
+        head.put(TiledGraphFormat.MAGIC)
+                .putInt(TiledGraphFormat.VERSION)
+                .putLong(sourceKey[0])
+                .putLong(sourceKey[1])
+                .putLong(sourceKey[2])
+                .putLong(sourceKey[3])
+                .putInt(vertexCount)
+                .putInt(edgeCount)
+                .putDouble(minX)
+                .putDouble(minY)
+                .putDouble(maxX)
+                .putDouble(maxY)
+                .putInt(columns)
+                .putInt(rows)
+                .putInt(overviewColumns)
+                .putInt(overviewRows);
+        for (int tile = 0; tile < tileOffsets.length; tile++) {
+            head.putLong(tileOffsets[tile])
+                    .putInt(tileLengths[tile])
+                    .putInt(tileVertices[tile])
+                    .putInt(tileEdges[tile]);
+        }
+        head.asIntBuffer().put(overview);
+        head.position(head.capacity());
+        head.flip();
+        long position = 0;
+        while (head.hasRemaining()) {
+            position += channel.write(head, position);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.editorgrafov.io;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Class holding constants of tiled graph store (.tiles), written by TiledGraphBuilder and read by TiledGraph. <br>
+ * - plane is split by uniform grid of columns x rows tiles over bounds of vertices, every vertex belongs to tile
+ * containing its position, edge belongs to tiles of both its vertices (once if they share tile) <br>
+ * - header: MAGIC, VERSION int, size and last modification time of source file and of its journal (longs, -1 without journal),
+ * number of vertices and edges (ints),
+ * bounds minX, minY, maxX, maxY (doubles), columns and rows (ints), columns and rows of overview (ints) <br>
+ * - tile directory: per tile offset of its block (long), length of its block, its number of vertices and edges (ints) <br>
+ * - overview: per cell of overview grid number of vertices and edges passing through it (int),
+ * drawn instead of tiles when graph is zoomed out or tiles are not loaded yet <br>
+ * - tile block: per vertex x, y (floats), length of UTF-8 value (unsigned short) and its bytes,
+ * then per edge x, y of both its vertices (floats), so every tile can be drawn without any other tile <br>
+ * - store holds graph of source file with its journal (see EditJournal) applied, it is built again whenever size
+ * or last modification time of source file or journal differ from the header <br>
+ * - multi-byte values are big-endian
+ */
+public final class TiledGraphFormat {
+
+    /**
+     * Extension appended to name of source file, without dot
+     */
+    public static final String EXTENSION = "tiles";
+
+    static final byte[] MAGIC = {'E', 'G', 'R', 'T'};
+    static final int VERSION = 2;
+    static final int HEADER_SIZE = MAGIC.length + 4 + 4 * 8 + 4 + 4 + 4 * 8 + 4 * 4;
+    /* part of header identifying version of source file and its journal store was built from */
+    static final int SOURCE_KEY_SIZE = 4 * 8;
+    static final int DIRECTORY_ENTRY_SIZE = 8 + 4 + 4 + 4;
+    static final int VERTEX_FIXED_SIZE = 4 + 4 + 2;
+    static final int MAX_LABEL_LENGTH = 0xFFFF;
+    static final int EDGE_SIZE = 4 * 4;
+
+    /* cells of overview per tile side */
+    static final int OVERVIEW_CELLS_PER_TILE = 16;
+
+    private TiledGraphFormat() {
+    }
+
+    /**
+     * Method for getting sizes and last modification times of source file and its journal, store is current
+     * while they stay the same
+     * @param source path of graph file
+     * @return size and last modification time of source, then of its journal (-1 each if there is no journal)
+     * @throws IOException iff source can not be read
+     */
+    static long[] sourceKey(Path source) throws IOException {
+        Path journal = EditJournal.pathOf(source);
+        boolean journaled = Files.exists(journal);
+        return new long[] {
+                Files.size(source),
+                Files.getLastModifiedTime(source).toMillis(),
+                journaled ? Files.size(journal) : -1,
+                journaled ? Files.getLastModifiedTime(journal).toMillis() : -1
+        };
+    }
+
+    /**
+     * Method for getting path of tiled store of source graph file
+     * @param source path of graph file
+     * @return path of its tiled store
+     */
+    public static Path pathOf(Path source) {
+        return source.resolveSibling(source.getFileName() + "." + EXTENSION);
+    }
+}
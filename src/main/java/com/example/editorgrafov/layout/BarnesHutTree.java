@@ -0,0 +1,219 @@
+package com.example.editorgrafov.layout;
+
+import java.util.Arrays;
+
+/**
+ * Class representing quadtree of points with aggregated mass, used for Barnes-Hut approximation of repulsive forces. <br>
+ * - tree is rebuilt from scratch by build() every iteration of layout, arrays are reused between builds <br>
+ * - after build, tree is read-only, so forces can be computed from many threads at once <br>
+ * - every point has mass 1, coincident points end up together in single leaf at MAX_DEPTH
+ */
+class BarnesHutTree {
+
+    private static final int MAX_DEPTH = 32;
+
+    private double[] centerX;
+    private double[] centerY;
+    private double[] half;
+    private int[] firstChild;
+    /* index of point stored in leaf, -1 for internal nodes and leaves holding more points */
+    private int[] body;
+    private double[] mass;
+    private double[] massX;
+    private double[] massY;
+    private int nodeCount;
+
+    private double[] xs;
+    private double[] ys;
+
+    /**
+     * Constructor of empty BarnesHutTree object
+     * @param expectedPoints expected number of points
+     */
+    BarnesHutTree(int expectedPoints) {
+        allocate(Math.max(16, 2 * expectedPoints));
+    }
+
+    /**
+     * Method for building tree over points, arrays are only read until next build
+     * @param xs x coordinates of points
+     * @param ys y coordinates of points
+     * @param n number of points
+     */
+    void build(double[] xs, double[] ys, int n) {
+        this.xs = xs;
+        this.ys = ys;
+        double minX = Double.POSITIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < n; i++) {
+            minX = Math.min(minX, xs[i]);
+            minY = Math.min(minY, ys[i]);
+            maxX = Math.max(maxX, xs[i]);
+            maxY = Math.max(maxY, ys[i]);
+        }
+        double rootHalf = Math.max(maxX - minX, maxY - minY) / 2 + 1e-9;
+        nodeCount = 0;
+        newNode((minX + maxX) / 2, (minY + maxY) / 2, rootHalf);
+        for (int i = 0; i < n; i++) {
+            insert(i);
+        }
+
+        /* children are always created after their parent, so reverse order visits children first */
+        for (int node = nodeCount - 1; node >= 0; node--) {
+            int child = firstChild[node];
+            if (child == -1) continue;
+            double m = 0;
+            double mx = 0;
+            double my = 0;
+            for (int c = child; c < child + 4; c++) {
+                m += mass[c];
+                mx += massX[c];
+                my += massY[c];
+            }
+            mass[node] = m;
+            massX[node] = mx;
+            massY[node] = my;
+        }
+    }
+
+    /**
+     * Method for computing approximate repulsive force acting on point, force between two points is
+     * strength / distance in direction away from each other
+     * @param i index of point
+     * @param strength strength of repulsion
+     * @param theta accuracy of approximation - node is treated as single mass if its side / distance is below theta
+     * @param stack work array of calling thread, at least 3 * MAX_DEPTH + 4 long
+     * @param force array force is added to, force[0] is x part and force[1] is y part
+     */
+    void repulsion(int i, double strength, double theta, int[] stack, double[] force) {
+        double x = xs[i];
+        double y = ys[i];
+        double thetaSquared = theta * theta;
+        double fx = 0;
+        double fy = 0;
+        int top = 0;
+        stack[top++] = 0;
+        while (top > 0) {
+            int node = stack[--top];
+            double m = mass[node];
+            if (m == 0 || body[node] == i) continue;
+            double dx = x - massX[node] / m;
+            double dy = y - massY[node] / m;
+            double distanceSquared = dx * dx + dy * dy;
+            int child = firstChild[node];
+            if (child == -1 || 4 * half[node] * half[node] < thetaSquared * distanceSquared) {
+                //coincident points push each other nowhere, they get separated by attraction or jitter
+                if (distanceSquared < 1e-18) continue;
+                double f = m * strength / distanceSquared;
+                fx += dx * f;
+                fy += dy * f;
+            }
+            else {
+                for (int c = child; c < child + 4; c++) stack[top++] = c;
+            }
+        }
+        force[0] += fx;
+        force[1] += fy;
+    }
+
+    /**
+     * Method for getting size of work array needed by repulsion()
+     * @return length of stack
+     */
+    static int stackSize() {
+        return 3 * MAX_DEPTH + 4;
+    }
+
+    private void insert(int i) {
+        double x = xs[i];
+        double y = ys[i];
+        int node = 0;
+        int depth = 0;
+        while (true) {
+            if (firstChild[node] == -1) {
+                if (mass[node] == 0) {
+                    body[node] = i;
+                    addMass(node, x, y);
+                    return;
+                }
+                if (depth == MAX_DEPTH) {
+                    body[node] = -1;
+                    addMass(node, x, y);
+                    return;
+                }
+                //leaf holds exactly one point, it is moved into a child and node becomes internal
+                int existing = body[node];
+                split(node);
+                int child = quadrant(node, xs[existing], ys[existing]);
+                body[child] = existing;
+                addMass(child, xs[existing], ys[existing]);
+                body[node] = -1;
+                mass[node] = 0;
+                massX[node] = 0;
+                massY[node] = 0;
+            }
+            node = quadrant(node, x, y);
+            depth++;
+        }
+    }
+
+    private void addMass(int node, double x, double y) {
+        mass[node] += 1;
+        massX[node] += x;
+        massY[node] += y;
+    }
+
+    private int quadrant(int node, double x, double y) {
+        int index = 0;
+        if (x >= centerX[node]) index |= 1;
+        if (y >= centerY[node]) index |= 2;
+        return firstChild[node] + index;
+    }
+
+    private void split(int node) {
+        double quarter = half[node] / 2;
+        int first = nodeCount;
+        for (int i = 0; i < 4; i++) {
+            newNode(centerX[node] + ((i & 1) == 0 ? -quarter : quarter),
+                    centerY[node] + ((i & 2) == 0 ? -quarter : quarter), quarter);
+        }
+        firstChild[node] = first;
+    }
+
+    private void newNode(double x, double y, double h) {
+        if (nodeCount == centerX.length) allocate(nodeCount * 2);
+        centerX[nodeCount] = x;
+        centerY[nodeCount] = y;
+        half[nodeCount] = h;
+        firstChild[nodeCount] = -1;
+        body[nodeCount] = -1;
+        mass[nodeCount] = 0;
+        massX[nodeCount] = 0;
+        massY[nodeCount] = 0;
+        nodeCount++;
+    }
+
+    private void allocate(int capacity) {
+        if (centerX == null) {
+            centerX = new double[capacity];
+            centerY = new double[capacity];
+            half = new double[capacity];
+            firstChild = new int[capacity];
+            body = new int[capacity];
+            mass = new double[capacity];
+            massX = new double[capacity];
+            massY = new double[capacity];
+            return;
+        }
+        centerX = Arrays.copyOf(centerX, capacity);
+        centerY = Arrays.copyOf(centerY, capacity);
+        half = Arrays.copyOf(half, capacity);
+        firstChild = Arrays.copyOf(firstChild, capacity);
+        body = Arrays.copyOf(body, capacity);
+        mass = Arrays.copyOf(mass, capacity);
+        massX = Arrays.copyOf(massX, capacity);
+        massY = Arrays.copyOf(massY, capacity);
+    }
+}
@@ -0,0 +1,300 @@
+package com.example.editorgrafov.layout;
+
+import com.example.editorgrafov.io.ProgressMonitor;
+import com.example.editorgrafov.model.GraphModel;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Class representing force-directed (Fruchterman-Reingold) layout of graph. <br>
+ * - graph is copied into arrays by constructor, so run() can be called off the FX thread while model stays untouched <br>
+ * - repulsion between all pairs of vertices is approximated by Barnes-Hut quadtree, O(n log n) per iteration <br>
+ * - forces of every iteration are computed in parallel over chunks of vertices, tree is shared read-only <br>
+ * - vertices are periodically reordered along Z-order curve, so neighbouring vertices (and tree nodes) are close in memory <br>
+ * - intermediate positions are handed to Listener at most once per PUBLISH_INTERVAL_MS, fitted into target bounds
+ */
+public class ForceLayout {
+
+    /**
+     * Interface for receiving positions of vertices while layout runs
+     */
+    @FunctionalInterface
+    public interface Listener {
+        /**
+         * Method called from layout thread with fresh arrays, indexed the same way as vertexIds()
+         * @param xs x coordinates of vertices
+         * @param ys y coordinates of vertices
+         */
+        void positions(double[] xs, double[] ys);
+    }
+
+    /**
+     * Minimal time between two calls of Listener in milliseconds
+     */
+    public static final long PUBLISH_INTERVAL_MS = 100;
+
+    private static final int DEFAULT_ITERATIONS = 200;
+    private static final double THETA = 1.2;
+    private static final double GRAVITY = 0.05;
+    private static final double COOLING = 0.98;
+    private static final int CHUNK_SIZE = 1024;
+    private static final int REORDER_INTERVAL = 20;
+
+    private final int n;
+    private final int[] vertexIds;
+    /* layout works on its own order of vertices, original[i] is index into vertexIds of i-th vertex */
+    private int[] original;
+    /* adjacency in compressed form - neighbours of i are targets[offsets[i]..offsets[i + 1]) */
+    private int[] offsets;
+    private int[] targets;
+    private double[] xs;
+    private double[] ys;
+    private final double[] forceX;
+    private final double[] forceY;
+    private int iterations = DEFAULT_ITERATIONS;
+    private double minX;
+    private double minY;
+    private double maxX = 1;
+    private double maxY = 1;
+
+    /**
+     * Constructor of ForceLayout object, has to be called by thread owning graph model
+     * @param graph graph to be laid out, current positions are the starting point
+     */
+    public ForceLayout(GraphModel graph) {
+        n = graph.vertexCount();
+        vertexIds = new int[n];
+        int[] index = new int[graph.vertexSlots()];
+        int next = 0;
+        for (int id = 0; id < graph.vertexSlots(); id++) {
+            if (!graph.isVertex(id)) continue;
+            index[id] = next;
+            vertexIds[next++] = id;
+        }
+        original = new int[n];
+        for (int i = 0; i < n; i++) {
+            original[i] = i;
+        }
+        offsets = new int[n + 1];
+        for (int i = 0; i < n; i++) {
+            offsets[i + 1] = offsets[i] + graph.degree(vertexIds[i]);
+        }
+        targets = new int[offsets[n]];
+        for (int i = 0; i < n; i++) {
+            int id = vertexIds[i];
+            for (int j = 0; j < graph.degree(id); j++) {
+                targets[offsets[i] + j] = index[graph.opposite(graph.incidentEdge(id, j), id)];
+            }
+        }
+
+        /* positions are scaled so that ideal edge length is 1 and graph covers square of side sqrt(n) */
+        xs = new double[n];
+        ys = new double[n];
+        forceX = new double[n];
+        forceY = new double[n];
+        double fromMinX = Double.POSITIVE_INFINITY;
+        double fromMinY = Double.POSITIVE_INFINITY;
+        double fromMaxX = Double.NEGATIVE_INFINITY;
+        double fromMaxY = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < n; i++) {
+            fromMinX = Math.min(fromMinX, graph.getX(vertexIds[i]));
+            fromMinY = Math.min(fromMinY, graph.getY(vertexIds[i]));
+            fromMaxX = Math.max(fromMaxX, graph.getX(vertexIds[i]));
+            fromMaxY = Math.max(fromMaxY, graph.getY(vertexIds[i]));
+        }
+        double scale = Math.sqrt(n) / Math.max(Math.max(fromMaxX - fromMinX, fromMaxY - fromMinY), 1e-9);
+        SplittableRandom rnd = new SplittableRandom(n);
+        for (int i = 0; i < n; i++) {
+            //slight jitter separates vertices placed at the same position
+            xs[i] = (graph.getX(vertexIds[i]) - fromMinX) * scale + rnd.nextDouble(-1e-3, 1e-3);
+            ys[i] = (graph.getY(vertexIds[i]) - fromMinY) * scale + rnd.nextDouble(-1e-3, 1e-3);
+        }
+    }
+
+    /**
+     * Method for setting number of iterations, more iterations give more stable layout
+     * @param iterations number of iterations
+     */
+    public void setIterations(int iterations) {
+        this.iterations = iterations;
+    }
+
+    /**
+     * Method for setting rectangle published positions are fitted into (keeping aspect ratio)
+     * @param minX minimal x coordinate
+     * @param minY minimal y coordinate
+     * @param maxX maximal x coordinate
+     * @param maxY maximal y coordinate
+     */
+    public void setBounds(double minX, double minY, double maxX, double maxY) {
+        this.minX = minX;
+        this.minY = minY;
+        this.maxX = maxX;
+        this.maxY = maxY;
+    }
+
+    /**
+     * Method for getting ids of vertices in graph model, i-th published position belongs to vertexIds()[i]
+     * @return ids of vertices
+     */
+    public int[] vertexIds() {
+        return vertexIds;
+    }
+
+    /**
+     * Method for running layout, meant to be called off the FX thread
+     * @param monitor monitor progress (in iterations) is reported to
+     * @param listener listener of intermediate positions
+     * @return final positions fitted into bounds, {xs, ys}
+     * @throws java.util.concurrent.CancellationException iff monitor cancelled layout
+     */
+    public double[][] run(ProgressMonitor monitor, Listener listener) {
+        if (n == 0) return new double[][]{new double[0], new double[0]};
+        BarnesHutTree tree = new BarnesHutTree(n);
+        int chunks = (n + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        double temperature = Math.sqrt(n) / 10 + 1;
+        long lastPublish = System.currentTimeMillis();
+        for (int iteration = 0; iteration < iterations; iteration++) {
+            monitor.checkpoint(iteration, iterations);
+            if (iteration % REORDER_INTERVAL == 0) reorder();
+            tree.build(xs, ys, n);
+            IntStream.range(0, chunks).parallel().forEach(chunk -> computeForces(tree, chunk));
+            double maxStep = temperature;
+            IntStream.range(0, chunks).parallel().forEach(chunk -> move(chunk, maxStep));
+            temperature *= COOLING;
+
+            long now = System.currentTimeMillis();
+            if (now - lastPublish >= PUBLISH_INTERVAL_MS) {
+                lastPublish = now;
+                double[][] positions = fitted();
+                listener.positions(positions[0], positions[1]);
+            }
+        }
+        monitor.progress(iterations, iterations);
+        return fitted();
+    }
+
+    private void computeForces(BarnesHutTree tree, int chunk) {
+        int[] stack = new int[BarnesHutTree.stackSize()];
+        double[] force = new double[2];
+        int end = Math.min(n, (chunk + 1) * CHUNK_SIZE);
+        for (int i = chunk * CHUNK_SIZE; i < end; i++) {
+            force[0] = 0;
+            force[1] = 0;
+            //repulsion k^2 / d with k = 1
+            tree.repulsion(i, 1, THETA, stack, force);
+            double x = xs[i];
+            double y = ys[i];
+            //attraction d^2 / k along every edge
+            for (int e = offsets[i]; e < offsets[i + 1]; e++) {
+                int j = targets[e];
+                double dx = xs[j] - x;
+                double dy = ys[j] - y;
+                double distance = Math.sqrt(dx * dx + dy * dy);
+                force[0] += dx * distance;
+                force[1] += dy * distance;
+            }
+            //gravity keeps disconnected components together
+            force[0] -= GRAVITY * x;
+            force[1] -= GRAVITY * y;
+            forceX[i] = force[0];
+            forceY[i] = force[1];
+        }
+    }
+
+    private void move(int chunk, double maxStep) {
+        int end = Math.min(n, (chunk + 1) * CHUNK_SIZE);
+        for (int i = chunk * CHUNK_SIZE; i < end; i++) {
+            double length = Math.sqrt(forceX[i] * forceX[i] + forceY[i] * forceY[i]);
+            if (length == 0) continue;
+            double step = Math.min(length, maxStep) / length;
+            xs[i] += forceX[i] * step;
+            ys[i] += forceY[i] * step;
+        }
+    }
+
+    /* sorts vertices by Z-order (Morton code) of their positions, adjacency is renumbered accordingly */
+    private void reorder() {
+        double fromMinX = Double.POSITIVE_INFINITY;
+        double fromMinY = Double.POSITIVE_INFINITY;
+        double extent = 1e-9;
+        for (int i = 0; i < n; i++) {
+            fromMinX = Math.min(fromMinX, xs[i]);
+            fromMinY = Math.min(fromMinY, ys[i]);
+        }
+        for (int i = 0; i < n; i++) {
+            extent = Math.max(extent, Math.max(xs[i] - fromMinX, ys[i] - fromMinY));
+        }
+        double scale = 65535 / extent;
+        long[] keys = new long[n];
+        for (int i = 0; i < n; i++) {
+            long code = interleave((int) ((xs[i] - fromMinX) * scale)) | (interleave((int) ((ys[i] - fromMinY) * scale)) << 1);
+            keys[i] = (code << 32) | i;
+        }
+        Arrays.sort(keys);
+
+        int[] newIndex = new int[n];
+        for (int i = 0; i < n; i++) {
+            newIndex[(int) keys[i]] = i;
+        }
+        double[] newXs = new double[n];
+        double[] newYs = new double[n];
+        int[] newOriginal = new int[n];
+        int[] newOffsets = new int[n + 1];
+        int[] newTargets = new int[targets.length];
+        for (int i = 0; i < n; i++) {
+            int old = (int) keys[i];
+            newXs[i] = xs[old];
+            newYs[i] = ys[old];
+            newOriginal[i] = original[old];
+            int degree = offsets[old + 1] - offsets[old];
+            newOffsets[i + 1] = newOffsets[i] + degree;
+            for (int e = 0; e < degree; e++) {
+                newTargets[newOffsets[i] + e] = newIndex[targets[offsets[old] + e]];
+            }
+        }
+        xs = newXs;
+        ys = newYs;
+        original = newOriginal;
+        offsets = newOffsets;
+        targets = newTargets;
+    }
+
+    /* spreads lower 16 bits of value to even bits */
+    private static long interleave(int value) {
+        long v = value & 0xFFFF;
+        v = (v | (v << 8)) & 0x00FF00FFL;
+        v = (v | (v << 4)) & 0x0F0F0F0FL;
+        v = (v | (v << 2)) & 0x33333333L;
+        v = (v | (v << 1)) & 0x55555555L;
+        return v;
+    }
+
+    /* copies positions scaled uniformly into bounds and centered in them, in order of vertexIds */
+    private double[][] fitted() {
+        double fromMinX = Double.POSITIVE_INFINITY;
+        double fromMinY = Double.POSITIVE_INFINITY;
+        double fromMaxX = Double.NEGATIVE_INFINITY;
+        double fromMaxY = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < n; i++) {
+            fromMinX = Math.min(fromMinX, xs[i]);
+            fromMinY = Math.min(fromMinY, ys[i]);
+            fromMaxX = Math.max(fromMaxX, xs[i]);
+            fromMaxY = Math.max(fromMaxY, ys[i]);
+        }
+        double width = Math.max(fromMaxX - fromMinX, 1e-9);
+        double height = Math.max(fromMaxY - fromMinY, 1e-9);
+        double scale = Math.min((maxX - minX) / width, (maxY - minY) / height);
+        double offsetX = minX + ((maxX - minX) - width * scale) / 2;
+        double offsetY = minY + ((maxY - minY) - height * scale) / 2;
+        double[] outX = new double[n];
+        double[] outY = new double[n];
+        for (int i = 0; i < n; i++) {
+            outX[original[i]] = offsetX + (xs[i] - fromMinX) * scale;
+            outY[original[i]] = offsetY + (ys[i] - fromMinY) * scale;
+        }
+        return new double[][]{outX, outY};
+    }
+}
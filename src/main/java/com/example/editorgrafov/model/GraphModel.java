@@ -0,0 +1,638 @@
+package com.example.editorgrafov.model;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Class representing UI-independent graph - source of truth for topology and coordinates. <br>
+ * - vertices and edges are identified by int ids, ids of removed elements get reused <br>
+ * - coordinates, labels and edge endpoints are held in primitive arrays <br>
+ * - per-vertex incidence lists give edges containing vertex in O(deg) <br>
+ * - canonical undirected edge keys give edge existence in O(1) <br>
+ * - quadtrees over vertex positions and edge bounding boxes answer viewport queries, they are built
+ * on first query and kept up to date incrementally afterwards <br>
+ * - every element holds int id of its style, styles themselves are kept by UI (0 = default style) <br>
+ * - spatial hash of vertex positions resolves overlaps of vertices, it is built on first use the same way <br>
+ * - no JavaFX class is referenced, so model can be used off the FX thread
+ */
+public class GraphModel {
+
+    /**
+     * Interface for receiving vertices moved by graph model itself (e.g. by resolveCollisions())
+     */
+    @FunctionalInterface
+    public interface MoveListener {
+        /**
+         * Method called right after vertex got moved, its new position can be read from graph model
+         * @param id id of moved vertex
+         * @param oldX x coordinate of vertex before move
+         * @param oldY y coordinate of vertex before move
+         */
+        void moved(int id, double oldX, double oldY);
+    }
+
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int INITIAL_DEGREE_CAPACITY = 4;
+    private static final int MAX_COLLISION_PUSHES = 256;
+    /* golden angle - vertices at the same position are pushed apart in well spread directions */
+    private static final double GOLDEN_ANGLE = Math.PI * (3 - Math.sqrt(5));
+
+    /* vertices - slot is free iff labels[id] == null */
+    private String[] labels;
+    private double[] xs;
+    private double[] ys;
+    private int vertexSlots;
+    private int vertexCount;
+    private int[] freeVertices;
+    private int freeVertexCount;
+    private final Map<String, Integer> labelToId;
+    private int[][] incidence;
+    private int[] degree;
+    private int[] vertexStyles;
+
+    /* edges - slot is free iff edgeFrom[id] == -1 */
+    private int[] edgeFrom;
+    private int[] edgeTo;
+    private int[] edgeStyles;
+    private int edgeSlots;
+    private int edgeCount;
+    private int[] freeEdges;
+    private int freeEdgeCount;
+    private final LongIntHashMap edgeIndex;
+
+    /* spatial index - null until first query */
+    private QuadTree vertexTree;
+    private QuadTree edgeTree;
+
+    /* collision grid - null until first resolveCollisions() */
+    private SpatialHash vertexHash;
+    private final IntList collisionQueue = new IntList();
+    private final IntList collisionHits = new IntList();
+
+    /**
+     * Constructor of empty GraphModel object
+     */
+    public GraphModel() {
+        this(INITIAL_CAPACITY, INITIAL_CAPACITY);
+    }
+
+    /**
+     * Constructor of empty GraphModel object with preallocated arrays
+     * @param vertexCapacity expected number of vertices
+     * @param edgeCapacity expected number of edges
+     */
+    public GraphModel(int vertexCapacity, int edgeCapacity) {
+        int vCapacity = Math.max(vertexCapacity, 1);
+        int eCapacity = Math.max(edgeCapacity, 1);
+        labels = new String[vCapacity];
+        xs = new double[vCapacity];
+        ys = new double[vCapacity];
+        freeVertices = new int[INITIAL_CAPACITY];
+        labelToId = new HashMap<>(vCapacity * 4 / 3 + 1);
+        incidence = new int[vCapacity][];
+        degree = new int[vCapacity];
+        vertexStyles = new int[vCapacity];
+        edgeFrom = new int[eCapacity];
+        edgeTo = new int[eCapacity];
+        edgeStyles = new int[eCapacity];
+        freeEdges = new int[INITIAL_CAPACITY];
+        edgeIndex = new LongIntHashMap(eCapacity);
+    }
+
+    /**
+     * Method for computing canonical key of undirected edge [u, v] - smaller id in upper 32 bits, bigger in lower
+     * @param u id of first vertex
+     * @param v id of second vertex
+     * @return key, same for [u, v] and [v, u]
+     */
+    public static long edgeKey(int u, int v) {
+        int min = Math.min(u, v);
+        int max = Math.max(u, v);
+        return ((long) min << 32) | (max & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Method for adding vertex into graph, ids are assigned sequentially from 0 until some vertex is removed
+     * @param label value stored inside of vertex, has to be unique
+     * @param x coordinate of vertex center
+     * @param y coordinate of vertex center
+     * @return id of added vertex
+     * @throws IllegalArgumentException iff vertex with the same label already exists
+     */
+    public int addVertex(String label, double x, double y) {
+        if (labelToId.containsKey(label)) {
+            throw new IllegalArgumentException("Vertex \"" + label + "\" already exists");
+        }
+        int id;
+        if (freeVertexCount > 0) {
+            id = freeVertices[--freeVertexCount];
+        }
+        else {
+            if (vertexSlots == labels.length) growVertices(vertexSlots * 2);
+            id = vertexSlots++;
+        }
+        labels[id] = label;
+        xs[id] = x;
+        ys[id] = y;
+        degree[id] = 0;
+        vertexStyles[id] = 0;
+        labelToId.put(label, id);
+        vertexCount++;
+        if (vertexTree != null) vertexTree.insert(id, x, y, x, y);
+        if (vertexHash != null) vertexHash.insert(id, x, y);
+        return id;
+    }
+
+    /**
+     * Method for removing vertex and all edges containing it from graph
+     * @param id id of vertex
+     * @return ids of removed edges (empty array if there were none)
+     */
+    public int[] removeVertex(int id) {
+        checkVertex(id);
+        int[] incident = incidentEdges(id);
+        //list of removed vertex is dropped at once, only lists of other endpoints are searched
+        degree[id] = 0;
+        for (int edge : incident) {
+            int other = edgeFrom[edge] == id ? edgeTo[edge] : edgeFrom[edge];
+            if (other != id) removeIncidence(other, edge);
+            releaseEdge(edge);
+        }
+        labelToId.remove(labels[id]);
+        labels[id] = null;
+        if (vertexTree != null) vertexTree.remove(id);
+        if (vertexHash != null) vertexHash.remove(id);
+        if (freeVertexCount == freeVertices.length) freeVertices = Arrays.copyOf(freeVertices, freeVertexCount * 2);
+        freeVertices[freeVertexCount++] = id;
+        vertexCount--;
+        return incident;
+    }
+
+    /**
+     * Method for adding edge [from, to] into graph
+     * @param from id of start vertex
+     * @param to id of end vertex
+     * @return id of added edge
+     * @throws IllegalArgumentException iff edge [from, to] (or [to, from]) already exists
+     */
+    public int addEdge(int from, int to) {
+        checkVertex(from);
+        checkVertex(to);
+        long key = edgeKey(from, to);
+        if (edgeIndex.containsKey(key)) {
+            throw new IllegalArgumentException("Edge [" + labels[from] + ";" + labels[to] + "] already exists");
+        }
+        int id;
+        if (freeEdgeCount > 0) {
+            id = freeEdges[--freeEdgeCount];
+        }
+        else {
+            if (edgeSlots == edgeFrom.length) growEdges(edgeSlots * 2);
+            id = edgeSlots++;
+        }
+        edgeFrom[id] = from;
+        edgeTo[id] = to;
+        edgeStyles[id] = 0;
+        edgeIndex.put(key, id);
+        addIncidence(from, id);
+        if (from != to) addIncidence(to, id);
+        edgeCount++;
+        if (edgeTree != null) insertEdgeBox(id);
+        return id;
+    }
+
+    /**
+     * Method for removing edge from graph
+     * @param id id of edge
+     */
+    public void removeEdge(int id) {
+        checkEdge(id);
+        int from = edgeFrom[id];
+        int to = edgeTo[id];
+        removeIncidence(from, id);
+        if (from != to) removeIncidence(to, id);
+        releaseEdge(id);
+    }
+
+    /* removes edge from index and frees its id, incidence lists have to be updated by caller */
+    private void releaseEdge(int id) {
+        edgeIndex.remove(edgeKey(edgeFrom[id], edgeTo[id]));
+        if (edgeTree != null) edgeTree.remove(id);
+        edgeFrom[id] = -1;
+        edgeTo[id] = -1;
+        if (freeEdgeCount == freeEdges.length) freeEdges = Arrays.copyOf(freeEdges, freeEdgeCount * 2);
+        freeEdges[freeEdgeCount++] = id;
+        edgeCount--;
+    }
+
+    /**
+     * Method for finding undirected edge [u, v]
+     * @param u id of first vertex
+     * @param v id of second vertex
+     * @return id of edge, -1 if there is none
+     */
+    public int findEdge(int u, int v) {
+        return edgeIndex.get(edgeKey(u, v));
+    }
+
+    /**
+     * Method for checking whether undirected edge [u, v] exists, lookup of packed key allocates nothing
+     * @param u id of first vertex
+     * @param v id of second vertex
+     * @return true if edge exists, false otherwise
+     */
+    public boolean containsEdge(int u, int v) {
+        return edgeIndex.containsKey(edgeKey(u, v));
+    }
+
+    /**
+     * Method for getting edges containing vertex
+     * @param id id of vertex
+     * @return ids of edges containing vertex (empty array if there is none)
+     */
+    public int[] incidentEdges(int id) {
+        checkVertex(id);
+        if (degree[id] == 0) return new int[0];
+        return Arrays.copyOf(incidence[id], degree[id]);
+    }
+
+    /**
+     * Method for getting number of edges containing vertex
+     * @param id id of vertex
+     * @return degree of vertex
+     */
+    public int degree(int id) {
+        return degree[id];
+    }
+
+    /**
+     * Method for getting i-th edge containing vertex, used for iterating over incident edges without allocation
+     * @param id id of vertex
+     * @param i index in range [0, degree(id))
+     * @return id of edge
+     */
+    public int incidentEdge(int id, int i) {
+        return incidence[id][i];
+    }
+
+    /**
+     * Method for getting the other endpoint of edge
+     * @param edge id of edge
+     * @param vertex id of one endpoint of edge
+     * @return id of the other endpoint
+     */
+    public int opposite(int edge, int vertex) {
+        return edgeFrom[edge] == vertex ? edgeTo[edge] : edgeFrom[edge];
+    }
+
+    /**
+     * Method for getting id of vertex with given label
+     * @param label value stored inside of vertex
+     * @return id of vertex, -1 if there is none
+     */
+    public int indexOf(String label) {
+        Integer id = labelToId.get(label);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Method for checking, whether vertex with given label exists
+     * @param label value stored inside of vertex
+     * @return true if vertex exists, false otherwise
+     */
+    public boolean containsVertex(String label) {
+        return labelToId.containsKey(label);
+    }
+
+    /**
+     * Method for checking, whether id belongs to existing vertex
+     * @param id id of vertex
+     * @return true if vertex exists, false otherwise
+     */
+    public boolean isVertex(int id) {
+        return id >= 0 && id < vertexSlots && labels[id] != null;
+    }
+
+    /**
+     * Method for checking, whether id belongs to existing edge
+     * @param id id of edge
+     * @return true if edge exists, false otherwise
+     */
+    public boolean isEdge(int id) {
+        return id >= 0 && id < edgeSlots && edgeFrom[id] != -1;
+    }
+
+    /**
+     * Method for getting label of vertex
+     * @param id id of vertex
+     * @return value stored inside of vertex
+     */
+    public String getLabel(int id) {
+        checkVertex(id);
+        return labels[id];
+    }
+
+    /**
+     * Method for getting x coordinate of vertex center
+     * @param id id of vertex
+     * @return x coordinate
+     */
+    public double getX(int id) {
+        return xs[id];
+    }
+
+    /**
+     * Method for getting y coordinate of vertex center
+     * @param id id of vertex
+     * @return y coordinate
+     */
+    public double getY(int id) {
+        return ys[id];
+    }
+
+    /**
+     * Method for getting id of style of vertex
+     * @param id id of vertex
+     * @return id of style, 0 unless set otherwise
+     */
+    public int getVertexStyle(int id) {
+        return vertexStyles[id];
+    }
+
+    /**
+     * Method for setting id of style of vertex
+     * @param id id of vertex
+     * @param style id of style
+     */
+    public void setVertexStyle(int id, int style) {
+        vertexStyles[id] = style;
+    }
+
+    /**
+     * Method for getting id of style of edge
+     * @param id id of edge
+     * @return id of style, 0 unless set otherwise
+     */
+    public int getEdgeStyle(int id) {
+        return edgeStyles[id];
+    }
+
+    /**
+     * Method for setting id of style of edge
+     * @param id id of edge
+     * @param style id of style
+     */
+    public void setEdgeStyle(int id, int style) {
+        edgeStyles[id] = style;
+    }
+
+    /**
+     * Method for setting coordinates of vertex center
+     * @param id id of vertex
+     * @param x new x coordinate
+     * @param y new y coordinate
+     */
+    public void setPosition(int id, double x, double y) {
+        xs[id] = x;
+        ys[id] = y;
+        if (vertexHash != null) vertexHash.move(id, x, y);
+        if (vertexTree == null) return;
+        vertexTree.update(id, x, y, x, y);
+        for (int i = 0; i < degree[id]; i++) {
+            int edge = incidence[id][i];
+            int other = opposite(edge, id);
+            edgeTree.update(edge, Math.min(x, xs[other]), Math.min(y, ys[other]), Math.max(x, xs[other]), Math.max(y, ys[other]));
+        }
+    }
+
+    /**
+     * Method for pushing apart vertices overlapping vertex, which itself stays in place. <br>
+     * - only vertices in neighbouring cells of spatial hash are checked <br>
+     * - pushed vertex can overlap others, they are pushed as well up to MAX_COLLISION_PUSHES vertices in total
+     * @param id id of vertex
+     * @param radius radius of vertices, vertices overlap if their centers are closer than 2 * radius
+     * @param minX minimal x coordinate pushed vertices are kept in
+     * @param minY minimal y coordinate pushed vertices are kept in
+     * @param maxX maximal x coordinate pushed vertices are kept in
+     * @param maxY maximal y coordinate pushed vertices are kept in
+     * @param listener listener called for every push, vertex can be pushed more than once
+     */
+    public void resolveCollisions(int id, double radius, double minX, double minY, double maxX, double maxY, MoveListener listener) {
+        checkVertex(id);
+        double distance = 2 * radius;
+        if (vertexHash == null || vertexHash.getCellSize() != distance) buildVertexHash(distance);
+        collisionQueue.clear();
+        collisionQueue.add(id);
+        for (int q = 0; q < collisionQueue.size() && collisionQueue.size() <= MAX_COLLISION_PUSHES; q++) {
+            int pusher = collisionQueue.get(q);
+            double x = xs[pusher];
+            double y = ys[pusher];
+            collisionHits.clear();
+            vertexHash.query(x - distance, y - distance, x + distance, y + distance, collisionHits);
+            for (int i = 0; i < collisionHits.size(); i++) {
+                int other = collisionHits.get(i);
+                if (other == pusher || other == id) continue;
+                double diffX = xs[other] - x;
+                double diffY = ys[other] - y;
+                double length = Math.sqrt(diffX * diffX + diffY * diffY);
+                if (length >= distance) continue;
+                if (length == 0) {
+                    diffX = Math.cos(other * GOLDEN_ANGLE);
+                    diffY = Math.sin(other * GOLDEN_ANGLE);
+                    length = 1;
+                }
+                double newX = Math.max(minX, Math.min(maxX, x + diffX / length * distance));
+                double newY = Math.max(minY, Math.min(maxY, y + diffY / length * distance));
+                double oldX = xs[other];
+                double oldY = ys[other];
+                setPosition(other, newX, newY);
+                listener.moved(other, oldX, oldY);
+                collisionQueue.add(other);
+            }
+        }
+    }
+
+    /**
+     * Method for finding vertices whose center lies inside of rectangle
+     * @param minX minimal x coordinate of rectangle
+     * @param minY minimal y coordinate of rectangle
+     * @param maxX maximal x coordinate of rectangle
+     * @param maxY maximal y coordinate of rectangle
+     * @param out list ids of found vertices get appended to, in no particular order
+     */
+    public void verticesIn(double minX, double minY, double maxX, double maxY, IntList out) {
+        if (vertexTree == null) buildSpatialIndex();
+        vertexTree.query(minX, minY, maxX, maxY, out);
+    }
+
+    /**
+     * Method for finding edges whose bounding box intersects rectangle
+     * @param minX minimal x coordinate of rectangle
+     * @param minY minimal y coordinate of rectangle
+     * @param maxX maximal x coordinate of rectangle
+     * @param maxY maximal y coordinate of rectangle
+     * @param out list ids of found edges get appended to, in no particular order
+     */
+    public void edgesIn(double minX, double minY, double maxX, double maxY, IntList out) {
+        if (vertexTree == null) buildSpatialIndex();
+        edgeTree.query(minX, minY, maxX, maxY, out);
+    }
+
+    /**
+     * Method for getting start vertex of edge
+     * @param id id of edge
+     * @return id of start vertex
+     */
+    public int getFrom(int id) {
+        return edgeFrom[id];
+    }
+
+    /**
+     * Method for getting end vertex of edge
+     * @param id id of edge
+     * @return id of end vertex
+     */
+    public int getTo(int id) {
+        return edgeTo[id];
+    }
+
+    /**
+     * Method for getting number of vertices in graph
+     * @return number of vertices
+     */
+    public int vertexCount() {
+        return vertexCount;
+    }
+
+    /**
+     * Method for getting number of edges in graph
+     * @return number of edges
+     */
+    public int edgeCount() {
+        return edgeCount;
+    }
+
+    /**
+     * Method for getting upper bound of vertex ids, used for iterating over vertices together with isVertex()
+     * @return upper bound (exclusive) of vertex ids
+     */
+    public int vertexSlots() {
+        return vertexSlots;
+    }
+
+    /**
+     * Method for getting upper bound of edge ids, used for iterating over edges together with isEdge()
+     * @return upper bound (exclusive) of edge ids
+     */
+    public int edgeSlots() {
+        return edgeSlots;
+    }
+
+    /**
+     * Method for removing all vertices and edges from graph
+     */
+    public void clear() {
+        Arrays.fill(labels, 0, vertexSlots, null);
+        Arrays.fill(degree, 0, vertexSlots, 0);
+        labelToId.clear();
+        edgeIndex.clear();
+        vertexSlots = 0;
+        vertexCount = 0;
+        freeVertexCount = 0;
+        edgeSlots = 0;
+        edgeCount = 0;
+        freeEdgeCount = 0;
+        vertexTree = null;
+        edgeTree = null;
+        vertexHash = null;
+    }
+
+    /* root is sized to current bounding box of vertices, so no rebuild is needed while graph stays inside of it */
+    private void buildSpatialIndex() {
+        double minX = 0;
+        double minY = 0;
+        double maxX = 0;
+        double maxY = 0;
+        for (int id = 0; id < vertexSlots; id++) {
+            if (labels[id] == null) continue;
+            minX = Math.min(minX, xs[id]);
+            minY = Math.min(minY, ys[id]);
+            maxX = Math.max(maxX, xs[id]);
+            maxY = Math.max(maxY, ys[id]);
+        }
+        double side = Math.max(maxX - minX, maxY - minY) + 1;
+        vertexTree = new QuadTree(minX, minY, side);
+        edgeTree = new QuadTree(minX, minY, side);
+        for (int id = 0; id < vertexSlots; id++) {
+            if (labels[id] == null) continue;
+            vertexTree.insert(id, xs[id], ys[id], xs[id], ys[id]);
+        }
+        for (int id = 0; id < edgeSlots; id++) {
+            if (edgeFrom[id] == -1) continue;
+            insertEdgeBox(id);
+        }
+    }
+
+    private void buildVertexHash(double cellSize) {
+        vertexHash = new SpatialHash(cellSize, vertexSlots);
+        for (int id = 0; id < vertexSlots; id++) {
+            if (labels[id] == null) continue;
+            vertexHash.insert(id, xs[id], ys[id]);
+        }
+    }
+
+    private void insertEdgeBox(int id) {
+        int from = edgeFrom[id];
+        int to = edgeTo[id];
+        edgeTree.insert(id, Math.min(xs[from], xs[to]), Math.min(ys[from], ys[to]), Math.max(xs[from], xs[to]), Math.max(ys[from], ys[to]));
+    }
+
+    private void growVertices(int capacity) {
+        labels = Arrays.copyOf(labels, capacity);
+        xs = Arrays.copyOf(xs, capacity);
+        ys = Arrays.copyOf(ys, capacity);
+        incidence = Arrays.copyOf(incidence, capacity);
+        degree = Arrays.copyOf(degree, capacity);
+        vertexStyles = Arrays.copyOf(vertexStyles, capacity);
+    }
+
+    private void addIncidence(int vertex, int edge) {
+        int[] list = incidence[vertex];
+        if (list == null) {
+            list = new int[INITIAL_DEGREE_CAPACITY];
+            incidence[vertex] = list;
+        }
+        else if (degree[vertex] == list.length) {
+            list = Arrays.copyOf(list, list.length * 2);
+            incidence[vertex] = list;
+        }
+        list[degree[vertex]++] = edge;
+    }
+
+    /* order of incident edges is not kept - removed edge is replaced by the last one */
+    private void removeIncidence(int vertex, int edge) {
+        int[] list = incidence[vertex];
+        int last = --degree[vertex];
+        for (int i = 0; i <= last; i++) {
+            if (list[i] == edge) {
+                list[i] = list[last];
+                return;
+            }
+        }
+    }
+
+    private void growEdges(int capacity) {
+        edgeFrom = Arrays.copyOf(edgeFrom, capacity);
+        edgeTo = Arrays.copyOf(edgeTo, capacity);
+        edgeStyles = Arrays.copyOf(edgeStyles, capacity);
+    }
+
+    private void checkVertex(int id) {
+        if (!isVertex(id)) throw new IllegalArgumentException("Vertex with id " + id + " does not exist");
+    }
+
+    private void checkEdge(int id) {
+        if (!isEdge(id)) throw new IllegalArgumentException("Edge with id " + id + " does not exist");
+    }
+}
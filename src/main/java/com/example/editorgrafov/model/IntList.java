@@ -0,0 +1,76 @@
+package com.example.editorgrafov.model;
+
+import java.util.Arrays;
+
+/**
+ * Class representing growable list of primitive ints. <br>
+ * - used as reusable output buffer of queries, clear() keeps allocated array
+ */
+public class IntList {
+
+    private int[] values;
+    private int size;
+
+    /**
+     * Constructor of empty IntList object
+     */
+    public IntList() {
+        this(16);
+    }
+
+    /**
+     * Constructor of empty IntList object with preallocated array
+     * @param capacity expected number of values
+     */
+    public IntList(int capacity) {
+        values = new int[Math.max(capacity, 1)];
+    }
+
+    /**
+     * Method for appending value to the end of list
+     * @param value value
+     */
+    public void add(int value) {
+        if (size == values.length) values = Arrays.copyOf(values, size * 2);
+        values[size++] = value;
+    }
+
+    /**
+     * Method for getting value at index
+     * @param index index in range [0, size())
+     * @return value
+     */
+    public int get(int index) {
+        return values[index];
+    }
+
+    /**
+     * Method for getting number of values in list
+     * @return number of values
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Method for removing all values from list, allocated array is kept
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Method for sorting values in ascending order
+     */
+    public void sort() {
+        Arrays.sort(values, 0, size);
+    }
+
+    /**
+     * Method for copying values into new array
+     * @return array of values
+     */
+    public int[] toArray() {
+        return Arrays.copyOf(values, size);
+    }
+}
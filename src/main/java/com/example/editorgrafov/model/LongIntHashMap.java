@@ -0,0 +1,154 @@
+package com.example.editorgrafov.model;
+
+import java.util.Arrays;
+
+/**
+ * Class representing hash map from non-negative long keys to int values. <br>
+ * - open addressing with linear probing, no boxing and no allocation on lookup <br>
+ * - used as canonical edge index of GraphModel (key = packed pair of vertex ids)
+ */
+public class LongIntHashMap {
+
+    private static final long EMPTY = -1L;
+    private static final int MISSING = -1;
+
+    private long[] keys;
+    private int[] values;
+    private int size;
+    private int mask;
+    private int resizeThreshold;
+
+    /**
+     * Constructor of empty LongIntHashMap object
+     * @param expectedSize expected number of entries
+     */
+    public LongIntHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(expectedSize * 2, 16) - 1) << 1;
+        allocate(capacity);
+    }
+
+    /**
+     * Method for getting value stored under key
+     * @param key non-negative key
+     * @return value, -1 if key is not present
+     */
+    public int get(long key) {
+        int slot = slot(key);
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) return values[slot];
+            slot = (slot + 1) & mask;
+        }
+        return MISSING;
+    }
+
+    /**
+     * Method for checking whether key is present
+     * @param key non-negative key
+     * @return true if key is present, false otherwise
+     */
+    public boolean containsKey(long key) {
+        return get(key) != MISSING;
+    }
+
+    /**
+     * Method for storing value under key, previous value gets replaced
+     * @param key non-negative key
+     * @param value value
+     * @return previous value, -1 if key was not present
+     */
+    public int put(long key, int value) {
+        int slot = slot(key);
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                int previous = values[slot];
+                values[slot] = value;
+                return previous;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size > resizeThreshold) rehash(keys.length * 2);
+        return MISSING;
+    }
+
+    /**
+     * Method for removing key
+     * @param key non-negative key
+     * @return removed value, -1 if key was not present
+     */
+    public int remove(long key) {
+        int slot = slot(key);
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                int removed = values[slot];
+                shiftBack(slot);
+                size--;
+                return removed;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return MISSING;
+    }
+
+    /**
+     * Method for getting number of entries
+     * @return number of entries
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Method for removing all entries
+     */
+    public void clear() {
+        Arrays.fill(keys, EMPTY);
+        size = 0;
+    }
+
+    /* backward shift deletion - keeps probe sequences intact without tombstones */
+    private void shiftBack(int freed) {
+        int slot = freed;
+        while (true) {
+            slot = (slot + 1) & mask;
+            if (keys[slot] == EMPTY) break;
+            int home = slot(keys[slot]);
+            boolean movable = freed <= slot ? (home <= freed || home > slot) : (home <= freed && home > slot);
+            if (movable) {
+                keys[freed] = keys[slot];
+                values[freed] = values[slot];
+                freed = slot;
+            }
+        }
+        keys[freed] = EMPTY;
+    }
+
+    private int slot(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new int[capacity];
+        Arrays.fill(keys, EMPTY);
+        mask = capacity - 1;
+        resizeThreshold = capacity / 2;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] == EMPTY) continue;
+            int slot = slot(oldKeys[i]);
+            while (keys[slot] != EMPTY) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = oldKeys[i];
+            values[slot] = oldValues[i];
+        }
+    }
+}
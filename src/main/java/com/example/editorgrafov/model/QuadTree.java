@@ -0,0 +1,288 @@
+package com.example.editorgrafov.model;
+
+import java.util.Arrays;
+
+/**
+ * Class representing quadtree over axis-aligned boxes identified by int ids. <br>
+ * - every box is stored in the deepest node that contains it whole, so points end up in leaves
+ * and long edges stay higher up <br>
+ * - leaf gets split into 4 children once it holds more than BUCKET_SIZE boxes <br>
+ * - node and box data are held in primitive arrays, box can be moved or removed in O(depth) <br>
+ * - root grows (whole tree gets rebuilt) when box outside of it is inserted
+ */
+public class QuadTree {
+
+    private static final int BUCKET_SIZE = 16;
+    private static final int MAX_DEPTH = 24;
+    private static final int INITIAL_CAPACITY = 16;
+
+    /* nodes - square given by center and half of side, firstChild[node] == -1 iff node is leaf */
+    private double[] centerX;
+    private double[] centerY;
+    private double[] half;
+    private int[] depth;
+    private int[] firstChild;
+    private int[][] nodeItems;
+    private int[] nodeItemCount;
+    private int nodeCount;
+
+    /* boxes - box is absent iff itemNode[id] == -1 */
+    private double[] minX;
+    private double[] minY;
+    private double[] maxX;
+    private double[] maxY;
+    private int[] itemNode;
+    private int[] itemSlot;
+    private int size;
+
+    private int[] stack = new int[3 * MAX_DEPTH + 4];
+
+    /**
+     * Constructor of empty QuadTree object
+     * @param x x coordinate of top left corner of root
+     * @param y y coordinate of top left corner of root
+     * @param side side of root square, root grows if needed
+     */
+    public QuadTree(double x, double y, double side) {
+        centerX = new double[INITIAL_CAPACITY];
+        centerY = new double[INITIAL_CAPACITY];
+        half = new double[INITIAL_CAPACITY];
+        depth = new int[INITIAL_CAPACITY];
+        firstChild = new int[INITIAL_CAPACITY];
+        nodeItems = new int[INITIAL_CAPACITY][];
+        nodeItemCount = new int[INITIAL_CAPACITY];
+        minX = new double[INITIAL_CAPACITY];
+        minY = new double[INITIAL_CAPACITY];
+        maxX = new double[INITIAL_CAPACITY];
+        maxY = new double[INITIAL_CAPACITY];
+        itemNode = new int[INITIAL_CAPACITY];
+        Arrays.fill(itemNode, -1);
+        itemSlot = new int[INITIAL_CAPACITY];
+        double rootHalf = Math.max(side, 1) / 2;
+        newNode(x + rootHalf, y + rootHalf, rootHalf, 0);
+    }
+
+    /**
+     * Method for inserting box into tree
+     * @param id id of box, has to be non-negative and not present in tree
+     * @param x0 minimal x coordinate
+     * @param y0 minimal y coordinate
+     * @param x1 maximal x coordinate
+     * @param y1 maximal y coordinate
+     */
+    public void insert(int id, double x0, double y0, double x1, double y1) {
+        if (id >= itemNode.length) growItems(Math.max(id + 1, itemNode.length * 2));
+        if (itemNode[id] != -1) throw new IllegalArgumentException("Box with id " + id + " is already in tree");
+        minX[id] = x0;
+        minY[id] = y0;
+        maxX[id] = x1;
+        maxY[id] = y1;
+        size++;
+        if (!contains(0, x0, y0, x1, y1)) {
+            growRoot(id);
+            return;
+        }
+        place(id, 0);
+    }
+
+    /**
+     * Method for removing box from tree, nothing happens if box is not present
+     * @param id id of box
+     */
+    public void remove(int id) {
+        if (id >= itemNode.length || itemNode[id] == -1) return;
+        detach(id);
+        size--;
+    }
+
+    /**
+     * Method for moving box, box stays in its node if it still belongs there
+     * @param id id of box present in tree
+     * @param x0 new minimal x coordinate
+     * @param y0 new minimal y coordinate
+     * @param x1 new maximal x coordinate
+     * @param y1 new maximal y coordinate
+     */
+    public void update(int id, double x0, double y0, double x1, double y1) {
+        int node = itemNode[id];
+        minX[id] = x0;
+        minY[id] = y0;
+        maxX[id] = x1;
+        maxY[id] = y1;
+        if (contains(node, x0, y0, x1, y1) && (firstChild[node] == -1 || childContaining(node, id) == -1)) return;
+        detach(id);
+        if (!contains(0, x0, y0, x1, y1)) {
+            growRoot(id);
+            return;
+        }
+        place(id, 0);
+    }
+
+    /**
+     * Method for finding boxes intersecting query rectangle, touching boxes are included
+     * @param x0 minimal x coordinate of query
+     * @param y0 minimal y coordinate of query
+     * @param x1 maximal x coordinate of query
+     * @param y1 maximal y coordinate of query
+     * @param out list ids of found boxes get appended to, in no particular order
+     */
+    public void query(double x0, double y0, double x1, double y1, IntList out) {
+        int top = 0;
+        stack[top++] = 0;
+        while (top > 0) {
+            int node = stack[--top];
+            if (centerX[node] + half[node] < x0 || centerX[node] - half[node] > x1
+                    || centerY[node] + half[node] < y0 || centerY[node] - half[node] > y1) continue;
+            int[] items = nodeItems[node];
+            for (int i = 0; i < nodeItemCount[node]; i++) {
+                int id = items[i];
+                if (maxX[id] >= x0 && minX[id] <= x1 && maxY[id] >= y0 && minY[id] <= y1) out.add(id);
+            }
+            int child = firstChild[node];
+            if (child != -1) {
+                if (top + 4 > stack.length) stack = Arrays.copyOf(stack, stack.length * 2);
+                for (int i = 0; i < 4; i++) stack[top++] = child + i;
+            }
+        }
+    }
+
+    /**
+     * Method for getting number of boxes in tree
+     * @return number of boxes
+     */
+    public int size() {
+        return size;
+    }
+
+    /* stores box into deepest node under start that contains it whole */
+    private void place(int id, int start) {
+        int node = start;
+        while (firstChild[node] != -1) {
+            int child = childContaining(node, id);
+            if (child == -1) break;
+            node = child;
+        }
+        attach(id, node);
+        if (firstChild[node] == -1 && nodeItemCount[node] > BUCKET_SIZE && depth[node] < MAX_DEPTH) split(node);
+    }
+
+    private void split(int node) {
+        double quarter = half[node] / 2;
+        int first = nodeCount;
+        for (int i = 0; i < 4; i++) {
+            newNode(centerX[node] + ((i & 1) == 0 ? -quarter : quarter),
+                    centerY[node] + ((i & 2) == 0 ? -quarter : quarter), quarter, depth[node] + 1);
+        }
+        firstChild[node] = first;
+        int[] items = nodeItems[node];
+        for (int i = nodeItemCount[node] - 1; i >= 0; i--) {
+            int id = items[i];
+            int child = childContaining(node, id);
+            if (child == -1) continue;
+            detach(id);
+            attach(id, child);
+        }
+    }
+
+    /* returns child of node which contains box whole, -1 if box spans more children */
+    private int childContaining(int node, int id) {
+        double cx = centerX[node];
+        double cy = centerY[node];
+        int index;
+        if (maxX[id] < cx) index = 0;
+        else if (minX[id] >= cx) index = 1;
+        else return -1;
+        if (maxY[id] >= cy) {
+            if (minY[id] < cy) return -1;
+            index |= 2;
+        }
+        return firstChild[node] + index;
+    }
+
+    private boolean contains(int node, double x0, double y0, double x1, double y1) {
+        return x0 >= centerX[node] - half[node] && x1 < centerX[node] + half[node]
+                && y0 >= centerY[node] - half[node] && y1 < centerY[node] + half[node];
+    }
+
+    /* doubles root until box of id fits, then reinserts every box together with id */
+    private void growRoot(int id) {
+        double rootX = centerX[0] - half[0];
+        double rootY = centerY[0] - half[0];
+        double side = 2 * half[0];
+        while (minX[id] < rootX || minY[id] < rootY || maxX[id] >= rootX + side || maxY[id] >= rootY + side) {
+            if (minX[id] < rootX) rootX -= side;
+            if (minY[id] < rootY) rootY -= side;
+            side *= 2;
+        }
+        IntList ids = new IntList(size);
+        for (int other = 0; other < itemNode.length; other++) {
+            if (itemNode[other] == -1) continue;
+            ids.add(other);
+            itemNode[other] = -1;
+        }
+        ids.add(id);
+        nodeCount = 0;
+        newNode(rootX + side / 2, rootY + side / 2, side / 2, 0);
+        for (int i = 0; i < ids.size(); i++) {
+            place(ids.get(i), 0);
+        }
+    }
+
+    private void attach(int id, int node) {
+        int[] items = nodeItems[node];
+        if (items == null) {
+            items = new int[4];
+            nodeItems[node] = items;
+        }
+        else if (nodeItemCount[node] == items.length) {
+            items = Arrays.copyOf(items, items.length * 2);
+            nodeItems[node] = items;
+        }
+        itemNode[id] = node;
+        itemSlot[id] = nodeItemCount[node];
+        items[nodeItemCount[node]++] = id;
+    }
+
+    /* order of boxes in node is not kept - removed box is replaced by the last one */
+    private void detach(int id) {
+        int node = itemNode[id];
+        int[] items = nodeItems[node];
+        int last = --nodeItemCount[node];
+        int slot = itemSlot[id];
+        items[slot] = items[last];
+        itemSlot[items[slot]] = slot;
+        itemNode[id] = -1;
+    }
+
+    private void newNode(double x, double y, double h, int d) {
+        if (nodeCount == centerX.length) {
+            int capacity = nodeCount * 2;
+            centerX = Arrays.copyOf(centerX, capacity);
+            centerY = Arrays.copyOf(centerY, capacity);
+            half = Arrays.copyOf(half, capacity);
+            depth = Arrays.copyOf(depth, capacity);
+            firstChild = Arrays.copyOf(firstChild, capacity);
+            nodeItems = Arrays.copyOf(nodeItems, capacity);
+            nodeItemCount = Arrays.copyOf(nodeItemCount, capacity);
+        }
+        centerX[nodeCount] = x;
+        centerY[nodeCount] = y;
+        half[nodeCount] = h;
+        depth[nodeCount] = d;
+        firstChild[nodeCount] = -1;
+        nodeItems[nodeCount] = null;
+        nodeItemCount[nodeCount] = 0;
+        nodeCount++;
+    }
+
+    private void growItems(int capacity) {
+        int oldCapacity = itemNode.length;
+        minX = Arrays.copyOf(minX, capacity);
+        minY = Arrays.copyOf(minY, capacity);
+        maxX = Arrays.copyOf(maxX, capacity);
+        maxY = Arrays.copyOf(maxY, capacity);
+        itemNode = Arrays.copyOf(itemNode, capacity);
+        Arrays.fill(itemNode, oldCapacity, capacity, -1);
+        itemSlot = Arrays.copyOf(itemSlot, capacity);
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.editorgrafov.model;
+
+import java.util.Arrays;
+
+/**
+ * Class representing uniform grid over points identified by int ids (spatial hash). <br>
+ * - plane is divided into square cells of fixed side, only non-empty cells are stored <br>
+ * - cell is found by hashing its packed coordinates, points of cell form doubly linked list in primitive arrays <br>
+ * - insert, remove and move are O(1), query of small area visits only the few cells covering it
+ */
+public class SpatialHash {
+
+    private static final int INITIAL_CAPACITY = 16;
+    /* cell coordinates are shifted by OFFSET, so packed keys stay non-negative */
+    private static final long OFFSET = 1L << 30;
+
+    private final double cellSize;
+    /* first point of every non-empty cell */
+    private final LongIntHashMap heads;
+
+    /* points - point is absent iff cell[id] == -1 */
+    private long[] cell;
+    private int[] next;
+    private int[] previous;
+    private int size;
+
+    /**
+     * Constructor of empty SpatialHash object
+     * @param cellSize side of cell, queries should cover about one cell around point
+     * @param expectedSize expected number of points
+     */
+    public SpatialHash(double cellSize, int expectedSize) {
+        this.cellSize = cellSize;
+        this.heads = new LongIntHashMap(expectedSize);
+        int capacity = Math.max(expectedSize, INITIAL_CAPACITY);
+        cell = new long[capacity];
+        Arrays.fill(cell, -1);
+        next = new int[capacity];
+        previous = new int[capacity];
+    }
+
+    /**
+     * Method for getting side of cell
+     * @return side of cell
+     */
+    public double getCellSize() {
+        return cellSize;
+    }
+
+    /**
+     * Method for inserting point
+     * @param id id of point, has to be non-negative and not present
+     * @param x x coordinate
+     * @param y y coordinate
+     */
+    public void insert(int id, double x, double y) {
+        if (id >= cell.length) grow(Math.max(id + 1, cell.length * 2));
+        if (cell[id] != -1) throw new IllegalArgumentException("Point with id " + id + " is already in hash");
+        link(id, key(x, y));
+        size++;
+    }
+
+    /**
+     * Method for removing point, nothing happens if point is not present
+     * @param id id of point
+     */
+    public void remove(int id) {
+        if (id >= cell.length || cell[id] == -1) return;
+        unlink(id);
+        size--;
+    }
+
+    /**
+     * Method for moving point, lists are touched only if point changes cell
+     * @param id id of point present in hash
+     * @param x new x coordinate
+     * @param y new y coordinate
+     */
+    public void move(int id, double x, double y) {
+        long key = key(x, y);
+        if (cell[id] == key) return;
+        unlink(id);
+        link(id, key);
+    }
+
+    /**
+     * Method for finding points in cells intersecting rectangle - result is superset of points inside of it,
+     * exact test is left to caller
+     * @param x0 minimal x coordinate of rectangle
+     * @param y0 minimal y coordinate of rectangle
+     * @param x1 maximal x coordinate of rectangle
+     * @param y1 maximal y coordinate of rectangle
+     * @param out list ids of found points get appended to, in no particular order
+     */
+    public void query(double x0, double y0, double x1, double y1, IntList out) {
+        long fromX = coordinate(x0);
+        long toX = coordinate(x1);
+        long fromY = coordinate(y0);
+        long toY = coordinate(y1);
+        for (long cx = fromX; cx <= toX; cx++) {
+            for (long cy = fromY; cy <= toY; cy++) {
+                for (int id = heads.get((cx << 32) | cy); id != -1; id = next[id]) {
+                    out.add(id);
+                }
+            }
+        }
+    }
+
+    /**
+     * Method for getting number of points
+     * @return number of points
+     */
+    public int size() {
+        return size;
+    }
+
+    private long coordinate(double value) {
+        long c = (long) Math.floor(value / cellSize) + OFFSET;
+        return Math.max(0, Math.min(2 * OFFSET - 1, c));
+    }
+
+    private long key(double x, double y) {
+        return (coordinate(x) << 32) | coordinate(y);
+    }
+
+    /* point becomes new head of list of its cell */
+    private void link(int id, long key) {
+        int head = heads.put(key, id);
+        cell[id] = key;
+        next[id] = head;
+        previous[id] = -1;
+        if (head != -1) previous[head] = id;
+    }
+
+    private void unlink(int id) {
+        if (previous[id] != -1) next[previous[id]] = next[id];
+        else if (next[id] != -1) heads.put(cell[id], next[id]);
+        else heads.remove(cell[id]);
+        if (next[id] != -1) previous[next[id]] = previous[id];
+        cell[id] = -1;
+    }
+
+    private void grow(int capacity) {
+        int oldCapacity = cell.length;
+        cell = Arrays.copyOf(cell, capacity);
+        Arrays.fill(cell, oldCapacity, capacity, -1);
+        next = Arrays.copyOf(next, capacity);
+        previous = Arrays.copyOf(previous, capacity);
+    }
+}
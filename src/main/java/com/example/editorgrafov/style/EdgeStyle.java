@@ -0,0 +1,68 @@
+package com.example.editorgrafov.style;
+
+import javafx.scene.paint.Color;
+
+import java.util.Objects;
+
+/**
+ * Class representing immutable style of edge - shared by all edges drawn the same way (flyweight). <br>
+ * - instances are interned in StyleTable, edges only hold id of their style
+ */
+public final class EdgeStyle {
+
+    /**
+     * Style of edges created before anything is customized, also given to edges of formats that do not store styles
+     */
+    public static final EdgeStyle DEFAULT = new EdgeStyle(Color.BLACK, 1);
+
+    private final Color color;
+    private final int width;
+
+    /**
+     * Constructor of EdgeStyle object
+     * @param color color of line representing edge
+     * @param width width of line representing edge
+     */
+    public EdgeStyle(Color color, int width) {
+        this.color = Objects.requireNonNull(color);
+        this.width = width;
+    }
+
+    /**
+     * Method for getting color of line representing edge
+     * @return color
+     */
+    public Color getColor() {
+        return color;
+    }
+
+    /**
+     * Method for getting width of line representing edge
+     * @return width
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Standard equals method for comparing styles
+     * @param other style to compare to
+     * @return boolean value: true if styles are equal, false otherwise
+     */
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) return true;
+        if (other == null || getClass() != other.getClass()) return false;
+        EdgeStyle style = (EdgeStyle) other;
+        return width == style.width && color.equals(style.color);
+    }
+
+    /**
+     * Standard method for hashing style object
+     * @return hash value
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(color, width);
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.editorgrafov.style;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Class representing table of interned styles - every distinct style is stored once and identified by small int id. <br>
+ * - ids are assigned sequentially from 0 and never change, styles are never removed <br>
+ * - graph elements hold only id of their style, so equal styles share one object (and its Font/Color)
+ * @param <S> type of style, has to implement equals() and hashCode()
+ */
+public class StyleTable<S> {
+
+    private final List<S> styles = new ArrayList<>();
+    private final Map<S, Integer> ids = new HashMap<>();
+
+    /**
+     * Method for getting id of style, style is added into table if it is not present yet
+     * @param style style
+     * @return id of style, or of equal style already present in table
+     */
+    public int intern(S style) {
+        Integer id = ids.get(style);
+        if (id != null) return id;
+        styles.add(style);
+        ids.put(style, styles.size() - 1);
+        return styles.size() - 1;
+    }
+
+    /**
+     * Method for getting style stored under id
+     * @param id id of style
+     * @return style
+     */
+    public S get(int id) {
+        return styles.get(id);
+    }
+
+    /**
+     * Method for getting number of styles in table, ids are in range [0, size())
+     * @return number of styles
+     */
+    public int size() {
+        return styles.size();
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.editorgrafov.style;
+
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+import javafx.scene.text.Text;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Class holding shared fonts of vertex texts and widths of texts measured in them. <br>
+ * - every (font family, size) is resolved by Font.font() once, equal fonts are the same object <br>
+ * - width of text is measured once per (font, text) by single off-scene Text node, views reuse it without text layout <br>
+ * - widths of a font are forgotten once there are MAX_WIDTHS of them, so memory stays bounded for huge graphs <br>
+ * - used only from JavaFX application thread
+ */
+public final class TextMetrics {
+
+    private static final int MAX_WIDTHS = 1 << 17;
+
+    /* font family -> size -> font */
+    private static final Map<String, Map<Integer, Font>> fonts = new HashMap<>();
+    /* font (compared by identity, fonts are shared) -> text -> width */
+    private static final Map<Font, Map<String, Double>> widths = new IdentityHashMap<>();
+    private static final Text measuringText = new Text();
+
+    private TextMetrics() {
+    }
+
+    /**
+     * Method for getting bold font of vertex texts, font is created on first request only
+     * @param fontName font family
+     * @param textSize size of font
+     * @return shared font
+     */
+    public static Font font(String fontName, int textSize) {
+        return fonts.computeIfAbsent(fontName, name -> new HashMap<>())
+                .computeIfAbsent(textSize, size -> Font.font(fontName, FontWeight.BOLD, size));
+    }
+
+    /**
+     * Method for getting width of text drawn in font, text is laid out on first request only
+     * @param font font (obtained from font())
+     * @param text text
+     * @return width of text
+     */
+    public static double width(Font font, String text) {
+        Map<String, Double> fontWidths = widths.computeIfAbsent(font, f -> new HashMap<>());
+        Double width = fontWidths.get(text);
+        if (width != null) return width;
+        if (fontWidths.size() == MAX_WIDTHS) fontWidths.clear();
+        measuringText.setFont(font);
+        measuringText.setText(text);
+        width = measuringText.getBoundsInLocal().getWidth();
+        fontWidths.put(text, width);
+        return width;
+    }
+}
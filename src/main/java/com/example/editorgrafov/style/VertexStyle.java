@@ -0,0 +1,102 @@
+package com.example.editorgrafov.style;
+
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+
+import java.util.Objects;
+
+/**
+ * Class representing immutable style of vertex - shared by all vertices drawn the same way (flyweight). <br>
+ * - instances are interned in StyleTable, vertices only hold id of their style <br>
+ * - Font is taken from TextMetrics on first use, styles of the same font family and text size share it
+ */
+public final class VertexStyle {
+
+    /**
+     * Style of vertices created before anything is customized, also given to vertices of formats that do not store styles
+     */
+    public static final VertexStyle DEFAULT = new VertexStyle(Color.YELLOW, "System Regular", 12, 30);
+
+    private final Color fill;
+    private final String fontName;
+    private final int textSize;
+    private final int radius;
+    private Font font;
+
+    /**
+     * Constructor of VertexStyle object
+     * @param fill color of circle representing vertex
+     * @param fontName font family of text inside of vertex
+     * @param textSize size of text inside of vertex
+     * @param radius radius of circle representing vertex
+     */
+    public VertexStyle(Color fill, String fontName, int textSize, int radius) {
+        this.fill = Objects.requireNonNull(fill);
+        this.fontName = Objects.requireNonNull(fontName);
+        this.textSize = textSize;
+        this.radius = radius;
+    }
+
+    /**
+     * Method for getting color of circle representing vertex
+     * @return color
+     */
+    public Color getFill() {
+        return fill;
+    }
+
+    /**
+     * Method for getting font family of text inside of vertex
+     * @return font family
+     */
+    public String getFontName() {
+        return fontName;
+    }
+
+    /**
+     * Method for getting size of text inside of vertex
+     * @return text size
+     */
+    public int getTextSize() {
+        return textSize;
+    }
+
+    /**
+     * Method for getting radius of circle representing vertex
+     * @return radius
+     */
+    public int getRadius() {
+        return radius;
+    }
+
+    /**
+     * Method for getting font of text inside of vertex, same object is returned for every vertex of this style
+     * @return bold font of fontName and textSize
+     */
+    public Font getFont() {
+        if (font == null) font = TextMetrics.font(fontName, textSize);
+        return font;
+    }
+
+    /**
+     * Standard equals method for comparing styles
+     * @param other style to compare to
+     * @return boolean value: true if styles are equal, false otherwise
+     */
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) return true;
+        if (other == null || getClass() != other.getClass()) return false;
+        VertexStyle style = (VertexStyle) other;
+        return textSize == style.textSize && radius == style.radius && fill.equals(style.fill) && fontName.equals(style.fontName);
+    }
+
+    /**
+     * Standard method for hashing style object
+     * @return hash value
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(fill, fontName, textSize, radius);
+    }
+}
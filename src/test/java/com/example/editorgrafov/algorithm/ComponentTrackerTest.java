@@ -0,0 +1,177 @@
+package com.example.editorgrafov.algorithm;
+
+import com.example.editorgrafov.io.ProgressMonitor;
+import com.example.editorgrafov.model.GraphModel;
+import com.example.editorgrafov.model.IntList;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ComponentTrackerTest {
+
+    private static GraphModel randomGraph(Random random, int vertices, int edges) {
+        GraphModel graph = new GraphModel();
+        for (int i = 0; i < vertices; i++) {
+            graph.addVertex("v" + i, random.nextInt(1000), random.nextInt(1000));
+        }
+        for (int i = 0; i < edges; i++) {
+            int from = random.nextInt(vertices);
+            int to = random.nextInt(vertices);
+            if (from != to && graph.findEdge(from, to) == -1) graph.addEdge(from, to);
+        }
+        return graph;
+    }
+
+    private static int randomVertex(Random random, GraphModel graph) {
+        int id;
+        do {
+            id = random.nextInt(graph.vertexSlots());
+        } while (!graph.isVertex(id));
+        return id;
+    }
+
+    private static int randomEdge(Random random, GraphModel graph) {
+        int id;
+        do {
+            id = random.nextInt(graph.edgeSlots());
+        } while (!graph.isEdge(id));
+        return id;
+    }
+
+    /* incrementally kept components have to be the same partition as components labelled from scratch */
+    private static void assertSameAsRelabel(GraphModel graph, ComponentTracker tracker) {
+        ComponentTracker expected = ComponentTracker.compute(graph, ProgressMonitor.NONE);
+        assertEquals(expected.getComponentCount(), tracker.getComponentCount());
+        assertArrayEquals(expected.largestSizes(Integer.MAX_VALUE), tracker.largestSizes(Integer.MAX_VALUE));
+        //group of expected -> group of tracker, groups have to map one to one
+        Map<Integer, Integer> groupOf = new HashMap<>();
+        Map<Integer, Integer> inverse = new HashMap<>();
+        for (int id = 0; id < graph.vertexSlots(); id++) {
+            if (!graph.isVertex(id)) {
+                assertEquals(Highlight.NONE, tracker.vertexGroup(id));
+                continue;
+            }
+            int expectedGroup = expected.vertexGroup(id);
+            int group = tracker.vertexGroup(id);
+            if (!groupOf.containsKey(expectedGroup)) {
+                groupOf.put(expectedGroup, group);
+                assertNull(inverse.put(group, expectedGroup), "two components share group");
+            }
+            assertEquals(groupOf.get(expectedGroup), group, "component of vertex " + id + " differs");
+            assertEquals(expected.componentSize(id), tracker.componentSize(id));
+        }
+    }
+
+    @Test
+    void pathIsSplitByRemovedEdge() {
+        GraphModel graph = new GraphModel();
+        for (int i = 0; i < 6; i++) {
+            graph.addVertex("v" + i, i, 0);
+            if (i > 0) graph.addEdge(i - 1, i);
+        }
+        ComponentTracker tracker = ComponentTracker.compute(graph, ProgressMonitor.NONE);
+        assertEquals(1, tracker.getComponentCount());
+
+        graph.removeEdge(graph.findEdge(3, 4));
+        tracker.edgeRemoved(3, 4);
+        assertEquals(2, tracker.getComponentCount());
+        assertArrayEquals(new int[] {4, 2}, tracker.largestSizes(5));
+        assertSameAsRelabel(graph, tracker);
+    }
+
+    @Test
+    void cycleIsNotSplitByRemovedEdge() {
+        GraphModel graph = new GraphModel();
+        for (int i = 0; i < 5; i++) {
+            graph.addVertex("v" + i, i, 0);
+        }
+        for (int i = 0; i < 5; i++) {
+            graph.addEdge(i, (i + 1) % 5);
+        }
+        ComponentTracker tracker = ComponentTracker.compute(graph, ProgressMonitor.NONE);
+        graph.removeEdge(graph.findEdge(0, 1));
+        tracker.edgeRemoved(0, 1);
+        assertEquals(1, tracker.getComponentCount());
+        assertSameAsRelabel(graph, tracker);
+    }
+
+    @Test
+    void starIsSplitByRemovedCenter() {
+        GraphModel graph = new GraphModel();
+        int center = graph.addVertex("center", 0, 0);
+        for (int i = 0; i < 4; i++) {
+            graph.addEdge(center, graph.addVertex("leaf" + i, i, 1));
+        }
+        ComponentTracker tracker = ComponentTracker.compute(graph, ProgressMonitor.NONE);
+        int[] neighbours = new int[graph.degree(center)];
+        for (int i = 0; i < neighbours.length; i++) {
+            neighbours[i] = graph.opposite(graph.incidentEdge(center, i), center);
+        }
+        graph.removeVertex(center);
+        tracker.vertexRemoved(center, neighbours);
+        assertEquals(4, tracker.getComponentCount());
+        assertSameAsRelabel(graph, tracker);
+    }
+
+    @Test
+    void randomEditsMatchRelabel() {
+        Random random = new Random(42);
+        GraphModel graph = randomGraph(random, 400, 500);
+        ComponentTracker tracker = ComponentTracker.compute(graph, ProgressMonitor.NONE);
+        int added = 0;
+        //enough edits to abandon more nodes than there are vertices, so labelling gets rebuilt on the way
+        for (int step = 0; step < 4000; step++) {
+            int edit = random.nextInt(10);
+            if (edit < 4 && graph.edgeCount() > 0) {
+                int edge = randomEdge(random, graph);
+                int from = graph.getFrom(edge);
+                int to = graph.getTo(edge);
+                graph.removeEdge(edge);
+                tracker.edgeRemoved(from, to);
+            }
+            else if (edit < 7 && graph.vertexCount() > 1) {
+                int from = randomVertex(random, graph);
+                int to = randomVertex(random, graph);
+                if (from == to || graph.findEdge(from, to) != -1) continue;
+                graph.addEdge(from, to);
+                tracker.edgeAdded(from, to);
+            }
+            else if (edit < 8 && graph.vertexCount() > 1) {
+                //removal as made by editor - neighbours are collected before edges go away with vertex
+                int id = randomVertex(random, graph);
+                IntList neighbours = new IntList();
+                for (int i = 0; i < graph.degree(id); i++) {
+                    neighbours.add(graph.opposite(graph.incidentEdge(id, i), id));
+                }
+                graph.removeVertex(id);
+                tracker.vertexRemoved(id, neighbours.toArray());
+            }
+            else if (edit < 9 && graph.vertexCount() > 1) {
+                //removal as made by undo - edges are removed one by one first, then isolated vertex
+                int id = randomVertex(random, graph);
+                while (graph.degree(id) > 0) {
+                    int edge = graph.incidentEdge(id, 0);
+                    int from = graph.getFrom(edge);
+                    int to = graph.getTo(edge);
+                    graph.removeEdge(edge);
+                    tracker.edgeRemoved(from, to);
+                }
+                graph.removeVertex(id);
+                tracker.vertexRemoved(id, new int[0]);
+            }
+            else {
+                //slot of removed vertex is reused
+                int id = graph.addVertex("added" + added++, random.nextInt(1000), random.nextInt(1000));
+                tracker.vertexAdded(id);
+            }
+            if (step % 200 == 0) assertSameAsRelabel(graph, tracker);
+        }
+        assertSameAsRelabel(graph, tracker);
+    }
+}
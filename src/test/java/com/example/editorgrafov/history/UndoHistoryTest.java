@@ -0,0 +1,283 @@
+package com.example.editorgrafov.history;
+
+import com.example.editorgrafov.model.GraphModel;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UndoHistoryTest {
+
+    /* changes reported by commands, in order */
+    private final List<String> changes = new ArrayList<>();
+    private final GraphChangeListener listener = new GraphChangeListener() {
+        @Override
+        public void vertexAdded(int id) {
+            changes.add("+v" + id);
+        }
+
+        @Override
+        public void vertexRemoved(int id, String label) {
+            changes.add("-v " + label);
+        }
+
+        @Override
+        public void edgeAdded(int id) {
+            changes.add("+e" + id);
+        }
+
+        @Override
+        public void edgeRemoved(int id, String from, String to) {
+            changes.add("-e " + from + " " + to);
+        }
+
+        @Override
+        public void vertexMoved(int id) {
+            changes.add("m" + id);
+        }
+    };
+
+    private final GraphModel graph = new GraphModel();
+    private final UndoHistory history = new UndoHistory();
+
+    /* command holding given number of elements, it does not change graph */
+    private static EditCommand sized(int size) {
+        return new EditCommand() {
+            @Override
+            public void undo(GraphModel graph, GraphChangeListener listener) {
+            }
+
+            @Override
+            public void redo(GraphModel graph, GraphChangeListener listener) {
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+
+            @Override
+            public String getDescription() {
+                return "edit of " + size + " elements";
+            }
+        };
+    }
+
+    private int[] incidentEdges(int vertex) {
+        int[] edges = new int[graph.degree(vertex)];
+        for (int i = 0; i < edges.length; i++) {
+            edges[i] = graph.incidentEdge(vertex, i);
+        }
+        return edges;
+    }
+
+    private void insertVertex(String label, double x, double y) {
+        int id = graph.addVertex(label, x, y);
+        history.push(ElementsCommand.inserted(graph, new int[] {id}, new int[0], "insertion of vertex \"" + label + "\""));
+    }
+
+    private void insertEdge(String from, String to) {
+        int id = graph.addEdge(graph.indexOf(from), graph.indexOf(to));
+        history.push(ElementsCommand.inserted(graph, new int[0], new int[] {id}, "addition of edge"));
+    }
+
+    private void removeVertex(String label) {
+        int id = graph.indexOf(label);
+        history.push(ElementsCommand.removed(graph, new int[] {id}, incidentEdges(id), "removal of vertex \"" + label + "\""));
+        graph.removeVertex(id);
+    }
+
+    @Test
+    void insertionIsUndoneAndRedone() {
+        insertVertex("a", 10, 20);
+        EditCommand undone = history.undo(graph, listener);
+        assertEquals("insertion of vertex \"a\"", undone.getDescription());
+        assertFalse(graph.containsVertex("a"));
+        assertEquals(List.of("-v a"), changes);
+
+        assertSame(undone, history.redo(graph, listener));
+        int id = graph.indexOf("a");
+        assertEquals(10, graph.getX(id));
+        assertEquals(20, graph.getY(id));
+        assertNull(history.redo(graph, listener));
+    }
+
+    @Test
+    void removedVertexComesBackWithEdgesAndStyles() {
+        insertVertex("a", 0, 0);
+        insertVertex("b", 1, 0);
+        insertVertex("c", 2, 0);
+        insertEdge("a", "b");
+        insertEdge("c", "a");
+        graph.setVertexStyle(graph.indexOf("a"), 3);
+        graph.setEdgeStyle(graph.findEdge(graph.indexOf("c"), graph.indexOf("a")), 2);
+        removeVertex("a");
+        assertEquals(0, graph.edgeCount());
+
+        changes.clear();
+        history.undo(graph, listener);
+        int a = graph.indexOf("a");
+        assertEquals(3, graph.getVertexStyle(a));
+        assertTrue(graph.containsEdge(a, graph.indexOf("b")));
+        int edge = graph.findEdge(graph.indexOf("c"), a);
+        assertEquals(2, graph.getEdgeStyle(edge));
+        //direction of edge is kept
+        assertEquals("c", graph.getLabel(graph.getFrom(edge)));
+        //vertex is added before its edges
+        assertTrue(changes.get(0).startsWith("+v"));
+        assertEquals(3, changes.size());
+
+        changes.clear();
+        history.redo(graph, listener);
+        assertFalse(graph.containsVertex("a"));
+        assertEquals(0, graph.edgeCount());
+        //edges are removed before vertex
+        assertEquals("-v a", changes.get(changes.size() - 1));
+    }
+
+    @Test
+    void undoFindsElementsByValueAfterIdReuse() {
+        insertVertex("a", 0, 0);
+        insertVertex("b", 1, 1);
+        insertEdge("a", "b");
+        int oldId = graph.indexOf("a");
+        removeVertex("a");
+        //takes slot of removed vertex
+        insertVertex("x", 5, 5);
+        insertEdge("x", "b");
+        assertEquals(oldId, graph.indexOf("x"));
+
+        history.undo(graph, listener);
+        history.undo(graph, listener);
+        assertFalse(graph.containsVertex("x"));
+        history.undo(graph, listener);
+        assertTrue(graph.containsEdge(graph.indexOf("a"), graph.indexOf("b")));
+
+        history.redo(graph, listener);
+        history.redo(graph, listener);
+        history.redo(graph, listener);
+        assertFalse(graph.containsVertex("a"));
+        assertTrue(graph.containsEdge(graph.indexOf("x"), graph.indexOf("b")));
+        assertEquals(2, graph.vertexCount());
+        assertEquals(1, graph.edgeCount());
+    }
+
+    @Test
+    void clearedGraphIsRestored() {
+        insertVertex("a", 0, 0);
+        insertVertex("b", 1, 1);
+        insertEdge("b", "a");
+        history.push(ElementsCommand.cleared(graph, "clearing of canvas"));
+        graph.clear();
+
+        history.undo(graph, listener);
+        assertEquals(2, graph.vertexCount());
+        int edge = graph.findEdge(graph.indexOf("b"), graph.indexOf("a"));
+        assertEquals("b", graph.getLabel(graph.getFrom(edge)));
+    }
+
+    @Test
+    void movesOfDragAreCoalesced() {
+        insertVertex("a", 0, 0);
+        insertVertex("b", 10, 10);
+        insertVertex("c", 20, 20);
+        int a = graph.indexOf("a");
+        int b = graph.indexOf("b");
+        int c = graph.indexOf("c");
+        MoveCommand.Recorder recorder = new MoveCommand.Recorder();
+        //dragged vertex moves many times, only its first position counts
+        for (int step = 1; step <= 5; step++) {
+            recorder.record(a, graph.getX(a), graph.getY(a));
+            graph.setPosition(a, step, 2 * step);
+        }
+        recorder.record(b, graph.getX(b), graph.getY(b));
+        graph.setPosition(b, 15, 15);
+        //pushed away and back again
+        recorder.record(c, graph.getX(c), graph.getY(c));
+        graph.setPosition(c, 25, 25);
+        graph.setPosition(c, 20, 20);
+
+        MoveCommand command = recorder.build(graph, "drag of vertex \"a\"");
+        assertEquals(2, command.size());
+        history.push(command);
+        history.undo(graph, listener);
+        assertEquals(0, graph.getX(a));
+        assertEquals(0, graph.getY(a));
+        assertEquals(10, graph.getX(b));
+        assertEquals(List.of("m" + a, "m" + b), changes.subList(changes.size() - 2, changes.size()));
+        history.redo(graph, listener);
+        assertEquals(5, graph.getX(a));
+        assertEquals(10, graph.getY(a));
+        assertEquals(15, graph.getY(b));
+
+        //recorder is emptied by build, drag that ends where it started makes no command
+        recorder.record(a, graph.getX(a), graph.getY(a));
+        assertNull(recorder.build(graph, "drag of vertex \"a\""));
+    }
+
+    @Test
+    void newEditForgetsUndoneEdits() {
+        insertVertex("a", 0, 0);
+        history.undo(graph, listener);
+        insertVertex("b", 0, 0);
+        assertNull(history.redo(graph, listener));
+        assertNotNull(history.undo(graph, listener));
+        assertNull(history.undo(graph, listener));
+    }
+
+    @Test
+    void oldestCommandsAreDroppedOverCommandLimit() {
+        for (int i = 0; i <= UndoHistory.MAX_COMMANDS; i++) {
+            insertVertex("v" + i, i, i);
+        }
+        for (int i = 0; i < UndoHistory.MAX_COMMANDS; i++) {
+            assertNotNull(history.undo(graph, listener));
+        }
+        assertNull(history.undo(graph, listener));
+        //insertion of the very first vertex was dropped
+        assertEquals(1, graph.vertexCount());
+        assertTrue(graph.containsVertex("v0"));
+    }
+
+    @Test
+    void oldestCommandsAreDroppedOverElementLimit() {
+        int half = (int) (UndoHistory.MAX_ELEMENTS / 2);
+        EditCommand first = sized(half);
+        EditCommand second = sized(half);
+        EditCommand third = sized(1);
+        history.push(first);
+        history.push(second);
+        history.push(third);
+        assertSame(third, history.undo(graph, listener));
+        assertSame(second, history.undo(graph, listener));
+        assertNull(history.undo(graph, listener));
+    }
+
+    @Test
+    void forgottenRedoCommandsFreeTheirElements() {
+        int half = (int) (UndoHistory.MAX_ELEMENTS / 2);
+        history.push(sized(half));
+        history.undo(graph, listener);
+        EditCommand second = sized(half);
+        EditCommand third = sized(half);
+        history.push(second);
+        history.push(third);
+        assertSame(third, history.undo(graph, listener));
+        assertSame(second, history.undo(graph, listener));
+    }
+
+    @Test
+    void commandOverElementLimitClearsHistory() {
+        insertVertex("a", 0, 0);
+        history.push(sized((int) UndoHistory.MAX_ELEMENTS + 1));
+        assertNull(history.undo(graph, listener));
+        assertNull(history.redo(graph, listener));
+    }
+}
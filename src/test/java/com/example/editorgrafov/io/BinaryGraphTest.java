@@ -0,0 +1,160 @@
+package com.example.editorgrafov.io;
+
+import com.example.editorgrafov.model.GraphModel;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BinaryGraphTest {
+
+    /* offset of flags byte - after MAGIC and VERSION byte */
+    private static final int FLAGS_OFFSET = BinaryGraphFormat.MAGIC.length + 1;
+
+    @TempDir
+    Path directory;
+
+    private GraphModel roundTrip(GraphModel graph) throws IOException {
+        Path path = directory.resolve("graph.egb");
+        BinaryGraphWriter.write(graph, path);
+        assertEquals(GraphFormat.BINARY, GraphFormat.detect(path));
+        return BinaryGraphReader.read(path);
+    }
+
+    /* same vertices (by value and position) and edges (by values of endpoints, in their direction) */
+    private static void assertSameGraph(GraphModel expected, GraphModel actual) {
+        assertEquals(expected.vertexCount(), actual.vertexCount());
+        assertEquals(expected.edgeCount(), actual.edgeCount());
+        for (int id = 0; id < expected.vertexSlots(); id++) {
+            if (!expected.isVertex(id)) continue;
+            int read = actual.indexOf(expected.getLabel(id));
+            assertTrue(read != -1, "missing vertex " + expected.getLabel(id));
+            assertEquals(expected.getX(id), actual.getX(read));
+            assertEquals(expected.getY(id), actual.getY(read));
+        }
+        for (int id = 0; id < expected.edgeSlots(); id++) {
+            if (!expected.isEdge(id)) continue;
+            int edge = actual.findEdge(actual.indexOf(expected.getLabel(expected.getFrom(id))),
+                    actual.indexOf(expected.getLabel(expected.getTo(id))));
+            assertTrue(edge != -1, "missing edge");
+            assertEquals(expected.getLabel(expected.getFrom(id)), actual.getLabel(actual.getFrom(edge)));
+            assertEquals(expected.getLabel(expected.getTo(id)), actual.getLabel(actual.getTo(edge)));
+        }
+    }
+
+    private static void putVarint(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private Path header(int flags, long vertices, long edges) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(BinaryGraphFormat.MAGIC);
+        out.write(BinaryGraphFormat.VERSION);
+        out.write(flags);
+        putVarint(out, vertices);
+        putVarint(out, edges);
+        Path path = directory.resolve("corrupted.egb");
+        Files.write(path, out.toByteArray());
+        return path;
+    }
+
+    @Test
+    void idsAreRenumberedDenselyAfterReuse() throws IOException {
+        GraphModel graph = new GraphModel();
+        for (int i = 0; i < 10; i++) {
+            graph.addVertex("v" + i, i, 2 * i);
+        }
+        for (int i = 1; i < 10; i++) {
+            graph.addEdge(i - 1, i);
+        }
+        graph.addEdge(0, 9);
+        graph.removeVertex(graph.indexOf("v3"));
+        graph.removeVertex(graph.indexOf("v7"));
+        //reuses slot of removed vertex, so ids are no longer in order of insertion
+        int reused = graph.addVertex("reused", 50, 60);
+        graph.addEdge(graph.indexOf("v9"), reused);
+        graph.addEdge(reused, graph.indexOf("v1"));
+
+        GraphModel read = roundTrip(graph);
+        assertSameGraph(graph, read);
+        assertEquals(read.vertexCount(), read.vertexSlots());
+    }
+
+    @Test
+    void coordinatesAreStoredAsFloatOnlyIfExact() throws IOException {
+        Path path = directory.resolve("graph.egb");
+        GraphModel exact = new GraphModel();
+        exact.addVertex("a", 1.5, -20);
+        exact.addVertex("b", 1e6, 0.25);
+        BinaryGraphWriter.write(exact, path);
+        assertEquals(BinaryGraphFormat.FLAG_FLOAT_COORDINATES, Files.readAllBytes(path)[FLAGS_OFFSET]);
+        assertSameGraph(exact, BinaryGraphReader.read(path));
+
+        GraphModel precise = new GraphModel();
+        precise.addVertex("a", 1.5, -20);
+        precise.addVertex("b", 0.1, 123456789.123);
+        BinaryGraphWriter.write(precise, path);
+        assertEquals(0, Files.readAllBytes(path)[FLAGS_OFFSET]);
+        assertSameGraph(precise, BinaryGraphReader.read(path));
+    }
+
+    @Test
+    void directionOfEdgesIsKept() throws IOException {
+        GraphModel graph = new GraphModel();
+        int a = graph.addVertex("a", 0, 0);
+        int b = graph.addVertex("b", 1, 0);
+        int c = graph.addVertex("c", 2, 0);
+        //edges from higher to lower vertex are stored with reversed bit
+        graph.addEdge(b, a);
+        graph.addEdge(a, c);
+        graph.addEdge(c, b);
+        assertSameGraph(graph, roundTrip(graph));
+    }
+
+    @Test
+    void emptyGraphIsReadBack() throws IOException {
+        assertSameGraph(new GraphModel(), roundTrip(new GraphModel()));
+    }
+
+    @Test
+    void countsBiggerThanFileAreRejected() throws IOException {
+        assertThrows(IOException.class, () -> BinaryGraphReader.read(header(0, Integer.MAX_VALUE, 0)));
+        assertThrows(IOException.class, () -> BinaryGraphReader.read(header(1, 0, Integer.MAX_VALUE)));
+        assertThrows(IOException.class, () -> BinaryGraphReader.read(header(1, 1L << 40, 1)));
+    }
+
+    @Test
+    void labelLongerThanFileIsRejected() throws IOException {
+        Path path = header(1, 1, 0);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        putVarint(out, Integer.MAX_VALUE);
+        //rest of vertex, so counts alone fit into file
+        out.write(new byte[2 * Float.BYTES + 1]);
+        Files.write(path, out.toByteArray(), StandardOpenOption.APPEND);
+        assertThrows(IOException.class, () -> BinaryGraphReader.read(path));
+    }
+
+    @Test
+    void truncatedFileIsRejected() throws IOException {
+        GraphModel graph = new GraphModel();
+        graph.addEdge(graph.addVertex("a", 0, 0), graph.addVertex("b", 1, 1));
+        Path path = directory.resolve("graph.egb");
+        BinaryGraphWriter.write(graph, path);
+        byte[] bytes = Files.readAllBytes(path);
+        Files.write(path, Arrays.copyOf(bytes, bytes.length - 1));
+        assertThrows(IOException.class, () -> BinaryGraphReader.read(path));
+    }
+}
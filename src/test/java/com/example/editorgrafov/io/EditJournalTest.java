@@ -0,0 +1,198 @@
+package com.example.editorgrafov.io;
+
+import com.example.editorgrafov.model.GraphModel;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EditJournalTest {
+
+    @TempDir
+    Path directory;
+
+    private Path snapshot(GraphModel graph) throws IOException {
+        Path snapshot = directory.resolve("graph.txt");
+        PlainGraphWriter.write(graph, snapshot);
+        return snapshot;
+    }
+
+    private static GraphModel triangle() {
+        GraphModel graph = new GraphModel();
+        int a = graph.addVertex("a", 0, 0);
+        int b = graph.addVertex("b", 100, 0);
+        int c = graph.addVertex("c", 0, 100);
+        graph.addEdge(a, b);
+        graph.addEdge(b, c);
+        graph.addEdge(c, a);
+        return graph;
+    }
+
+    private static GraphModel reopen(Path snapshot) throws IOException {
+        GraphModel graph = PlainGraphReader.read(snapshot);
+        EditJournal.replay(graph, snapshot, ProgressMonitor.NONE);
+        return graph;
+    }
+
+    @Test
+    void appendedEditsAreReplayed() throws IOException {
+        GraphModel graph = triangle();
+        Path snapshot = snapshot(graph);
+        EditJournal journal = new EditJournal();
+
+        int d = graph.addVertex("d", 50, 50);
+        journal.addVertex("d", 50, 50);
+        graph.addEdge(d, graph.indexOf("a"));
+        journal.addEdge("d", "a");
+        graph.removeEdge(graph.findEdge(graph.indexOf("b"), graph.indexOf("c")));
+        journal.removeEdge("b", "c");
+        graph.setPosition(graph.indexOf("b"), 200, 10);
+        journal.moveVertex(graph.indexOf("b"));
+        assertTrue(journal.canAppendTo(snapshot));
+        EditJournal.append(snapshot, journal.drain(graph));
+
+        //second save appends behind the first one
+        graph.removeVertex(graph.indexOf("c"));
+        journal.removeVertex("c");
+        EditJournal.append(snapshot, journal.drain(graph));
+
+        GraphModel read = reopen(snapshot);
+        assertEquals(3, read.vertexCount());
+        assertEquals(2, read.edgeCount());
+        assertFalse(read.containsVertex("c"));
+        assertTrue(read.containsEdge(read.indexOf("d"), read.indexOf("a")));
+        assertEquals(200, read.getX(read.indexOf("b")));
+        assertEquals(10, read.getY(read.indexOf("b")));
+    }
+
+    @Test
+    void appendCutsOffTornTail() throws IOException {
+        GraphModel graph = triangle();
+        Path snapshot = snapshot(graph);
+        EditJournal journal = new EditJournal();
+        journal.addVertex("d", 1, 2);
+        EditJournal.append(snapshot, journal.drain(graph));
+        Path journalPath = EditJournal.pathOf(snapshot);
+        long validSize = Files.size(journalPath);
+
+        //crash during append - half of a record is left behind
+        journal.addVertex("torn", 3, 4);
+        byte[] torn = journal.drain(graph);
+        Files.write(journalPath, Arrays.copyOf(torn, torn.length / 2), StandardOpenOption.APPEND);
+        GraphModel afterCrash = reopen(snapshot);
+        assertTrue(afterCrash.containsVertex("d"));
+        assertFalse(afterCrash.containsVertex("torn"));
+
+        journal.addVertex("e", 5, 6);
+        assertTrue(journal.canAppendTo(snapshot));
+        byte[] records = journal.drain(afterCrash);
+        EditJournal.append(snapshot, records);
+        assertEquals(validSize + records.length, Files.size(journalPath));
+
+        GraphModel read = reopen(snapshot);
+        assertTrue(read.containsVertex("d"));
+        assertTrue(read.containsVertex("e"));
+        assertFalse(read.containsVertex("torn"));
+    }
+
+    @Test
+    void appendCutsOffCorruptedRecord() throws IOException {
+        GraphModel graph = triangle();
+        Path snapshot = snapshot(graph);
+        EditJournal journal = new EditJournal();
+        journal.addVertex("d", 1, 2);
+        EditJournal.append(snapshot, journal.drain(graph));
+        journal.addVertex("corrupted", 1, 2);
+        EditJournal.append(snapshot, journal.drain(graph));
+
+        //last byte of checksum of second record gets flipped
+        Path journalPath = EditJournal.pathOf(snapshot);
+        byte[] bytes = Files.readAllBytes(journalPath);
+        bytes[bytes.length - 1] ^= 0xFF;
+        Files.write(journalPath, bytes);
+
+        journal.addVertex("e", 5, 6);
+        EditJournal.append(snapshot, journal.drain(graph));
+        GraphModel read = reopen(snapshot);
+        assertTrue(read.containsVertex("d"));
+        assertFalse(read.containsVertex("corrupted"));
+        assertTrue(read.containsVertex("e"));
+    }
+
+    @Test
+    void journalOfOtherSnapshotIsIgnored() throws IOException {
+        GraphModel graph = triangle();
+        Path snapshot = snapshot(graph);
+        EditJournal journal = new EditJournal();
+        journal.addVertex("d", 1, 2);
+        EditJournal.append(snapshot, journal.drain(graph));
+
+        //snapshot gets written whole again without deleting journal
+        graph.addVertex("x", 7, 7);
+        PlainGraphWriter.write(graph, snapshot);
+        GraphModel read = PlainGraphReader.read(snapshot);
+        assertEquals(0, EditJournal.replay(read, snapshot, ProgressMonitor.NONE));
+        assertFalse(read.containsVertex("d"));
+        assertFalse(new EditJournal().canAppendTo(snapshot));
+    }
+
+    @Test
+    void bigJournalIsCompactedByFullSave() throws IOException {
+        GraphModel graph = triangle();
+        Path snapshot = snapshot(graph);
+        EditJournal journal = new EditJournal();
+        journal.addVertex("d", 1, 2);
+        assertTrue(journal.canAppendTo(snapshot));
+
+        //journal would outgrow both MIN_COMPACTION_SIZE and half of tiny snapshot
+        for (int i = 0; i < 5000; i++) {
+            journal.addVertex("vertex" + i, i, i);
+        }
+        assertFalse(journal.canAppendTo(snapshot));
+        journal.drain(graph);
+        assertTrue(journal.canAppendTo(snapshot));
+
+        journal.invalidate();
+        assertFalse(journal.canAppendTo(snapshot));
+        journal.reset();
+        assertTrue(journal.canAppendTo(snapshot));
+    }
+
+    @Test
+    void replayReportsProgressInBytes() throws IOException {
+        GraphModel graph = triangle();
+        Path snapshot = snapshot(graph);
+        EditJournal journal = new EditJournal();
+        for (int i = 0; i < 3 * ProgressMonitor.PROGRESS_STEP; i++) {
+            journal.addVertex("v" + i, i, i);
+        }
+        EditJournal.append(snapshot, journal.drain(graph));
+        long journalSize = Files.size(EditJournal.pathOf(snapshot));
+        long[] last = {-1, -1};
+        ProgressMonitor monitor = new ProgressMonitor() {
+            @Override
+            public void progress(long done, long total) {
+                last[0] = done;
+                last[1] = total;
+            }
+
+            @Override
+            public boolean isCancelled() {
+                return false;
+            }
+        };
+        GraphModel read = PlainGraphReader.read(snapshot);
+        assertEquals(3 * ProgressMonitor.PROGRESS_STEP, EditJournal.replay(read, snapshot, monitor));
+        //last checkpoint falls on the last record
+        assertArrayEquals(new long[] {journalSize, journalSize}, last);
+    }
+}
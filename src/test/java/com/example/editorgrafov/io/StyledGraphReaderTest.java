@@ -0,0 +1,100 @@
+package com.example.editorgrafov.io;
+
+import com.example.editorgrafov.model.GraphModel;
+import com.example.editorgrafov.style.EdgeStyle;
+import com.example.editorgrafov.style.StyleTable;
+import com.example.editorgrafov.style.VertexStyle;
+import javafx.scene.paint.Color;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StyledGraphReaderTest {
+
+    @TempDir
+    Path directory;
+
+    private final StyleTable<VertexStyle> vertexStyles = new StyleTable<>();
+    private final StyleTable<EdgeStyle> edgeStyles = new StyleTable<>();
+
+    private Path file(String... lines) throws IOException {
+        Path path = directory.resolve("graph.txt");
+        Files.write(path, Arrays.asList(lines), StandardCharsets.UTF_8);
+        return path;
+    }
+
+    private GraphModel read(Path path) throws IOException {
+        return StyledGraphReader.read(path, vertexStyles, edgeStyles, ProgressMonitor.NONE);
+    }
+
+    @Test
+    void writtenGraphIsReadBackWithStyles() throws IOException {
+        VertexStyle red = new VertexStyle(Color.RED, "DejaVu Sans Mono", 14, 40);
+        EdgeStyle blue = new EdgeStyle(Color.BLUE, 3);
+        vertexStyles.intern(VertexStyle.DEFAULT);
+        edgeStyles.intern(EdgeStyle.DEFAULT);
+        GraphModel graph = new GraphModel();
+        int a = graph.addVertex("a", 1.5, 2.5);
+        int b = graph.addVertex("b", 10, 20);
+        graph.setVertexStyle(b, vertexStyles.intern(red));
+        graph.setEdgeStyle(graph.addEdge(a, b), edgeStyles.intern(blue));
+        Path path = directory.resolve("graph.txt");
+        StyledGraphWriter.write(graph, vertexStyles, edgeStyles, path, ProgressMonitor.NONE);
+        assertEquals(GraphFormat.STYLED, GraphFormat.detect(path));
+
+        GraphModel read = read(path);
+        assertEquals(2, read.vertexCount());
+        assertEquals(1.5, read.getX(read.indexOf("a")));
+        assertEquals(VertexStyle.DEFAULT, vertexStyles.get(read.getVertexStyle(read.indexOf("a"))));
+        assertEquals(red, vertexStyles.get(read.getVertexStyle(read.indexOf("b"))));
+        int edge = read.findEdge(read.indexOf("a"), read.indexOf("b"));
+        assertEquals(blue, edgeStyles.get(read.getEdgeStyle(edge)));
+    }
+
+    @Test
+    void fileOfOlderVersionIsRead() throws IOException {
+        Path path = file("3",
+                "V a 10.0 20.0 0xff0000ff 40 14 DejaVu Sans Mono",
+                "V b 30.0 40.0 0xffff00ff 30 12 System Regular",
+                "E a b 0x0000ffff 3");
+        assertEquals(GraphFormat.STYLED, GraphFormat.detect(path));
+
+        GraphModel read = read(path);
+        assertEquals(2, read.vertexCount());
+        assertEquals(20.0, read.getY(read.indexOf("a")));
+        VertexStyle a = vertexStyles.get(read.getVertexStyle(read.indexOf("a")));
+        assertEquals(Color.RED, a.getFill());
+        assertEquals(40, a.getRadius());
+        assertEquals(14, a.getTextSize());
+        assertEquals("DejaVu Sans Mono", a.getFontName());
+        int edge = read.findEdge(read.indexOf("a"), read.indexOf("b"));
+        assertTrue(edge != -1);
+        assertEquals(new EdgeStyle(Color.BLUE, 3), edgeStyles.get(read.getEdgeStyle(edge)));
+    }
+
+    @Test
+    void equalStylesOfOlderVersionAreShared() throws IOException {
+        Path path = file("2",
+                "V a 0 0 0xffff00ff 30 12 System",
+                "V b 1 1 0xffff00ff 30 12 System");
+        GraphModel read = read(path);
+        assertEquals(read.getVertexStyle(read.indexOf("a")), read.getVertexStyle(read.indexOf("b")));
+        assertEquals(1, vertexStyles.size());
+    }
+
+    @Test
+    void lineOfNeitherLayoutIsRejected() throws IOException {
+        assertThrows(IOException.class, () -> read(file("1", "V a 0 0 0xffff00ff 30")));
+        assertThrows(IOException.class, () -> read(file("2", "V a 0 0 0xffff00ff 30 12 System", "E a a 0x000000ff")));
+        assertThrows(IOException.class, () -> read(file("1", "V a 0 0 7")));
+    }
+}
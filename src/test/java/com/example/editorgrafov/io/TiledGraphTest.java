@@ -0,0 +1,73 @@
+package com.example.editorgrafov.io;
+
+import com.example.editorgrafov.model.GraphModel;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TiledGraphTest {
+
+    @TempDir
+    Path directory;
+
+    private static GraphModel path(int n) {
+        GraphModel graph = new GraphModel();
+        for (int i = 0; i < n; i++) {
+            graph.addVertex("v" + i, 10 * i, i % 7);
+            if (i > 0) graph.addEdge(i - 1, i);
+        }
+        return graph;
+    }
+
+    @Test
+    void storeOfPlainFileIsReused() throws IOException {
+        Path source = directory.resolve("graph.txt");
+        PlainGraphWriter.write(path(100), source);
+        Path store = TiledGraphFormat.pathOf(source);
+        assertFalse(TiledGraph.isCurrent(store, source));
+        try (TiledGraph tiled = TiledGraph.open(source, ProgressMonitor.NONE)) {
+            assertEquals(100, tiled.vertexCount());
+            assertEquals(99, tiled.edgeCount());
+        }
+        assertTrue(TiledGraph.isCurrent(store, source));
+    }
+
+    @Test
+    void journalOfSourceIsApplied() throws IOException {
+        GraphModel graph = path(100);
+        Path source = directory.resolve("graph.txt");
+        PlainGraphWriter.write(graph, source);
+        Path store = TiledGraphFormat.pathOf(source);
+        try (TiledGraph tiled = TiledGraph.open(source, ProgressMonitor.NONE)) {
+            assertEquals(100, tiled.vertexCount());
+        }
+
+        //save appends edits into journal, source itself stays the same
+        EditJournal journal = new EditJournal();
+        graph.removeVertex(graph.indexOf("v0"));
+        journal.removeVertex("v0");
+        int added = graph.addVertex("added", 5000, 5000);
+        journal.addVertex("added", 5000, 5000);
+        graph.addEdge(graph.indexOf("v99"), added);
+        journal.addEdge("v99", "added");
+        EditJournal.append(source, journal.drain(graph));
+        assertFalse(TiledGraph.isCurrent(store, source));
+
+        try (TiledGraph tiled = TiledGraph.open(source, ProgressMonitor.NONE)) {
+            assertEquals(100, tiled.vertexCount());
+            assertEquals(99, tiled.edgeCount());
+            assertEquals(5000, tiled.getMaxX());
+        }
+        assertTrue(TiledGraph.isCurrent(store, source));
+
+        //source written whole again without journal
+        EditJournal.delete(source);
+        assertFalse(TiledGraph.isCurrent(store, source));
+    }
+}